@@ -0,0 +1,41 @@
+package br.com.brasilti.utils;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks do projeto, medindo vazao e alocacao, e grava os resultados em JSON para comparacao entre
+ * versoes.
+ * <p>
+ * Argumentos opcionais: o arquivo de resultados (padrao bench_output.json) e uma expressao regular que filtra os
+ * benchmarks executados (padrao todos).
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public class BenchmarkRunner {
+
+	private static final String DEFAULT_RESULT = "bench_output.json";
+
+	private static final String DEFAULT_INCLUDE = "br\\.com\\.brasilti\\.utils\\..*Benchmark";
+
+	public static void main(String[] args) throws RunnerException {
+		String result = args.length > 0 ? args[0] : DEFAULT_RESULT;
+		String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(result)
+				.build();
+
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,59 @@
+package br.com.brasilti.utils.collection;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class CollectionUtilBenchmark {
+
+	@Param({ "1", "10", "1000" })
+	private int size;
+
+	private String[] varargs;
+
+	private long[] ids;
+
+	@Setup
+	public void setup() {
+		this.varargs = new String[this.size];
+		for (int i = 0; i < this.size; i++) {
+			this.varargs[i] = String.valueOf(i);
+		}
+
+		this.ids = new long[this.size];
+		for (int i = 0; i < this.size; i++) {
+			this.ids[i] = i * 31L;
+		}
+	}
+
+	@Benchmark
+	public List<String> convert() {
+		return CollectionUtil.convert(this.varargs);
+	}
+
+	@Benchmark
+	public List<String> view() {
+		return CollectionUtil.view(this.varargs);
+	}
+
+	@Benchmark
+	public List<String> immutable() {
+		return CollectionUtil.immutable(this.varargs);
+	}
+
+	@Benchmark
+	public LongList convertToLongList() {
+		return CollectionUtil.convertToLongList(this.ids);
+	}
+
+	@Benchmark
+	public LongHashSet convertToLongSet() {
+		return CollectionUtil.convertToLongSet(this.ids);
+	}
+
+}
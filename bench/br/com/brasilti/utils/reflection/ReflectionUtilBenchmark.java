@@ -0,0 +1,272 @@
+package br.com.brasilti.utils.reflection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComId;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+import br.com.brasilti.utils.reflection.examples.ClasseDeTransferencia;
+
+@State(Scope.Thread)
+public class ReflectionUtilBenchmark {
+
+	private Field stringField;
+
+	private ClasseComAtributosPadrao origin;
+
+	private ClasseComAtributosPadrao target;
+
+	private PropertyPath path;
+
+	private ClasseComReferencias neto;
+
+	private BinaryCodec<ClasseComAtributosPadrao> codec;
+
+	private ByteBuffer buffer;
+
+	private byte[] encoded;
+
+	private byte[] serialized;
+
+	private JsonCodec<ClasseComAtributosPadrao> json;
+
+	private StringBuilder text;
+
+	private String written;
+
+	private BeanMapper<ClasseComAtributosPadrao, ClasseDeTransferencia> mapper;
+
+	private ClasseDeTransferencia transferencia;
+
+	private Instantiator<ClasseComAtributosPadrao> pool;
+
+	private SnapshotStore<ClasseComAtributosPadrao> store;
+
+	private Field longField;
+
+	private List<ClasseComAtributosPadrao> entities;
+
+	private ColumnarBatch<ClasseComAtributosPadrao> batch;
+
+	@Setup
+	public void setup() throws IOException {
+		this.stringField = ReflectionUtil.getField("stringField", ClasseComAtributosPadrao.class);
+
+		this.origin = new ClasseComAtributosPadrao();
+		this.origin.setStringField("Origem");
+		this.origin.setIntegerField(1000);
+		this.origin.setLongField(1000L);
+		this.origin.setBigDecimalField(BigDecimal.valueOf(1000));
+		this.origin.setBooleanField(Boolean.TRUE);
+		this.origin.setCalendarField(Calendar.getInstance());
+		this.origin.setByteField(new byte[64]);
+
+		this.target = new ClasseComAtributosPadrao();
+
+		this.path = PropertyPath.compile(ClasseComReferencias.class, "pai.pai.nome");
+		ClasseComReferencias avo = new ClasseComReferencias("Avo");
+		avo.adicionar(new ClasseComReferencias("Pai"));
+		this.neto = new ClasseComReferencias("Neto");
+		avo.getFilhos().get(0).adicionar(this.neto);
+
+		this.codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+		this.buffer = ByteBuffer.allocate(1024);
+		this.encoded = this.codec.encode(this.origin);
+		this.serialized = this.serialize();
+
+		this.json = JsonCodec.forClass(ClasseComAtributosPadrao.class);
+		this.text = new StringBuilder(1024);
+		this.json.write(this.origin, this.text);
+		this.written = this.text.toString();
+
+		this.mapper = BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class);
+		this.transferencia = new ClasseDeTransferencia();
+
+		this.pool = Instantiator.forClass(ClasseComAtributosPadrao.class).pooled(16);
+
+		this.store = new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class);
+		this.store.add(this.origin);
+
+		this.longField = ReflectionUtil.getField("longField", ClasseComAtributosPadrao.class);
+		this.entities = new ArrayList<ClasseComAtributosPadrao>();
+		for (int i = 0; i < 1000; i++) {
+			ClasseComAtributosPadrao entity = new ClasseComAtributosPadrao();
+			entity.setLongField(Long.valueOf(i));
+			this.entities.add(entity);
+		}
+		this.batch = ColumnarBatch.of(ClasseComAtributosPadrao.class, this.entities);
+	}
+
+	@Benchmark
+	public Object get() {
+		return ReflectionUtil.get(this.stringField, this.origin);
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao set() {
+		ReflectionUtil.set("Destino", this.stringField, this.target);
+		return this.target;
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao copy() {
+		ReflectionUtil.copy(this.origin, this.target);
+		return this.target;
+	}
+
+	@Benchmark
+	public List<Field> getPersistentFields() {
+		return ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class);
+	}
+
+	@Benchmark
+	public boolean hasField() {
+		return ReflectionUtil.hasField(ClasseComId.class, "id");
+	}
+
+	@Benchmark
+	public boolean hasFieldAusente() {
+		return ReflectionUtil.hasField(ClasseComId.class, "inexistente");
+	}
+
+	@Benchmark
+	public boolean hasMethod() {
+		return ReflectionUtil.hasMethod(ClasseComId.class, "getId");
+	}
+
+	@Benchmark
+	public Object getPropertyPath() {
+		return this.path.get(this.neto);
+	}
+
+	@Benchmark
+	public ByteBuffer encodeBinaryCodec() {
+		this.buffer.clear();
+		return this.codec.encode(this.origin, this.buffer);
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao decodeBinaryCodec() {
+		return this.codec.decode(this.encoded);
+	}
+
+	@Benchmark
+	public byte[] encodeObjectOutputStream() throws IOException {
+		return this.serialize();
+	}
+
+	@Benchmark
+	public Object decodeObjectInputStream() throws IOException, ClassNotFoundException {
+		ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(this.serialized));
+		try {
+			return input.readObject();
+		} finally {
+			input.close();
+		}
+	}
+
+	@Benchmark
+	public StringBuilder writeJson() throws IOException {
+		this.text.setLength(0);
+		this.json.write(this.origin, this.text);
+		return this.text;
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao readJson() throws IOException {
+		return this.json.read(new StringReader(this.written));
+	}
+
+	@Benchmark
+	public boolean equalsByFields() {
+		return EqualityStrategy.byFields(ClasseComAtributosPadrao.class).equals(this.origin, this.target);
+	}
+
+	@Benchmark
+	public int hashCodeByFields() {
+		return EqualityStrategy.byFields(ClasseComAtributosPadrao.class).hashCode(this.origin);
+	}
+
+	@Benchmark
+	public ClasseDeTransferencia mapBeanMapper() {
+		this.mapper.map(this.origin, this.transferencia);
+		return this.transferencia;
+	}
+
+	@Benchmark
+	public ClasseDeTransferencia mapManual() {
+		this.transferencia.setStringField(this.origin.getStringField());
+		this.transferencia.setIntegerField(this.origin.getIntegerField());
+		this.transferencia.setLongField(this.origin.getLongField());
+		this.transferencia.setCalendarField(this.origin.getCalendarField());
+		this.transferencia.setByteField(this.origin.getByteField());
+		return this.transferencia;
+	}
+
+	@Benchmark
+	public long getRetainedSize() {
+		return MemoryEstimator.getRetainedSize(this.neto);
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao newInstance() {
+		return ReflectionUtil.newInstance(ClasseComAtributosPadrao.class);
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao acquireRelease() {
+		ClasseComAtributosPadrao copy = this.pool.acquire(this.origin);
+		this.pool.release(copy);
+		return copy;
+	}
+
+	@Benchmark
+	public long getLongSnapshotStore() {
+		return this.store.getLong(0, "longField");
+	}
+
+	@Benchmark
+	public ClasseComAtributosPadrao materializeSnapshotStore() {
+		return this.store.materialize(0);
+	}
+
+	@Benchmark
+	public long sumReflectionUtil() {
+		long sum = 0;
+		for (ClasseComAtributosPadrao entity : this.entities) {
+			sum += (Long) ReflectionUtil.get(this.longField, entity);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long sumColumnarBatch() {
+		return this.batch.sumLong("longField", null);
+	}
+
+	private byte[] serialize() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+		output.writeObject(this.origin);
+		output.close();
+
+		return bytes.toByteArray();
+	}
+
+}
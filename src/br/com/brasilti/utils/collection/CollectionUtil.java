@@ -1,7 +1,14 @@
 package br.com.brasilti.utils.collection;
 
+import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
 /**
  * Agrupa metodos estaticos com o objetivo de facilitar a manipulacao de colecoes.
@@ -25,13 +32,311 @@ public class CollectionUtil {
 			throw new IllegalArgumentException();
 		}
 
-		List<T> list = new ArrayList<T>();
+		return new ArrayList<T>(Arrays.asList(varargs));
+	}
 
-		for (int i = 0; i < varargs.length; i++) {
-			list.add(varargs[i]);
+	/**
+	 * Retorna uma visao imutavel de um determinado varargs, sem copia-lo. Alteracoes posteriores no array sao refletidas
+	 * na lista retornada, por isso o array nao deve ser alterado enquanto a visao estiver em uso.
+	 * 
+	 * @param varargs
+	 * @return Lista imutavel de elementos.
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 */
+	public static <T> List<T> view(T... varargs) {
+		if (varargs == null) {
+			throw new IllegalArgumentException();
 		}
 
+		return new ArrayView<T>(varargs);
+	}
+
+	/**
+	 * Converte um determinado varargs em uma lista imutavel. Listas de ate dois elementos sao representadas sem array;
+	 * as demais guardam uma copia do varargs.
+	 * 
+	 * @param varargs
+	 * @return Lista imutavel de elementos.
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 */
+	public static <T> List<T> immutable(T... varargs) {
+		if (varargs == null) {
+			throw new IllegalArgumentException();
+		}
+
+		switch (varargs.length) {
+		case 0:
+			return Collections.emptyList();
+		case 1:
+			return Collections.singletonList(varargs[0]);
+		case 2:
+			return new PairList<T>(varargs[0], varargs[1]);
+		default:
+			return new ArrayView<T>(varargs.clone());
+		}
+	}
+
+	/**
+	 * Converte um determinado varargs de int em uma lista sem empacotamento. Cada elemento do varargs ocupara a mesma
+	 * posicao na lista retornada.
+	 * 
+	 * @param varargs
+	 * @return Lista de valores.
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 * @see IntList#asList()
+	 */
+	public static IntList convertToIntList(int... varargs) {
+		if (varargs == null) {
+			throw new IllegalArgumentException();
+		}
+
+		IntList list = new IntList(varargs.length);
+		list.addAll(varargs);
+
 		return list;
 	}
 
+	/**
+	 * Converte um determinado varargs de long em uma lista sem empacotamento. Cada elemento do varargs ocupara a mesma
+	 * posicao na lista retornada.
+	 * 
+	 * @param varargs
+	 * @return Lista de valores.
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 * @see LongList#asList()
+	 */
+	public static LongList convertToLongList(long... varargs) {
+		if (varargs == null) {
+			throw new IllegalArgumentException();
+		}
+
+		LongList list = new LongList(varargs.length);
+		list.addAll(varargs);
+
+		return list;
+	}
+
+	/**
+	 * Converte um determinado varargs de long em um conjunto sem empacotamento. Valores repetidos sao registrados uma
+	 * unica vez.
+	 * 
+	 * @param varargs
+	 * @return Conjunto de valores.
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 * @see LongHashSet#asSet()
+	 */
+	public static LongHashSet convertToLongSet(long... varargs) {
+		if (varargs == null) {
+			throw new IllegalArgumentException();
+		}
+
+		LongHashSet set = new LongHashSet(varargs.length);
+		set.addAll(varargs);
+
+		return set;
+	}
+
+	/**
+	 * Divide uma lista em sublistas consecutivas de um determinado tamanho. A ultima sublista pode ser menor. As
+	 * sublistas sao visoes da lista original, obtidas por {@link List#subList(int, int)} apenas quando acessadas, de
+	 * modo que nenhum elemento e copiado.
+	 * 
+	 * @param list
+	 * @param size
+	 *            Tamanho de cada sublista.
+	 * @return Lista de sublistas.
+	 * @exception IllegalArgumentException
+	 *                se a lista for nula ou o tamanho nao for positivo.
+	 */
+	public static <T> List<List<T>> partition(List<T> list, int size) {
+		if (list == null || size <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Partition<T>(list, size);
+	}
+
+	/**
+	 * Retorna as janelas deslizantes de uma lista: a janela de posicao i contem os elementos de i ate i + size - 1. As
+	 * janelas sao visoes da lista original, sem copia dos elementos.
+	 * 
+	 * @param list
+	 * @param size
+	 *            Tamanho de cada janela.
+	 * @return Lista de janelas, vazia se a lista tiver menos elementos que o tamanho da janela.
+	 * @exception IllegalArgumentException
+	 *                se a lista for nula ou o tamanho nao for positivo.
+	 */
+	public static <T> List<List<T>> windows(List<T> list, int size) {
+		if (list == null || size <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Windows<T>(list, size);
+	}
+
+	/**
+	 * Agrupa os elementos de um iterador em blocos de um determinado tamanho, consumindo o iterador apenas a medida que
+	 * os blocos sao solicitados. Cada bloco e uma nova lista; para listas, {@link #partition(List, int)} evita a copia.
+	 * 
+	 * @param iterator
+	 * @param size
+	 *            Tamanho de cada bloco.
+	 * @return Iterador de blocos.
+	 * @exception IllegalArgumentException
+	 *                se o iterador for nulo ou o tamanho nao for positivo.
+	 */
+	public static <T> Iterator<List<T>> chunk(final Iterator<T> iterator, final int size) {
+		if (iterator == null || size <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Iterator<List<T>>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public List<T> next() {
+				if (!iterator.hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				List<T> chunk = new ArrayList<T>(size);
+				while (chunk.size() < size && iterator.hasNext()) {
+					chunk.add(iterator.next());
+				}
+
+				return chunk;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	private static final class ArrayView<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T[] elements;
+
+		private ArrayView(T[] elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		public T get(int index) {
+			return this.elements[index];
+		}
+
+		@Override
+		public int size() {
+			return this.elements.length;
+		}
+
+		@Override
+		public Object[] toArray() {
+			return Arrays.copyOf(this.elements, this.elements.length, Object[].class);
+		}
+
+	}
+
+	private static final class PairList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T first;
+
+		private final T second;
+
+		private PairList(T first, T second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public T get(int index) {
+			if (index == 0) {
+				return this.first;
+			} else if (index == 1) {
+				return this.second;
+			}
+
+			throw new IndexOutOfBoundsException();
+		}
+
+		@Override
+		public int size() {
+			return 2;
+		}
+
+	}
+
+	private static final class Partition<T> extends AbstractList<List<T>> {
+
+		private final List<T> list;
+
+		private final int size;
+
+		private Partition(List<T> list, int size) {
+			this.list = list;
+			this.size = size;
+		}
+
+		@Override
+		public List<T> get(int index) {
+			if (index < 0 || index >= this.size()) {
+				throw new IndexOutOfBoundsException();
+			}
+
+			int from = index * this.size;
+			return this.list.subList(from, Math.min(from + this.size, this.list.size()));
+		}
+
+		@Override
+		public int size() {
+			int length = this.list.size();
+			return length / this.size + (length % this.size == 0 ? 0 : 1);
+		}
+
+	}
+
+	private static final class Windows<T> extends AbstractList<List<T>> {
+
+		private final List<T> list;
+
+		private final int size;
+
+		private Windows(List<T> list, int size) {
+			this.list = list;
+			this.size = size;
+		}
+
+		@Override
+		public List<T> get(int index) {
+			if (index < 0 || index >= this.size()) {
+				throw new IndexOutOfBoundsException();
+			}
+
+			return this.list.subList(index, index + this.size);
+		}
+
+		@Override
+		public int size() {
+			return Math.max(this.list.size() - this.size + 1, 0);
+		}
+
+	}
+
 }
@@ -0,0 +1,289 @@
+package br.com.brasilti.utils.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lista de valores do tipo int armazenados em um array, sem empacotamento.
+ * <p>
+ * A visao retornada por {@link #asList()} permite usar a lista onde um {@link List} de {@link Integer} e esperado. As
+ * alteracoes feitas pela visao sao refletidas na lista e vice-versa.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class IntList {
+
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private int[] elements;
+
+	private int size;
+
+	/**
+	 * Cria uma lista vazia.
+	 */
+	public IntList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Cria uma lista vazia com uma determinada capacidade inicial.
+	 * 
+	 * @param capacity
+	 * @exception IllegalArgumentException
+	 *                se a capacidade for negativa.
+	 */
+	public IntList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.elements = new int[capacity];
+	}
+
+	/**
+	 * Retorna o numero de elementos da lista.
+	 * 
+	 * @return Numero de elementos.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Indica que a lista nao possui elementos.
+	 * 
+	 * @return true se a lista esta vazia.
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Acrescenta um valor ao final da lista.
+	 * 
+	 * @param value
+	 */
+	public void add(int value) {
+		this.ensureCapacity(this.size + 1);
+		this.elements[this.size++] = value;
+	}
+
+	/**
+	 * Insere um valor em uma determinada posicao, deslocando os elementos seguintes.
+	 * 
+	 * @param index
+	 * @param value
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public void add(int index, int value) {
+		if (index < 0 || index > this.size) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		this.ensureCapacity(this.size + 1);
+		System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
+		this.elements[index] = value;
+		this.size++;
+	}
+
+	/**
+	 * Acrescenta os valores ao final da lista, na mesma ordem.
+	 * 
+	 * @param values
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 */
+	public void addAll(int... values) {
+		if (values == null) {
+			throw new IllegalArgumentException();
+		}
+
+		this.ensureCapacity(this.size + values.length);
+		System.arraycopy(values, 0, this.elements, this.size, values.length);
+		this.size += values.length;
+	}
+
+	/**
+	 * Retorna o valor de uma determinada posicao.
+	 * 
+	 * @param index
+	 * @return Valor.
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public int get(int index) {
+		this.checkIndex(index);
+		return this.elements[index];
+	}
+
+	/**
+	 * Substitui o valor de uma determinada posicao.
+	 * 
+	 * @param index
+	 * @param value
+	 * @return Valor anterior.
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public int set(int index, int value) {
+		this.checkIndex(index);
+
+		int previous = this.elements[index];
+		this.elements[index] = value;
+		return previous;
+	}
+
+	/**
+	 * Remove o valor de uma determinada posicao, deslocando os elementos seguintes.
+	 * 
+	 * @param index
+	 * @return Valor removido.
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public int removeAt(int index) {
+		this.checkIndex(index);
+
+		int previous = this.elements[index];
+		System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+		this.size--;
+		return previous;
+	}
+
+	/**
+	 * Retorna a primeira posicao de um determinado valor.
+	 * 
+	 * @param value
+	 * @return -1 se a lista nao contiver o valor.
+	 */
+	public int indexOf(int value) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.elements[i] == value) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Indica que a lista contem um determinado valor.
+	 * 
+	 * @param value
+	 * @return true se a lista contem o valor.
+	 */
+	public boolean contains(int value) {
+		return this.indexOf(value) >= 0;
+	}
+
+	/**
+	 * Remove todos os elementos da lista, mantendo a capacidade.
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Retorna uma copia dos elementos da lista.
+	 * 
+	 * @return Array de valores.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(this.elements, this.size);
+	}
+
+	/**
+	 * Retorna uma visao da lista como {@link List} de {@link Integer}. A visao nao aceita elementos nulos.
+	 * 
+	 * @return Visao da lista.
+	 */
+	public List<Integer> asList() {
+		return new AbstractList<Integer>() {
+
+			@Override
+			public Integer get(int index) {
+				return IntList.this.get(index);
+			}
+
+			@Override
+			public Integer set(int index, Integer element) {
+				return IntList.this.set(index, element);
+			}
+
+			@Override
+			public void add(int index, Integer element) {
+				IntList.this.add(index, element);
+				this.modCount++;
+			}
+
+			@Override
+			public Integer remove(int index) {
+				Integer previous = IntList.this.removeAt(index);
+				this.modCount++;
+				return previous;
+			}
+
+			@Override
+			public int size() {
+				return IntList.this.size;
+			}
+
+		};
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IntList)) {
+			return false;
+		}
+
+		IntList other = (IntList) obj;
+		if (this.size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < this.size; i++) {
+			if (this.elements[i] != other.elements[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < this.size; i++) {
+			hash = 31 * hash + this.elements[i];
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.elements.length) {
+			int length = Math.max(capacity, this.elements.length + (this.elements.length >> 1) + 1);
+			this.elements = Arrays.copyOf(this.elements, length);
+		}
+	}
+
+}
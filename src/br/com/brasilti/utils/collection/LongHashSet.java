@@ -0,0 +1,379 @@
+package br.com.brasilti.utils.collection;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Conjunto de valores do tipo long, sem empacotamento.
+ * <p>
+ * Os valores sao armazenados diretamente em um array com enderecamento aberto e sondagem linear. O valor zero marca as
+ * posicoes livres e, por isso, e registrado a parte. A remocao desloca os valores seguintes do mesmo grupo, de modo que
+ * nao sao deixadas marcas de remocao no array.
+ * <p>
+ * A visao retornada por {@link #asSet()} permite usar o conjunto onde um {@link Set} de {@link Long} e esperado.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class LongHashSet {
+
+	static final int DEFAULT_CAPACITY = 16;
+
+	static final float LOAD_FACTOR = 0.75f;
+
+	private long[] keys;
+
+	private boolean hasZero;
+
+	private int size;
+
+	private int threshold;
+
+	/**
+	 * Cria um conjunto vazio.
+	 */
+	public LongHashSet() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Cria um conjunto vazio capaz de receber um determinado numero de valores sem ser redimensionado.
+	 * 
+	 * @param expectedSize
+	 * @exception IllegalArgumentException
+	 *                se o numero de valores for negativo.
+	 */
+	public LongHashSet(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.allocate(tableSize(expectedSize));
+	}
+
+	/**
+	 * Retorna o numero de valores do conjunto.
+	 * 
+	 * @return Numero de valores.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Indica que o conjunto nao possui valores.
+	 * 
+	 * @return true se o conjunto esta vazio.
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Indica que o conjunto contem um determinado valor.
+	 * 
+	 * @param value
+	 * @return true se o conjunto contem o valor.
+	 */
+	public boolean contains(long value) {
+		if (value == 0) {
+			return this.hasZero;
+		}
+
+		return this.keys[this.find(value)] == value;
+	}
+
+	/**
+	 * Acrescenta um valor ao conjunto.
+	 * 
+	 * @param value
+	 * @return true se o conjunto nao continha o valor.
+	 */
+	public boolean add(long value) {
+		if (value == 0) {
+			if (this.hasZero) {
+				return false;
+			}
+
+			this.hasZero = true;
+			this.size++;
+			return true;
+		}
+
+		int slot = this.find(value);
+		if (this.keys[slot] == value) {
+			return false;
+		}
+
+		this.keys[slot] = value;
+		if (++this.size > this.threshold) {
+			this.rehash(this.keys.length << 1);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Acrescenta os valores ao conjunto.
+	 * 
+	 * @param values
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 */
+	public void addAll(long... values) {
+		if (values == null) {
+			throw new IllegalArgumentException();
+		}
+
+		for (long value : values) {
+			this.add(value);
+		}
+	}
+
+	/**
+	 * Remove um valor do conjunto.
+	 * 
+	 * @param value
+	 * @return true se o conjunto continha o valor.
+	 */
+	public boolean remove(long value) {
+		if (value == 0) {
+			if (!this.hasZero) {
+				return false;
+			}
+
+			this.hasZero = false;
+			this.size--;
+			return true;
+		}
+
+		int slot = this.find(value);
+		if (this.keys[slot] != value) {
+			return false;
+		}
+
+		this.shift(slot);
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Remove todos os valores do conjunto, mantendo a capacidade.
+	 */
+	public void clear() {
+		Arrays.fill(this.keys, 0);
+		this.hasZero = false;
+		this.size = 0;
+	}
+
+	/**
+	 * Retorna os valores do conjunto, sem ordem definida.
+	 * 
+	 * @return Array de valores.
+	 */
+	public long[] toArray() {
+		long[] values = new long[this.size];
+
+		int i = 0;
+		if (this.hasZero) {
+			values[i++] = 0;
+		}
+		for (long key : this.keys) {
+			if (key != 0) {
+				values[i++] = key;
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Retorna uma visao do conjunto como {@link Set} de {@link Long}. A visao nao aceita elementos nulos e o seu
+	 * iterador nao permite remocao.
+	 * 
+	 * @return Visao do conjunto.
+	 */
+	public Set<Long> asSet() {
+		return new AbstractSet<Long>() {
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof Long && LongHashSet.this.contains((Long) o);
+			}
+
+			@Override
+			public boolean add(Long e) {
+				return LongHashSet.this.add(e);
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				return o instanceof Long && LongHashSet.this.remove((Long) o);
+			}
+
+			@Override
+			public void clear() {
+				LongHashSet.this.clear();
+			}
+
+			@Override
+			public Iterator<Long> iterator() {
+				return new Iterator<Long>() {
+
+					private final long[] keys = LongHashSet.this.keys;
+
+					private boolean zero = LongHashSet.this.hasZero;
+
+					private int slot = this.advance(0);
+
+					@Override
+					public boolean hasNext() {
+						return this.zero || this.slot < this.keys.length;
+					}
+
+					@Override
+					public Long next() {
+						if (this.zero) {
+							this.zero = false;
+							return 0L;
+						}
+						if (this.slot >= this.keys.length) {
+							throw new NoSuchElementException();
+						}
+
+						long key = this.keys[this.slot];
+						this.slot = this.advance(this.slot + 1);
+						return key;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+					private int advance(int slot) {
+						while (slot < this.keys.length && this.keys[slot] == 0) {
+							slot++;
+						}
+
+						return slot;
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				return LongHashSet.this.size;
+			}
+
+		};
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LongHashSet)) {
+			return false;
+		}
+
+		LongHashSet other = (LongHashSet) obj;
+		if (this.size != other.size || this.hasZero != other.hasZero) {
+			return false;
+		}
+		for (long key : this.keys) {
+			if (key != 0 && !other.contains(key)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (long key : this.keys) {
+			hash += (int) (key ^ (key >>> 32));
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+	/**
+	 * Espalha os bits do valor antes de reduzi-lo ao tamanho da tabela, evitando agrupamentos de valores sequenciais.
+	 */
+	static int mix(long value) {
+		long hash = value * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Retorna o menor tamanho de tabela, potencia de dois, que comporta o numero de valores informado.
+	 */
+	static int tableSize(int expectedSize) {
+		int capacity = Math.max((int) Math.ceil(expectedSize / LOAD_FACTOR), 2);
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+	/**
+	 * Retorna a posicao do valor ou a posicao livre em que ele deve ser inserido.
+	 */
+	private int find(long value) {
+		int mask = this.keys.length - 1;
+		int slot = mix(value) & mask;
+
+		long key;
+		while ((key = this.keys[slot]) != 0 && key != value) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	private void shift(int slot) {
+		int mask = this.keys.length - 1;
+
+		int free = slot;
+		int next = (free + 1) & mask;
+		long key;
+		while ((key = this.keys[next]) != 0) {
+			int home = mix(key) & mask;
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				this.keys[free] = key;
+				free = next;
+			}
+			next = (next + 1) & mask;
+		}
+
+		this.keys[free] = 0;
+	}
+
+	private void allocate(int length) {
+		this.keys = new long[length];
+		this.threshold = (int) (length * LOAD_FACTOR);
+	}
+
+	private void rehash(int length) {
+		long[] keys = this.keys;
+		this.allocate(length);
+
+		for (long key : keys) {
+			if (key != 0) {
+				this.keys[this.find(key)] = key;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,290 @@
+package br.com.brasilti.utils.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lista de valores do tipo long armazenados em um array, sem empacotamento.
+ * <p>
+ * A visao retornada por {@link #asList()} permite usar a lista onde um {@link List} de {@link Long} e esperado. As
+ * alteracoes feitas pela visao sao refletidas na lista e vice-versa.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class LongList {
+
+	private static final int DEFAULT_CAPACITY = 10;
+
+	private long[] elements;
+
+	private int size;
+
+	/**
+	 * Cria uma lista vazia.
+	 */
+	public LongList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Cria uma lista vazia com uma determinada capacidade inicial.
+	 * 
+	 * @param capacity
+	 * @exception IllegalArgumentException
+	 *                se a capacidade for negativa.
+	 */
+	public LongList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.elements = new long[capacity];
+	}
+
+	/**
+	 * Retorna o numero de elementos da lista.
+	 * 
+	 * @return Numero de elementos.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Indica que a lista nao possui elementos.
+	 * 
+	 * @return true se a lista esta vazia.
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Acrescenta um valor ao final da lista.
+	 * 
+	 * @param value
+	 */
+	public void add(long value) {
+		this.ensureCapacity(this.size + 1);
+		this.elements[this.size++] = value;
+	}
+
+	/**
+	 * Insere um valor em uma determinada posicao, deslocando os elementos seguintes.
+	 * 
+	 * @param index
+	 * @param value
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public void add(int index, long value) {
+		if (index < 0 || index > this.size) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		this.ensureCapacity(this.size + 1);
+		System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
+		this.elements[index] = value;
+		this.size++;
+	}
+
+	/**
+	 * Acrescenta os valores ao final da lista, na mesma ordem.
+	 * 
+	 * @param values
+	 * @exception IllegalArgumentException
+	 *                se o varargs for nulo.
+	 */
+	public void addAll(long... values) {
+		if (values == null) {
+			throw new IllegalArgumentException();
+		}
+
+		this.ensureCapacity(this.size + values.length);
+		System.arraycopy(values, 0, this.elements, this.size, values.length);
+		this.size += values.length;
+	}
+
+	/**
+	 * Retorna o valor de uma determinada posicao.
+	 * 
+	 * @param index
+	 * @return Valor.
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public long get(int index) {
+		this.checkIndex(index);
+		return this.elements[index];
+	}
+
+	/**
+	 * Substitui o valor de uma determinada posicao.
+	 * 
+	 * @param index
+	 * @param value
+	 * @return Valor anterior.
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public long set(int index, long value) {
+		this.checkIndex(index);
+
+		long previous = this.elements[index];
+		this.elements[index] = value;
+		return previous;
+	}
+
+	/**
+	 * Remove o valor de uma determinada posicao, deslocando os elementos seguintes.
+	 * 
+	 * @param index
+	 * @return Valor removido.
+	 * @exception IndexOutOfBoundsException
+	 *                se a posicao for invalida.
+	 */
+	public long removeAt(int index) {
+		this.checkIndex(index);
+
+		long previous = this.elements[index];
+		System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+		this.size--;
+		return previous;
+	}
+
+	/**
+	 * Retorna a primeira posicao de um determinado valor.
+	 * 
+	 * @param value
+	 * @return -1 se a lista nao contiver o valor.
+	 */
+	public int indexOf(long value) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.elements[i] == value) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Indica que a lista contem um determinado valor.
+	 * 
+	 * @param value
+	 * @return true se a lista contem o valor.
+	 */
+	public boolean contains(long value) {
+		return this.indexOf(value) >= 0;
+	}
+
+	/**
+	 * Remove todos os elementos da lista, mantendo a capacidade.
+	 */
+	public void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Retorna uma copia dos elementos da lista.
+	 * 
+	 * @return Array de valores.
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(this.elements, this.size);
+	}
+
+	/**
+	 * Retorna uma visao da lista como {@link List} de {@link Long}. A visao nao aceita elementos nulos.
+	 * 
+	 * @return Visao da lista.
+	 */
+	public List<Long> asList() {
+		return new AbstractList<Long>() {
+
+			@Override
+			public Long get(int index) {
+				return LongList.this.get(index);
+			}
+
+			@Override
+			public Long set(int index, Long element) {
+				return LongList.this.set(index, element);
+			}
+
+			@Override
+			public void add(int index, Long element) {
+				LongList.this.add(index, element);
+				this.modCount++;
+			}
+
+			@Override
+			public Long remove(int index) {
+				Long previous = LongList.this.removeAt(index);
+				this.modCount++;
+				return previous;
+			}
+
+			@Override
+			public int size() {
+				return LongList.this.size;
+			}
+
+		};
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LongList)) {
+			return false;
+		}
+
+		LongList other = (LongList) obj;
+		if (this.size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < this.size; i++) {
+			if (this.elements[i] != other.elements[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < this.size; i++) {
+			long element = this.elements[i];
+			hash = 31 * hash + (int) (element ^ (element >>> 32));
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.elements.length) {
+			int length = Math.max(capacity, this.elements.length + (this.elements.length >> 1) + 1);
+			this.elements = Arrays.copyOf(this.elements, length);
+		}
+	}
+
+}
@@ -0,0 +1,369 @@
+package br.com.brasilti.utils.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Mapa de chaves do tipo long para objetos, sem empacotamento das chaves.
+ * <p>
+ * Segue a mesma organizacao de {@link LongHashSet}: as chaves e os valores ficam em arrays paralelos com enderecamento
+ * aberto e sondagem linear, e a chave zero e registrada a parte. O mapa aceita valores nulos.
+ * <p>
+ * A visao retornada por {@link #asMap()} permite usar o mapa onde um {@link Map} de {@link Long} e esperado.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <V>
+ *            Tipo dos valores.
+ */
+public final class LongObjectMap<V> {
+
+	private long[] keys;
+
+	private Object[] values;
+
+	private boolean hasZeroKey;
+
+	private V zeroValue;
+
+	private int size;
+
+	private int threshold;
+
+	/**
+	 * Cria um mapa vazio.
+	 */
+	public LongObjectMap() {
+		this(LongHashSet.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Cria um mapa vazio capaz de receber um determinado numero de chaves sem ser redimensionado.
+	 * 
+	 * @param expectedSize
+	 * @exception IllegalArgumentException
+	 *                se o numero de chaves for negativo.
+	 */
+	public LongObjectMap(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.allocate(LongHashSet.tableSize(expectedSize));
+	}
+
+	/**
+	 * Retorna o numero de chaves do mapa.
+	 * 
+	 * @return Numero de chaves.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Indica que o mapa nao possui chaves.
+	 * 
+	 * @return true se o mapa esta vazio.
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Indica que o mapa contem uma determinada chave.
+	 * 
+	 * @param key
+	 * @return true se o mapa contem a chave.
+	 */
+	public boolean containsKey(long key) {
+		if (key == 0) {
+			return this.hasZeroKey;
+		}
+
+		return this.keys[this.find(key)] == key;
+	}
+
+	/**
+	 * Retorna o valor associado a uma determinada chave.
+	 * 
+	 * @param key
+	 * @return null se o mapa nao contiver a chave.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == 0) {
+			return this.zeroValue;
+		}
+
+		int slot = this.find(key);
+		return this.keys[slot] == key ? (V) this.values[slot] : null;
+	}
+
+	/**
+	 * Associa um valor a uma determinada chave.
+	 * 
+	 * @param key
+	 * @param value
+	 * @return Valor anterior ou null se o mapa nao continha a chave.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (key == 0) {
+			V previous = this.zeroValue;
+			if (!this.hasZeroKey) {
+				this.hasZeroKey = true;
+				this.size++;
+			}
+
+			this.zeroValue = value;
+			return previous;
+		}
+
+		int slot = this.find(key);
+		if (this.keys[slot] == key) {
+			V previous = (V) this.values[slot];
+			this.values[slot] = value;
+			return previous;
+		}
+
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		if (++this.size > this.threshold) {
+			this.rehash(this.keys.length << 1);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Remove uma determinada chave do mapa.
+	 * 
+	 * @param key
+	 * @return Valor removido ou null se o mapa nao continha a chave.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		if (key == 0) {
+			V previous = this.zeroValue;
+			if (this.hasZeroKey) {
+				this.hasZeroKey = false;
+				this.zeroValue = null;
+				this.size--;
+			}
+
+			return previous;
+		}
+
+		int slot = this.find(key);
+		if (this.keys[slot] != key) {
+			return null;
+		}
+
+		V previous = (V) this.values[slot];
+		this.shift(slot);
+		this.size--;
+		return previous;
+	}
+
+	/**
+	 * Remove todas as chaves do mapa, mantendo a capacidade.
+	 */
+	public void clear() {
+		Arrays.fill(this.keys, 0);
+		Arrays.fill(this.values, null);
+		this.hasZeroKey = false;
+		this.zeroValue = null;
+		this.size = 0;
+	}
+
+	/**
+	 * Retorna as chaves do mapa, sem ordem definida.
+	 * 
+	 * @return Array de chaves.
+	 */
+	public long[] keys() {
+		long[] keys = new long[this.size];
+
+		int i = 0;
+		if (this.hasZeroKey) {
+			keys[i++] = 0;
+		}
+		for (long key : this.keys) {
+			if (key != 0) {
+				keys[i++] = key;
+			}
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Retorna uma visao do mapa como {@link Map} de {@link Long}. A visao nao aceita chaves nulas e os iteradores das
+	 * suas colecoes nao permitem remocao.
+	 * 
+	 * @return Visao do mapa.
+	 */
+	public Map<Long, V> asMap() {
+		return new AbstractMap<Long, V>() {
+
+			@Override
+			public boolean containsKey(Object key) {
+				return key instanceof Long && LongObjectMap.this.containsKey((Long) key);
+			}
+
+			@Override
+			public V get(Object key) {
+				return key instanceof Long ? LongObjectMap.this.get((Long) key) : null;
+			}
+
+			@Override
+			public V put(Long key, V value) {
+				return LongObjectMap.this.put(key, value);
+			}
+
+			@Override
+			public V remove(Object key) {
+				return key instanceof Long ? LongObjectMap.this.remove((Long) key) : null;
+			}
+
+			@Override
+			public void clear() {
+				LongObjectMap.this.clear();
+			}
+
+			@Override
+			public int size() {
+				return LongObjectMap.this.size;
+			}
+
+			@Override
+			public Set<Map.Entry<Long, V>> entrySet() {
+				return new AbstractSet<Map.Entry<Long, V>>() {
+
+					@Override
+					public Iterator<Map.Entry<Long, V>> iterator() {
+						return new EntryIterator();
+					}
+
+					@Override
+					public int size() {
+						return LongObjectMap.this.size;
+					}
+
+				};
+			}
+
+		};
+	}
+
+	@Override
+	public String toString() {
+		return this.asMap().toString();
+	}
+
+	private int find(long key) {
+		int mask = this.keys.length - 1;
+		int slot = LongHashSet.mix(key) & mask;
+
+		long current;
+		while ((current = this.keys[slot]) != 0 && current != key) {
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+	private void shift(int slot) {
+		int mask = this.keys.length - 1;
+
+		int free = slot;
+		int next = (free + 1) & mask;
+		long key;
+		while ((key = this.keys[next]) != 0) {
+			int home = LongHashSet.mix(key) & mask;
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				this.keys[free] = key;
+				this.values[free] = this.values[next];
+				free = next;
+			}
+			next = (next + 1) & mask;
+		}
+
+		this.keys[free] = 0;
+		this.values[free] = null;
+	}
+
+	private void allocate(int length) {
+		this.keys = new long[length];
+		this.values = new Object[length];
+		this.threshold = (int) (length * LongHashSet.LOAD_FACTOR);
+	}
+
+	private void rehash(int length) {
+		long[] keys = this.keys;
+		Object[] values = this.values;
+		this.allocate(length);
+
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				int slot = this.find(keys[i]);
+				this.keys[slot] = keys[i];
+				this.values[slot] = values[i];
+			}
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<Long, V>> {
+
+		private final long[] keys = LongObjectMap.this.keys;
+
+		private final Object[] values = LongObjectMap.this.values;
+
+		private boolean zero = LongObjectMap.this.hasZeroKey;
+
+		private int slot = this.advance(0);
+
+		@Override
+		public boolean hasNext() {
+			return this.zero || this.slot < this.keys.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Map.Entry<Long, V> next() {
+			if (this.zero) {
+				this.zero = false;
+				return new AbstractMap.SimpleImmutableEntry<Long, V>(0L, LongObjectMap.this.zeroValue);
+			}
+			if (this.slot >= this.keys.length) {
+				throw new NoSuchElementException();
+			}
+
+			Map.Entry<Long, V> entry = new AbstractMap.SimpleImmutableEntry<Long, V>(this.keys[this.slot], (V) this.values[this.slot]);
+			this.slot = this.advance(this.slot + 1);
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private int advance(int slot) {
+			while (slot < this.keys.length && this.keys[slot] == 0) {
+				slot++;
+			}
+
+			return slot;
+		}
+
+	}
+
+}
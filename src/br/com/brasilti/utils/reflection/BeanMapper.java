@@ -0,0 +1,594 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copia os atributos persistentes de uma instancia para uma instancia de outra classe, como de uma entidade para um
+ * DTO.
+ * <p>
+ * Os atributos sao associados pelo nome, na hierarquia das duas classes, e copiados quando o tipo do atributo de origem
+ * pode ser atribuido ao de destino, inclusive entre um tipo primitivo e o seu tipo empacotado; os demais sao ignorados.
+ * Atributos genericos so sao copiados quando os argumentos de tipo resolvidos sao iguais, de modo que uma
+ * {@code List<Item>} nao e atribuida a uma {@code List<ItemDto>}. Um valor nulo nunca e copiado para um atributo
+ * primitivo, que mantem o seu valor. Nomes diferentes e conversoes entre tipos incompativeis sao configurados por um
+ * {@link Builder}.
+ * <p>
+ * Como em {@link Copier}, o plano e montado uma unica vez para cada par de classes e cada atributo vira um passo
+ * especializado pelo seu tipo, de modo que os atributos primitivos de mesmo tipo sao copiados sem empacotamento. Os
+ * mapeadores obtidos por {@link #forClasses(Class, Class)} ficam em cache; os montados por um {@link Builder} devem ser
+ * guardados por quem os criou.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <S>
+ *            Tipo de origem.
+ * @param <T>
+ *            Tipo de destino.
+ */
+public final class BeanMapper<S, T> implements Converter<S, T> {
+
+	private static final ClassCache<ClassCache<BeanMapper<?, ?>>> CACHE = new ClassCache<ClassCache<BeanMapper<?, ?>>>() {
+
+		@Override
+		protected ClassCache<BeanMapper<?, ?>> computeValue(final Class<?> sourceType) {
+			return new ClassCache<BeanMapper<?, ?>>() {
+
+				@Override
+				protected BeanMapper<?, ?> computeValue(Class<?> targetType) {
+					return new BeanMapper<Object, Object>(sourceType, targetType, Collections.<String, String> emptyMap(), Collections.<String, Converter<?, ?>> emptyMap(), Collections.<String> emptySet());
+				}
+
+			};
+		}
+
+	};
+
+	private final Class<?> sourceType;
+
+	private final Class<?> targetType;
+
+	private final Instantiator<?> instantiator;
+
+	private final Step[] steps;
+
+	private BeanMapper(Class<?> sourceType, Class<?> targetType, Map<String, String> renames, Map<String, Converter<?, ?>> converters, Set<String> ignored) {
+		this.sourceType = sourceType;
+		this.targetType = targetType;
+		this.instantiator = Instantiator.find(targetType);
+
+		Map<String, FieldAccessor> sources = new HashMap<String, FieldAccessor>();
+		for (FieldAccessor accessor : ClassMetadata.forClass(sourceType).getPersistentAccessorsInHierarchy()) {
+			sources.put(accessor.getField().getName(), accessor);
+		}
+
+		Set<String> configured = new HashSet<String>(renames.keySet());
+
+		List<Step> steps = new ArrayList<Step>();
+		for (FieldAccessor target : ClassMetadata.forClass(targetType).getPersistentAccessorsInHierarchy()) {
+			String name = target.getField().getName();
+			if (ignored.contains(name)) {
+				continue;
+			}
+
+			boolean explicit = configured.remove(name);
+
+			FieldAccessor source = sources.get(explicit ? renames.get(name) : name);
+			if (source == null) {
+				if (explicit) {
+					throw new IllegalArgumentException();
+				}
+				continue;
+			}
+
+			Step step = converters.containsKey(name) ? new ConverterStep(source, target, converters.get(name)) : createStep(source, sourceType, target, targetType);
+			if (step == null) {
+				if (explicit) {
+					throw new IllegalArgumentException();
+				}
+				continue;
+			}
+
+			steps.add(step);
+		}
+
+		if (!configured.isEmpty()) {
+			throw new IllegalArgumentException();
+		}
+
+		this.steps = steps.toArray(new Step[steps.size()]);
+	}
+
+	/**
+	 * Retorna o mapeador padrao entre duas classes, que associa os atributos apenas pelo nome.
+	 * 
+	 * @param sourceType
+	 * @param targetType
+	 * @return Mapeador entre as classes.
+	 * @exception IllegalArgumentException
+	 *                se uma das classes for nula.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S, T> BeanMapper<S, T> forClasses(Class<S> sourceType, Class<T> targetType) {
+		if (sourceType == null || targetType == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (BeanMapper<S, T>) CACHE.get(sourceType).get(targetType);
+	}
+
+	/**
+	 * Inicia a configuracao de um mapeador entre duas classes.
+	 * 
+	 * @param sourceType
+	 * @param targetType
+	 * @return Configuracao do mapeador.
+	 * @exception IllegalArgumentException
+	 *                se uma das classes for nula.
+	 */
+	public static <S, T> Builder<S, T> builder(Class<S> sourceType, Class<T> targetType) {
+		if (sourceType == null || targetType == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Builder<S, T>(sourceType, targetType);
+	}
+
+	/**
+	 * Retorna a classe de origem.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getSourceType() {
+		return this.sourceType;
+	}
+
+	/**
+	 * Retorna a classe de destino.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getTargetType() {
+		return this.targetType;
+	}
+
+	/**
+	 * Cria uma instancia da classe de destino e copia os atributos associados.
+	 * 
+	 * @param source
+	 * @return null se a origem for nula.
+	 * @exception IllegalArgumentException
+	 *                se a classe de destino nao possuir construtor sem argumentos.
+	 */
+	public T map(S source) {
+		if (source == null) {
+			return null;
+		}
+
+		T target = this.newInstance();
+		this.map(source, target);
+
+		return target;
+	}
+
+	/**
+	 * Copia os atributos associados de uma instancia para outra.
+	 * 
+	 * @param source
+	 * @param target
+	 * @exception IllegalArgumentException
+	 *                se uma das instancias for nula.
+	 */
+	public void map(S source, T target) {
+		if (source == null || target == null) {
+			throw new IllegalArgumentException();
+		}
+
+		for (Step step : this.steps) {
+			step.map(source, target);
+		}
+
+		ReflectionMetrics.compiledAccess(this.sourceType, this.steps.length);
+		ReflectionMetrics.compiledAccess(this.targetType, this.steps.length);
+	}
+
+	/**
+	 * Cria uma instancia da classe de destino para cada elemento de uma lista. Para dividir listas grandes entre varias
+	 * threads, o mapeador pode ser passado para {@link BulkCopier#mapAll(List, List, Converter)}.
+	 * 
+	 * @param sources
+	 * @return Lista com as instancias criadas, na ordem da origem.
+	 * @exception IllegalArgumentException
+	 *                se a lista for nula ou se a classe de destino nao possuir construtor sem argumentos.
+	 */
+	public List<T> mapAll(List<? extends S> sources) {
+		if (sources == null) {
+			throw new IllegalArgumentException();
+		}
+
+		List<T> targets = new ArrayList<T>(sources.size());
+		for (S source : sources) {
+			targets.add(this.map(source));
+		}
+
+		return targets;
+	}
+
+	/**
+	 * Equivale a {@link #map(Object)}.
+	 */
+	@Override
+	public T convert(S source) {
+		return this.map(source);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newInstance() {
+		if (this.instantiator == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (T) this.instantiator.newInstance();
+	}
+
+	private static Step createStep(FieldAccessor source, Class<?> sourceContext, FieldAccessor target, Class<?> targetContext) {
+		Class<?> sourceType = source.getType();
+		Class<?> targetType = target.getType();
+
+		if (sourceType == targetType) {
+			if (sourceType == int.class) {
+				return new IntStep(source, target);
+			} else if (sourceType == long.class) {
+				return new LongStep(source, target);
+			} else if (sourceType == boolean.class) {
+				return new BooleanStep(source, target);
+			} else if (sourceType == double.class) {
+				return new DoubleStep(source, target);
+			} else if (sourceType == float.class) {
+				return new FloatStep(source, target);
+			} else if (sourceType == short.class) {
+				return new ShortStep(source, target);
+			} else if (sourceType == byte.class) {
+				return new ByteStep(source, target);
+			} else if (sourceType == char.class) {
+				return new CharStep(source, target);
+			}
+		}
+
+		if (!sourceType.isPrimitive() && !targetType.isPrimitive() && targetType.isAssignableFrom(sourceType)) {
+			if (!hasSameTypeArguments(source, sourceContext, target, targetContext)) {
+				return null;
+			}
+
+			return new ReferenceStep(source, target);
+		}
+
+		if (wrap(sourceType) == wrap(targetType)) {
+			return new BoxingStep(source, target);
+		}
+
+		return null;
+	}
+
+	/**
+	 * A compatibilidade das classes nao basta para atributos genericos: uma {@code List<Item>} pode ser atribuida a uma
+	 * {@code List<ItemDto>}, mas os elementos copiados nao seriam do tipo esperado pelo destino.
+	 */
+	private static boolean hasSameTypeArguments(FieldAccessor source, Class<?> sourceContext, FieldAccessor target, Class<?> targetContext) {
+		Type targetType = TypeResolver.getFieldType(target.getField(), targetContext);
+		if (!(targetType instanceof ParameterizedType)) {
+			return true;
+		}
+
+		Type sourceType = TypeResolver.getFieldType(source.getField(), sourceContext);
+		Class<?> raw = target.getType();
+
+		return Arrays.equals(TypeResolver.getTypeArguments(sourceType, raw), TypeResolver.getTypeArguments(targetType, raw));
+	}
+
+	private static Class<?> wrap(Class<?> type) {
+		if (type == int.class) {
+			return Integer.class;
+		} else if (type == long.class) {
+			return Long.class;
+		} else if (type == boolean.class) {
+			return Boolean.class;
+		} else if (type == double.class) {
+			return Double.class;
+		} else if (type == float.class) {
+			return Float.class;
+		} else if (type == short.class) {
+			return Short.class;
+		} else if (type == byte.class) {
+			return Byte.class;
+		} else if (type == char.class) {
+			return Character.class;
+		}
+
+		return type;
+	}
+
+	/**
+	 * Configuracao de um mapeador com atributos de nomes diferentes, conversoes ou atributos ignorados. Os atributos
+	 * configurados sao sempre identificados pelo nome no destino.
+	 * 
+	 * @param <S>
+	 *            Tipo de origem.
+	 * @param <T>
+	 *            Tipo de destino.
+	 */
+	public static final class Builder<S, T> {
+
+		private final Class<S> sourceType;
+
+		private final Class<T> targetType;
+
+		private final Map<String, String> renames = new HashMap<String, String>();
+
+		private final Map<String, Converter<?, ?>> converters = new HashMap<String, Converter<?, ?>>();
+
+		private final Set<String> ignored = new HashSet<String>();
+
+		private Builder(Class<S> sourceType, Class<T> targetType) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+		}
+
+		/**
+		 * Associa atributos de nomes diferentes.
+		 * 
+		 * @param sourceField
+		 * @param targetField
+		 * @return Esta configuracao.
+		 * @exception IllegalArgumentException
+		 *                se um dos nomes for nulo.
+		 */
+		public Builder<S, T> rename(String sourceField, String targetField) {
+			if (sourceField == null || targetField == null) {
+				throw new IllegalArgumentException();
+			}
+
+			this.renames.put(targetField, sourceField);
+			this.converters.remove(targetField);
+			this.ignored.remove(targetField);
+
+			return this;
+		}
+
+		/**
+		 * Associa dois atributos por meio de um conversor, que recebe o valor do atributo de origem, inclusive nulo, e
+		 * retorna o valor do atributo de destino.
+		 * 
+		 * @param sourceField
+		 * @param targetField
+		 * @param converter
+		 * @return Esta configuracao.
+		 * @exception IllegalArgumentException
+		 *                se um dos nomes ou o conversor for nulo.
+		 */
+		public Builder<S, T> convert(String sourceField, String targetField, Converter<?, ?> converter) {
+			if (converter == null) {
+				throw new IllegalArgumentException();
+			}
+
+			this.rename(sourceField, targetField);
+			this.converters.put(targetField, converter);
+
+			return this;
+		}
+
+		/**
+		 * Ignora um atributo de destino.
+		 * 
+		 * @param targetField
+		 * @return Esta configuracao.
+		 * @exception IllegalArgumentException
+		 *                se o nome for nulo.
+		 */
+		public Builder<S, T> ignore(String targetField) {
+			if (targetField == null) {
+				throw new IllegalArgumentException();
+			}
+
+			this.renames.remove(targetField);
+			this.converters.remove(targetField);
+			this.ignored.add(targetField);
+
+			return this;
+		}
+
+		/**
+		 * Monta o mapeador.
+		 * 
+		 * @return Mapeador configurado.
+		 * @exception IllegalArgumentException
+		 *                se um atributo configurado nao for persistente, se um dos atributos associados nao existir ou
+		 *                se os tipos de atributos associados sem conversor forem incompativeis.
+		 */
+		public BeanMapper<S, T> build() {
+			return new BeanMapper<S, T>(this.sourceType, this.targetType, this.renames, this.converters, this.ignored);
+		}
+
+	}
+
+	private abstract static class Step {
+
+		protected final FieldAccessor source;
+
+		protected final FieldAccessor target;
+
+		protected Step(FieldAccessor source, FieldAccessor target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		protected abstract void map(Object source, Object target);
+
+	}
+
+	private static final class ReferenceStep extends Step {
+
+		private ReferenceStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.set(this.source.get(source), target);
+		}
+
+	}
+
+	/**
+	 * Copia entre um tipo primitivo e o seu tipo empacotado. Valores nulos sao ignorados.
+	 */
+	private static final class BoxingStep extends Step {
+
+		private BoxingStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			Object value = this.source.get(source);
+			if (value != null) {
+				this.target.set(value, target);
+			}
+		}
+
+	}
+
+	private static final class ConverterStep extends Step {
+
+		private final Converter<Object, Object> converter;
+
+		@SuppressWarnings("unchecked")
+		private ConverterStep(FieldAccessor source, FieldAccessor target, Converter<?, ?> converter) {
+			super(source, target);
+			this.converter = (Converter<Object, Object>) converter;
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			Object value = this.converter.convert(this.source.get(source));
+			if (value != null || !this.target.getType().isPrimitive()) {
+				this.target.set(value, target);
+			}
+		}
+
+	}
+
+	private static final class BooleanStep extends Step {
+
+		private BooleanStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setBoolean(this.source.getBoolean(source), target);
+		}
+
+	}
+
+	private static final class ByteStep extends Step {
+
+		private ByteStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setByte(this.source.getByte(source), target);
+		}
+
+	}
+
+	private static final class CharStep extends Step {
+
+		private CharStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setChar(this.source.getChar(source), target);
+		}
+
+	}
+
+	private static final class ShortStep extends Step {
+
+		private ShortStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setShort(this.source.getShort(source), target);
+		}
+
+	}
+
+	private static final class IntStep extends Step {
+
+		private IntStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setInt(this.source.getInt(source), target);
+		}
+
+	}
+
+	private static final class LongStep extends Step {
+
+		private LongStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setLong(this.source.getLong(source), target);
+		}
+
+	}
+
+	private static final class FloatStep extends Step {
+
+		private FloatStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setFloat(this.source.getFloat(source), target);
+		}
+
+	}
+
+	private static final class DoubleStep extends Step {
+
+		private DoubleStep(FieldAccessor source, FieldAccessor target) {
+			super(source, target);
+		}
+
+		@Override
+		protected void map(Object source, Object target) {
+			this.target.setDouble(this.source.getDouble(source), target);
+		}
+
+	}
+
+}
@@ -0,0 +1,809 @@
+package br.com.brasilti.utils.reflection;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Codifica e decodifica os atributos persistentes de uma classe em um formato binario compacto.
+ * <p>
+ * O plano de codificacao e montado uma unica vez por classe a partir dos atributos persistentes da classe e das suas
+ * superclasses, na ordem dos metadados. Cada registro comeca pela versao do formato, {@value #FORMAT_VERSION}, seguida
+ * de um mapa de bits com os atributos de referencia nulos, dos atributos primitivos e dos atributos de referencia nao
+ * nulos. Registros de outra versao sao rejeitados na decodificacao. Inteiros sao escritos como varints em
+ * zigue-zague, textos em UTF-8 precedidos do tamanho, e valores de tamanho fixo em big-endian, independentemente da
+ * ordem de bytes do buffer.
+ * <p>
+ * Sao suportados os tipos primitivos, {@link String}, {@link Integer}, {@link Long}, {@link BigDecimal},
+ * {@link Boolean}, {@link Calendar} e {@code byte[]}. A decodificacao requer um construtor sem argumentos.
+ * <p>
+ * De um {@link Calendar} sao gravados apenas o instante e o identificador do fuso horario. A decodificacao sempre cria
+ * um {@link GregorianCalendar} nesse fuso, de modo que outras subclasses e configuracoes como o primeiro dia da semana
+ * nao sao preservadas.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias codificadas.
+ */
+public final class BinaryCodec<T> {
+
+	/**
+	 * Versao do formato gravada no inicio de cada registro.
+	 */
+	public static final byte FORMAT_VERSION = 1;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int MINIMUM_CAPACITY = 64;
+
+	private static final ClassCache<BinaryCodec<?>> CACHE = new ClassCache<BinaryCodec<?>>() {
+
+		@Override
+		protected BinaryCodec<?> computeValue(Class<?> type) {
+			return new BinaryCodec<Object>(type);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final Instantiator<?> instantiator;
+
+	private final PrimitiveSlot[] primitives;
+
+	private final ReferenceSlot[] references;
+
+	private final int bitmapLength;
+
+	private BinaryCodec(Class<?> type) {
+		this.type = type;
+		this.instantiator = Instantiator.find(type);
+
+		List<PrimitiveSlot> primitives = new ArrayList<PrimitiveSlot>();
+		List<ReferenceSlot> references = new ArrayList<ReferenceSlot>();
+		for (FieldAccessor accessor : ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy()) {
+			if (accessor.getType().isPrimitive()) {
+				primitives.add(createPrimitiveSlot(accessor));
+			} else {
+				references.add(createReferenceSlot(accessor));
+			}
+		}
+
+		this.primitives = primitives.toArray(new PrimitiveSlot[primitives.size()]);
+		this.references = references.toArray(new ReferenceSlot[references.size()]);
+		this.bitmapLength = (this.references.length + 7) / 8;
+	}
+
+	/**
+	 * Retorna o codificador de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return Codificador da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula ou se algum atributo persistente for de um tipo nao suportado.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> BinaryCodec<T> forClass(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (BinaryCodec<T>) CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a classe das instancias codificadas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Codifica uma instancia a partir da posicao atual do buffer. Se o buffer nao tiver espaco suficiente, um buffer
+	 * maior, do mesmo tipo e com o conteudo anterior a posicao inicial, e alocado e retornado.
+	 * 
+	 * @param instance
+	 * @param buffer
+	 * @return Buffer que contem a instancia codificada, posicionado apos ela.
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo ou se a instancia nao for da classe do codificador.
+	 */
+	public ByteBuffer encode(T instance, ByteBuffer buffer) {
+		if (instance == null || buffer == null || instance.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		int start = buffer.position();
+		while (true) {
+			try {
+				this.write(instance, buffer);
+				ReflectionMetrics.compiledAccess(this.type, this.primitives.length + this.references.length);
+				return buffer;
+			} catch (BufferOverflowException e) {
+				ByteBuffer larger = allocate(Math.max(buffer.capacity() * 2, MINIMUM_CAPACITY), buffer.isDirect());
+				buffer.limit(start);
+				buffer.position(0);
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+	}
+
+	/**
+	 * Codifica uma instancia em um novo array.
+	 * 
+	 * @param instance
+	 * @return Bytes da instancia codificada.
+	 * @exception IllegalArgumentException
+	 *                se a instancia for nula ou nao for da classe do codificador.
+	 */
+	public byte[] encode(T instance) {
+		ByteBuffer buffer = this.encode(instance, ByteBuffer.allocate(MINIMUM_CAPACITY));
+
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+
+		return bytes;
+	}
+
+	/**
+	 * Decodifica uma instancia a partir da posicao atual do buffer, deixando-o posicionado apos ela.
+	 * 
+	 * @param buffer
+	 * @return Instancia decodificada.
+	 * @exception IllegalArgumentException
+	 *                se o buffer for nulo, se o conteudo estiver incompleto, corrompido ou em outra versao do formato
+	 *                ou se a classe nao possuir construtor sem argumentos.
+	 */
+	public T decode(ByteBuffer buffer) {
+		if (buffer == null) {
+			throw new IllegalArgumentException();
+		}
+
+		T instance = this.newInstance();
+		try {
+			this.read(instance, buffer);
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException(e);
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.primitives.length + this.references.length);
+
+		return instance;
+	}
+
+	/**
+	 * Decodifica uma instancia a partir de um array.
+	 * 
+	 * @param bytes
+	 * @return Instancia decodificada.
+	 * @exception IllegalArgumentException
+	 *                se o array for nulo, se o conteudo estiver incompleto, corrompido ou em outra versao do formato
+	 *                ou se a classe nao possuir construtor sem argumentos.
+	 */
+	public T decode(byte[] bytes) {
+		if (bytes == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return this.decode(ByteBuffer.wrap(bytes));
+	}
+
+	private void write(Object instance, ByteBuffer buffer) {
+		buffer.put(FORMAT_VERSION);
+
+		int bitmap = buffer.position();
+		for (int i = 0; i < this.bitmapLength; i++) {
+			buffer.put((byte) 0);
+		}
+
+		for (PrimitiveSlot slot : this.primitives) {
+			slot.encode(instance, buffer);
+		}
+
+		for (int i = 0; i < this.references.length; i++) {
+			ReferenceSlot slot = this.references[i];
+
+			Object value = slot.accessor.get(instance);
+			if (value == null) {
+				int index = bitmap + (i >>> 3);
+				buffer.put(index, (byte) (buffer.get(index) | (1 << (i & 7))));
+			} else {
+				slot.write(value, buffer);
+			}
+		}
+	}
+
+	private void read(Object instance, ByteBuffer buffer) {
+		if (buffer.get() != FORMAT_VERSION) {
+			throw new IllegalArgumentException();
+		}
+
+		int bitmap = buffer.position();
+		buffer.position(bitmap + this.bitmapLength);
+
+		for (PrimitiveSlot slot : this.primitives) {
+			slot.decode(instance, buffer);
+		}
+
+		for (int i = 0; i < this.references.length; i++) {
+			ReferenceSlot slot = this.references[i];
+
+			boolean isNull = (buffer.get(bitmap + (i >>> 3)) & (1 << (i & 7))) != 0;
+			slot.accessor.set(isNull ? null : slot.read(buffer), instance);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newInstance() {
+		if (this.instantiator == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (T) this.instantiator.newInstance();
+	}
+
+	private static ByteBuffer allocate(int capacity, boolean direct) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+
+	private static PrimitiveSlot createPrimitiveSlot(FieldAccessor accessor) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntSlot(accessor);
+		} else if (type == long.class) {
+			return new LongSlot(accessor);
+		} else if (type == boolean.class) {
+			return new BooleanSlot(accessor);
+		} else if (type == double.class) {
+			return new DoubleSlot(accessor);
+		} else if (type == float.class) {
+			return new FloatSlot(accessor);
+		} else if (type == short.class) {
+			return new ShortSlot(accessor);
+		} else if (type == byte.class) {
+			return new ByteSlot(accessor);
+		}
+
+		return new CharSlot(accessor);
+	}
+
+	private static ReferenceSlot createReferenceSlot(FieldAccessor accessor) {
+		Class<?> type = accessor.getType();
+
+		if (type == String.class) {
+			return new StringSlot(accessor);
+		} else if (type == Integer.class) {
+			return new IntegerSlot(accessor);
+		} else if (type == Long.class) {
+			return new LongObjectSlot(accessor);
+		} else if (type == BigDecimal.class) {
+			return new BigDecimalSlot(accessor);
+		} else if (type == Boolean.class) {
+			return new BooleanObjectSlot(accessor);
+		} else if (type == Calendar.class) {
+			return new CalendarSlot(accessor);
+		} else if (type == byte[].class) {
+			return new BytesSlot(accessor);
+		}
+
+		throw new IllegalArgumentException();
+	}
+
+	static void writeVarint(int value, ByteBuffer buffer) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	static int readVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new IllegalArgumentException();
+	}
+
+	static void writeVarlong(long value, ByteBuffer buffer) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	static long readVarlong(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new IllegalArgumentException();
+	}
+
+	static void writeSignedVarint(int value, ByteBuffer buffer) {
+		writeVarint((value << 1) ^ (value >> 31), buffer);
+	}
+
+	static int readSignedVarint(ByteBuffer buffer) {
+		int value = readVarint(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void writeSignedVarlong(long value, ByteBuffer buffer) {
+		writeVarlong((value << 1) ^ (value >> 63), buffer);
+	}
+
+	static long readSignedVarlong(ByteBuffer buffer) {
+		long value = readVarlong(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void writeFixedInt(int value, ByteBuffer buffer) {
+		buffer.put((byte) (value >>> 24));
+		buffer.put((byte) (value >>> 16));
+		buffer.put((byte) (value >>> 8));
+		buffer.put((byte) value);
+	}
+
+	static int readFixedInt(ByteBuffer buffer) {
+		return (buffer.get() & 0xFF) << 24 | (buffer.get() & 0xFF) << 16 | (buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF);
+	}
+
+	static void writeFixedLong(long value, ByteBuffer buffer) {
+		writeFixedInt((int) (value >>> 32), buffer);
+		writeFixedInt((int) value, buffer);
+	}
+
+	static long readFixedLong(ByteBuffer buffer) {
+		return (long) readFixedInt(buffer) << 32 | (readFixedInt(buffer) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Escreve o texto em UTF-8 diretamente no buffer, precedido do numero de bytes. Surrogates sem par sao escritos
+	 * como '?', como faz o codificador da plataforma.
+	 */
+	static void writeString(String value, ByteBuffer buffer) {
+		int length = value.length();
+
+		int bytes = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				bytes++;
+			} else if (c < 0x800) {
+				bytes += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				bytes += 4;
+				i++;
+			} else if (isSurrogate(c)) {
+				bytes++;
+			} else {
+				bytes += 3;
+			}
+		}
+		writeVarint(bytes, buffer);
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer.put((byte) (0xF0 | (codePoint >> 18)));
+				buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+				buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+			} else if (isSurrogate(c)) {
+				buffer.put((byte) '?');
+			} else {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	static String readString(ByteBuffer buffer) {
+		int length = readLength(buffer);
+
+		if (buffer.hasArray()) {
+			int position = buffer.position();
+			buffer.position(position + length);
+			return new String(buffer.array(), buffer.arrayOffset() + position, length, UTF_8);
+		}
+
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	static void writeBytes(byte[] value, ByteBuffer buffer) {
+		writeVarint(value.length, buffer);
+		buffer.put(value);
+	}
+
+	static byte[] readBytes(ByteBuffer buffer) {
+		int length = readLength(buffer);
+
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	private static int readLength(ByteBuffer buffer) {
+		int length = readVarint(buffer);
+		if (length < 0) {
+			throw new IllegalArgumentException();
+		}
+		if (length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+
+		return length;
+	}
+
+	private static boolean isSurrogate(char c) {
+		return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+	}
+
+	private abstract static class Slot {
+
+		protected final FieldAccessor accessor;
+
+		protected Slot(FieldAccessor accessor) {
+			this.accessor = accessor;
+		}
+
+	}
+
+	private abstract static class PrimitiveSlot extends Slot {
+
+		protected PrimitiveSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		protected abstract void encode(Object instance, ByteBuffer buffer);
+
+		protected abstract void decode(Object instance, ByteBuffer buffer);
+
+	}
+
+	private abstract static class ReferenceSlot extends Slot {
+
+		protected ReferenceSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		protected abstract void write(Object value, ByteBuffer buffer);
+
+		protected abstract Object read(ByteBuffer buffer);
+
+	}
+
+	private static final class BooleanSlot extends PrimitiveSlot {
+
+		private BooleanSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			buffer.put(this.accessor.getBoolean(instance) ? (byte) 1 : (byte) 0);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setBoolean(buffer.get() != 0, instance);
+		}
+
+	}
+
+	private static final class ByteSlot extends PrimitiveSlot {
+
+		private ByteSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			buffer.put(this.accessor.getByte(instance));
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setByte(buffer.get(), instance);
+		}
+
+	}
+
+	private static final class CharSlot extends PrimitiveSlot {
+
+		private CharSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			writeVarint(this.accessor.getChar(instance), buffer);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setChar((char) readVarint(buffer), instance);
+		}
+
+	}
+
+	private static final class ShortSlot extends PrimitiveSlot {
+
+		private ShortSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			writeSignedVarint(this.accessor.getShort(instance), buffer);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setShort((short) readSignedVarint(buffer), instance);
+		}
+
+	}
+
+	private static final class IntSlot extends PrimitiveSlot {
+
+		private IntSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			writeSignedVarint(this.accessor.getInt(instance), buffer);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setInt(readSignedVarint(buffer), instance);
+		}
+
+	}
+
+	private static final class LongSlot extends PrimitiveSlot {
+
+		private LongSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			writeSignedVarlong(this.accessor.getLong(instance), buffer);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setLong(readSignedVarlong(buffer), instance);
+		}
+
+	}
+
+	private static final class FloatSlot extends PrimitiveSlot {
+
+		private FloatSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			writeFixedInt(Float.floatToRawIntBits(this.accessor.getFloat(instance)), buffer);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setFloat(Float.intBitsToFloat(readFixedInt(buffer)), instance);
+		}
+
+	}
+
+	private static final class DoubleSlot extends PrimitiveSlot {
+
+		private DoubleSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void encode(Object instance, ByteBuffer buffer) {
+			writeFixedLong(Double.doubleToRawLongBits(this.accessor.getDouble(instance)), buffer);
+		}
+
+		@Override
+		protected void decode(Object instance, ByteBuffer buffer) {
+			this.accessor.setDouble(Double.longBitsToDouble(readFixedLong(buffer)), instance);
+		}
+
+	}
+
+	private static final class StringSlot extends ReferenceSlot {
+
+		private StringSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			writeString((String) value, buffer);
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			return readString(buffer);
+		}
+
+	}
+
+	private static final class IntegerSlot extends ReferenceSlot {
+
+		private IntegerSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			writeSignedVarint((Integer) value, buffer);
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			return readSignedVarint(buffer);
+		}
+
+	}
+
+	private static final class LongObjectSlot extends ReferenceSlot {
+
+		private LongObjectSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			writeSignedVarlong((Long) value, buffer);
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			return readSignedVarlong(buffer);
+		}
+
+	}
+
+	private static final class BooleanObjectSlot extends ReferenceSlot {
+
+		private BooleanObjectSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			return buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
+		}
+
+	}
+
+	/**
+	 * Escreve a escala e o valor sem escala. Valores sem escala que cabem em um long sao escritos como varint,
+	 * sinalizados por tamanho zero; os demais sao escritos em complemento de dois.
+	 */
+	private static final class BigDecimalSlot extends ReferenceSlot {
+
+		private BigDecimalSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			BigDecimal decimal = (BigDecimal) value;
+			BigInteger unscaled = decimal.unscaledValue();
+
+			writeSignedVarint(decimal.scale(), buffer);
+			if (unscaled.bitLength() < 64) {
+				writeVarint(0, buffer);
+				writeSignedVarlong(unscaled.longValue(), buffer);
+			} else {
+				writeBytes(unscaled.toByteArray(), buffer);
+			}
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			int scale = readSignedVarint(buffer);
+
+			int length = readLength(buffer);
+			if (length == 0) {
+				return BigDecimal.valueOf(readSignedVarlong(buffer), scale);
+			}
+
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return new BigDecimal(new BigInteger(bytes), scale);
+		}
+
+	}
+
+	private static final class CalendarSlot extends ReferenceSlot {
+
+		private CalendarSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			Calendar calendar = (Calendar) value;
+
+			writeString(calendar.getTimeZone().getID(), buffer);
+			writeSignedVarlong(calendar.getTimeInMillis(), buffer);
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(readString(buffer)));
+			calendar.setTimeInMillis(readSignedVarlong(buffer));
+
+			return calendar;
+		}
+
+	}
+
+	private static final class BytesSlot extends ReferenceSlot {
+
+		private BytesSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object value, ByteBuffer buffer) {
+			writeBytes((byte[]) value, buffer);
+		}
+
+		@Override
+		protected Object read(ByteBuffer buffer) {
+			return readBytes(buffer);
+		}
+
+	}
+
+}
@@ -0,0 +1,294 @@
+package br.com.brasilti.utils.reflection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Copia ou converte listas de objetos em lote.
+ * <p>
+ * Cada trecho da lista resolve o {@link Copier} da classe uma unica vez e o reutiliza enquanto os elementos forem da
+ * mesma classe. Listas com pelo menos {@code threshold} elementos sao divididas em trechos executados em paralelo pelo
+ * {@link ExecutorService} informado; listas menores, ou copiadores sem executor, sao processadas na thread chamadora.
+ * Cada operacao retorna {@link Statistics} com o numero de elementos, o numero de trechos e o tempo gasto, para que o
+ * limite possa ser ajustado.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class BulkCopier {
+
+	/**
+	 * Numero de elementos a partir do qual uma lista e dividida, quando nenhum outro e informado.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1000;
+
+	private static final BulkCopier SEQUENTIAL = new BulkCopier();
+
+	private final ExecutorService executor;
+
+	private final int threshold;
+
+	private final int parallelism;
+
+	/**
+	 * Cria um copiador que divide as listas grandes entre as threads de um determinado executor.
+	 * 
+	 * @param executor
+	 * @param threshold
+	 *            Numero minimo de elementos para que a lista seja dividida.
+	 * @param parallelism
+	 *            Numero maximo de trechos em que a lista e dividida.
+	 * @exception IllegalArgumentException
+	 *                se o executor for nulo ou se o limite ou o paralelismo nao forem positivos.
+	 */
+	public BulkCopier(ExecutorService executor, int threshold, int parallelism) {
+		if (executor == null || threshold <= 0 || parallelism <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.executor = executor;
+		this.threshold = threshold;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Cria um copiador com {@link #DEFAULT_THRESHOLD} e um trecho por processador disponivel.
+	 * 
+	 * @param executor
+	 * @exception IllegalArgumentException
+	 *                se o executor for nulo.
+	 */
+	public BulkCopier(ExecutorService executor) {
+		this(executor, DEFAULT_THRESHOLD, Runtime.getRuntime().availableProcessors());
+	}
+
+	private BulkCopier() {
+		this.executor = null;
+		this.threshold = Integer.MAX_VALUE;
+		this.parallelism = 1;
+	}
+
+	/**
+	 * Retorna o copiador que processa todas as listas na thread chamadora.
+	 * 
+	 * @return Copiador sequencial.
+	 */
+	public static BulkCopier sequential() {
+		return SEQUENTIAL;
+	}
+
+	/**
+	 * Copia o valor de cada atributo persistente de cada objeto de origem para o objeto de destino da mesma posicao.
+	 * 
+	 * @param origins
+	 * @param targets
+	 * @return Estatisticas da copia.
+	 * @exception IllegalArgumentException
+	 *                se as listas forem nulas, tiverem tamanhos diferentes ou se algum par de objetos for de classes
+	 *                diferentes.
+	 * @see ReflectionUtil#copy(Object, Object)
+	 */
+	public <T> Statistics copyAll(List<? extends T> origins, List<? extends T> targets) {
+		if (origins == null || targets == null || origins.size() != targets.size()) {
+			throw new IllegalArgumentException();
+		}
+
+		final List<? extends T> originList = randomAccess(origins);
+		final List<? extends T> targetList = randomAccess(targets);
+
+		return this.execute(originList.size(), new Task() {
+
+			@Override
+			public void run(int from, int to) {
+				Copier<Object> copier = null;
+				for (int i = from; i < to; i++) {
+					Object origin = originList.get(i);
+					Object target = targetList.get(i);
+
+					if (copier == null || copier.getType() != origin.getClass()) {
+						copier = forClass(origin.getClass());
+					}
+					copier.copy(origin, target);
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Converte cada objeto de origem, acrescentando os resultados ao final de uma lista na mesma ordem das origens.
+	 * 
+	 * @param origins
+	 * @param results
+	 * @param converter
+	 * @return Estatisticas da conversao.
+	 * @exception IllegalArgumentException
+	 *                se algum dos parametros for nulo.
+	 */
+	public <S, T> Statistics mapAll(List<? extends S> origins, List<? super T> results, final Converter<? super S, ? extends T> converter) {
+		if (origins == null || results == null || converter == null) {
+			throw new IllegalArgumentException();
+		}
+
+		final List<? extends S> originList = randomAccess(origins);
+		final Object[] converted = new Object[originList.size()];
+
+		Statistics statistics = this.execute(originList.size(), new Task() {
+
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					converted[i] = converter.convert(originList.get(i));
+				}
+			}
+
+		});
+
+		@SuppressWarnings("unchecked")
+		List<T> convertedList = (List<T>) Arrays.asList(converted);
+		results.addAll(convertedList);
+
+		return statistics;
+	}
+
+	private Statistics execute(int count, final Task task) {
+		long start = System.nanoTime();
+
+		int tasks = 1;
+		if (this.executor == null || count < this.threshold) {
+			task.run(0, count);
+		} else {
+			int chunk = Math.max(this.threshold, count / this.parallelism + (count % this.parallelism == 0 ? 0 : 1));
+
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int from = 0; from < count; from += chunk) {
+				final int begin = from;
+				final int end = Math.min(from + chunk, count);
+
+				futures.add(this.executor.submit(new Callable<Object>() {
+
+					@Override
+					public Object call() {
+						task.run(begin, end);
+						return null;
+					}
+
+				}));
+			}
+
+			tasks = futures.size();
+			await(futures);
+		}
+
+		return new Statistics(count, tasks, System.nanoTime() - start);
+	}
+
+	private static void await(List<Future<?>> futures) {
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			for (Future<?> future : futures) {
+				future.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			for (Future<?> future : futures) {
+				future.cancel(true);
+			}
+
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Copier<Object> forClass(Class<?> klass) {
+		return (Copier<Object>) Copier.forClass(klass);
+	}
+
+	private static <E> List<? extends E> randomAccess(List<? extends E> list) {
+		return list instanceof RandomAccess ? list : new ArrayList<E>(list);
+	}
+
+	private interface Task {
+
+		void run(int from, int to);
+
+	}
+
+	/**
+	 * Resultado de uma operacao em lote.
+	 */
+	public static final class Statistics {
+
+		private final int count;
+
+		private final int tasks;
+
+		private final long elapsedNanos;
+
+		private Statistics(int count, int tasks, long elapsedNanos) {
+			this.count = count;
+			this.tasks = tasks;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Retorna o numero de elementos processados.
+		 * 
+		 * @return Numero de elementos.
+		 */
+		public int getCount() {
+			return this.count;
+		}
+
+		/**
+		 * Retorna o numero de trechos em que a lista foi dividida.
+		 * 
+		 * @return 1 se a lista foi processada na thread chamadora.
+		 */
+		public int getTasks() {
+			return this.tasks;
+		}
+
+		/**
+		 * Retorna o tempo gasto na operacao.
+		 * 
+		 * @return Tempo em nanossegundos.
+		 */
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		/**
+		 * Retorna o numero de elementos processados por segundo.
+		 * 
+		 * @return Vazao da operacao.
+		 */
+		public double getThroughput() {
+			return this.elapsedNanos > 0 ? this.count * 1e9 / this.elapsedNanos : 0;
+		}
+
+		@Override
+		public String toString() {
+			return this.count + " elementos em " + this.tasks + " trechos, " + this.elapsedNanos + " ns";
+		}
+
+	}
+
+}
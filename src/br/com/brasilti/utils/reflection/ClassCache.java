@@ -0,0 +1,115 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Associa um valor calculado uma unica vez a cada classe, nos moldes de {@code java.lang.ClassValue}.
+ * <p>
+ * As classes sao mantidas por referencias fracas e os valores por referencias suaves, a mesma estrategia usada por
+ * {@code java.io.ObjectStreamClass}. Assim o cache nao impede a coleta de classes carregadas por classloaders
+ * descartados, como acontece em um redeploy.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <V>
+ *            Tipo do valor associado a cada classe.
+ */
+abstract class ClassCache<V> {
+
+	private final ConcurrentMap<Key, SoftReference<V>> values = new ConcurrentHashMap<Key, SoftReference<V>>();
+
+	private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<Class<?>>();
+
+	/**
+	 * Calcula o valor associado a uma determinada classe. Pode ser chamado mais de uma vez para a mesma classe quando
+	 * houver concorrencia ou quando o valor anterior tiver sido coletado.
+	 * 
+	 * @param type
+	 * @return Valor associado a classe.
+	 */
+	protected abstract V computeValue(Class<?> type);
+
+	/**
+	 * Retorna o valor associado a uma determinada classe, calculando-o caso ainda nao exista.
+	 * 
+	 * @param type
+	 * @return Valor associado a classe.
+	 */
+	public V get(Class<?> type) {
+		this.expunge();
+
+		SoftReference<V> reference = this.values.get(new Key(type, null));
+		V value = reference != null ? reference.get() : null;
+
+		if (value == null) {
+			if (reference != null) {
+				ReflectionMetrics.cacheEviction();
+			}
+			ReflectionMetrics.cacheMiss(type);
+
+			value = this.computeValue(type);
+			this.values.put(new Key(type, this.queue), new SoftReference<V>(value));
+		} else {
+			ReflectionMetrics.cacheHit();
+		}
+
+		return value;
+	}
+
+	/**
+	 * Descarta o valor associado a uma determinada classe.
+	 * 
+	 * @param type
+	 */
+	public void remove(Class<?> type) {
+		if (this.values.remove(new Key(type, null)) != null) {
+			ReflectionMetrics.cacheEviction();
+		}
+	}
+
+	private void expunge() {
+		Reference<? extends Class<?>> reference;
+		while ((reference = this.queue.poll()) != null) {
+			if (this.values.remove(reference) != null) {
+				ReflectionMetrics.cacheEviction();
+			}
+		}
+	}
+
+	private static final class Key extends WeakReference<Class<?>> {
+
+		private final int hash;
+
+		private Key(Class<?> type, ReferenceQueue<Class<?>> queue) {
+			super(type, queue);
+			this.hash = System.identityHashCode(type);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Class<?> type = this.get();
+			return type != null && type == ((Key) obj).get();
+		}
+
+	}
+
+}
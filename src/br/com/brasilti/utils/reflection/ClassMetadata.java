@@ -0,0 +1,537 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metadados de uma classe calculados uma unica vez e mantidos em cache. Evita que cada consulta de
+ * {@link ReflectionUtil} percorra novamente os arrays devolvidos por {@link Class#getDeclaredFields()} e
+ * {@link Class#getDeclaredMethods()}, que sao clonados a cada chamada.
+ * <p>
+ * Os metodos terminados em {@code InHierarchy} consideram tambem as superclasses e as interfaces da classe. A hierarquia
+ * e linearizada uma unica vez, na primeira consulta, reaproveitando os metadados ja calculados para cada supertipo.
+ * <p>
+ * As consultas nunca lancam excecoes nem imprimem mensagens quando o membro procurado nao existe. Buscas por assinatura
+ * guardam tambem os resultados negativos, de modo que procurar repetidamente um membro ausente custa apenas uma consulta
+ * a um mapa.
+ * <p>
+ * As instancias podem ser compartilhadas entre threads. Os objetos {@link Field}, {@link Method} e {@link Constructor}
+ * devolvidos tambem sao compartilhados por todos os usuarios dos metadados e nao devem ser alterados, por exemplo por
+ * {@link AccessibleObject#setAccessible(boolean)}; {@link ReflectionUtil} devolve copias dos atributos.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class ClassMetadata {
+
+	private static final Object MISSING = new Object();
+
+	private static final ClassCache<ClassMetadata> CACHE = new ClassCache<ClassMetadata>() {
+
+		@Override
+		protected ClassMetadata computeValue(Class<?> type) {
+			return new ClassMetadata(type);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final List<Field> persistentFields;
+
+	private final Map<String, Field> fields;
+
+	private final Map<String, FieldAccessor> accessors;
+
+	private final List<FieldAccessor> persistentAccessors;
+
+	private final Method[] declaredMethods;
+
+	private final Map<String, Method> methods;
+
+	private final Constructor<?>[] declaredConstructors;
+
+	private final Constructor<?> defaultConstructor;
+
+	private final ConcurrentMap<Signature, Object> members = new ConcurrentHashMap<Signature, Object>();
+
+	private volatile Set<Class<? extends Annotation>> annotations;
+
+	private volatile Hierarchy hierarchy;
+
+	private ClassMetadata(Class<?> type) {
+		this.type = type;
+
+		Field[] declaredFields = type.getDeclaredFields();
+
+		List<Field> persistentFields = new ArrayList<Field>();
+		this.fields = new HashMap<String, Field>();
+		for (Field field : declaredFields) {
+			this.fields.put(field.getName(), field);
+
+			if (ReflectionUtil.isPersistent(field)) {
+				persistentFields.add(field);
+			}
+		}
+		this.persistentFields = Collections.unmodifiableList(persistentFields);
+
+		Field[] accessorFields = type.getDeclaredFields();
+		makeAccessible(accessorFields);
+
+		this.accessors = new HashMap<String, FieldAccessor>();
+		for (Field field : accessorFields) {
+			this.accessors.put(field.getName(), new FieldAccessor(this.fields.get(field.getName()), field));
+		}
+
+		List<FieldAccessor> persistentAccessors = new ArrayList<FieldAccessor>();
+		for (Field field : persistentFields) {
+			persistentAccessors.add(this.accessors.get(field.getName()));
+		}
+		this.persistentAccessors = Collections.unmodifiableList(persistentAccessors);
+
+		this.declaredMethods = type.getDeclaredMethods();
+		this.methods = new HashMap<String, Method>();
+		for (Method method : this.declaredMethods) {
+			if (!this.methods.containsKey(method.getName())) {
+				this.methods.put(method.getName(), method);
+			}
+		}
+
+		this.declaredConstructors = type.getDeclaredConstructors();
+		Constructor<?> defaultConstructor = null;
+		for (Constructor<?> constructor : this.declaredConstructors) {
+			if (constructor.getParameterTypes().length == 0) {
+				defaultConstructor = constructor;
+			}
+		}
+		this.defaultConstructor = defaultConstructor;
+	}
+
+	/**
+	 * Retorna os metadados de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return Metadados da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula.
+	 */
+	public static ClassMetadata forClass(Class<?> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a classe descrita pelos metadados.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Retorna os atributos persistentes da classe, na ordem em que foram declarados.
+	 * 
+	 * @return Lista imutavel de atributos.
+	 * @see ReflectionUtil#isPersistent(Field)
+	 */
+	public List<Field> getPersistentFields() {
+		return this.persistentFields;
+	}
+
+	/**
+	 * Retorna um atributo declarado pela classe.
+	 * 
+	 * @param fieldName
+	 * @return null se a classe nao declarar o atributo.
+	 */
+	public Field getField(String fieldName) {
+		return this.fields.get(fieldName);
+	}
+
+	/**
+	 * Indica que a classe declara um determinado atributo.
+	 * 
+	 * @param fieldName
+	 * @return true se a classe declara o atributo.
+	 */
+	public boolean hasField(String fieldName) {
+		return this.fields.containsKey(fieldName);
+	}
+
+	/**
+	 * Retorna o acessor de um atributo declarado pela classe.
+	 * 
+	 * @param fieldName
+	 * @return null se a classe nao declarar o atributo.
+	 */
+	public FieldAccessor getAccessor(String fieldName) {
+		return this.accessors.get(fieldName);
+	}
+
+	/**
+	 * Retorna os acessores dos atributos persistentes da classe, na mesma ordem de {@link #getPersistentFields()}.
+	 * 
+	 * @return Lista imutavel de acessores.
+	 */
+	public List<FieldAccessor> getPersistentAccessors() {
+		return this.persistentAccessors;
+	}
+
+	/**
+	 * Indica que a classe declara um determinado metodo.
+	 * 
+	 * @param methodName
+	 * @return true se a classe declara o metodo.
+	 */
+	public boolean hasMethod(String methodName) {
+		return this.methods.containsKey(methodName);
+	}
+
+	/**
+	 * Retorna o construtor sem argumentos declarado pela classe, qualquer que seja a sua visibilidade.
+	 * 
+	 * @return null se a classe nao declarar um construtor sem argumentos.
+	 */
+	public Constructor<?> getDefaultConstructor() {
+		return this.defaultConstructor;
+	}
+
+	/**
+	 * Indica que a classe possui um construtor publico sem argumentos.
+	 * 
+	 * @return true se a classe possui o construtor.
+	 */
+	public boolean hasPublicDefaultConstructor() {
+		return this.defaultConstructor != null && Modifier.isPublic(this.defaultConstructor.getModifiers());
+	}
+
+	/**
+	 * Retorna o construtor declarado pela classe com os tipos de parametros informados.
+	 * 
+	 * @param parameterTypes
+	 * @return null se a classe nao declarar o construtor.
+	 */
+	public Constructor<?> findConstructor(Class<?>... parameterTypes) {
+		Signature signature = new Signature(null, parameterTypes);
+
+		Object member = this.members.get(signature);
+		if (member == null) {
+			member = MISSING;
+			for (Constructor<?> constructor : this.declaredConstructors) {
+				if (Arrays.equals(constructor.getParameterTypes(), parameterTypes)) {
+					member = constructor;
+					break;
+				}
+			}
+
+			this.members.put(signature.copy(), member);
+		}
+
+		return member != MISSING ? (Constructor<?>) member : null;
+	}
+
+	/**
+	 * Retorna o metodo declarado pela classe com o nome e os tipos de parametros informados.
+	 * 
+	 * @param methodName
+	 * @param parameterTypes
+	 * @return null se a classe nao declarar o metodo.
+	 */
+	public Method findMethod(String methodName, Class<?>... parameterTypes) {
+		Signature signature = new Signature(methodName, parameterTypes);
+
+		Object member = this.members.get(signature);
+		if (member == null) {
+			member = MISSING;
+			for (Method method : this.declaredMethods) {
+				if (method.getName().equals(methodName) && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+					member = method;
+					if (!method.isBridge()) {
+						break;
+					}
+				}
+			}
+
+			this.members.put(signature.copy(), member);
+		}
+
+		return member != MISSING ? (Method) member : null;
+	}
+
+	/**
+	 * Indica que a classe esta anotada por uma determinada anotacao.
+	 * 
+	 * @param annotationClass
+	 * @return true se a classe esta anotada pela anotacao.
+	 */
+	public boolean isAnnotated(Class<? extends Annotation> annotationClass) {
+		return this.annotations().contains(annotationClass);
+	}
+
+	/**
+	 * Retorna a linearizacao da hierarquia da classe: a propria classe e as suas superclasses, da mais especifica para
+	 * {@link Object}, seguidas das interfaces implementadas direta ou indiretamente.
+	 * 
+	 * @return Lista imutavel de classes e interfaces.
+	 */
+	public List<Class<?>> getHierarchy() {
+		return this.hierarchy().types;
+	}
+
+	/**
+	 * Retorna as interfaces implementadas pela classe, direta ou indiretamente.
+	 * 
+	 * @return Conjunto imutavel de interfaces.
+	 */
+	public Set<Class<?>> getInterfaces() {
+		return this.hierarchy().interfaces;
+	}
+
+	/**
+	 * Indica que a classe implementa uma determinada interface, direta ou indiretamente.
+	 * 
+	 * @param interfaceClass
+	 * @return true se a classe implementa a interface.
+	 */
+	public boolean implementz(Class<?> interfaceClass) {
+		return this.hierarchy().interfaces.contains(interfaceClass);
+	}
+
+	/**
+	 * Retorna os atributos persistentes da classe e das suas superclasses. Os atributos das superclasses mais gerais vem
+	 * primeiro e, dentro de cada classe, seguem a ordem de declaracao.
+	 * 
+	 * @return Lista imutavel de atributos.
+	 */
+	public List<Field> getPersistentFieldsInHierarchy() {
+		return this.hierarchy().persistentFields;
+	}
+
+	/**
+	 * Retorna os acessores dos atributos persistentes da classe e das suas superclasses, na mesma ordem de
+	 * {@link #getPersistentFieldsInHierarchy()}.
+	 * 
+	 * @return Lista imutavel de acessores.
+	 */
+	public List<FieldAccessor> getPersistentAccessorsInHierarchy() {
+		return this.hierarchy().persistentAccessors;
+	}
+
+	/**
+	 * Retorna um atributo declarado pela classe ou por uma das suas superclasses. Prevalece a declaracao mais
+	 * especifica.
+	 * 
+	 * @param fieldName
+	 * @return null se nenhuma classe da hierarquia declarar o atributo.
+	 */
+	public Field getFieldInHierarchy(String fieldName) {
+		return this.hierarchy().fields.get(fieldName);
+	}
+
+	/**
+	 * Indica que a classe ou uma das suas superclasses declara um determinado atributo.
+	 * 
+	 * @param fieldName
+	 * @return true se alguma classe da hierarquia declara o atributo.
+	 */
+	public boolean hasFieldInHierarchy(String fieldName) {
+		return this.hierarchy().fields.containsKey(fieldName);
+	}
+
+	/**
+	 * Indica que a classe, uma das suas superclasses ou uma das suas interfaces declara um determinado metodo.
+	 * 
+	 * @param methodName
+	 * @return true se algum tipo da hierarquia declara o metodo.
+	 */
+	public boolean hasMethodInHierarchy(String methodName) {
+		return this.hierarchy().methods.contains(methodName);
+	}
+
+	/**
+	 * Indica que a classe, uma das suas superclasses ou uma das suas interfaces esta anotada por uma determinada
+	 * anotacao.
+	 * 
+	 * @param annotationClass
+	 * @return true se algum tipo da hierarquia esta anotado pela anotacao.
+	 */
+	public boolean isAnnotatedInHierarchy(Class<? extends Annotation> annotationClass) {
+		return this.hierarchy().annotations.contains(annotationClass);
+	}
+
+	private Hierarchy hierarchy() {
+		Hierarchy hierarchy = this.hierarchy;
+		if (hierarchy == null) {
+			hierarchy = new Hierarchy(this);
+			this.hierarchy = hierarchy;
+		}
+
+		return hierarchy;
+	}
+
+	/**
+	 * As anotacoes sao lidas apenas na primeira consulta, pois a maior parte das classes nunca e consultada.
+	 */
+	private Set<Class<? extends Annotation>> annotations() {
+		Set<Class<? extends Annotation>> annotations = this.annotations;
+		if (annotations == null) {
+			annotations = new HashSet<Class<? extends Annotation>>();
+			for (Annotation annotation : this.type.getAnnotations()) {
+				annotations.add(annotation.annotationType());
+			}
+			this.annotations = annotations;
+		}
+
+		return annotations;
+	}
+
+	/**
+	 * Visao da hierarquia de uma classe, montada a partir das visoes ja calculadas para a superclasse e as interfaces.
+	 */
+	private static final class Hierarchy {
+
+		private final List<Class<?>> types;
+
+		private final Set<Class<?>> interfaces;
+
+		private final List<Field> persistentFields;
+
+		private final List<FieldAccessor> persistentAccessors;
+
+		private final Map<String, Field> fields;
+
+		private final Set<String> methods;
+
+		private final Set<Class<? extends Annotation>> annotations;
+
+		private Hierarchy(ClassMetadata metadata) {
+			Class<?> type = metadata.type;
+			Class<?> superclass = type.getSuperclass();
+			Hierarchy parent = superclass != null ? forClass(superclass).hierarchy() : null;
+
+			Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+			for (Class<?> i : type.getInterfaces()) {
+				interfaces.add(i);
+				interfaces.addAll(forClass(i).hierarchy().interfaces);
+			}
+			if (parent != null) {
+				interfaces.addAll(parent.interfaces);
+			}
+			this.interfaces = Collections.unmodifiableSet(interfaces);
+
+			List<Class<?>> types = new ArrayList<Class<?>>();
+			types.add(type);
+			for (Class<?> klass = superclass; klass != null; klass = klass.getSuperclass()) {
+				types.add(klass);
+			}
+			types.addAll(interfaces);
+			this.types = Collections.unmodifiableList(types);
+
+			List<Field> persistentFields = new ArrayList<Field>();
+			List<FieldAccessor> persistentAccessors = new ArrayList<FieldAccessor>();
+			Map<String, Field> fields = new HashMap<String, Field>();
+			Set<String> methods = new HashSet<String>(metadata.methods.keySet());
+			Set<Class<? extends Annotation>> annotations = new HashSet<Class<? extends Annotation>>(metadata.annotations());
+
+			if (parent != null) {
+				persistentFields.addAll(parent.persistentFields);
+				persistentAccessors.addAll(parent.persistentAccessors);
+				fields.putAll(parent.fields);
+				methods.addAll(parent.methods);
+				annotations.addAll(parent.annotations);
+			}
+			for (Class<?> i : type.getInterfaces()) {
+				Hierarchy hierarchy = forClass(i).hierarchy();
+				methods.addAll(hierarchy.methods);
+				annotations.addAll(hierarchy.annotations);
+			}
+
+			persistentFields.addAll(metadata.persistentFields);
+			persistentAccessors.addAll(metadata.persistentAccessors);
+			fields.putAll(metadata.fields);
+
+			this.persistentFields = Collections.unmodifiableList(persistentFields);
+			this.persistentAccessors = Collections.unmodifiableList(persistentAccessors);
+			this.fields = fields;
+			this.methods = methods;
+			this.annotations = annotations;
+		}
+
+	}
+
+	/**
+	 * Chave das buscas por assinatura. Construtores sao identificados pelo nome nulo.
+	 */
+	private static final class Signature {
+
+		private final String name;
+
+		private final Class<?>[] parameterTypes;
+
+		private final int hash;
+
+		private Signature(String name, Class<?>[] parameterTypes) {
+			this.name = name;
+			this.parameterTypes = parameterTypes;
+			this.hash = (name != null ? name.hashCode() : 0) * 31 + Arrays.hashCode(parameterTypes);
+		}
+
+		private Signature copy() {
+			return new Signature(this.name, this.parameterTypes.clone());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Signature)) {
+				return false;
+			}
+
+			Signature other = (Signature) obj;
+			boolean sameName = this.name != null ? this.name.equals(other.name) : other.name == null;
+
+			return sameName && Arrays.equals(this.parameterTypes, other.parameterTypes);
+		}
+
+	}
+
+	/**
+	 * Torna os atributos acessiveis uma unica vez. Como os objetos ficam em cache, nao ha necessidade de restaurar o
+	 * estado original a cada acesso. Atributos protegidos pelo {@link SecurityManager} ou pela plataforma permanecem
+	 * como estao.
+	 */
+	private static void makeAccessible(AccessibleObject[] objects) {
+		for (AccessibleObject object : objects) {
+			try {
+				object.setAccessible(true);
+			} catch (RuntimeException e) {
+				// Mantem o objeto inacessivel.
+			}
+		}
+	}
+
+}
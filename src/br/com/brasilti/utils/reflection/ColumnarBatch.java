@@ -0,0 +1,1100 @@
+package br.com.brasilti.utils.reflection;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Visao em colunas de uma lista de instancias de uma classe, para consultas que percorrem muitas instancias e leem
+ * poucos atributos de cada uma.
+ * <p>
+ * Cada atributo persistente da hierarquia vira um array: atributos primitivos e empacotados viram arrays do tipo
+ * primitivo correspondente, com as linhas nulas marcadas em um {@link BitSet}, e os demais viram arrays de objetos. Os
+ * filtros percorrem um unico array e retornam as linhas aceitas como um {@link BitSet}, que pode ser combinado com
+ * {@link BitSet#and(BitSet)} e {@link BitSet#or(BitSet)} e usado para restringir as agregacoes e para montar um novo lote
+ * com {@link #subset(BitSet)}. Linhas nulas nunca sao aceitas pelos filtros nem consideradas pelas agregacoes.
+ * <p>
+ * O lote e uma copia: alteracoes posteriores nas instancias de origem nao aparecem no lote. Os arrays retornados pelos
+ * metodos de acesso as colunas sao os do proprio lote e nao devem ser alterados.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias de origem.
+ */
+public final class ColumnarBatch<T> {
+
+	private final Class<?> type;
+
+	private final int size;
+
+	private final Map<String, Column> columns;
+
+	private ColumnarBatch(Class<?> type, int size, Map<String, Column> columns) {
+		this.type = type;
+		this.size = size;
+		this.columns = columns;
+	}
+
+	/**
+	 * Monta o lote de uma lista de instancias.
+	 * 
+	 * @param klass
+	 * @param instances
+	 * @return Lote com uma coluna por atributo persistente.
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo ou se alguma instancia for nula ou nao for da classe informada.
+	 */
+	public static <T> ColumnarBatch<T> of(Class<T> klass, List<? extends T> instances) {
+		if (klass == null || instances == null) {
+			throw new IllegalArgumentException();
+		}
+
+		List<? extends T> rows = instances;
+		if (!(rows instanceof RandomAccess)) {
+			rows = new ArrayList<T>(instances);
+		}
+		for (T instance : rows) {
+			if (instance == null || instance.getClass() != klass) {
+				throw new IllegalArgumentException();
+			}
+		}
+
+		Map<String, Column> columns = new LinkedHashMap<String, Column>();
+		for (FieldAccessor accessor : ClassMetadata.forClass(klass).getPersistentAccessorsInHierarchy()) {
+			Column column = createColumn(accessor, rows.size());
+			column.load(rows);
+			columns.put(accessor.getField().getName(), column);
+		}
+		ReflectionMetrics.compiledAccess(klass, columns.size() * rows.size());
+
+		return new ColumnarBatch<T>(klass, rows.size(), columns);
+	}
+
+	/**
+	 * Retorna a classe das instancias de origem.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Retorna o numero de linhas.
+	 * 
+	 * @return Numero de linhas.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Retorna o nome dos atributos presentes no lote, na ordem dos metadados.
+	 * 
+	 * @return Nomes dos atributos.
+	 */
+	public List<String> getFieldNames() {
+		return new ArrayList<String>(this.columns.keySet());
+	}
+
+	/**
+	 * Retorna as linhas nulas de uma coluna.
+	 * 
+	 * @param fieldName
+	 * @return Linhas nulas; vazio para atributos primitivos.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir.
+	 */
+	public BitSet getNulls(String fieldName) {
+		return this.column(fieldName).nulls;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo boolean ou {@link Boolean}. Linhas nulas valem false.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public boolean[] getBooleanColumn(String fieldName) {
+		return this.column(fieldName, BooleanColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo byte ou {@link Byte}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public byte[] getByteColumn(String fieldName) {
+		return this.column(fieldName, ByteColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo char ou {@link Character}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public char[] getCharColumn(String fieldName) {
+		return this.column(fieldName, CharColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo short ou {@link Short}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public short[] getShortColumn(String fieldName) {
+		return this.column(fieldName, ShortColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo int ou {@link Integer}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public int[] getIntColumn(String fieldName) {
+		return this.column(fieldName, IntColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo long ou {@link Long}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public long[] getLongColumn(String fieldName) {
+		return this.column(fieldName, LongColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo float ou {@link Float}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public float[] getFloatColumn(String fieldName) {
+		return this.column(fieldName, FloatColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo double ou {@link Double}. Linhas nulas valem 0.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public double[] getDoubleColumn(String fieldName) {
+		return this.column(fieldName, DoubleColumn.class).values;
+	}
+
+	/**
+	 * Retorna a coluna de um atributo de referencia que nao seja de um tipo empacotado.
+	 * 
+	 * @param fieldName
+	 * @return Valores da coluna.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public Object[] getColumn(String fieldName) {
+		return this.column(fieldName, ObjectColumn.class).values;
+	}
+
+	/**
+	 * Retorna as linhas cujo valor de uma coluna int ou {@link Integer} e aceito pelo filtro.
+	 * 
+	 * @param fieldName
+	 * @param filter
+	 * @return Linhas aceitas.
+	 * @exception IllegalArgumentException
+	 *                se o filtro for nulo ou se a coluna nao existir ou for de outro tipo.
+	 */
+	public BitSet filterInt(String fieldName, IntFilter filter) {
+		IntColumn column = this.column(fieldName, IntColumn.class);
+		if (filter == null) {
+			throw new IllegalArgumentException();
+		}
+
+		int[] values = column.values;
+		BitSet result = new BitSet(this.size);
+		for (int i = 0; i < this.size; i++) {
+			if (filter.accept(values[i])) {
+				result.set(i);
+			}
+		}
+		result.andNot(column.nulls);
+
+		return result;
+	}
+
+	/**
+	 * Retorna as linhas cujo valor de uma coluna long ou {@link Long} e aceito pelo filtro.
+	 * 
+	 * @param fieldName
+	 * @param filter
+	 * @return Linhas aceitas.
+	 * @exception IllegalArgumentException
+	 *                se o filtro for nulo ou se a coluna nao existir ou for de outro tipo.
+	 */
+	public BitSet filterLong(String fieldName, LongFilter filter) {
+		LongColumn column = this.column(fieldName, LongColumn.class);
+		if (filter == null) {
+			throw new IllegalArgumentException();
+		}
+
+		long[] values = column.values;
+		BitSet result = new BitSet(this.size);
+		for (int i = 0; i < this.size; i++) {
+			if (filter.accept(values[i])) {
+				result.set(i);
+			}
+		}
+		result.andNot(column.nulls);
+
+		return result;
+	}
+
+	/**
+	 * Retorna as linhas cujo valor de uma coluna double ou {@link Double} e aceito pelo filtro.
+	 * 
+	 * @param fieldName
+	 * @param filter
+	 * @return Linhas aceitas.
+	 * @exception IllegalArgumentException
+	 *                se o filtro for nulo ou se a coluna nao existir ou for de outro tipo.
+	 */
+	public BitSet filterDouble(String fieldName, DoubleFilter filter) {
+		DoubleColumn column = this.column(fieldName, DoubleColumn.class);
+		if (filter == null) {
+			throw new IllegalArgumentException();
+		}
+
+		double[] values = column.values;
+		BitSet result = new BitSet(this.size);
+		for (int i = 0; i < this.size; i++) {
+			if (filter.accept(values[i])) {
+				result.set(i);
+			}
+		}
+		result.andNot(column.nulls);
+
+		return result;
+	}
+
+	/**
+	 * Retorna as linhas cujo valor de uma coluna de referencia e aceito pelo filtro.
+	 * 
+	 * @param fieldName
+	 * @param filter
+	 * @return Linhas aceitas.
+	 * @exception IllegalArgumentException
+	 *                se o filtro for nulo ou se a coluna nao existir ou for de outro tipo.
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> BitSet filterObject(String fieldName, ObjectFilter<? super V> filter) {
+		ObjectColumn column = this.column(fieldName, ObjectColumn.class);
+		if (filter == null) {
+			throw new IllegalArgumentException();
+		}
+
+		Object[] values = column.values;
+		BitSet result = new BitSet(this.size);
+		for (int i = 0; i < this.size; i++) {
+			if (values[i] != null && filter.accept((V) values[i])) {
+				result.set(i);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Conta as linhas de uma selecao.
+	 * 
+	 * @param selection
+	 *            Linhas consideradas ou null para todas.
+	 * @return Numero de linhas.
+	 */
+	public int count(BitSet selection) {
+		if (selection == null) {
+			return this.size;
+		}
+
+		return selection.get(0, this.size).cardinality();
+	}
+
+	/**
+	 * Combina os valores nao nulos de uma coluna int, long, {@link Integer} ou {@link Long}.
+	 * 
+	 * @param fieldName
+	 * @param selection
+	 *            Linhas consideradas ou null para todas.
+	 * @param identity
+	 *            Valor inicial.
+	 * @param reducer
+	 * @return Valor combinado ou o valor inicial se nenhuma linha for considerada.
+	 * @exception IllegalArgumentException
+	 *                se o redutor for nulo ou se a coluna nao existir ou for de outro tipo.
+	 */
+	public long reduceLong(String fieldName, BitSet selection, long identity, LongReducer reducer) {
+		Column column = this.column(fieldName);
+		if (reducer == null) {
+			throw new IllegalArgumentException();
+		}
+
+		BitSet rows = this.rows(selection, column);
+		long result = identity;
+		if (column instanceof IntColumn) {
+			int[] values = ((IntColumn) column).values;
+			for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+				result = reducer.reduce(result, values[i]);
+			}
+		} else if (column instanceof LongColumn) {
+			long[] values = ((LongColumn) column).values;
+			for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+				result = reducer.reduce(result, values[i]);
+			}
+		} else {
+			throw new IllegalArgumentException();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Combina os valores nao nulos de uma coluna float, double, {@link Float} ou {@link Double}.
+	 * 
+	 * @param fieldName
+	 * @param selection
+	 *            Linhas consideradas ou null para todas.
+	 * @param identity
+	 *            Valor inicial.
+	 * @param reducer
+	 * @return Valor combinado ou o valor inicial se nenhuma linha for considerada.
+	 * @exception IllegalArgumentException
+	 *                se o redutor for nulo ou se a coluna nao existir ou for de outro tipo.
+	 */
+	public double reduceDouble(String fieldName, BitSet selection, double identity, DoubleReducer reducer) {
+		Column column = this.column(fieldName);
+		if (reducer == null) {
+			throw new IllegalArgumentException();
+		}
+
+		BitSet rows = this.rows(selection, column);
+		double result = identity;
+		if (column instanceof FloatColumn) {
+			float[] values = ((FloatColumn) column).values;
+			for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+				result = reducer.reduce(result, values[i]);
+			}
+		} else if (column instanceof DoubleColumn) {
+			double[] values = ((DoubleColumn) column).values;
+			for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+				result = reducer.reduce(result, values[i]);
+			}
+		} else {
+			throw new IllegalArgumentException();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Soma os valores nao nulos de uma coluna int, long, {@link Integer} ou {@link Long}. Sem selecao e sem nulos, a
+	 * soma percorre o array diretamente.
+	 * 
+	 * @param fieldName
+	 * @param selection
+	 *            Linhas consideradas ou null para todas.
+	 * @return Soma dos valores.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public long sumLong(String fieldName, BitSet selection) {
+		Column column = this.column(fieldName);
+		if (selection != null || !column.nulls.isEmpty()) {
+			return this.reduceLong(fieldName, selection, 0L, SUM_LONG);
+		}
+
+		long sum = 0;
+		if (column instanceof IntColumn) {
+			for (int value : ((IntColumn) column).values) {
+				sum += value;
+			}
+		} else if (column instanceof LongColumn) {
+			for (long value : ((LongColumn) column).values) {
+				sum += value;
+			}
+		} else {
+			throw new IllegalArgumentException();
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Soma os valores nao nulos de uma coluna float, double, {@link Float} ou {@link Double}. Sem selecao e sem nulos, a
+	 * soma percorre o array diretamente.
+	 * 
+	 * @param fieldName
+	 * @param selection
+	 *            Linhas consideradas ou null para todas.
+	 * @return Soma dos valores.
+	 * @exception IllegalArgumentException
+	 *                se a coluna nao existir ou for de outro tipo.
+	 */
+	public double sumDouble(String fieldName, BitSet selection) {
+		Column column = this.column(fieldName);
+		if (selection != null || !column.nulls.isEmpty()) {
+			return this.reduceDouble(fieldName, selection, 0.0, SUM_DOUBLE);
+		}
+
+		double sum = 0;
+		if (column instanceof FloatColumn) {
+			for (float value : ((FloatColumn) column).values) {
+				sum += value;
+			}
+		} else if (column instanceof DoubleColumn) {
+			for (double value : ((DoubleColumn) column).values) {
+				sum += value;
+			}
+		} else {
+			throw new IllegalArgumentException();
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Monta um novo lote apenas com as linhas selecionadas, na mesma ordem.
+	 * 
+	 * @param selection
+	 * @return Novo lote.
+	 * @exception IllegalArgumentException
+	 *                se a selecao for nula.
+	 */
+	public ColumnarBatch<T> subset(BitSet selection) {
+		if (selection == null) {
+			throw new IllegalArgumentException();
+		}
+
+		BitSet rows = selection.get(0, this.size);
+		int count = rows.cardinality();
+
+		Map<String, Column> columns = new LinkedHashMap<String, Column>();
+		for (Map.Entry<String, Column> entry : this.columns.entrySet()) {
+			Column column = entry.getValue();
+
+			Column copy = createColumn(column.accessor, count);
+			int j = 0;
+			for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+				if (column.nulls.get(i)) {
+					copy.nulls.set(j);
+				}
+				column.copy(i, copy, j++);
+			}
+
+			columns.put(entry.getKey(), copy);
+		}
+
+		return new ColumnarBatch<T>(this.type, count, columns);
+	}
+
+	/**
+	 * Monta um novo lote apenas com as colunas informadas, que compartilha os arrays deste lote.
+	 * 
+	 * @param fieldNames
+	 * @return Novo lote.
+	 * @exception IllegalArgumentException
+	 *                se alguma coluna nao existir.
+	 */
+	public ColumnarBatch<T> project(String... fieldNames) {
+		Map<String, Column> columns = new LinkedHashMap<String, Column>();
+		for (String fieldName : fieldNames) {
+			columns.put(fieldName, this.column(fieldName));
+		}
+
+		return new ColumnarBatch<T>(this.type, this.size, columns);
+	}
+
+	/**
+	 * Recria a instancia de uma linha, atribuindo os atributos presentes no lote. Os demais mantem os valores
+	 * atribuidos pelo construtor.
+	 * 
+	 * @param row
+	 * @return Nova instancia.
+	 * @exception IllegalArgumentException
+	 *                se a classe nao possuir construtor sem argumentos.
+	 * @exception IndexOutOfBoundsException
+	 *                se a linha nao existir.
+	 */
+	@SuppressWarnings("unchecked")
+	public T toEntity(int row) {
+		if (row < 0 || row >= this.size) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Object instance = Instantiator.forClass(this.type).newInstance();
+		for (Column column : this.columns.values()) {
+			column.store(row, instance);
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.columns.size());
+
+		return (T) instance;
+	}
+
+	/**
+	 * Recria as instancias de todas as linhas.
+	 * 
+	 * @return Lista com uma nova instancia por linha.
+	 * @exception IllegalArgumentException
+	 *                se a classe nao possuir construtor sem argumentos.
+	 * @see #toEntity(int)
+	 */
+	public List<T> toEntities() {
+		List<T> entities = new ArrayList<T>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			entities.add(this.toEntity(i));
+		}
+
+		return entities;
+	}
+
+	private BitSet rows(BitSet selection, Column column) {
+		BitSet rows;
+		if (selection == null) {
+			rows = new BitSet(this.size);
+			rows.set(0, this.size);
+		} else {
+			rows = selection.get(0, this.size);
+		}
+		rows.andNot(column.nulls);
+
+		return rows;
+	}
+
+	private Column column(String fieldName) {
+		Column column = fieldName != null ? this.columns.get(fieldName) : null;
+		if (column == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return column;
+	}
+
+	private <C extends Column> C column(String fieldName, Class<C> columnType) {
+		Column column = this.column(fieldName);
+		if (column.getClass() != columnType) {
+			throw new IllegalArgumentException();
+		}
+
+		return columnType.cast(column);
+	}
+
+	private static Column createColumn(FieldAccessor accessor, int size) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class || type == Integer.class) {
+			return new IntColumn(accessor, size);
+		} else if (type == long.class || type == Long.class) {
+			return new LongColumn(accessor, size);
+		} else if (type == boolean.class || type == Boolean.class) {
+			return new BooleanColumn(accessor, size);
+		} else if (type == double.class || type == Double.class) {
+			return new DoubleColumn(accessor, size);
+		} else if (type == float.class || type == Float.class) {
+			return new FloatColumn(accessor, size);
+		} else if (type == short.class || type == Short.class) {
+			return new ShortColumn(accessor, size);
+		} else if (type == byte.class || type == Byte.class) {
+			return new ByteColumn(accessor, size);
+		} else if (type == char.class || type == Character.class) {
+			return new CharColumn(accessor, size);
+		}
+
+		return new ObjectColumn(accessor, size);
+	}
+
+	private static final LongReducer SUM_LONG = new LongReducer() {
+
+		@Override
+		public long reduce(long accumulator, long value) {
+			return accumulator + value;
+		}
+
+	};
+
+	private static final DoubleReducer SUM_DOUBLE = new DoubleReducer() {
+
+		@Override
+		public double reduce(double accumulator, double value) {
+			return accumulator + value;
+		}
+
+	};
+
+	/**
+	 * Filtro de valores int.
+	 */
+	public interface IntFilter {
+
+		boolean accept(int value);
+
+	}
+
+	/**
+	 * Filtro de valores long.
+	 */
+	public interface LongFilter {
+
+		boolean accept(long value);
+
+	}
+
+	/**
+	 * Filtro de valores double.
+	 */
+	public interface DoubleFilter {
+
+		boolean accept(double value);
+
+	}
+
+	/**
+	 * Filtro de valores de referencia. Nunca recebe null.
+	 * 
+	 * @param <V>
+	 *            Tipo dos valores.
+	 */
+	public interface ObjectFilter<V> {
+
+		boolean accept(V value);
+
+	}
+
+	/**
+	 * Combina um valor long ao valor acumulado.
+	 */
+	public interface LongReducer {
+
+		long reduce(long accumulator, long value);
+
+	}
+
+	/**
+	 * Combina um valor double ao valor acumulado.
+	 */
+	public interface DoubleReducer {
+
+		double reduce(double accumulator, double value);
+
+	}
+
+	/**
+	 * Coluna de um atributo. Nos atributos primitivos, a carga e a recriacao usam os metodos especializados do acessor,
+	 * sem empacotamento; nos empacotados, as linhas nulas sao marcadas em {@link #nulls}.
+	 */
+	private abstract static class Column {
+
+		protected final FieldAccessor accessor;
+
+		protected final boolean primitive;
+
+		protected final BitSet nulls = new BitSet();
+
+		protected Column(FieldAccessor accessor) {
+			this.accessor = accessor;
+			this.primitive = accessor.getType().isPrimitive();
+		}
+
+		protected abstract void load(List<?> instances);
+
+		protected abstract void store(int row, Object instance);
+
+		protected abstract void copy(int row, Column target, int targetRow);
+
+	}
+
+	private static final class BooleanColumn extends Column {
+
+		private final boolean[] values;
+
+		private BooleanColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new boolean[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getBoolean(instances.get(i));
+				} else {
+					Boolean value = (Boolean) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setBoolean(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Boolean.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((BooleanColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class ByteColumn extends Column {
+
+		private final byte[] values;
+
+		private ByteColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new byte[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getByte(instances.get(i));
+				} else {
+					Byte value = (Byte) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setByte(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Byte.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((ByteColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class CharColumn extends Column {
+
+		private final char[] values;
+
+		private CharColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new char[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getChar(instances.get(i));
+				} else {
+					Character value = (Character) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setChar(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Character.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((CharColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class ShortColumn extends Column {
+
+		private final short[] values;
+
+		private ShortColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new short[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getShort(instances.get(i));
+				} else {
+					Short value = (Short) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setShort(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Short.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((ShortColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class IntColumn extends Column {
+
+		private final int[] values;
+
+		private IntColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new int[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getInt(instances.get(i));
+				} else {
+					Integer value = (Integer) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setInt(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Integer.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((IntColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class LongColumn extends Column {
+
+		private final long[] values;
+
+		private LongColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new long[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getLong(instances.get(i));
+				} else {
+					Long value = (Long) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setLong(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Long.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((LongColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class FloatColumn extends Column {
+
+		private final float[] values;
+
+		private FloatColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new float[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getFloat(instances.get(i));
+				} else {
+					Float value = (Float) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setFloat(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Float.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((FloatColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class DoubleColumn extends Column {
+
+		private final double[] values;
+
+		private DoubleColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new double[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				if (this.primitive) {
+					this.values[i] = this.accessor.getDouble(instances.get(i));
+				} else {
+					Double value = (Double) this.accessor.get(instances.get(i));
+					if (value == null) {
+						this.nulls.set(i);
+					} else {
+						this.values[i] = value;
+					}
+				}
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			if (this.primitive) {
+				this.accessor.setDouble(this.values[row], instance);
+			} else {
+				this.accessor.set(this.nulls.get(row) ? null : Double.valueOf(this.values[row]), instance);
+			}
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((DoubleColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+	private static final class ObjectColumn extends Column {
+
+		private final Object[] values;
+
+		private ObjectColumn(FieldAccessor accessor, int size) {
+			super(accessor);
+			this.values = new Object[size];
+		}
+
+		@Override
+		protected void load(List<?> instances) {
+			for (int i = 0; i < this.values.length; i++) {
+				Object value = this.accessor.get(instances.get(i));
+				if (value == null) {
+					this.nulls.set(i);
+				}
+				this.values[i] = value;
+			}
+		}
+
+		@Override
+		protected void store(int row, Object instance) {
+			this.accessor.set(this.values[row], instance);
+		}
+
+		@Override
+		protected void copy(int row, Column target, int targetRow) {
+			((ObjectColumn) target).values[targetRow] = this.values[row];
+		}
+
+	}
+
+}
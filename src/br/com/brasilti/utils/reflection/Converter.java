@@ -0,0 +1,24 @@
+package br.com.brasilti.utils.reflection;
+
+/**
+ * Converte um objeto de um tipo em um objeto de outro tipo.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <S>
+ *            Tipo de origem.
+ * @param <T>
+ *            Tipo de destino.
+ */
+public interface Converter<S, T> {
+
+	/**
+	 * Converte um determinado objeto.
+	 * 
+	 * @param source
+	 * @return Objeto convertido.
+	 */
+	T convert(S source);
+
+}
@@ -0,0 +1,270 @@
+package br.com.brasilti.utils.reflection;
+
+import java.util.List;
+
+/**
+ * Copia os atributos persistentes entre instancias de uma mesma classe.
+ * <p>
+ * O copiador obtido por {@link #forClass(Class)} considera apenas os atributos declarados pela propria classe, como
+ * {@link ReflectionUtil#copy(Object, Object)}. O obtido por {@link #forHierarchy(Class)} considera tambem os atributos
+ * herdados das superclasses.
+ * <p>
+ * O plano de copia e montado uma unica vez por classe: cada atributo persistente vira um passo especializado pelo seu
+ * tipo, e os atributos primitivos sao copiados sem empacotamento. A copia de uma instancia apenas percorre os passos
+ * em sequencia, sem consultar novamente os metadados da classe.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias copiadas.
+ */
+public final class Copier<T> {
+
+	private static final ClassCache<Copier<?>> CACHE = new ClassCache<Copier<?>>() {
+
+		@Override
+		protected Copier<?> computeValue(Class<?> type) {
+			return new Copier<Object>(type, ClassMetadata.forClass(type).getPersistentAccessors());
+		}
+
+	};
+
+	private static final ClassCache<Copier<?>> HIERARCHY_CACHE = new ClassCache<Copier<?>>() {
+
+		@Override
+		protected Copier<?> computeValue(Class<?> type) {
+			return new Copier<Object>(type, ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy());
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final Step[] steps;
+
+	private Copier(Class<?> type, List<FieldAccessor> accessors) {
+		this.type = type;
+
+		this.steps = new Step[accessors.size()];
+		for (int i = 0; i < this.steps.length; i++) {
+			this.steps[i] = createStep(accessors.get(i));
+		}
+	}
+
+	/**
+	 * Retorna o copiador de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return Copiador da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Copier<T> forClass(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (Copier<T>) CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna o copiador de uma determinada classe que considera tambem os atributos herdados das superclasses.
+	 * 
+	 * @param klass
+	 * @return Copiador da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Copier<T> forHierarchy(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (Copier<T>) HIERARCHY_CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a classe das instancias copiadas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Copia o valor de cada atributo persistente do objeto de origem para o objeto de destino.
+	 * 
+	 * @param origin
+	 * @param target
+	 * @exception IllegalArgumentException
+	 *                se alguma das instancias nao for da classe do copiador.
+	 */
+	public void copy(T origin, T target) {
+		if (origin.getClass() != this.type || target.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		for (Step step : this.steps) {
+			step.copy(origin, target);
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.steps.length);
+	}
+
+	private static Step createStep(FieldAccessor accessor) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntStep(accessor);
+		} else if (type == long.class) {
+			return new LongStep(accessor);
+		} else if (type == boolean.class) {
+			return new BooleanStep(accessor);
+		} else if (type == double.class) {
+			return new DoubleStep(accessor);
+		} else if (type == float.class) {
+			return new FloatStep(accessor);
+		} else if (type == short.class) {
+			return new ShortStep(accessor);
+		} else if (type == byte.class) {
+			return new ByteStep(accessor);
+		} else if (type == char.class) {
+			return new CharStep(accessor);
+		}
+
+		return new ReferenceStep(accessor);
+	}
+
+	private abstract static class Step {
+
+		protected final FieldAccessor accessor;
+
+		protected Step(FieldAccessor accessor) {
+			this.accessor = accessor;
+		}
+
+		protected abstract void copy(Object origin, Object target);
+
+	}
+
+	private static final class ReferenceStep extends Step {
+
+		private ReferenceStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.set(this.accessor.get(origin), target);
+		}
+
+	}
+
+	private static final class BooleanStep extends Step {
+
+		private BooleanStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setBoolean(this.accessor.getBoolean(origin), target);
+		}
+
+	}
+
+	private static final class ByteStep extends Step {
+
+		private ByteStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setByte(this.accessor.getByte(origin), target);
+		}
+
+	}
+
+	private static final class CharStep extends Step {
+
+		private CharStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setChar(this.accessor.getChar(origin), target);
+		}
+
+	}
+
+	private static final class ShortStep extends Step {
+
+		private ShortStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setShort(this.accessor.getShort(origin), target);
+		}
+
+	}
+
+	private static final class IntStep extends Step {
+
+		private IntStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setInt(this.accessor.getInt(origin), target);
+		}
+
+	}
+
+	private static final class LongStep extends Step {
+
+		private LongStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setLong(this.accessor.getLong(origin), target);
+		}
+
+	}
+
+	private static final class FloatStep extends Step {
+
+		private FloatStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setFloat(this.accessor.getFloat(origin), target);
+		}
+
+	}
+
+	private static final class DoubleStep extends Step {
+
+		private DoubleStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void copy(Object origin, Object target) {
+			this.accessor.setDouble(this.accessor.getDouble(origin), target);
+		}
+
+	}
+
+}
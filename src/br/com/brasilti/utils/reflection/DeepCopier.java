@@ -0,0 +1,248 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Copia profunda de um grafo de objetos, usada por {@link ReflectionUtil#deepCopy(Object)}.
+ * <p>
+ * Cada instancia do copiador mantem um mapa de identidade entre os objetos originais e as suas copias, de modo que
+ * ciclos e referencias compartilhadas sao preservados. Tipos imutaveis sao compartilhados entre o original e a copia,
+ * arrays de tipos primitivos sao clonados diretamente e os demais objetos sao percorridos pelos atributos persistentes
+ * da sua classe e das suas superclasses.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+final class DeepCopier {
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>> asList(String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class, Class.class, Locale.class, UUID.class));
+
+	private static final ClassCache<FieldAccessor[]> REFERENCES = new ClassCache<FieldAccessor[]>() {
+
+		@Override
+		protected FieldAccessor[] computeValue(Class<?> type) {
+			List<FieldAccessor> references = new ArrayList<FieldAccessor>();
+			for (FieldAccessor accessor : ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy()) {
+				Class<?> fieldType = accessor.getType();
+				boolean isFinalImmutable = Modifier.isFinal(fieldType.getModifiers()) && isImmutable(fieldType);
+
+				if (!fieldType.isPrimitive() && !isFinalImmutable) {
+					references.add(accessor);
+				}
+			}
+
+			return references.toArray(new FieldAccessor[references.size()]);
+		}
+
+	};
+
+	private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+	private DeepCopier() {
+
+	}
+
+	/**
+	 * Cria uma copia profunda de um determinado objeto.
+	 * 
+	 * @param origin
+	 * @return Copia do objeto.
+	 * @exception IllegalArgumentException
+	 *                se algum objeto do grafo nao puder ser instanciado por um construtor sem argumentos.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T copy(T origin) {
+		return (T) new DeepCopier().copyOf(origin);
+	}
+
+	/**
+	 * Indica que as instancias de uma determinada classe sao imutaveis e podem ser compartilhadas.
+	 * 
+	 * @param klass
+	 * @return true se a classe e imutavel.
+	 */
+	static boolean isImmutable(Class<?> klass) {
+		return IMMUTABLE_TYPES.contains(klass) || Enum.class.isAssignableFrom(klass);
+	}
+
+	private Object copyOf(Object value) {
+		if (value == null) {
+			return null;
+		}
+
+		Class<?> klass = value.getClass();
+		if (isImmutable(klass)) {
+			return value;
+		}
+
+		Object copy = this.copies.get(value);
+		if (copy != null) {
+			return copy;
+		}
+
+		if (klass.isArray()) {
+			return this.copyArray(value, klass);
+		} else if (value instanceof Collection<?>) {
+			return this.copyCollection((Collection<?>) value);
+		} else if (value instanceof Map<?, ?>) {
+			return this.copyMap((Map<?, ?>) value);
+		} else if (value instanceof Calendar) {
+			return this.register(value, ((Calendar) value).clone());
+		} else if (value instanceof Date) {
+			return this.register(value, ((Date) value).clone());
+		}
+
+		return this.copyObject(value, klass);
+	}
+
+	private Object copyArray(Object value, Class<?> klass) {
+		if (klass == byte[].class) {
+			return this.register(value, ((byte[]) value).clone());
+		} else if (klass == int[].class) {
+			return this.register(value, ((int[]) value).clone());
+		} else if (klass == long[].class) {
+			return this.register(value, ((long[]) value).clone());
+		} else if (klass == char[].class) {
+			return this.register(value, ((char[]) value).clone());
+		} else if (klass == double[].class) {
+			return this.register(value, ((double[]) value).clone());
+		} else if (klass == float[].class) {
+			return this.register(value, ((float[]) value).clone());
+		} else if (klass == short[].class) {
+			return this.register(value, ((short[]) value).clone());
+		} else if (klass == boolean[].class) {
+			return this.register(value, ((boolean[]) value).clone());
+		}
+
+		Object[] array = (Object[]) value;
+		Object[] copy = (Object[]) Array.newInstance(klass.getComponentType(), array.length);
+		this.register(value, copy);
+
+		for (int i = 0; i < array.length; i++) {
+			copy[i] = this.copyOf(array[i]);
+		}
+
+		return copy;
+	}
+
+	private Object copyCollection(Collection<?> collection) {
+		if (collection instanceof EnumSet<?>) {
+			return this.register(collection, ((EnumSet<?>) collection).clone());
+		}
+
+		Collection<Object> copy = newCollection(collection);
+		this.register(collection, copy);
+
+		for (Object element : collection) {
+			copy.add(this.copyOf(element));
+		}
+
+		return copy;
+	}
+
+	private Object copyMap(Map<?, ?> map) {
+		Map<Object, Object> copy = newMap(map);
+		this.register(map, copy);
+
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			copy.put(this.copyOf(entry.getKey()), this.copyOf(entry.getValue()));
+		}
+
+		return copy;
+	}
+
+	private Object copyObject(Object value, Class<?> klass) {
+		Object copy = newInstance(klass);
+		if (copy == null) {
+			throw new IllegalArgumentException();
+		}
+		this.register(value, copy);
+
+		@SuppressWarnings("unchecked")
+		Copier<Object> copier = (Copier<Object>) Copier.forHierarchy(klass);
+		copier.copy(value, copy);
+
+		for (FieldAccessor accessor : REFERENCES.get(klass)) {
+			accessor.set(this.copyOf(accessor.get(value)), copy);
+		}
+
+		return copy;
+	}
+
+	private Object register(Object original, Object copy) {
+		this.copies.put(original, copy);
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Collection<Object> newCollection(Collection<?> collection) {
+		if (collection instanceof SortedSet<?>) {
+			return new TreeSet<Object>(((SortedSet<Object>) collection).comparator());
+		}
+
+		Object instance = newInstance(collection.getClass());
+		if (instance != null) {
+			return (Collection<Object>) instance;
+		}
+
+		if (collection instanceof List<?>) {
+			return new ArrayList<Object>(collection.size());
+		} else if (collection instanceof Set<?>) {
+			return new LinkedHashSet<Object>();
+		} else if (collection instanceof Queue<?>) {
+			return new ArrayDeque<Object>(collection.size());
+		}
+
+		return new ArrayList<Object>(collection.size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> newMap(Map<?, ?> map) {
+		if (map instanceof SortedMap<?, ?>) {
+			return new TreeMap<Object, Object>(((SortedMap<Object, Object>) map).comparator());
+		} else if (map instanceof EnumMap<?, ?>) {
+			EnumMap<?, ?> copy = ((EnumMap<?, ?>) map).clone();
+			copy.clear();
+			return (Map<Object, Object>) copy;
+		}
+
+		Object instance = newInstance(map.getClass());
+		if (instance != null) {
+			return (Map<Object, Object>) instance;
+		}
+
+		return new LinkedHashMap<Object, Object>();
+	}
+
+	private static Object newInstance(Class<?> klass) {
+		Instantiator<?> instantiator = Instantiator.find(klass);
+		return instantiator != null ? instantiator.newInstance() : null;
+	}
+
+}
@@ -0,0 +1,493 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.Entity;
+
+/**
+ * Verificacao de alteracoes nos atributos persistentes de uma entidade.
+ * <p>
+ * Uma {@link Snapshot} guarda apenas os valores dos atributos persistentes: os primitivos em um array de long e as
+ * referencias em um array de objetos. Valores imutaveis sao guardados por referencia, arrays, {@link Calendar} e
+ * {@link Date} sao copiados, e as demais referencias, como associacoes e colecoes, sao comparadas por identidade. Os
+ * arrays de referencias sao copiados superficialmente e os seus elementos seguem a mesma regra. A
+ * comparacao devolve um {@link BitSet} com os indices, em {@link ClassMetadata#getPersistentFieldsInHierarchy()}, dos
+ * atributos alterados.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo da entidade verificada.
+ */
+public final class DirtyChecker<T> {
+
+	private static final ClassCache<DirtyChecker<?>> CACHE = new ClassCache<DirtyChecker<?>>() {
+
+		@Override
+		protected DirtyChecker<?> computeValue(Class<?> type) {
+			return new DirtyChecker<Object>(type);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final List<Field> fields;
+
+	private final Slot[] slots;
+
+	private final int primitiveCount;
+
+	private final int referenceCount;
+
+	private DirtyChecker(Class<?> type) {
+		ClassMetadata metadata = ClassMetadata.forClass(type);
+		List<FieldAccessor> accessors = metadata.getPersistentAccessorsInHierarchy();
+
+		this.type = type;
+		this.fields = metadata.getPersistentFieldsInHierarchy();
+		this.slots = new Slot[accessors.size()];
+
+		int primitiveCount = 0;
+		int referenceCount = 0;
+		for (int i = 0; i < this.slots.length; i++) {
+			FieldAccessor accessor = accessors.get(i);
+			Class<?> fieldType = accessor.getType();
+
+			if (fieldType.isPrimitive()) {
+				this.slots[i] = createPrimitiveSlot(accessor, primitiveCount++);
+			} else if (Modifier.isFinal(fieldType.getModifiers()) && DeepCopier.isImmutable(fieldType)) {
+				this.slots[i] = new ValueSlot(accessor, referenceCount++);
+			} else {
+				this.slots[i] = new ReferenceSlot(accessor, referenceCount++);
+			}
+		}
+		this.primitiveCount = primitiveCount;
+		this.referenceCount = referenceCount;
+	}
+
+	/**
+	 * Retorna o verificador de uma determinada entidade.
+	 * 
+	 * @param klass
+	 * @return Verificador da entidade.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula ou nao estiver anotada por {@link Entity}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> DirtyChecker<T> forClass(Class<T> klass) {
+		if (klass == null || !ReflectionUtil.isAnnotated(klass, Entity.class)) {
+			throw new IllegalArgumentException();
+		}
+
+		return (DirtyChecker<T>) CACHE.get(klass);
+	}
+
+	/**
+	 * Captura o estado atual dos atributos persistentes da instancia.
+	 * 
+	 * @param instance
+	 * @return Estado da instancia.
+	 * @exception IllegalArgumentException
+	 *                se a instancia nao for da classe do verificador.
+	 */
+	public Snapshot snapshot(T instance) {
+		this.check(instance);
+
+		Snapshot snapshot = new Snapshot(this.type, new long[this.primitiveCount], new Object[this.referenceCount]);
+		for (Slot slot : this.slots) {
+			slot.capture(instance, snapshot);
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.slots.length);
+
+		return snapshot;
+	}
+
+	/**
+	 * Compara o estado atual da instancia com um estado capturado anteriormente.
+	 * 
+	 * @param snapshot
+	 * @param instance
+	 * @return Indices dos atributos alterados. Vazio se nenhum atributo foi alterado.
+	 * @exception IllegalArgumentException
+	 *                se a instancia ou o estado nao forem da classe do verificador.
+	 */
+	public BitSet diff(Snapshot snapshot, T instance) {
+		this.check(instance);
+		if (snapshot.type != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		BitSet dirty = new BitSet(this.slots.length);
+		for (int i = 0; i < this.slots.length; i++) {
+			if (this.slots[i].isDirty(instance, snapshot)) {
+				dirty.set(i);
+			}
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.slots.length);
+
+		return dirty;
+	}
+
+	/**
+	 * Compara varias instancias com os respectivos estados capturados anteriormente.
+	 * 
+	 * @param snapshots
+	 * @param instances
+	 * @return Indices dos atributos alterados de cada instancia, na mesma ordem da lista de instancias.
+	 * @exception IllegalArgumentException
+	 *                se as listas tiverem tamanhos diferentes.
+	 */
+	public List<BitSet> diffAll(List<Snapshot> snapshots, List<? extends T> instances) {
+		if (snapshots.size() != instances.size()) {
+			throw new IllegalArgumentException();
+		}
+
+		List<BitSet> dirty = new ArrayList<BitSet>(instances.size());
+		for (int i = 0; i < instances.size(); i++) {
+			dirty.add(this.diff(snapshots.get(i), instances.get(i)));
+		}
+
+		return dirty;
+	}
+
+	/**
+	 * Retorna os atributos correspondentes aos indices devolvidos por {@link #diff(Snapshot, Object)}.
+	 * 
+	 * @param dirty
+	 * @return Lista de atributos alterados.
+	 */
+	public List<Field> getFields(BitSet dirty) {
+		List<Field> fields = new ArrayList<Field>(dirty.cardinality());
+		for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+			fields.add(this.fields.get(i));
+		}
+
+		return fields;
+	}
+
+	private void check(T instance) {
+		if (instance.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+	}
+
+	private static Slot createPrimitiveSlot(FieldAccessor accessor, int index) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntSlot(accessor, index);
+		} else if (type == long.class) {
+			return new LongSlot(accessor, index);
+		} else if (type == boolean.class) {
+			return new BooleanSlot(accessor, index);
+		} else if (type == double.class) {
+			return new DoubleSlot(accessor, index);
+		} else if (type == float.class) {
+			return new FloatSlot(accessor, index);
+		} else if (type == short.class) {
+			return new ShortSlot(accessor, index);
+		} else if (type == byte.class) {
+			return new ByteSlot(accessor, index);
+		}
+
+		return new CharSlot(accessor, index);
+	}
+
+	private static boolean isArrayEqual(Object a, Object b) {
+		Class<?> type = a.getClass();
+		if (type != b.getClass()) {
+			return false;
+		}
+
+		if (type == byte[].class) {
+			return Arrays.equals((byte[]) a, (byte[]) b);
+		} else if (type == int[].class) {
+			return Arrays.equals((int[]) a, (int[]) b);
+		} else if (type == long[].class) {
+			return Arrays.equals((long[]) a, (long[]) b);
+		} else if (type == char[].class) {
+			return Arrays.equals((char[]) a, (char[]) b);
+		} else if (type == double[].class) {
+			return Arrays.equals((double[]) a, (double[]) b);
+		} else if (type == float[].class) {
+			return Arrays.equals((float[]) a, (float[]) b);
+		} else if (type == short[].class) {
+			return Arrays.equals((short[]) a, (short[]) b);
+		} else if (type == boolean[].class) {
+			return Arrays.equals((boolean[]) a, (boolean[]) b);
+		}
+
+		return isElementEqual((Object[]) a, (Object[]) b);
+	}
+
+	/**
+	 * Os arrays de referencias sao copiados superficialmente, entao os elementos sao comparados como os demais atributos
+	 * de referencia: por igualdade se forem imutaveis e por identidade nos demais casos.
+	 */
+	private static boolean isElementEqual(Object[] a, Object[] b) {
+		if (a.length != b.length) {
+			return false;
+		}
+
+		for (int i = 0; i < a.length; i++) {
+			Object previous = a[i];
+			Object current = b[i];
+
+			if (previous == current) {
+				continue;
+			} else if (previous == null || current == null || !DeepCopier.isImmutable(current.getClass()) || !previous.equals(current)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Estado dos atributos persistentes de uma instancia, capturado por {@link DirtyChecker#snapshot(Object)}.
+	 */
+	public static final class Snapshot {
+
+		private final Class<?> type;
+
+		private final long[] primitives;
+
+		private final Object[] references;
+
+		private Snapshot(Class<?> type, long[] primitives, Object[] references) {
+			this.type = type;
+			this.primitives = primitives;
+			this.references = references;
+		}
+
+		/**
+		 * Retorna a classe da instancia capturada.
+		 * 
+		 * @return Classe.
+		 */
+		public Class<?> getType() {
+			return this.type;
+		}
+
+	}
+
+	private abstract static class Slot {
+
+		protected final FieldAccessor accessor;
+
+		protected final int index;
+
+		protected Slot(FieldAccessor accessor, int index) {
+			this.accessor = accessor;
+			this.index = index;
+		}
+
+		protected abstract void capture(Object instance, Snapshot snapshot);
+
+		protected abstract boolean isDirty(Object instance, Snapshot snapshot);
+
+	}
+
+	private abstract static class PrimitiveSlot extends Slot {
+
+		protected PrimitiveSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		protected abstract long read(Object instance);
+
+		@Override
+		protected void capture(Object instance, Snapshot snapshot) {
+			snapshot.primitives[this.index] = this.read(instance);
+		}
+
+		@Override
+		protected boolean isDirty(Object instance, Snapshot snapshot) {
+			return snapshot.primitives[this.index] != this.read(instance);
+		}
+
+	}
+
+	private static final class BooleanSlot extends PrimitiveSlot {
+
+		private BooleanSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return this.accessor.getBoolean(instance) ? 1L : 0L;
+		}
+
+	}
+
+	private static final class ByteSlot extends PrimitiveSlot {
+
+		private ByteSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return this.accessor.getByte(instance);
+		}
+
+	}
+
+	private static final class CharSlot extends PrimitiveSlot {
+
+		private CharSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return this.accessor.getChar(instance);
+		}
+
+	}
+
+	private static final class ShortSlot extends PrimitiveSlot {
+
+		private ShortSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return this.accessor.getShort(instance);
+		}
+
+	}
+
+	private static final class IntSlot extends PrimitiveSlot {
+
+		private IntSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return this.accessor.getInt(instance);
+		}
+
+	}
+
+	private static final class LongSlot extends PrimitiveSlot {
+
+		private LongSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return this.accessor.getLong(instance);
+		}
+
+	}
+
+	private static final class FloatSlot extends PrimitiveSlot {
+
+		private FloatSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return Float.floatToIntBits(this.accessor.getFloat(instance));
+		}
+
+	}
+
+	private static final class DoubleSlot extends PrimitiveSlot {
+
+		private DoubleSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected long read(Object instance) {
+			return Double.doubleToLongBits(this.accessor.getDouble(instance));
+		}
+
+	}
+
+	/**
+	 * Atributo de tipo imutavel, guardado por referencia e comparado por igualdade.
+	 */
+	private static final class ValueSlot extends Slot {
+
+		private ValueSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected void capture(Object instance, Snapshot snapshot) {
+			snapshot.references[this.index] = this.accessor.get(instance);
+		}
+
+		@Override
+		protected boolean isDirty(Object instance, Snapshot snapshot) {
+			Object previous = snapshot.references[this.index];
+			Object current = this.accessor.get(instance);
+
+			return previous != current && (previous == null || !previous.equals(current));
+		}
+
+	}
+
+	/**
+	 * Atributo de tipo declarado mutavel ou generico, tratado de acordo com o valor encontrado.
+	 */
+	private static final class ReferenceSlot extends Slot {
+
+		private ReferenceSlot(FieldAccessor accessor, int index) {
+			super(accessor, index);
+		}
+
+		@Override
+		protected void capture(Object instance, Snapshot snapshot) {
+			Object value = this.accessor.get(instance);
+			if (value instanceof Object[]) {
+				value = ((Object[]) value).clone();
+			} else if (value != null && isCopied(value)) {
+				value = DeepCopier.copy(value);
+			}
+
+			snapshot.references[this.index] = value;
+		}
+
+		@Override
+		protected boolean isDirty(Object instance, Snapshot snapshot) {
+			Object previous = snapshot.references[this.index];
+			Object current = this.accessor.get(instance);
+
+			if (previous == current) {
+				return false;
+			} else if (previous == null || current == null) {
+				return true;
+			} else if (current.getClass().isArray()) {
+				return !isArrayEqual(previous, current);
+			} else if (isCopied(current) || DeepCopier.isImmutable(current.getClass())) {
+				return !previous.equals(current);
+			}
+
+			return true;
+		}
+
+		private static boolean isCopied(Object value) {
+			return value.getClass().isArray() || value instanceof Calendar || value instanceof Date;
+		}
+
+	}
+
+}
@@ -0,0 +1,297 @@
+package br.com.brasilti.utils.reflection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Indice de entidades gerado em tempo de compilacao por {@link EntityIndexProcessor}.
+ * <p>
+ * O indice de cada classloader reune todos os recursos {@value #RESOURCE} visiveis por ele e e carregado uma unica vez.
+ * Consultar o indice dispensa a leitura das anotacoes por reflexao durante a inicializacao. O indice so contem as
+ * classes compiladas com o processador, portanto a ausencia de uma classe nao significa que ela nao seja uma entidade.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class EntityIndex {
+
+	/**
+	 * Caminho do recurso gerado pelo processador.
+	 */
+	public static final String RESOURCE = "META-INF/br.com.brasilti.utils/entity-index";
+
+	static final String ENCODING = "UTF-8";
+
+	static final String SEPARATOR = "\t";
+
+	static final String CLASS_RECORD = "E";
+
+	static final String FIELD_RECORD = "F";
+
+	static final String ID_FLAG = "I";
+
+	static final String VERSION_FLAG = "V";
+
+	private static final EntityIndex EMPTY = new EntityIndex(Collections.<String, Entry> emptyMap());
+
+	private static final Object MISSING = new Object();
+
+	private static final ClassCache<Object> ENTRIES = new ClassCache<Object>() {
+
+		@Override
+		protected Object computeValue(Class<?> type) {
+			Entry entry = forClassLoader(type.getClassLoader()).getEntry(type.getName());
+			return entry != null ? entry : MISSING;
+		}
+
+	};
+
+	private static final Map<ClassLoader, EntityIndex> INDEXES = new WeakHashMap<ClassLoader, EntityIndex>();
+
+	private final Map<String, Entry> entries;
+
+	private EntityIndex(Map<String, Entry> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * Retorna o indice visivel por um determinado classloader.
+	 * 
+	 * @param loader
+	 * @return Indice vazio se o classloader for nulo.
+	 */
+	public static EntityIndex forClassLoader(ClassLoader loader) {
+		if (loader == null) {
+			return EMPTY;
+		}
+
+		synchronized (INDEXES) {
+			EntityIndex index = INDEXES.get(loader);
+			if (index == null) {
+				index = load(loader);
+				INDEXES.put(loader, index);
+			}
+
+			return index;
+		}
+	}
+
+	/**
+	 * Retorna a entrada de uma determinada classe no indice do seu classloader. A entrada fica em cache por classe, de
+	 * modo que as consultas repetidas nao disputam o mapa de indices e nenhuma consulta monta os {@link ClassMetadata}
+	 * da classe.
+	 * 
+	 * @param klass
+	 * @return null se a classe nao estiver indexada.
+	 */
+	public static Entry lookup(Class<?> klass) {
+		Object entry = ENTRIES.get(klass);
+		return entry != MISSING ? (Entry) entry : null;
+	}
+
+	/**
+	 * Retorna o nome de um tipo no formato usado pelo indice: o nome binario da classe, o nome do tipo primitivo ou o
+	 * nome do tipo dos elementos seguido de {@code []} para arrays.
+	 * 
+	 * @param klass
+	 * @return Nome do tipo.
+	 */
+	public static String getTypeName(Class<?> klass) {
+		if (klass.isArray()) {
+			return getTypeName(klass.getComponentType()) + "[]";
+		}
+
+		return klass.getName();
+	}
+
+	/**
+	 * Retorna a entrada de uma determinada classe.
+	 * 
+	 * @param className
+	 *            Nome binario da classe.
+	 * @return null se a classe nao estiver indexada.
+	 */
+	public Entry getEntry(String className) {
+		return this.entries.get(className);
+	}
+
+	/**
+	 * Retorna o nome das classes indexadas.
+	 * 
+	 * @return Conjunto imutavel de nomes.
+	 */
+	public Set<String> getClassNames() {
+		return Collections.unmodifiableSet(this.entries.keySet());
+	}
+
+	private static EntityIndex load(ClassLoader loader) {
+		try {
+			Map<String, Entry> entries = new HashMap<String, Entry>();
+
+			Enumeration<URL> resources = loader.getResources(RESOURCE);
+			while (resources.hasMoreElements()) {
+				InputStream input = resources.nextElement().openStream();
+				try {
+					read(input, entries);
+				} finally {
+					input.close();
+				}
+			}
+
+			return entries.isEmpty() ? EMPTY : new EntityIndex(entries);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		return EMPTY;
+	}
+
+	/**
+	 * Le um recurso de indice, acrescentando as suas entradas ao mapa informado.
+	 * 
+	 * @param input
+	 * @param entries
+	 * @throws IOException
+	 */
+	static void read(InputStream input, Map<String, Entry> entries) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, ENCODING));
+
+		Entry entry = null;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			String[] columns = line.split(SEPARATOR, -1);
+
+			if (columns[0].equals(CLASS_RECORD) && columns.length > 1) {
+				entry = new Entry(columns[1]);
+				entries.put(entry.className, entry);
+			} else if (columns[0].equals(FIELD_RECORD) && columns.length > 3 && entry != null) {
+				entry.add(columns[1], columns[2], columns[3]);
+			}
+		}
+	}
+
+	/**
+	 * Atributos persistentes de uma entidade indexada.
+	 */
+	public static final class Entry {
+
+		private final String className;
+
+		private final List<String> fieldNames = new ArrayList<String>();
+
+		private final Map<String, String> fieldTypes = new HashMap<String, String>();
+
+		private final Set<String> idFields = new LinkedHashSet<String>();
+
+		private final Set<String> versionFields = new LinkedHashSet<String>();
+
+		private Entry(String className) {
+			this.className = className;
+		}
+
+		private void add(String fieldName, String typeName, String flags) {
+			this.fieldNames.add(fieldName);
+			this.fieldTypes.put(fieldName, typeName);
+
+			if (flags.contains(ID_FLAG)) {
+				this.idFields.add(fieldName);
+			}
+			if (flags.contains(VERSION_FLAG)) {
+				this.versionFields.add(fieldName);
+			}
+		}
+
+		/**
+		 * Retorna o nome binario da entidade.
+		 * 
+		 * @return Nome da classe.
+		 */
+		public String getClassName() {
+			return this.className;
+		}
+
+		/**
+		 * Retorna o nome dos atributos persistentes declarados pela entidade, na ordem do codigo fonte.
+		 * 
+		 * @return Lista imutavel de nomes.
+		 */
+		public List<String> getFieldNames() {
+			return Collections.unmodifiableList(this.fieldNames);
+		}
+
+		/**
+		 * Indica que a entidade declara um determinado atributo persistente.
+		 * 
+		 * @param fieldName
+		 * @return true se o atributo esta indexado.
+		 */
+		public boolean hasField(String fieldName) {
+			return this.fieldTypes.containsKey(fieldName);
+		}
+
+		/**
+		 * Retorna o nome do tipo de um atributo persistente.
+		 * 
+		 * @param fieldName
+		 * @return null se o atributo nao estiver indexado.
+		 * @see EntityIndex#getTypeName(Class)
+		 */
+		public String getFieldType(String fieldName) {
+			return this.fieldTypes.get(fieldName);
+		}
+
+		/**
+		 * Retorna o nome do primeiro atributo anotado por {@code javax.persistence.Id}. Entidades com identificador
+		 * composto podem anotar varios atributos; use {@link #isIdField(String)} para consultar cada um.
+		 * 
+		 * @return null se nenhum atributo declarado pela entidade for o identificador.
+		 */
+		public String getIdField() {
+			return this.idFields.isEmpty() ? null : this.idFields.iterator().next();
+		}
+
+		/**
+		 * Retorna o nome do primeiro atributo anotado por {@code javax.persistence.Version}.
+		 * 
+		 * @return null se nenhum atributo declarado pela entidade for a versao.
+		 */
+		public String getVersionField() {
+			return this.versionFields.isEmpty() ? null : this.versionFields.iterator().next();
+		}
+
+		/**
+		 * Indica que um atributo da entidade esta anotado por {@code javax.persistence.Id}.
+		 * 
+		 * @param fieldName
+		 * @return true se o atributo faz parte do identificador.
+		 */
+		public boolean isIdField(String fieldName) {
+			return this.idFields.contains(fieldName);
+		}
+
+		/**
+		 * Indica que um atributo da entidade esta anotado por {@code javax.persistence.Version}.
+		 * 
+		 * @param fieldName
+		 * @return true se o atributo e a versao.
+		 */
+		public boolean isVersionField(String fieldName) {
+			return this.versionFields.contains(fieldName);
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+package br.com.brasilti.utils.reflection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Processador de anotacoes que gera, em tempo de compilacao, o indice lido por {@link EntityIndex}.
+ * <p>
+ * Para cada classe anotada por {@code javax.persistence.Entity} sao registrados os atributos persistentes declarados,
+ * na ordem do codigo fonte, com o seu tipo e a indicacao de {@code javax.persistence.Id} e
+ * {@code javax.persistence.Version}. As anotacoes sao identificadas pelo nome, de modo que o processador nao carrega
+ * as classes da JPA.
+ * <p>
+ * Em compilacoes incrementais apenas parte das entidades e processada. Por isso as entradas do indice ja existente na
+ * saida da compilacao sao preservadas, exceto as das classes processadas novamente e as das classes que deixaram de
+ * existir ou de ser entidades.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+@SupportedAnnotationTypes(EntityIndexProcessor.ENTITY)
+public class EntityIndexProcessor extends AbstractProcessor {
+
+	static final String ENTITY = "javax.persistence.Entity";
+
+	private static final String ID = "javax.persistence.Id";
+
+	private static final String VERSION = "javax.persistence.Version";
+
+	private final Map<String, List<String>> entries = new TreeMap<String, List<String>>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!this.entries.isEmpty()) {
+				this.write();
+			}
+			return false;
+		}
+
+		TypeElement entity = this.processingEnv.getElementUtils().getTypeElement(ENTITY);
+		if (entity == null) {
+			return false;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(entity)) {
+			if (element.getKind() == ElementKind.CLASS) {
+				this.index((TypeElement) element);
+			}
+		}
+
+		return false;
+	}
+
+	private void index(TypeElement type) {
+		List<String> fields = new ArrayList<String>();
+
+		for (Element member : type.getEnclosedElements()) {
+			Set<Modifier> modifiers = member.getModifiers();
+			boolean isPersistent = !modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.TRANSIENT);
+
+			if (member.getKind() == ElementKind.FIELD && isPersistent) {
+				StringBuilder flags = new StringBuilder();
+				if (isAnnotated(member, ID)) {
+					flags.append(EntityIndex.ID_FLAG);
+				}
+				if (isAnnotated(member, VERSION)) {
+					flags.append(EntityIndex.VERSION_FLAG);
+				}
+
+				fields.add(member.getSimpleName() + EntityIndex.SEPARATOR + this.getTypeName(member.asType()) + EntityIndex.SEPARATOR + flags);
+			}
+		}
+
+		this.entries.put(this.processingEnv.getElementUtils().getBinaryName(type).toString(), fields);
+	}
+
+	/**
+	 * Acrescenta as entradas do indice gerado por uma compilacao anterior que continuam validas.
+	 */
+	private void merge() {
+		Map<String, List<String>> previous = new TreeMap<String, List<String>>();
+		try {
+			FileObject file = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", EntityIndex.RESOURCE);
+			InputStream input = file.openInputStream();
+			try {
+				BufferedReader reader = new BufferedReader(new InputStreamReader(input, EntityIndex.ENCODING));
+
+				List<String> fields = null;
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] columns = line.split(EntityIndex.SEPARATOR, 2);
+
+					if (columns[0].equals(EntityIndex.CLASS_RECORD) && columns.length > 1) {
+						fields = new ArrayList<String>();
+						previous.put(columns[1], fields);
+					} else if (columns[0].equals(EntityIndex.FIELD_RECORD) && columns.length > 1 && fields != null) {
+						fields.add(columns[1]);
+					}
+				}
+			} finally {
+				input.close();
+			}
+		} catch (IOException e) {
+			// Nao ha indice anterior.
+			return;
+		} catch (IllegalArgumentException e) {
+			// Local de saida nao suportado pelo Filer.
+			return;
+		}
+
+		for (Map.Entry<String, List<String>> entry : previous.entrySet()) {
+			if (!this.entries.containsKey(entry.getKey()) && this.isEntity(entry.getKey())) {
+				this.entries.put(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private boolean isEntity(String binaryName) {
+		TypeElement type = this.processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+		return type != null && isAnnotated(type, ENTITY);
+	}
+
+	private void write() {
+		this.merge();
+
+		try {
+			FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", EntityIndex.RESOURCE);
+			Writer writer = new OutputStreamWriter(file.openOutputStream(), EntityIndex.ENCODING);
+			try {
+				for (Map.Entry<String, List<String>> entry : this.entries.entrySet()) {
+					writer.write(EntityIndex.CLASS_RECORD + EntityIndex.SEPARATOR + entry.getKey() + "\n");
+					for (String field : entry.getValue()) {
+						writer.write(EntityIndex.FIELD_RECORD + EntityIndex.SEPARATOR + field + "\n");
+					}
+				}
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Nao foi possivel gerar o indice de entidades: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Retorna o nome do tipo no mesmo formato de {@link EntityIndex#getTypeName(Class)}.
+	 */
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+
+		if (erasure.getKind() == TypeKind.ARRAY) {
+			return this.getTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+		} else if (erasure.getKind() == TypeKind.DECLARED) {
+			TypeElement element = (TypeElement) this.processingEnv.getTypeUtils().asElement(erasure);
+			return this.processingEnv.getElementUtils().getBinaryName(element).toString();
+		}
+
+		return erasure.toString();
+	}
+
+	private static boolean isAnnotated(Element element, String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotation.getQualifiedName().contentEquals(annotationName)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+}
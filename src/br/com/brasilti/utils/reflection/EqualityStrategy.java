@@ -0,0 +1,586 @@
+package br.com.brasilti.utils.reflection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.persistence.Id;
+
+/**
+ * Implementa equals, hashCode e comparacao a partir dos atributos persistentes de uma classe.
+ * <p>
+ * A estrategia obtida por {@link #byId(Class)} considera apenas os atributos anotados por {@link Id} na hierarquia da
+ * classe; instancias cujos identificadores sao todos nulos, ainda nao persistidas, sao iguais apenas a si mesmas. A
+ * obtida por {@link #byFields(Class)} considera todos os atributos persistentes da hierarquia.
+ * <p>
+ * Como em {@link Copier}, o plano e montado uma unica vez por classe e cada atributo vira um passo especializado pelo
+ * seu tipo, de modo que os atributos primitivos sao comparados e combinados no hash sem empacotamento. Os valores
+ * seguem as regras dos metodos equals e hashCode dos tipos empacotados e de {@link Arrays}, e a comparacao ordena os
+ * atributos na ordem dos metadados, com os nulos primeiro.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias comparadas.
+ */
+public final class EqualityStrategy<T> implements Comparator<T> {
+
+	private static final ClassCache<EqualityStrategy<?>> ID_CACHE = new ClassCache<EqualityStrategy<?>>() {
+
+		@Override
+		protected EqualityStrategy<?> computeValue(Class<?> type) {
+			List<FieldAccessor> accessors = new ArrayList<FieldAccessor>();
+			for (FieldAccessor accessor : ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy()) {
+				if (ReflectionUtil.isAnnotated(accessor.getField(), Id.class)) {
+					accessors.add(accessor);
+				}
+			}
+
+			if (accessors.isEmpty()) {
+				throw new IllegalArgumentException();
+			}
+
+			return new EqualityStrategy<Object>(type, accessors, true);
+		}
+
+	};
+
+	private static final ClassCache<EqualityStrategy<?>> FIELDS_CACHE = new ClassCache<EqualityStrategy<?>>() {
+
+		@Override
+		protected EqualityStrategy<?> computeValue(Class<?> type) {
+			return new EqualityStrategy<Object>(type, ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy(), false);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final Step[] steps;
+
+	private final boolean identifier;
+
+	private EqualityStrategy(Class<?> type, List<FieldAccessor> accessors, boolean identifier) {
+		this.type = type;
+		this.identifier = identifier;
+
+		this.steps = new Step[accessors.size()];
+		for (int i = 0; i < this.steps.length; i++) {
+			this.steps[i] = createStep(accessors.get(i));
+		}
+	}
+
+	/**
+	 * Retorna a estrategia de uma determinada classe baseada nos atributos anotados por {@link Id}.
+	 * 
+	 * @param klass
+	 * @return Estrategia da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula ou nao possuir atributo anotado por {@link Id} na hierarquia.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> EqualityStrategy<T> byId(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (EqualityStrategy<T>) ID_CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a estrategia de uma determinada classe baseada em todos os atributos persistentes da hierarquia.
+	 * 
+	 * @param klass
+	 * @return Estrategia da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> EqualityStrategy<T> byFields(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (EqualityStrategy<T>) FIELDS_CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a classe das instancias comparadas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Indica que duas instancias sao iguais. Instancias de classes diferentes nunca sao iguais, de modo que o metodo
+	 * equals da propria classe pode delegar para este sem verificar o tipo do outro objeto.
+	 * 
+	 * @param instance
+	 * @param other
+	 * @return true se as instancias forem iguais.
+	 */
+	public boolean equals(T instance, Object other) {
+		if (instance == other) {
+			return true;
+		}
+		if (instance == null || other == null || instance.getClass() != other.getClass()) {
+			return false;
+		}
+		if (this.identifier && this.isTransient(instance)) {
+			return false;
+		}
+
+		for (int i = 0; i < this.steps.length; i++) {
+			if (!this.steps[i].equals(instance, other)) {
+				ReflectionMetrics.compiledAccess(this.type, i + 1);
+				return false;
+			}
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.steps.length);
+
+		return true;
+	}
+
+	/**
+	 * Retorna o hash de uma instancia, coerente com {@link #equals(Object, Object)}.
+	 * 
+	 * @param instance
+	 * @return 0 se a instancia for nula.
+	 */
+	public int hashCode(T instance) {
+		if (instance == null) {
+			return 0;
+		}
+		if (this.identifier && this.isTransient(instance)) {
+			return System.identityHashCode(instance);
+		}
+
+		int hash = 1;
+		for (Step step : this.steps) {
+			hash = 31 * hash + step.hashCode(instance);
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.steps.length);
+
+		return hash;
+	}
+
+	/**
+	 * Compara duas instancias atributo a atributo, na ordem dos metadados. Instancias nulas vem primeiro.
+	 * 
+	 * @param instance
+	 * @param other
+	 * @return Resultado da primeira comparacao diferente de zero.
+	 * @exception IllegalArgumentException
+	 *                se algum atributo comparado nao for {@link Comparable}, um array de bytes ou um primitivo.
+	 */
+	@Override
+	public int compare(T instance, T other) {
+		if (instance == other) {
+			return 0;
+		}
+		if (instance == null || other == null) {
+			return instance == null ? -1 : 1;
+		}
+
+		for (int i = 0; i < this.steps.length; i++) {
+			int result = this.steps[i].compare(instance, other);
+			if (result != 0) {
+				ReflectionMetrics.compiledAccess(this.type, i + 1);
+				return result;
+			}
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.steps.length);
+
+		return 0;
+	}
+
+	private boolean isTransient(Object instance) {
+		for (Step step : this.steps) {
+			if (!step.isNull(instance)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static Step createStep(FieldAccessor accessor) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntStep(accessor);
+		} else if (type == long.class) {
+			return new LongStep(accessor);
+		} else if (type == boolean.class) {
+			return new BooleanStep(accessor);
+		} else if (type == double.class) {
+			return new DoubleStep(accessor);
+		} else if (type == float.class) {
+			return new FloatStep(accessor);
+		} else if (type == short.class) {
+			return new ShortStep(accessor);
+		} else if (type == byte.class) {
+			return new ByteStep(accessor);
+		} else if (type == char.class) {
+			return new CharStep(accessor);
+		} else if (type == byte[].class) {
+			return new BytesStep(accessor);
+		} else if (type.isArray()) {
+			return new ArrayStep(accessor);
+		}
+
+		return new ObjectStep(accessor);
+	}
+
+	private static int compare(long value, long other) {
+		return value < other ? -1 : (value == other ? 0 : 1);
+	}
+
+	private abstract static class Step {
+
+		protected final FieldAccessor accessor;
+
+		protected Step(FieldAccessor accessor) {
+			this.accessor = accessor;
+		}
+
+		protected boolean isNull(Object instance) {
+			return false;
+		}
+
+		protected abstract boolean equals(Object instance, Object other);
+
+		protected abstract int hashCode(Object instance);
+
+		protected abstract int compare(Object instance, Object other);
+
+	}
+
+	private static final class IntStep extends Step {
+
+		private IntStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return this.accessor.getInt(instance) == this.accessor.getInt(other);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			return this.accessor.getInt(instance);
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return EqualityStrategy.compare(this.accessor.getInt(instance), this.accessor.getInt(other));
+		}
+
+	}
+
+	private static final class LongStep extends Step {
+
+		private LongStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return this.accessor.getLong(instance) == this.accessor.getLong(other);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			long value = this.accessor.getLong(instance);
+			return (int) (value ^ (value >>> 32));
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return EqualityStrategy.compare(this.accessor.getLong(instance), this.accessor.getLong(other));
+		}
+
+	}
+
+	private static final class BooleanStep extends Step {
+
+		private BooleanStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return this.accessor.getBoolean(instance) == this.accessor.getBoolean(other);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			return this.accessor.getBoolean(instance) ? 1231 : 1237;
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			boolean value = this.accessor.getBoolean(instance);
+			return value == this.accessor.getBoolean(other) ? 0 : (value ? 1 : -1);
+		}
+
+	}
+
+	private static final class DoubleStep extends Step {
+
+		private DoubleStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return Double.doubleToLongBits(this.accessor.getDouble(instance)) == Double.doubleToLongBits(this.accessor.getDouble(other));
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			long bits = Double.doubleToLongBits(this.accessor.getDouble(instance));
+			return (int) (bits ^ (bits >>> 32));
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return Double.compare(this.accessor.getDouble(instance), this.accessor.getDouble(other));
+		}
+
+	}
+
+	private static final class FloatStep extends Step {
+
+		private FloatStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return Float.floatToIntBits(this.accessor.getFloat(instance)) == Float.floatToIntBits(this.accessor.getFloat(other));
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			return Float.floatToIntBits(this.accessor.getFloat(instance));
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return Float.compare(this.accessor.getFloat(instance), this.accessor.getFloat(other));
+		}
+
+	}
+
+	private static final class ShortStep extends Step {
+
+		private ShortStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return this.accessor.getShort(instance) == this.accessor.getShort(other);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			return this.accessor.getShort(instance);
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return this.accessor.getShort(instance) - this.accessor.getShort(other);
+		}
+
+	}
+
+	private static final class ByteStep extends Step {
+
+		private ByteStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return this.accessor.getByte(instance) == this.accessor.getByte(other);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			return this.accessor.getByte(instance);
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return this.accessor.getByte(instance) - this.accessor.getByte(other);
+		}
+
+	}
+
+	private static final class CharStep extends Step {
+
+		private CharStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			return this.accessor.getChar(instance) == this.accessor.getChar(other);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			return this.accessor.getChar(instance);
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			return this.accessor.getChar(instance) - this.accessor.getChar(other);
+		}
+
+	}
+
+	private abstract static class ReferenceStep extends Step {
+
+		protected ReferenceStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean isNull(Object instance) {
+			return this.accessor.get(instance) == null;
+		}
+
+		@Override
+		protected boolean equals(Object instance, Object other) {
+			Object value = this.accessor.get(instance);
+			Object otherValue = this.accessor.get(other);
+
+			if (value == otherValue) {
+				return true;
+			}
+
+			return value != null && otherValue != null && this.equalValues(value, otherValue);
+		}
+
+		@Override
+		protected int hashCode(Object instance) {
+			Object value = this.accessor.get(instance);
+			return value == null ? 0 : this.hashValue(value);
+		}
+
+		@Override
+		protected int compare(Object instance, Object other) {
+			Object value = this.accessor.get(instance);
+			Object otherValue = this.accessor.get(other);
+
+			if (value == otherValue) {
+				return 0;
+			}
+			if (value == null || otherValue == null) {
+				return value == null ? -1 : 1;
+			}
+
+			return this.compareValues(value, otherValue);
+		}
+
+		protected abstract boolean equalValues(Object value, Object other);
+
+		protected abstract int hashValue(Object value);
+
+		protected abstract int compareValues(Object value, Object other);
+
+	}
+
+	private static final class ObjectStep extends ReferenceStep {
+
+		private ObjectStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equalValues(Object value, Object other) {
+			return value.equals(other);
+		}
+
+		@Override
+		protected int hashValue(Object value) {
+			return value.hashCode();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected int compareValues(Object value, Object other) {
+			if (!(value instanceof Comparable<?>)) {
+				throw new IllegalArgumentException();
+			}
+
+			return ((Comparable<Object>) value).compareTo(other);
+		}
+
+	}
+
+	private static final class BytesStep extends ReferenceStep {
+
+		private BytesStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equalValues(Object value, Object other) {
+			return Arrays.equals((byte[]) value, (byte[]) other);
+		}
+
+		@Override
+		protected int hashValue(Object value) {
+			return Arrays.hashCode((byte[]) value);
+		}
+
+		@Override
+		protected int compareValues(Object value, Object other) {
+			byte[] bytes = (byte[]) value;
+			byte[] otherBytes = (byte[]) other;
+
+			int length = Math.min(bytes.length, otherBytes.length);
+			for (int i = 0; i < length; i++) {
+				if (bytes[i] != otherBytes[i]) {
+					return bytes[i] - otherBytes[i];
+				}
+			}
+
+			return bytes.length - otherBytes.length;
+		}
+
+	}
+
+	private static final class ArrayStep extends ReferenceStep {
+
+		private ArrayStep(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected boolean equalValues(Object value, Object other) {
+			return Arrays.deepEquals(new Object[] { value }, new Object[] { other });
+		}
+
+		@Override
+		protected int hashValue(Object value) {
+			return Arrays.deepHashCode(new Object[] { value }) - 31;
+		}
+
+		@Override
+		protected int compareValues(Object value, Object other) {
+			throw new IllegalArgumentException();
+		}
+
+	}
+
+}
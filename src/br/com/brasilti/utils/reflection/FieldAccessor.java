@@ -0,0 +1,341 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Field;
+
+/**
+ * Acesso de leitura e escrita a um atributo, resolvido uma unica vez e mantido em cache nos metadados da classe.
+ * <p>
+ * O atributo encapsulado e uma copia privada, tornada acessivel na criacao do acessor e nunca devolvida a quem o usa.
+ * Assim nenhum acesso precisa alterar a acessibilidade do atributo, o que evita o custo das verificacoes de seguranca e
+ * a concorrencia entre threads que compartilham o mesmo {@link Field}. Os metodos especializados para tipos primitivos evitam a conversao
+ * para os tipos empacotados.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class FieldAccessor {
+
+	private final Field declaredField;
+
+	private final Field field;
+
+	FieldAccessor(Field declaredField, Field field) {
+		this.declaredField = declaredField;
+		this.field = field;
+	}
+
+	/**
+	 * Retorna o acessor de um determinado atributo.
+	 * 
+	 * @param field
+	 * @return Acessor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo for nulo.
+	 */
+	public static FieldAccessor forField(Field field) {
+		if (field == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return ClassMetadata.forClass(field.getDeclaringClass()).getAccessor(field.getName());
+	}
+
+	/**
+	 * Retorna o acessor de um atributo declarado por uma determinada classe.
+	 * 
+	 * @param klass
+	 * @param fieldName
+	 * @return null se a classe nao declarar o atributo.
+	 */
+	public static FieldAccessor forField(Class<?> klass, String fieldName) {
+		return ClassMetadata.forClass(klass).getAccessor(fieldName);
+	}
+
+	/**
+	 * Retorna o atributo lido e escrito pelo acessor. O objeto devolvido e o mesmo de
+	 * {@link ClassMetadata#getField(String)} e permanece inacessivel; a copia acessivel usada pelo acessor nao e
+	 * exposta.
+	 * 
+	 * @return Atributo.
+	 */
+	public Field getField() {
+		return this.declaredField;
+	}
+
+	/**
+	 * Indica que a copia privada do atributo pode ser usada sem verificacoes de acesso. Atributos protegidos pelo
+	 * {@link SecurityManager} ou pela plataforma permanecem inacessiveis.
+	 * 
+	 * @return true se o acessor le e escreve o atributo diretamente.
+	 */
+	boolean isUsable() {
+		return this.field.isAccessible();
+	}
+
+	/**
+	 * Retorna o tipo do atributo.
+	 * 
+	 * @return Tipo do atributo.
+	 */
+	public Class<?> getType() {
+		return this.field.getType();
+	}
+
+	/**
+	 * Retorna o valor do atributo na instancia. Valores primitivos sao empacotados.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se a instancia nao for da classe que declara o atributo.
+	 */
+	public Object get(Object instance) {
+		try {
+			return this.field.get(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor ao atributo na instancia.
+	 * 
+	 * @param value
+	 * @param instance
+	 * @exception IllegalArgumentException
+	 *                se a instancia nao for da classe que declara o atributo ou se o valor for incompativel.
+	 */
+	public void set(Object value, Object instance) {
+		try {
+			this.field.set(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo boolean, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public boolean getBoolean(Object instance) {
+		try {
+			return this.field.getBoolean(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo boolean, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setBoolean(boolean value, Object instance) {
+		try {
+			this.field.setBoolean(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo byte, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public byte getByte(Object instance) {
+		try {
+			return this.field.getByte(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo byte, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setByte(byte value, Object instance) {
+		try {
+			this.field.setByte(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo char, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public char getChar(Object instance) {
+		try {
+			return this.field.getChar(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo char, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setChar(char value, Object instance) {
+		try {
+			this.field.setChar(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo short, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public short getShort(Object instance) {
+		try {
+			return this.field.getShort(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo short, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setShort(short value, Object instance) {
+		try {
+			this.field.setShort(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo int, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public int getInt(Object instance) {
+		try {
+			return this.field.getInt(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo int, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setInt(int value, Object instance) {
+		try {
+			this.field.setInt(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo long, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public long getLong(Object instance) {
+		try {
+			return this.field.getLong(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo long, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setLong(long value, Object instance) {
+		try {
+			this.field.setLong(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo float, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public float getFloat(Object instance) {
+		try {
+			return this.field.getFloat(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo float, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setFloat(float value, Object instance) {
+		try {
+			this.field.setFloat(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Retorna o valor de um atributo do tipo double, sem empacotamento.
+	 * 
+	 * @param instance
+	 * @return Valor do atributo.
+	 */
+	public double getDouble(Object instance) {
+		try {
+			return this.field.getDouble(instance);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Atribui valor a um atributo do tipo double, sem empacotamento.
+	 * 
+	 * @param value
+	 * @param instance
+	 */
+	public void setDouble(double value, Object instance) {
+		try {
+			this.field.setDouble(instance, value);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
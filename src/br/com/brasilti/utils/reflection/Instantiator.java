@@ -0,0 +1,236 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Cria instancias de uma classe pelo construtor sem argumentos.
+ * <p>
+ * O construtor e resolvido e tornado acessivel uma unica vez por classe, de modo que cada criacao evita a busca e as
+ * verificacoes de acesso de {@link Class#newInstance()}. O instanciador usa uma copia propria do construtor, e o objeto
+ * devolvido por {@link ClassMetadata#getDefaultConstructor()} permanece inalterado. Erros de configuracao, como uma
+ * classe abstrata ou sem construtor padrao, sao detectados em {@link #forClass(Class)}; excecoes lancadas pelo proprio
+ * construtor sao encapsuladas em {@link IllegalStateException}.
+ * <p>
+ * Para caminhos que criam e descartam muitas copias, {@link #pooled(int)} retorna um instanciador que reaproveita as
+ * instancias devolvidas por {@link #release(Object)} na mesma thread, ate a capacidade informada. Cada instancia obtida
+ * por {@link #acquire(Object)} recebe todos os atributos persistentes da origem por meio de {@link Copier}, o que
+ * apaga o estado anterior; os atributos transientes mantem os valores do uso anterior.
+ * <p>
+ * As instancias guardadas ficam presas a thread que as devolveu enquanto ela viver e, com elas, a classe e o seu
+ * classloader. Em threads de longa duracao, como as de um pool de servidor, {@link #clear()} deve ser chamado ao fim
+ * de cada tarefa ou antes de descartar o instanciador.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias criadas.
+ */
+public final class Instantiator<T> {
+
+	private static final ClassCache<Instantiator<?>> CACHE = new ClassCache<Instantiator<?>>() {
+
+		@Override
+		protected Instantiator<?> computeValue(Class<?> type) {
+			Constructor<?> constructor = null;
+			if (!Modifier.isAbstract(type.getModifiers()) && ClassMetadata.forClass(type).getDefaultConstructor() != null) {
+				try {
+					constructor = type.getDeclaredConstructor();
+					constructor.setAccessible(true);
+				} catch (NoSuchMethodException e) {
+					constructor = null;
+				} catch (RuntimeException e) {
+					// Construtor protegido pela plataforma, como o das colecoes internas de Collections.
+					constructor = null;
+				}
+			}
+
+			return new Instantiator<Object>(type, constructor, 0);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final Constructor<?> constructor;
+
+	private final int capacity;
+
+	private final ThreadLocal<Deque<T>> pool;
+
+	private Instantiator(Class<?> type, Constructor<?> constructor, int capacity) {
+		this.type = type;
+		this.constructor = constructor;
+		this.capacity = capacity;
+
+		this.pool = capacity == 0 ? null : new ThreadLocal<Deque<T>>() {
+
+			@Override
+			protected Deque<T> initialValue() {
+				return new ArrayDeque<T>();
+			}
+
+		};
+	}
+
+	/**
+	 * Retorna o instanciador de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return Instanciador da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula, abstrata ou nao possuir construtor sem argumentos acessivel.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Instantiator<T> forClass(Class<T> klass) {
+		Instantiator<T> instantiator = (Instantiator<T>) find(klass);
+		if (instantiator == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return instantiator;
+	}
+
+	/**
+	 * Retorna o instanciador de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return null se a classe for nula, abstrata ou nao possuir construtor sem argumentos acessivel.
+	 */
+	static Instantiator<?> find(Class<?> klass) {
+		if (klass == null) {
+			return null;
+		}
+
+		Instantiator<?> instantiator = CACHE.get(klass);
+		return instantiator.constructor != null ? instantiator : null;
+	}
+
+	/**
+	 * Retorna a classe das instancias criadas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Retorna o numero maximo de instancias guardadas por thread.
+	 * 
+	 * @return 0 se o instanciador nao reaproveitar instancias.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Cria uma nova instancia.
+	 * 
+	 * @return Instancia criada.
+	 * @exception IllegalStateException
+	 *                se o construtor lancar uma excecao.
+	 */
+	@SuppressWarnings("unchecked")
+	public T newInstance() {
+		try {
+			return (T) this.constructor.newInstance();
+		} catch (InstantiationException e) {
+			throw new IllegalArgumentException(e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Retorna um instanciador da mesma classe que reaproveita as instancias devolvidas. Cada chamada cria um novo
+	 * conjunto de reservas, que deve ser guardado por quem o criou.
+	 * 
+	 * @param capacity
+	 *            Numero maximo de instancias guardadas por thread.
+	 * @return Instanciador com reserva de instancias.
+	 * @exception IllegalArgumentException
+	 *                se a capacidade nao for positiva.
+	 */
+	public Instantiator<T> pooled(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Instantiator<T>(this.type, this.constructor, capacity);
+	}
+
+	/**
+	 * Retorna uma instancia devolvida anteriormente nesta thread, ou uma nova instancia, com os atributos persistentes
+	 * copiados de uma instancia de origem.
+	 * 
+	 * @param origin
+	 * @return Copia da origem.
+	 * @exception IllegalArgumentException
+	 *                se a origem nao for da classe do instanciador.
+	 */
+	public T acquire(T origin) {
+		if (origin == null || origin.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		T instance = this.poll();
+		if (instance == null) {
+			instance = this.newInstance();
+		}
+
+		this.copier().copy(origin, instance);
+		return instance;
+	}
+
+	/**
+	 * Devolve uma instancia que nao sera mais usada por quem a obteve. A instancia e descartada se o instanciador nao
+	 * reaproveitar instancias ou se a reserva desta thread estiver cheia.
+	 * 
+	 * @param instance
+	 * @return true se a instancia foi guardada.
+	 * @exception IllegalArgumentException
+	 *                se a instancia nao for da classe do instanciador.
+	 */
+	public boolean release(T instance) {
+		if (instance == null || instance.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+		if (this.pool == null) {
+			return false;
+		}
+
+		Deque<T> instances = this.pool.get();
+		if (instances.size() >= this.capacity) {
+			return false;
+		}
+
+		instances.push(instance);
+		return true;
+	}
+
+	/**
+	 * Descarta as instancias guardadas para a thread corrente.
+	 */
+	public void clear() {
+		if (this.pool != null) {
+			this.pool.remove();
+		}
+	}
+
+	private T poll() {
+		return this.pool != null ? this.pool.get().poll() : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Copier<T> copier() {
+		return (Copier<T>) Copier.forHierarchy(this.type);
+	}
+
+}
@@ -0,0 +1,1290 @@
+package br.com.brasilti.utils.reflection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Escreve e le os atributos persistentes de uma classe em JSON, sem montar mapas ou arvores intermediarias.
+ * <p>
+ * O plano e montado uma unica vez por classe a partir dos atributos persistentes da classe e das suas superclasses, na
+ * ordem dos metadados. Os nomes dos atributos ficam pre-codificados, como texto e como bytes UTF-8, e os valores sao
+ * escritos diretamente no destino. A leitura percorre o texto uma unica vez e preenche a instancia a medida que os
+ * atributos aparecem; atributos desconhecidos sao ignorados e atributos ausentes mantem o valor atribuido pelo
+ * construtor. Com {@link #writeAll(Iterable, OutputStream)} e {@link #readAll(Reader)} listas grandes podem ser
+ * transmitidas com memoria constante.
+ * <p>
+ * Sao suportados os mesmos tipos de {@link BinaryCodec}: {@link Calendar} e representado pelos milissegundos desde a
+ * epoca e lido no fuso horario padrao, e {@code byte[]} e representado em base64. A leitura requer um construtor sem
+ * argumentos.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias escritas e lidas.
+ */
+public final class JsonCodec<T> {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final char[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+	private static final int[] BASE64_VALUES = new int[128];
+
+	static {
+		for (int i = 0; i < BASE64_VALUES.length; i++) {
+			BASE64_VALUES[i] = -1;
+		}
+		for (int i = 0; i < BASE64.length; i++) {
+			BASE64_VALUES[BASE64[i]] = i;
+		}
+	}
+
+	private static final ClassCache<JsonCodec<?>> CACHE = new ClassCache<JsonCodec<?>>() {
+
+		@Override
+		protected JsonCodec<?> computeValue(Class<?> type) {
+			return new JsonCodec<Object>(type);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final Instantiator<?> instantiator;
+
+	private final Slot[] slots;
+
+	private final Map<String, Slot> slotsByName = new HashMap<String, Slot>();
+
+	private JsonCodec(Class<?> type) {
+		this.type = type;
+		this.instantiator = Instantiator.find(type);
+
+		List<Slot> slots = new ArrayList<Slot>();
+		for (FieldAccessor accessor : ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy()) {
+			Slot slot = createSlot(accessor);
+			slot.index = slots.size();
+
+			slots.add(slot);
+			this.slotsByName.put(slot.name, slot);
+		}
+
+		this.slots = slots.toArray(new Slot[slots.size()]);
+	}
+
+	/**
+	 * Retorna o codificador de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return Codificador da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula ou se algum atributo persistente for de um tipo nao suportado.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> JsonCodec<T> forClass(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (JsonCodec<T>) CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a classe das instancias escritas e lidas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Escreve uma instancia como um objeto JSON. Uma instancia nula e escrita como null.
+	 * 
+	 * @param instance
+	 * @param out
+	 * @throws IOException
+	 * @exception IllegalArgumentException
+	 *                se o destino for nulo, se a instancia nao for da classe do codificador ou se algum valor nao puder
+	 *                ser representado em JSON.
+	 */
+	public void write(T instance, Appendable out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException();
+		}
+
+		this.write(instance, new AppendableOutput(out));
+	}
+
+	/**
+	 * Escreve uma instancia como um objeto JSON codificado em UTF-8. O fluxo nao e fechado.
+	 * 
+	 * @param instance
+	 * @param out
+	 * @throws IOException
+	 * @exception IllegalArgumentException
+	 *                se o destino for nulo, se a instancia nao for da classe do codificador ou se algum valor nao puder
+	 *                ser representado em JSON.
+	 */
+	public void write(T instance, OutputStream out) throws IOException {
+		if (out == null) {
+			throw new IllegalArgumentException();
+		}
+
+		StreamOutput output = new StreamOutput(out);
+		this.write(instance, output);
+		output.flush();
+	}
+
+	/**
+	 * Escreve as instancias como um array JSON, uma de cada vez.
+	 * 
+	 * @param instances
+	 * @param out
+	 * @throws IOException
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo, se alguma instancia nao for da classe do codificador ou se algum valor
+	 *                nao puder ser representado em JSON.
+	 */
+	public void writeAll(Iterable<? extends T> instances, Appendable out) throws IOException {
+		if (instances == null || out == null) {
+			throw new IllegalArgumentException();
+		}
+
+		this.writeAll(instances, new AppendableOutput(out));
+	}
+
+	/**
+	 * Escreve as instancias como um array JSON codificado em UTF-8, uma de cada vez. O fluxo nao e fechado.
+	 * 
+	 * @param instances
+	 * @param out
+	 * @throws IOException
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo, se alguma instancia nao for da classe do codificador ou se algum valor
+	 *                nao puder ser representado em JSON.
+	 */
+	public void writeAll(Iterable<? extends T> instances, OutputStream out) throws IOException {
+		if (instances == null || out == null) {
+			throw new IllegalArgumentException();
+		}
+
+		StreamOutput output = new StreamOutput(out);
+		this.writeAll(instances, output);
+		output.flush();
+	}
+
+	/**
+	 * Le uma instancia a partir de um objeto JSON. O leitor pode ser consumido alem do final do objeto.
+	 * 
+	 * @param in
+	 * @return null se o valor lido for null.
+	 * @throws IOException
+	 * @exception IllegalArgumentException
+	 *                se o leitor for nulo, se o texto nao for um objeto JSON valido para a classe ou se a classe nao
+	 *                possuir construtor sem argumentos.
+	 */
+	public T read(Reader in) throws IOException {
+		if (in == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return this.read(new Parser(in));
+	}
+
+	/**
+	 * Le uma instancia a partir de um objeto JSON codificado em UTF-8.
+	 * 
+	 * @param in
+	 * @return null se o valor lido for null.
+	 * @throws IOException
+	 * @exception IllegalArgumentException
+	 *                se o fluxo for nulo, se o texto nao for um objeto JSON valido para a classe ou se a classe nao
+	 *                possuir construtor sem argumentos.
+	 */
+	public T read(InputStream in) throws IOException {
+		if (in == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return this.read(new InputStreamReader(in, UTF_8));
+	}
+
+	/**
+	 * Le as instancias de um array JSON sob demanda, uma a cada chamada de {@link Iterator#next()}. Erros de leitura
+	 * sao lancados pelo iterador como {@link IllegalStateException}.
+	 * 
+	 * @param in
+	 * @return Iterador sobre as instancias do array.
+	 * @exception IllegalArgumentException
+	 *                se o leitor for nulo ou, durante a iteracao, se o texto nao for um array JSON valido para a classe.
+	 */
+	public Iterator<T> readAll(Reader in) {
+		if (in == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return new ArrayIterator(new Parser(in));
+	}
+
+	/**
+	 * Le as instancias de um array JSON codificado em UTF-8 sob demanda.
+	 * 
+	 * @param in
+	 * @return Iterador sobre as instancias do array.
+	 * @exception IllegalArgumentException
+	 *                se o fluxo for nulo ou, durante a iteracao, se o texto nao for um array JSON valido para a classe.
+	 * @see #readAll(Reader)
+	 */
+	public Iterator<T> readAll(InputStream in) {
+		if (in == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return this.readAll(new InputStreamReader(in, UTF_8));
+	}
+
+	private void write(Object instance, Output out) throws IOException {
+		if (instance == null) {
+			out.writeAscii("null");
+			return;
+		}
+		if (instance.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		out.write('{');
+		for (int i = 0; i < this.slots.length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+
+			Slot slot = this.slots[i];
+			out.writeName(slot);
+			slot.write(instance, out);
+		}
+		out.write('}');
+
+		ReflectionMetrics.compiledAccess(this.type, this.slots.length);
+	}
+
+	private void writeAll(Iterable<? extends T> instances, Output out) throws IOException {
+		out.write('[');
+
+		boolean first = true;
+		for (T instance : instances) {
+			if (!first) {
+				out.write(',');
+			}
+
+			this.write(instance, out);
+			first = false;
+		}
+
+		out.write(']');
+	}
+
+	private T read(Parser parser) throws IOException {
+		if (parser.readNull()) {
+			return null;
+		}
+
+		T instance = this.newInstance();
+
+		int count = 0;
+		parser.expect('{');
+		if (!parser.consume('}')) {
+			int next = 0;
+			do {
+				Slot slot = this.find(parser.readString(), next);
+				parser.expect(':');
+
+				if (slot == null) {
+					parser.skipValue();
+				} else {
+					slot.read(instance, parser);
+					next = slot.index + 1;
+					count++;
+				}
+			} while (parser.consume(','));
+			parser.expect('}');
+		}
+		ReflectionMetrics.compiledAccess(this.type, count);
+
+		return instance;
+	}
+
+	/**
+	 * Procura primeiro o atributo seguinte ao ultimo lido, que e o caso de textos escritos por este codificador, sem
+	 * criar uma String para o nome.
+	 */
+	private Slot find(StringBuilder name, int next) {
+		if (next < this.slots.length && this.slots[next].name.contentEquals(name)) {
+			return this.slots[next];
+		}
+
+		return this.slotsByName.get(name.toString());
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newInstance() {
+		if (this.instantiator == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (T) this.instantiator.newInstance();
+	}
+
+	private static Slot createSlot(FieldAccessor accessor) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntSlot(accessor);
+		} else if (type == long.class) {
+			return new LongSlot(accessor);
+		} else if (type == boolean.class) {
+			return new BooleanSlot(accessor);
+		} else if (type == double.class) {
+			return new DoubleSlot(accessor);
+		} else if (type == float.class) {
+			return new FloatSlot(accessor);
+		} else if (type == short.class) {
+			return new ShortSlot(accessor);
+		} else if (type == byte.class) {
+			return new ByteSlot(accessor);
+		} else if (type == char.class) {
+			return new CharSlot(accessor);
+		} else if (type == String.class) {
+			return new StringSlot(accessor);
+		} else if (type == Integer.class) {
+			return new IntegerSlot(accessor);
+		} else if (type == Long.class) {
+			return new LongObjectSlot(accessor);
+		} else if (type == BigDecimal.class) {
+			return new BigDecimalSlot(accessor);
+		} else if (type == Boolean.class) {
+			return new BooleanObjectSlot(accessor);
+		} else if (type == Calendar.class) {
+			return new CalendarSlot(accessor);
+		} else if (type == byte[].class) {
+			return new BytesSlot(accessor);
+		}
+
+		throw new IllegalArgumentException();
+	}
+
+	static byte[] decodeBase64(CharSequence text) {
+		int length = text.length();
+		if (length % 4 != 0) {
+			throw new IllegalArgumentException();
+		}
+
+		int padding = length > 0 && text.charAt(length - 1) == '=' ? (text.charAt(length - 2) == '=' ? 2 : 1) : 0;
+		byte[] bytes = new byte[length / 4 * 3 - padding];
+
+		int position = 0;
+		for (int i = 0; i < length; i += 4) {
+			int value = base64Value(text.charAt(i)) << 18 | base64Value(text.charAt(i + 1)) << 12;
+			int last = i + 4 == length ? padding : 0;
+			if (last < 2) {
+				value |= base64Value(text.charAt(i + 2)) << 6;
+			}
+			if (last < 1) {
+				value |= base64Value(text.charAt(i + 3));
+			}
+
+			bytes[position++] = (byte) (value >> 16);
+			if (last < 2) {
+				bytes[position++] = (byte) (value >> 8);
+			}
+			if (last < 1) {
+				bytes[position++] = (byte) value;
+			}
+		}
+
+		return bytes;
+	}
+
+	private static int base64Value(char c) {
+		int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+		if (value < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return value;
+	}
+
+	private final class ArrayIterator implements Iterator<T> {
+
+		private final Parser parser;
+
+		private boolean started;
+
+		private boolean finished;
+
+		private boolean ready;
+
+		private ArrayIterator(Parser parser) {
+			this.parser = parser;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (!this.ready && !this.finished) {
+				try {
+					if (!this.started) {
+						this.parser.expect('[');
+						this.started = true;
+						this.finished = this.parser.consume(']');
+					} else if (!this.parser.consume(',')) {
+						this.parser.expect(']');
+						this.finished = true;
+					}
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+				this.ready = !this.finished;
+			}
+
+			return this.ready;
+		}
+
+		@Override
+		public T next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			this.ready = false;
+			try {
+				return JsonCodec.this.read(this.parser);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	/**
+	 * Destino da escrita. Os metodos {@link #write(char)} e {@link #writeAscii(String)} recebem apenas caracteres
+	 * ASCII; o texto dos valores passa por {@link #writeString(String)}.
+	 */
+	private abstract static class Output {
+
+		private final char[] digits = new char[20];
+
+		protected abstract void write(char c) throws IOException;
+
+		protected abstract void writeText(String value, int start, int end) throws IOException;
+
+		protected abstract void writeName(Slot slot) throws IOException;
+
+		protected void writeAscii(String value) throws IOException {
+			for (int i = 0; i < value.length(); i++) {
+				this.write(value.charAt(i));
+			}
+		}
+
+		protected void writeLong(long value) throws IOException {
+			if (value == Long.MIN_VALUE) {
+				this.writeAscii("-9223372036854775808");
+				return;
+			}
+			if (value < 0) {
+				this.write('-');
+				value = -value;
+			}
+
+			int i = this.digits.length;
+			do {
+				this.digits[--i] = (char) ('0' + value % 10);
+				value /= 10;
+			} while (value != 0);
+
+			for (; i < this.digits.length; i++) {
+				this.write(this.digits[i]);
+			}
+		}
+
+		protected void writeString(String value) throws IOException {
+			this.write('"');
+
+			int start = 0;
+			int length = value.length();
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (c < 0x20 || c == '"' || c == '\\') {
+					if (start < i) {
+						this.writeText(value, start, i);
+					}
+					this.writeEscape(c);
+					start = i + 1;
+				}
+			}
+			if (start < length) {
+				this.writeText(value, start, length);
+			}
+
+			this.write('"');
+		}
+
+		protected void writeBase64(byte[] bytes) throws IOException {
+			this.write('"');
+
+			int i = 0;
+			for (; i + 2 < bytes.length; i += 3) {
+				int value = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+				this.write(BASE64[value >>> 18]);
+				this.write(BASE64[(value >>> 12) & 0x3F]);
+				this.write(BASE64[(value >>> 6) & 0x3F]);
+				this.write(BASE64[value & 0x3F]);
+			}
+
+			int remaining = bytes.length - i;
+			if (remaining > 0) {
+				int value = (bytes[i] & 0xFF) << 16 | (remaining > 1 ? (bytes[i + 1] & 0xFF) << 8 : 0);
+				this.write(BASE64[value >>> 18]);
+				this.write(BASE64[(value >>> 12) & 0x3F]);
+				this.write(remaining > 1 ? BASE64[(value >>> 6) & 0x3F] : '=');
+				this.write('=');
+			}
+
+			this.write('"');
+		}
+
+		private void writeEscape(char c) throws IOException {
+			this.write('\\');
+			switch (c) {
+			case '"':
+			case '\\':
+				this.write(c);
+				break;
+			case '\n':
+				this.write('n');
+				break;
+			case '\r':
+				this.write('r');
+				break;
+			case '\t':
+				this.write('t');
+				break;
+			case '\b':
+				this.write('b');
+				break;
+			case '\f':
+				this.write('f');
+				break;
+			default:
+				this.writeAscii("u00");
+				this.write(Character.forDigit(c >> 4, 16));
+				this.write(Character.forDigit(c & 0xF, 16));
+			}
+		}
+
+	}
+
+	private static final class AppendableOutput extends Output {
+
+		private final Appendable out;
+
+		private AppendableOutput(Appendable out) {
+			this.out = out;
+		}
+
+		@Override
+		protected void write(char c) throws IOException {
+			this.out.append(c);
+		}
+
+		@Override
+		protected void writeText(String value, int start, int end) throws IOException {
+			this.out.append(value, start, end);
+		}
+
+		@Override
+		protected void writeName(Slot slot) throws IOException {
+			this.out.append(slot.prefix);
+		}
+
+	}
+
+	/**
+	 * Acumula os bytes UTF-8 em um buffer proprio, descarregado no fluxo quando cheio e ao final da escrita.
+	 */
+	private static final class StreamOutput extends Output {
+
+		private final OutputStream out;
+
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		private int position;
+
+		private StreamOutput(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		protected void write(char c) throws IOException {
+			if (this.position == this.buffer.length) {
+				this.flush();
+			}
+
+			this.buffer[this.position++] = (byte) c;
+		}
+
+		@Override
+		protected void writeText(String value, int start, int end) throws IOException {
+			for (int i = start; i < end; i++) {
+				if (this.position + 4 > this.buffer.length) {
+					this.flush();
+				}
+
+				char c = value.charAt(i);
+				if (c < 0x80) {
+					this.buffer[this.position++] = (byte) c;
+				} else if (c < 0x800) {
+					this.buffer[this.position++] = (byte) (0xC0 | (c >> 6));
+					this.buffer[this.position++] = (byte) (0x80 | (c & 0x3F));
+				} else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, value.charAt(++i));
+					this.buffer[this.position++] = (byte) (0xF0 | (codePoint >> 18));
+					this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+					this.buffer[this.position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+					this.buffer[this.position++] = (byte) (0x80 | (codePoint & 0x3F));
+				} else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+					this.buffer[this.position++] = (byte) '?';
+				} else {
+					this.buffer[this.position++] = (byte) (0xE0 | (c >> 12));
+					this.buffer[this.position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+					this.buffer[this.position++] = (byte) (0x80 | (c & 0x3F));
+				}
+			}
+		}
+
+		@Override
+		protected void writeName(Slot slot) throws IOException {
+			byte[] prefix = slot.prefixBytes;
+			if (this.position + prefix.length > this.buffer.length) {
+				this.flush();
+			}
+
+			if (prefix.length > this.buffer.length) {
+				this.out.write(prefix);
+			} else {
+				System.arraycopy(prefix, 0, this.buffer, this.position, prefix.length);
+				this.position += prefix.length;
+			}
+		}
+
+		private void flush() throws IOException {
+			this.out.write(this.buffer, 0, this.position);
+			this.position = 0;
+		}
+
+	}
+
+	/**
+	 * Leitor de JSON sobre um buffer de caracteres. Os textos sao lidos em um {@link StringBuilder} reaproveitado, e
+	 * os numeros inteiros sao convertidos sem criar Strings.
+	 */
+	private static final class Parser {
+
+		private final Reader reader;
+
+		private final char[] buffer = new char[BUFFER_SIZE];
+
+		private int position;
+
+		private int limit;
+
+		private final StringBuilder text = new StringBuilder();
+
+		private Parser(Reader reader) {
+			this.reader = reader;
+		}
+
+		private int current() throws IOException {
+			if (this.position == this.limit && !this.fill()) {
+				return -1;
+			}
+
+			return this.buffer[this.position];
+		}
+
+		private int read() throws IOException {
+			int c = this.current();
+			if (c >= 0) {
+				this.position++;
+			}
+
+			return c;
+		}
+
+		private boolean fill() throws IOException {
+			int read;
+			do {
+				read = this.reader.read(this.buffer, 0, this.buffer.length);
+			} while (read == 0);
+
+			this.position = 0;
+			this.limit = Math.max(read, 0);
+			return read > 0;
+		}
+
+		private int peek() throws IOException {
+			int c;
+			while ((c = this.current()) == ' ' || c == '\n' || c == '\r' || c == '\t') {
+				this.position++;
+			}
+
+			return c;
+		}
+
+		private boolean consume(char c) throws IOException {
+			if (this.peek() != c) {
+				return false;
+			}
+
+			this.position++;
+			return true;
+		}
+
+		private void expect(char c) throws IOException {
+			if (!this.consume(c)) {
+				throw new IllegalArgumentException();
+			}
+		}
+
+		private void expectLiteral(String literal) throws IOException {
+			for (int i = 0; i < literal.length(); i++) {
+				if (this.read() != literal.charAt(i)) {
+					throw new IllegalArgumentException();
+				}
+			}
+		}
+
+		private boolean readNull() throws IOException {
+			if (this.peek() != 'n') {
+				return false;
+			}
+
+			this.expectLiteral("null");
+			return true;
+		}
+
+		private boolean readBoolean() throws IOException {
+			int c = this.peek();
+			if (c == 't') {
+				this.expectLiteral("true");
+				return true;
+			} else if (c == 'f') {
+				this.expectLiteral("false");
+				return false;
+			}
+
+			throw new IllegalArgumentException();
+		}
+
+		private long readLong() throws IOException {
+			boolean negative = this.consume('-');
+
+			long value = 0;
+			int digits = 0;
+			int c;
+			while ((c = this.current()) >= '0' && c <= '9') {
+				if (value < (Long.MIN_VALUE + (c - '0')) / 10) {
+					throw new IllegalArgumentException();
+				}
+
+				value = value * 10 - (c - '0');
+				digits++;
+				this.position++;
+			}
+
+			if (digits == 0 || c == '.' || c == 'e' || c == 'E' || (!negative && value == Long.MIN_VALUE)) {
+				throw new IllegalArgumentException();
+			}
+
+			return negative ? value : -value;
+		}
+
+		private int readInt(int min, int max) throws IOException {
+			long value = this.readLong();
+			if (value < min || value > max) {
+				throw new IllegalArgumentException();
+			}
+
+			return (int) value;
+		}
+
+		private String readNumber() throws IOException {
+			this.peek();
+			this.text.setLength(0);
+
+			int c;
+			while ((c = this.current()) >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+				this.text.append((char) c);
+				this.position++;
+			}
+
+			if (this.text.length() == 0) {
+				throw new IllegalArgumentException();
+			}
+
+			return this.text.toString();
+		}
+
+		private StringBuilder readString() throws IOException {
+			this.expect('"');
+			this.text.setLength(0);
+
+			while (true) {
+				int c = this.read();
+				if (c == '"') {
+					return this.text;
+				} else if (c == '\\') {
+					this.text.append(this.readEscape());
+				} else if (c < 0x20) {
+					throw new IllegalArgumentException();
+				} else {
+					this.text.append((char) c);
+				}
+			}
+		}
+
+		private char readEscape() throws IOException {
+			int c = this.read();
+			switch (c) {
+			case '"':
+			case '\\':
+			case '/':
+				return (char) c;
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 't':
+				return '\t';
+			case 'b':
+				return '\b';
+			case 'f':
+				return '\f';
+			case 'u':
+				int value = 0;
+				for (int i = 0; i < 4; i++) {
+					int digit = Character.digit(this.read(), 16);
+					if (digit < 0) {
+						throw new IllegalArgumentException();
+					}
+					value = value << 4 | digit;
+				}
+				return (char) value;
+			default:
+				throw new IllegalArgumentException();
+			}
+		}
+
+		private void skipValue() throws IOException {
+			int c = this.peek();
+			if (c == '{') {
+				this.position++;
+				if (!this.consume('}')) {
+					do {
+						this.readString();
+						this.expect(':');
+						this.skipValue();
+					} while (this.consume(','));
+					this.expect('}');
+				}
+			} else if (c == '[') {
+				this.position++;
+				if (!this.consume(']')) {
+					do {
+						this.skipValue();
+					} while (this.consume(','));
+					this.expect(']');
+				}
+			} else if (c == '"') {
+				this.readString();
+			} else if (c == 't' || c == 'f') {
+				this.readBoolean();
+			} else if (!this.readNull()) {
+				this.readNumber();
+			}
+		}
+
+	}
+
+	private abstract static class Slot {
+
+		protected final FieldAccessor accessor;
+
+		protected final String name;
+
+		protected final String prefix;
+
+		protected final byte[] prefixBytes;
+
+		protected int index;
+
+		protected Slot(FieldAccessor accessor) {
+			this.accessor = accessor;
+			this.name = accessor.getField().getName();
+			this.prefix = "\"" + this.name + "\":";
+			this.prefixBytes = this.prefix.getBytes(UTF_8);
+		}
+
+		protected abstract void write(Object instance, Output out) throws IOException;
+
+		protected abstract void read(Object instance, Parser in) throws IOException;
+
+	}
+
+	private abstract static class ReferenceSlot extends Slot {
+
+		protected ReferenceSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			Object value = this.accessor.get(instance);
+			if (value == null) {
+				out.writeAscii("null");
+			} else {
+				this.writeValue(value, out);
+			}
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			this.accessor.set(in.readNull() ? null : this.readValue(in), instance);
+		}
+
+		protected abstract void writeValue(Object value, Output out) throws IOException;
+
+		protected abstract Object readValue(Parser in) throws IOException;
+
+	}
+
+	private static final class BooleanSlot extends Slot {
+
+		private BooleanSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			out.writeAscii(this.accessor.getBoolean(instance) ? "true" : "false");
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			this.accessor.setBoolean(in.readBoolean(), instance);
+		}
+
+	}
+
+	private static final class ByteSlot extends Slot {
+
+		private ByteSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			out.writeLong(this.accessor.getByte(instance));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			this.accessor.setByte((byte) in.readInt(Byte.MIN_VALUE, Byte.MAX_VALUE), instance);
+		}
+
+	}
+
+	private static final class CharSlot extends Slot {
+
+		private CharSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			out.writeString(String.valueOf(this.accessor.getChar(instance)));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			StringBuilder value = in.readString();
+			if (value.length() != 1) {
+				throw new IllegalArgumentException();
+			}
+
+			this.accessor.setChar(value.charAt(0), instance);
+		}
+
+	}
+
+	private static final class ShortSlot extends Slot {
+
+		private ShortSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			out.writeLong(this.accessor.getShort(instance));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			this.accessor.setShort((short) in.readInt(Short.MIN_VALUE, Short.MAX_VALUE), instance);
+		}
+
+	}
+
+	private static final class IntSlot extends Slot {
+
+		private IntSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			out.writeLong(this.accessor.getInt(instance));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			this.accessor.setInt(in.readInt(Integer.MIN_VALUE, Integer.MAX_VALUE), instance);
+		}
+
+	}
+
+	private static final class LongSlot extends Slot {
+
+		private LongSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			out.writeLong(this.accessor.getLong(instance));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			this.accessor.setLong(in.readLong(), instance);
+		}
+
+	}
+
+	private static final class FloatSlot extends Slot {
+
+		private FloatSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			float value = this.accessor.getFloat(instance);
+			if (Float.isNaN(value) || Float.isInfinite(value)) {
+				throw new IllegalArgumentException();
+			}
+
+			out.writeAscii(Float.toString(value));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			try {
+				this.accessor.setFloat(Float.parseFloat(in.readNumber()), instance);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+
+	}
+
+	private static final class DoubleSlot extends Slot {
+
+		private DoubleSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void write(Object instance, Output out) throws IOException {
+			double value = this.accessor.getDouble(instance);
+			if (Double.isNaN(value) || Double.isInfinite(value)) {
+				throw new IllegalArgumentException();
+			}
+
+			out.writeAscii(Double.toString(value));
+		}
+
+		@Override
+		protected void read(Object instance, Parser in) throws IOException {
+			try {
+				this.accessor.setDouble(Double.parseDouble(in.readNumber()), instance);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+
+	}
+
+	private static final class StringSlot extends ReferenceSlot {
+
+		private StringSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeString((String) value);
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			return in.readString().toString();
+		}
+
+	}
+
+	private static final class IntegerSlot extends ReferenceSlot {
+
+		private IntegerSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeLong((Integer) value);
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			return in.readInt(Integer.MIN_VALUE, Integer.MAX_VALUE);
+		}
+
+	}
+
+	private static final class LongObjectSlot extends ReferenceSlot {
+
+		private LongObjectSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeLong((Long) value);
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			return in.readLong();
+		}
+
+	}
+
+	private static final class BooleanObjectSlot extends ReferenceSlot {
+
+		private BooleanObjectSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeAscii((Boolean) value ? "true" : "false");
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			return in.readBoolean() ? Boolean.TRUE : Boolean.FALSE;
+		}
+
+	}
+
+	private static final class BigDecimalSlot extends ReferenceSlot {
+
+		private BigDecimalSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeAscii(value.toString());
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			try {
+				return new BigDecimal(in.readNumber());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+
+	}
+
+	private static final class CalendarSlot extends ReferenceSlot {
+
+		private CalendarSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeLong(((Calendar) value).getTimeInMillis());
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			Calendar calendar = Calendar.getInstance();
+			calendar.setTimeInMillis(in.readLong());
+
+			return calendar;
+		}
+
+	}
+
+	private static final class BytesSlot extends ReferenceSlot {
+
+		private BytesSlot(FieldAccessor accessor) {
+			super(accessor);
+		}
+
+		@Override
+		protected void writeValue(Object value, Output out) throws IOException {
+			out.writeBase64((byte[]) value);
+		}
+
+		@Override
+		protected Object readValue(Parser in) throws IOException {
+			return decodeBase64(in.readString());
+		}
+
+	}
+
+}
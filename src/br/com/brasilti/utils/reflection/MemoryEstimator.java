@@ -0,0 +1,389 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Estima a memoria ocupada por objetos e grafos de objetos, por exemplo para dimensionar caches.
+ * <p>
+ * O layout dos objetos e lido uma unica vez da JVM, pelo MBean de diagnostico do HotSpot: tamanho das referencias
+ * (oops comprimidos ou nao), tamanho do cabecalho dos objetos e dos arrays e alinhamento. Quando o MBean nao estiver
+ * disponivel, sao assumidos os valores padrao de uma JVM de 64 bits com heap menor que 32 GB.
+ * <p>
+ * O tamanho raso de cada classe e calculado uma unica vez, a partir dos atributos de instancia da hierarquia, e mantido
+ * em cache junto com os acessores dos atributos que referenciam outros objetos. O tamanho retido percorre o grafo sem
+ * recursao, contando cada objeto uma unica vez. Objetos de classes cujos atributos a plataforma nao permite acessar,
+ * como as colecoes e os textos da JDK a partir do Java 9, sao estimados pelo seu conteudo: os textos pelo array de
+ * caracteres, os numeros grandes pela magnitude e as colecoes e mapas pelo array de referencias e pelos nos de cada
+ * entrada. Classes e constantes de enumeracao sao compartilhadas e nunca sao contadas.
+ * <p>
+ * Os valores sao estimativas: a JVM pode reordenar os atributos para aproveitar espacos que o calculo nao considera.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class MemoryEstimator {
+
+	private static final String DIAGNOSTIC_MBEAN = "com.sun.management:type=HotSpotDiagnostic";
+
+	private static final boolean COMPRESSED_OOPS;
+
+	private static final int REFERENCE_SIZE;
+
+	private static final int OBJECT_HEADER_SIZE;
+
+	private static final int ARRAY_HEADER_SIZE;
+
+	private static final int OBJECT_ALIGNMENT;
+
+	static {
+		if ("32".equals(System.getProperty("sun.arch.data.model"))) {
+			COMPRESSED_OOPS = false;
+			REFERENCE_SIZE = 4;
+			OBJECT_HEADER_SIZE = 8;
+			ARRAY_HEADER_SIZE = 12;
+			OBJECT_ALIGNMENT = 8;
+		} else {
+			boolean compressedOops = Boolean.parseBoolean(getVMOption("UseCompressedOops", "true"));
+			boolean compressedClassPointers = Boolean.parseBoolean(getVMOption("UseCompressedClassPointers", String.valueOf(compressedOops)));
+
+			COMPRESSED_OOPS = compressedOops;
+			REFERENCE_SIZE = compressedOops ? 4 : 8;
+			OBJECT_HEADER_SIZE = compressedClassPointers ? 12 : 16;
+			ARRAY_HEADER_SIZE = compressedClassPointers ? 16 : 24;
+			OBJECT_ALIGNMENT = Integer.parseInt(getVMOption("ObjectAlignmentInBytes", "8"));
+		}
+	}
+
+	private static final ClassCache<Shape> CACHE = new ClassCache<Shape>() {
+
+		@Override
+		protected Shape computeValue(Class<?> type) {
+			return new Shape(type);
+		}
+
+	};
+
+	private MemoryEstimator() {
+
+	}
+
+	/**
+	 * Indica que a JVM usa referencias comprimidas.
+	 * 
+	 * @return true se as referencias sao comprimidas.
+	 */
+	public static boolean isCompressedOops() {
+		return COMPRESSED_OOPS;
+	}
+
+	/**
+	 * Retorna o tamanho de uma referencia.
+	 * 
+	 * @return Tamanho em bytes.
+	 */
+	public static int getReferenceSize() {
+		return REFERENCE_SIZE;
+	}
+
+	/**
+	 * Retorna o tamanho do cabecalho de um objeto.
+	 * 
+	 * @return Tamanho em bytes.
+	 */
+	public static int getObjectHeaderSize() {
+		return OBJECT_HEADER_SIZE;
+	}
+
+	/**
+	 * Retorna o tamanho do cabecalho de um array, incluindo o seu comprimento.
+	 * 
+	 * @return Tamanho em bytes.
+	 */
+	public static int getArrayHeaderSize() {
+		return ARRAY_HEADER_SIZE;
+	}
+
+	/**
+	 * Retorna o alinhamento dos objetos na memoria.
+	 * 
+	 * @return Alinhamento em bytes.
+	 */
+	public static int getObjectAlignment() {
+		return OBJECT_ALIGNMENT;
+	}
+
+	/**
+	 * Retorna o tamanho raso das instancias de uma determinada classe: cabecalho, atributos de instancia da hierarquia e
+	 * alinhamento.
+	 * 
+	 * @param klass
+	 * @return Tamanho em bytes.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula, primitiva, um array ou uma interface.
+	 */
+	public static long getShallowSize(Class<?> klass) {
+		if (klass == null || klass.isPrimitive() || klass.isArray() || klass.isInterface()) {
+			throw new IllegalArgumentException();
+		}
+
+		return CACHE.get(klass).size;
+	}
+
+	/**
+	 * Retorna o tamanho raso de um objeto, sem os objetos referenciados por ele. Para arrays, inclui os elementos
+	 * primitivos ou as referencias.
+	 * 
+	 * @param instance
+	 * @return Tamanho em bytes ou 0 se o objeto for nulo.
+	 */
+	public static long getShallowSize(Object instance) {
+		if (instance == null) {
+			return 0;
+		}
+
+		Class<?> type = instance.getClass();
+		if (type.isArray()) {
+			return arraySize(type.getComponentType(), Array.getLength(instance));
+		}
+
+		return CACHE.get(type).size;
+	}
+
+	/**
+	 * Retorna o tamanho de um objeto somado ao de todos os objetos alcancaveis a partir dele. Objetos tambem
+	 * referenciados de fora do grafo sao contados.
+	 * 
+	 * @param instance
+	 * @return Tamanho em bytes ou 0 se o objeto for nulo.
+	 */
+	public static long getRetainedSize(Object instance) {
+		if (instance == null) {
+			return 0;
+		}
+
+		return new Walker().walk(Collections.singleton(instance));
+	}
+
+	/**
+	 * Retorna o tamanho de um conjunto de objetos, como o conteudo de um cache, somado ao de todos os objetos alcancaveis
+	 * a partir deles. Objetos compartilhados entre os elementos sao contados uma unica vez e o conjunto em si nao e
+	 * contado.
+	 * 
+	 * @param instances
+	 * @return Tamanho em bytes.
+	 * @exception IllegalArgumentException
+	 *                se o conjunto for nulo.
+	 */
+	public static long getRetainedSizeOfAll(Iterable<?> instances) {
+		if (instances == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return new Walker().walk(instances);
+	}
+
+	static long align(long size) {
+		return (size + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+	}
+
+	static long arraySize(Class<?> componentType, int length) {
+		return align(ARRAY_HEADER_SIZE + (long) length * sizeOf(componentType));
+	}
+
+	private static int sizeOf(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		} else if (type == byte.class || type == boolean.class) {
+			return 1;
+		}
+
+		return REFERENCE_SIZE;
+	}
+
+	private static String getVMOption(String name, String defaultValue) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			CompositeData option = (CompositeData) server.invoke(new ObjectName(DIAGNOSTIC_MBEAN), "getVMOption", new Object[] { name }, new String[] { String.class.getName() });
+
+			return (String) option.get("value");
+		} catch (JMException e) {
+			return defaultValue;
+		} catch (RuntimeException e) {
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * Tamanho raso e atributos de referencia de uma classe.
+	 */
+	private static final class Shape {
+
+		private final long fieldSize;
+
+		private final long size;
+
+		/**
+		 * Acessores dos atributos de referencia da hierarquia ou null se algum deles for inacessivel.
+		 */
+		private final FieldAccessor[] references;
+
+		private Shape(Class<?> type) {
+			Class<?> superclass = type.getSuperclass();
+			Shape parent = superclass != null ? CACHE.get(superclass) : null;
+
+			long fieldSize = parent != null ? parent.fieldSize : 0;
+			List<FieldAccessor> references = new ArrayList<FieldAccessor>();
+			boolean accessible = parent == null || parent.references != null;
+			if (parent != null && accessible) {
+				references.addAll(Arrays.asList(parent.references));
+			}
+
+			ClassMetadata metadata = ClassMetadata.forClass(type);
+			for (Field field : type.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+
+				fieldSize += sizeOf(field.getType());
+
+				if (!field.getType().isPrimitive()) {
+					FieldAccessor accessor = metadata.getAccessor(field.getName());
+					if (accessor.isUsable()) {
+						references.add(accessor);
+					} else {
+						accessible = false;
+					}
+				}
+			}
+
+			this.fieldSize = fieldSize;
+			this.size = align(OBJECT_HEADER_SIZE + fieldSize);
+			this.references = accessible ? references.toArray(new FieldAccessor[references.size()]) : null;
+		}
+
+	}
+
+	/**
+	 * Percorre um grafo de objetos. Os tamanhos das classes sao guardados tambem em um mapa local, que evita consultar o
+	 * cache global a cada objeto.
+	 */
+	private static final class Walker {
+
+		private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+		private final Deque<Object> pending = new ArrayDeque<Object>();
+
+		private final Map<Class<?>, Shape> shapes = new HashMap<Class<?>, Shape>();
+
+		private long walk(Iterable<?> roots) {
+			for (Object root : roots) {
+				this.push(root);
+			}
+
+			long size = 0;
+			while (!this.pending.isEmpty()) {
+				size += this.visit(this.pending.pop());
+			}
+
+			return size;
+		}
+
+		private void push(Object instance) {
+			if (instance != null && !(instance instanceof Class) && !(instance instanceof Enum) && this.visited.add(instance)) {
+				this.pending.push(instance);
+			}
+		}
+
+		private long visit(Object instance) {
+			Class<?> type = instance.getClass();
+
+			if (type.isArray()) {
+				Class<?> componentType = type.getComponentType();
+				int length = Array.getLength(instance);
+				if (!componentType.isPrimitive()) {
+					for (Object element : (Object[]) instance) {
+						this.push(element);
+					}
+				}
+
+				return arraySize(componentType, length);
+			}
+
+			Shape shape = this.shapes.get(type);
+			if (shape == null) {
+				shape = CACHE.get(type);
+				this.shapes.put(type, shape);
+			}
+
+			if (shape.references != null) {
+				for (FieldAccessor reference : shape.references) {
+					this.push(reference.get(instance));
+				}
+
+				return shape.size;
+			}
+
+			return shape.size + this.visitOpaque(instance);
+		}
+
+		/**
+		 * Estima o conteudo de um objeto cujos atributos nao podem ser lidos.
+		 */
+		private long visitOpaque(Object instance) {
+			if (instance instanceof String) {
+				return arraySize(char.class, ((String) instance).length());
+			} else if (instance instanceof BigDecimal) {
+				BigInteger unscaled = ((BigDecimal) instance).unscaledValue();
+				return unscaled.bitLength() < Long.SIZE ? 0 : this.visit(unscaled);
+			} else if (instance instanceof BigInteger) {
+				return arraySize(int.class, ((BigInteger) instance).bitLength() / Integer.SIZE + 1);
+			} else if (instance instanceof Collection) {
+				Collection<?> collection = (Collection<?>) instance;
+				for (Object element : collection) {
+					this.push(element);
+				}
+
+				return arraySize(Object.class, collection.size());
+			} else if (instance instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>) instance;
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					this.push(entry.getKey());
+					this.push(entry.getValue());
+				}
+
+				int capacity = Integer.highestOneBit(Math.max(map.size() * 4 / 3, 1) * 2 - 1);
+				return arraySize(Object.class, capacity) + map.size() * align(OBJECT_HEADER_SIZE + 4 + 3 * REFERENCE_SIZE);
+			}
+
+			return 0;
+		}
+
+	}
+
+}
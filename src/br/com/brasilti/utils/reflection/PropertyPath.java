@@ -0,0 +1,311 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caminho para um atributo aninhado, como {@code pedido.cliente.endereco.cep} ou {@code pedido.itens[0].produto}.
+ * <p>
+ * O caminho e validado uma unica vez contra as classes, a partir do tipo declarado de cada atributo, e compilado em
+ * uma sequencia de passos que guardam os {@link FieldAccessor} ja resolvidos. Os caminhos compilados ficam em cache por
+ * classe de origem. Um indice entre colchetes acessa um elemento de um array ou de uma colecao; o tipo dos elementos da
+ * colecao e obtido por {@link TypeResolver}, inclusive em colecoes aninhadas.
+ * <p>
+ * A leitura e a escrita sao seguras para valores nulos: se algum objeto intermediario for nulo, ou se um indice nao
+ * existir, a leitura retorna null e a escrita retorna false. Colecoes que nao sao listas podem ser lidas por indice,
+ * mas nao escritas: a escrita tambem retorna false.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class PropertyPath {
+
+	private static final ClassCache<ConcurrentMap<String, PropertyPath>> CACHE = new ClassCache<ConcurrentMap<String, PropertyPath>>() {
+
+		@Override
+		protected ConcurrentMap<String, PropertyPath> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<String, PropertyPath>();
+		}
+
+	};
+
+	private final Class<?> rootType;
+
+	private final String path;
+
+	private final Step[] steps;
+
+	private final Class<?> type;
+
+	private PropertyPath(Class<?> rootType, String path) {
+		this.rootType = rootType;
+		this.path = path;
+
+		List<Step> steps = new ArrayList<Step>();
+		Class<?> type = rootType;
+
+		for (String segment : path.split("\\.", -1)) {
+			int bracket = segment.indexOf('[');
+			String fieldName = bracket < 0 ? segment : segment.substring(0, bracket);
+
+			Field field = ClassMetadata.forClass(type).getFieldInHierarchy(fieldName);
+			if (field == null) {
+				throw new IllegalArgumentException();
+			}
+			steps.add(new FieldStep(FieldAccessor.forField(field)));
+			Type generic = TypeResolver.getFieldType(field, type);
+
+			while (bracket >= 0) {
+				int end = segment.indexOf(']', bracket);
+				if (end < 0) {
+					throw new IllegalArgumentException();
+				}
+				int index = parseIndex(segment.substring(bracket + 1, end));
+
+				Class<?> raw = TypeResolver.getRawType(generic);
+				if (raw.isArray()) {
+					steps.add(new ArrayStep(index));
+					generic = generic instanceof GenericArrayType ? ((GenericArrayType) generic).getGenericComponentType() : raw.getComponentType();
+				} else if (ReflectionUtil.isCollection(raw)) {
+					steps.add(new CollectionStep(index));
+					generic = TypeResolver.getTypeArguments(generic, Collection.class)[0];
+				} else {
+					throw new IllegalArgumentException();
+				}
+
+				bracket = end + 1 < segment.length() ? end + 1 : -1;
+				if (bracket >= 0 && segment.charAt(bracket) != '[') {
+					throw new IllegalArgumentException();
+				}
+			}
+
+			type = TypeResolver.getRawType(generic);
+		}
+
+		this.steps = steps.toArray(new Step[steps.size()]);
+		this.type = type;
+	}
+
+	/**
+	 * Retorna o caminho compilado a partir de uma determinada classe.
+	 * 
+	 * @param klass
+	 *            Classe do objeto de origem.
+	 * @param path
+	 *            Nomes dos atributos separados por ponto, cada um seguido opcionalmente de indices entre colchetes.
+	 * @return Caminho compilado.
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo, se algum atributo nao existir na hierarquia do tipo declarado ou se
+	 *                algum indice for aplicado a um atributo que nao seja array nem colecao.
+	 */
+	public static PropertyPath compile(Class<?> klass, String path) {
+		if (klass == null || path == null) {
+			throw new IllegalArgumentException();
+		}
+
+		ConcurrentMap<String, PropertyPath> paths = CACHE.get(klass);
+
+		PropertyPath propertyPath = paths.get(path);
+		if (propertyPath == null) {
+			propertyPath = new PropertyPath(klass, path);
+			paths.putIfAbsent(path, propertyPath);
+		}
+
+		return propertyPath;
+	}
+
+	/**
+	 * Retorna a classe de origem do caminho.
+	 * 
+	 * @return Classe de origem.
+	 */
+	public Class<?> getRootType() {
+		return this.rootType;
+	}
+
+	/**
+	 * Retorna o caminho no formato em que foi informado.
+	 * 
+	 * @return Caminho.
+	 */
+	public String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Retorna o tipo declarado do ultimo atributo ou elemento do caminho.
+	 * 
+	 * @return Tipo do valor.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Retorna o valor do caminho a partir de uma determinada instancia.
+	 * 
+	 * @param instance
+	 * @return null se a instancia, algum objeto intermediario ou o proprio valor for nulo, ou se algum indice nao
+	 *         existir.
+	 */
+	public Object get(Object instance) {
+		Object current = instance;
+		int i = 0;
+		for (; i < this.steps.length && current != null; i++) {
+			current = this.steps[i].get(current);
+		}
+		ReflectionMetrics.compiledAccess(this.rootType, i);
+
+		return current;
+	}
+
+	/**
+	 * Altera o valor do caminho a partir de uma determinada instancia.
+	 * 
+	 * @param value
+	 * @param instance
+	 * @return false se a instancia ou algum objeto intermediario for nulo, ou se algum indice nao existir.
+	 */
+	public boolean set(Object value, Object instance) {
+		Object current = instance;
+		int last = this.steps.length - 1;
+
+		int i = 0;
+		for (; i < last && current != null; i++) {
+			current = this.steps[i].get(current);
+		}
+		ReflectionMetrics.compiledAccess(this.rootType, current != null ? i + 1 : i);
+
+		return current != null && this.steps[last].set(value, current);
+	}
+
+	@Override
+	public String toString() {
+		return this.rootType.getName() + "." + this.path;
+	}
+
+	private static int parseIndex(String index) {
+		int value;
+		try {
+			value = Integer.parseInt(index);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException();
+		}
+
+		if (value < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		return value;
+	}
+
+	private abstract static class Step {
+
+		protected abstract Object get(Object instance);
+
+		protected abstract boolean set(Object value, Object instance);
+
+	}
+
+	private static final class FieldStep extends Step {
+
+		private final FieldAccessor accessor;
+
+		private FieldStep(FieldAccessor accessor) {
+			this.accessor = accessor;
+		}
+
+		@Override
+		protected Object get(Object instance) {
+			return this.accessor.get(instance);
+		}
+
+		@Override
+		protected boolean set(Object value, Object instance) {
+			this.accessor.set(value, instance);
+			return true;
+		}
+
+	}
+
+	private static final class ArrayStep extends Step {
+
+		private final int index;
+
+		private ArrayStep(int index) {
+			this.index = index;
+		}
+
+		@Override
+		protected Object get(Object instance) {
+			return this.index < Array.getLength(instance) ? Array.get(instance, this.index) : null;
+		}
+
+		@Override
+		protected boolean set(Object value, Object instance) {
+			if (this.index >= Array.getLength(instance)) {
+				return false;
+			}
+
+			Array.set(instance, this.index, value);
+			return true;
+		}
+
+	}
+
+	private static final class CollectionStep extends Step {
+
+		private final int index;
+
+		private CollectionStep(int index) {
+			this.index = index;
+		}
+
+		@Override
+		protected Object get(Object instance) {
+			if (instance instanceof List<?>) {
+				List<?> list = (List<?>) instance;
+				return this.index < list.size() ? list.get(this.index) : null;
+			}
+
+			Collection<?> collection = (Collection<?>) instance;
+			if (this.index >= collection.size()) {
+				return null;
+			}
+
+			Iterator<?> iterator = collection.iterator();
+			for (int i = 0; i < this.index; i++) {
+				iterator.next();
+			}
+
+			return iterator.next();
+		}
+
+		@Override
+		protected boolean set(Object value, Object instance) {
+			if (!(instance instanceof List<?>)) {
+				return false;
+			}
+
+			@SuppressWarnings("unchecked")
+			List<Object> list = (List<Object>) instance;
+			if (this.index >= list.size()) {
+				return false;
+			}
+
+			list.set(this.index, value);
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Field;
+
+/**
+ * Recebe os eventos de instrumentacao publicados por {@link ReflectionMetrics} enquanto a instrumentacao estiver
+ * habilitada. Os metodos sao chamados na thread que executou a operacao e devem retornar rapidamente. Excecoes lancadas
+ * pelo ouvinte sao ignoradas, para nao alterar o resultado da operacao instrumentada.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public interface ReflectionListener {
+
+	/**
+	 * Chamado ao final de cada chamada de um metodo instrumentado de {@link ReflectionUtil}.
+	 * 
+	 * @param method
+	 *            Nome do metodo.
+	 * @param nanos
+	 *            Duracao da chamada em nanossegundos.
+	 */
+	void methodCalled(String method, long nanos);
+
+	/**
+	 * Chamado quando os metadados ou o plano de uma classe nao estao em cache e precisam ser calculados.
+	 * 
+	 * @param type
+	 */
+	void cacheMissed(Class<?> type);
+
+	/**
+	 * Chamado quando um atributo e lido ou alterado por {@link ReflectionUtil#get(Field, Object)} ou
+	 * {@link ReflectionUtil#set(Object, Field, Object)}, que resolvem o acessor a cada chamada, em vez de um plano ja
+	 * montado como o de {@link Copier}.
+	 * 
+	 * @param field
+	 */
+	void reflectiveAccess(Field field);
+
+	/**
+	 * Chamado quando um plano ja montado, como o de {@link Copier}, {@link BeanMapper}, {@link JsonCodec} ou
+	 * {@link BinaryCodec}, acessa os atributos de uma instancia.
+	 * 
+	 * @param type
+	 *            Classe da instancia acessada.
+	 * @param count
+	 *            Numero de atributos acessados.
+	 */
+	void compiledAccess(Class<?> type, int count);
+
+}
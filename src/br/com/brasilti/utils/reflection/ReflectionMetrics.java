@@ -0,0 +1,454 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Instrumentacao opcional dos caminhos mais usados de {@link ReflectionUtil} e dos caches de metadados.
+ * <p>
+ * A instrumentacao vem desabilitada. Enquanto desabilitada, cada ponto instrumentado custa apenas a leitura de um
+ * atributo volatil. Quando habilitada, sao registrados o numero de chamadas e um histograma de latencia de cada metodo
+ * instrumentado, com faixas em potencias de dois de nanossegundos; os acertos, faltas e descartes dos caches por classe;
+ * e o numero de acessos a atributos resolvidos a cada chamada, por {@link ReflectionUtil#get(Field, Object)} e
+ * {@link ReflectionUtil#set(Object, Field, Object)}, comparado aos acessos feitos por planos ja montados, como os de
+ * {@link Copier}, {@link BeanMapper}, {@link JsonCodec}, {@link BinaryCodec}, {@link RowMapper},
+ * {@link EqualityStrategy}, {@link DirtyChecker} e {@link PropertyPath}. Os contadores podem ser consultados por JMX, apos {@link #registerMBean()}, e os eventos podem ser
+ * acompanhados por um {@link ReflectionListener}, por exemplo para encontrar as classes que nunca chegam aos planos.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class ReflectionMetrics {
+
+	/**
+	 * Nome com que o MBean e registrado.
+	 */
+	public static final String OBJECT_NAME = "br.com.brasilti.utils:type=ReflectionMetrics";
+
+	/**
+	 * Numero de faixas dos histogramas. A faixa i conta as duracoes de 2^(i-1) ate 2^i - 1 nanossegundos; a faixa zero
+	 * conta as duracoes nulas.
+	 */
+	public static final int BUCKETS = 64;
+
+	static final long NOT_STARTED = Long.MIN_VALUE;
+
+	private static volatile boolean enabled;
+
+	private static final ConcurrentMap<String, MethodMetric> METHODS = new ConcurrentHashMap<String, MethodMetric>();
+
+	private static final AtomicLong CACHE_HITS = new AtomicLong();
+
+	private static final AtomicLong CACHE_MISSES = new AtomicLong();
+
+	private static final AtomicLong CACHE_EVICTIONS = new AtomicLong();
+
+	private static final AtomicLong REFLECTIVE_ACCESSES = new AtomicLong();
+
+	private static final AtomicLong COMPILED_ACCESSES = new AtomicLong();
+
+	private static final List<ReflectionListener> LISTENERS = new CopyOnWriteArrayList<ReflectionListener>();
+
+	private ReflectionMetrics() {
+
+	}
+
+	/**
+	 * Indica que a instrumentacao esta habilitada.
+	 * 
+	 * @return true se a instrumentacao esta habilitada.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Habilita ou desabilita a instrumentacao. Os contadores sao mantidos.
+	 * 
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		ReflectionMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Retorna o nome dos metodos instrumentados, em ordem alfabetica.
+	 * 
+	 * @return Nomes dos metodos.
+	 */
+	public static Set<String> getMethodNames() {
+		return new TreeSet<String>(METHODS.keySet());
+	}
+
+	/**
+	 * Retorna o numero de chamadas registradas de um metodo instrumentado.
+	 * 
+	 * @param method
+	 * @return 0 se o metodo nao for instrumentado.
+	 */
+	public static long getCallCount(String method) {
+		MethodMetric metric = method != null ? METHODS.get(method) : null;
+		return metric != null ? metric.count.get() : 0;
+	}
+
+	/**
+	 * Retorna a soma das duracoes registradas de um metodo instrumentado.
+	 * 
+	 * @param method
+	 * @return Duracao total em nanossegundos ou 0 se o metodo nao for instrumentado.
+	 */
+	public static long getTotalNanos(String method) {
+		MethodMetric metric = method != null ? METHODS.get(method) : null;
+		return metric != null ? metric.totalNanos.get() : 0;
+	}
+
+	/**
+	 * Retorna o histograma de latencia de um metodo instrumentado.
+	 * 
+	 * @param method
+	 * @return Array com {@link #BUCKETS} faixas, vazias se o metodo nao for instrumentado.
+	 * @see #BUCKETS
+	 */
+	public static long[] getLatencyHistogram(String method) {
+		long[] histogram = new long[BUCKETS];
+
+		MethodMetric metric = method != null ? METHODS.get(method) : null;
+		if (metric != null) {
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram[i] = metric.histogram.get(i);
+			}
+		}
+
+		return histogram;
+	}
+
+	/**
+	 * Retorna o numero de consultas aos caches por classe que encontraram o valor.
+	 * 
+	 * @return Numero de acertos.
+	 */
+	public static long getCacheHits() {
+		return CACHE_HITS.get();
+	}
+
+	/**
+	 * Retorna o numero de consultas aos caches por classe que precisaram calcular o valor.
+	 * 
+	 * @return Numero de faltas.
+	 */
+	public static long getCacheMisses() {
+		return CACHE_MISSES.get();
+	}
+
+	/**
+	 * Retorna o numero de valores descartados dos caches por classe, porque a classe foi descarregada, porque o valor
+	 * foi coletado ou porque foi removido explicitamente.
+	 * 
+	 * @return Numero de descartes.
+	 */
+	public static long getCacheEvictions() {
+		return CACHE_EVICTIONS.get();
+	}
+
+	/**
+	 * Retorna o numero de acessos a atributos que resolveram o acessor na propria chamada.
+	 * 
+	 * @return Numero de acessos.
+	 */
+	public static long getReflectiveAccesses() {
+		return REFLECTIVE_ACCESSES.get();
+	}
+
+	/**
+	 * Retorna o numero de acessos a atributos feitos por planos ja montados.
+	 * 
+	 * @return Numero de acessos.
+	 */
+	public static long getCompiledAccesses() {
+		return COMPILED_ACCESSES.get();
+	}
+
+	/**
+	 * Zera todos os contadores.
+	 */
+	public static void reset() {
+		for (MethodMetric metric : METHODS.values()) {
+			metric.reset();
+		}
+
+		CACHE_HITS.set(0);
+		CACHE_MISSES.set(0);
+		CACHE_EVICTIONS.set(0);
+		REFLECTIVE_ACCESSES.set(0);
+		COMPILED_ACCESSES.set(0);
+	}
+
+	/**
+	 * Adiciona um ouvinte dos eventos de instrumentacao.
+	 * 
+	 * @param listener
+	 * @exception IllegalArgumentException
+	 *                se o ouvinte for nulo.
+	 */
+	public static void addListener(ReflectionListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException();
+		}
+
+		LISTENERS.add(listener);
+	}
+
+	/**
+	 * Remove um ouvinte dos eventos de instrumentacao.
+	 * 
+	 * @param listener
+	 */
+	public static void removeListener(ReflectionListener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * Registra o MBean no servidor de MBeans da plataforma com o nome {@link #OBJECT_NAME}, caso ainda nao esteja
+	 * registrado.
+	 * 
+	 * @exception IllegalStateException
+	 *                se o registro falhar.
+	 */
+	public static void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new StandardMBean(new MBean(), ReflectionMetricsMBean.class), name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Remove o MBean do servidor de MBeans da plataforma, caso esteja registrado.
+	 * 
+	 * @exception IllegalStateException
+	 *                se a remocao falhar.
+	 */
+	public static void unregisterMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static MethodMetric forMethod(String name) {
+		MethodMetric metric = METHODS.get(name);
+		if (metric == null) {
+			metric = new MethodMetric(name);
+
+			MethodMetric previous = METHODS.putIfAbsent(name, metric);
+			if (previous != null) {
+				metric = previous;
+			}
+		}
+
+		return metric;
+	}
+
+	static long start() {
+		return enabled ? System.nanoTime() : NOT_STARTED;
+	}
+
+	static void stop(MethodMetric metric, long start) {
+		if (start == NOT_STARTED) {
+			return;
+		}
+
+		long nanos = System.nanoTime() - start;
+		metric.record(nanos);
+
+		for (ReflectionListener listener : LISTENERS) {
+			try {
+				listener.methodCalled(metric.name, nanos);
+			} catch (RuntimeException e) {
+				// O ouvinte nao interfere na operacao instrumentada.
+			}
+		}
+	}
+
+	static void cacheHit() {
+		if (enabled) {
+			CACHE_HITS.incrementAndGet();
+		}
+	}
+
+	static void cacheMiss(Class<?> type) {
+		if (enabled) {
+			CACHE_MISSES.incrementAndGet();
+
+			for (ReflectionListener listener : LISTENERS) {
+				try {
+					listener.cacheMissed(type);
+				} catch (RuntimeException e) {
+					// O ouvinte nao interfere na operacao instrumentada.
+				}
+			}
+		}
+	}
+
+	static void cacheEviction() {
+		if (enabled) {
+			CACHE_EVICTIONS.incrementAndGet();
+		}
+	}
+
+	static void reflectiveAccess(Field field) {
+		if (enabled) {
+			REFLECTIVE_ACCESSES.incrementAndGet();
+
+			for (ReflectionListener listener : LISTENERS) {
+				try {
+					listener.reflectiveAccess(field);
+				} catch (RuntimeException e) {
+					// O ouvinte nao interfere na operacao instrumentada.
+				}
+			}
+		}
+	}
+
+	static void compiledAccess(Class<?> type, int count) {
+		if (enabled) {
+			COMPILED_ACCESSES.addAndGet(count);
+
+			for (ReflectionListener listener : LISTENERS) {
+				try {
+					listener.compiledAccess(type, count);
+				} catch (RuntimeException e) {
+					// O ouvinte nao interfere na operacao instrumentada.
+				}
+			}
+		}
+	}
+
+	static int bucket(long nanos) {
+		return nanos <= 0 ? 0 : Math.min(BUCKETS - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+	}
+
+	/**
+	 * Contadores de um metodo instrumentado.
+	 */
+	static final class MethodMetric {
+
+		private final String name;
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong totalNanos = new AtomicLong();
+
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		private MethodMetric(String name) {
+			this.name = name;
+		}
+
+		private void record(long nanos) {
+			this.count.incrementAndGet();
+			this.totalNanos.addAndGet(nanos);
+			this.histogram.incrementAndGet(bucket(nanos));
+		}
+
+		private void reset() {
+			this.count.set(0);
+			this.totalNanos.set(0);
+			for (int i = 0; i < BUCKETS; i++) {
+				this.histogram.set(i, 0);
+			}
+		}
+
+	}
+
+	private static final class MBean implements ReflectionMetricsMBean {
+
+		@Override
+		public boolean isEnabled() {
+			return ReflectionMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			ReflectionMetrics.setEnabled(enabled);
+		}
+
+		@Override
+		public String[] getMethodNames() {
+			Set<String> names = ReflectionMetrics.getMethodNames();
+			return names.toArray(new String[names.size()]);
+		}
+
+		@Override
+		public long getCallCount(String method) {
+			return ReflectionMetrics.getCallCount(method);
+		}
+
+		@Override
+		public long getTotalNanos(String method) {
+			return ReflectionMetrics.getTotalNanos(method);
+		}
+
+		@Override
+		public long[] getLatencyHistogram(String method) {
+			return ReflectionMetrics.getLatencyHistogram(method);
+		}
+
+		@Override
+		public long getCacheHits() {
+			return ReflectionMetrics.getCacheHits();
+		}
+
+		@Override
+		public long getCacheMisses() {
+			return ReflectionMetrics.getCacheMisses();
+		}
+
+		@Override
+		public long getCacheEvictions() {
+			return ReflectionMetrics.getCacheEvictions();
+		}
+
+		@Override
+		public long getReflectiveAccesses() {
+			return ReflectionMetrics.getReflectiveAccesses();
+		}
+
+		@Override
+		public long getCompiledAccesses() {
+			return ReflectionMetrics.getCompiledAccesses();
+		}
+
+		@Override
+		public void reset() {
+			ReflectionMetrics.reset();
+		}
+
+	}
+
+}
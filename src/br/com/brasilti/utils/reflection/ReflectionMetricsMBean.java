@@ -0,0 +1,36 @@
+package br.com.brasilti.utils.reflection;
+
+/**
+ * Interface JMX de {@link ReflectionMetrics}, registrada por {@link ReflectionMetrics#registerMBean()}.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public interface ReflectionMetricsMBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	String[] getMethodNames();
+
+	long getCallCount(String method);
+
+	long getTotalNanos(String method);
+
+	long[] getLatencyHistogram(String method);
+
+	long getCacheHits();
+
+	long getCacheMisses();
+
+	long getCacheEvictions();
+
+	long getReflectiveAccesses();
+
+	long getCompiledAccesses();
+
+	void reset();
+
+}
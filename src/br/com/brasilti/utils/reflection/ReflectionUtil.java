@@ -1,13 +1,18 @@
 package br.com.brasilti.utils.reflection;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Version;
 
 /**
  * Agrupa metodos estaticos com o objetivo de facilitar o uso de reflexao.
@@ -18,6 +23,24 @@ import java.util.List;
  */
 public class ReflectionUtil {
 
+	private static final ReflectionMetrics.MethodMetric GET = ReflectionMetrics.forMethod("get");
+
+	private static final ReflectionMetrics.MethodMetric SET = ReflectionMetrics.forMethod("set");
+
+	private static final ReflectionMetrics.MethodMetric COPY = ReflectionMetrics.forMethod("copy");
+
+	private static final ReflectionMetrics.MethodMetric DEEP_COPY = ReflectionMetrics.forMethod("deepCopy");
+
+	private static final ReflectionMetrics.MethodMetric GET_PERSISTENT_FIELDS = ReflectionMetrics.forMethod("getPersistentFields");
+
+	private static final ReflectionMetrics.MethodMetric GET_FIELD = ReflectionMetrics.forMethod("getField");
+
+	private static final ReflectionMetrics.MethodMetric HAS_FIELD = ReflectionMetrics.forMethod("hasField");
+
+	private static final ReflectionMetrics.MethodMetric HAS_METHOD = ReflectionMetrics.forMethod("hasMethod");
+
+	private static final ReflectionMetrics.MethodMetric IS_ANNOTATED = ReflectionMetrics.forMethod("isAnnotated");
+
 	private ReflectionUtil() {
 
 	}
@@ -53,40 +76,66 @@ public class ReflectionUtil {
 	}
 
 	/**
-	 * Retorna os atributos persistentes de uma determinada classe.
+	 * Retorna os atributos persistentes de uma determinada classe. Cada chamada devolve novas copias dos atributos,
+	 * como {@link Class#getDeclaredFields()}.
 	 * 
 	 * @param klass
 	 * @return Lista de atributos.
 	 * @see #isPersistent(Field)
 	 */
 	public static List<Field> getPersistentFields(Class<?> klass) {
-		List<Field> fields = new ArrayList<Field>();
+		long start = ReflectionMetrics.start();
+		try {
+			return copyOf(ClassMetadata.forClass(klass).getPersistentFields());
+		} finally {
+			ReflectionMetrics.stop(GET_PERSISTENT_FIELDS, start);
+		}
+	}
 
-		for (Field field : klass.getDeclaredFields()) {
-			if (isPersistent(field)) {
-				fields.add(field);
-			}
+	/**
+	 * Retorna o nome dos atributos persistentes de uma determinada classe. Para as entidades presentes no
+	 * {@link EntityIndex} os nomes sao obtidos do indice, sem reflexao.
+	 * 
+	 * @param klass
+	 * @return Lista de nomes.
+	 * @see #isPersistent(Field)
+	 */
+	public static List<String> getPersistentFieldNames(Class<?> klass) {
+		EntityIndex.Entry entry = EntityIndex.lookup(klass);
+		if (entry != null) {
+			return new ArrayList<String>(entry.getFieldNames());
+		}
+
+		List<String> names = new ArrayList<String>();
+		for (Field field : ClassMetadata.forClass(klass).getPersistentFields()) {
+			names.add(field.getName());
 		}
 
-		return fields;
+		return names;
+	}
+
+	/**
+	 * Retorna os atributos persistentes de uma determinada classe e das suas superclasses. Os atributos das superclasses
+	 * mais gerais vem primeiro. Cada chamada devolve novas copias dos atributos.
+	 * 
+	 * @param klass
+	 * @return Lista de atributos.
+	 * @see #isPersistent(Field)
+	 */
+	public static List<Field> getPersistentFieldsInHierarchy(Class<?> klass) {
+		return copyOf(ClassMetadata.forClass(klass).getPersistentFieldsInHierarchy());
 	}
 
 	/**
-	 * Indica que a classe implementa uma determinada interface.
+	 * Indica que a classe implementa uma determinada interface, diretamente, por meio de uma superclasse ou por meio de
+	 * outra interface.
 	 * 
 	 * @param klass
 	 * @param interfaceClass
 	 * @return true se a classe implementa a interface.
 	 */
 	public static boolean implementz(Class<?> klass, Class<?> interfaceClass) {
-		Class<?>[] interfaces = klass.getInterfaces();
-		for (Class<?> i : interfaces) {
-			if (i.equals(interfaceClass)) {
-				return true;
-			}
-		}
-
-		return false;
+		return ClassMetadata.forClass(klass).implementz(interfaceClass);
 	}
 
 	/**
@@ -94,21 +143,20 @@ public class ReflectionUtil {
 	 * 
 	 * @param field
 	 * @param instance
-	 * @return null se {@link IllegalArgumentException} ou {@link IllegalAccessException} for capturada.
+	 * @return null se {@link IllegalArgumentException} ou {@link IllegalStateException} for capturada.
+	 * @see FieldAccessor#get(Object)
 	 */
 	public static <T> Object get(Field field, T instance) {
+		long start = ReflectionMetrics.start();
 		try {
-			boolean accessible = field.isAccessible();
-			field.setAccessible(Boolean.TRUE);
-
-			Object value = field.get(instance);
-
-			field.setAccessible(accessible);
-			return value;
+			ReflectionMetrics.reflectiveAccess(field);
+			return FieldAccessor.forField(field).get(instance);
 		} catch (IllegalArgumentException e) {
 			e.printStackTrace();
-		} catch (IllegalAccessException e) {
+		} catch (IllegalStateException e) {
 			e.printStackTrace();
+		} finally {
+			ReflectionMetrics.stop(GET, start);
 		}
 		return null;
 	}
@@ -119,19 +167,19 @@ public class ReflectionUtil {
 	 * @param value
 	 * @param field
 	 * @param instance
+	 * @see FieldAccessor#set(Object, Object)
 	 */
 	public static <T> void set(Object value, Field field, T instance) {
+		long start = ReflectionMetrics.start();
 		try {
-			boolean accessible = field.isAccessible();
-			field.setAccessible(Boolean.TRUE);
-
-			field.set(instance, value);
-
-			field.setAccessible(accessible);
+			ReflectionMetrics.reflectiveAccess(field);
+			FieldAccessor.forField(field).set(value, instance);
 		} catch (IllegalArgumentException e) {
 			e.printStackTrace();
-		} catch (IllegalAccessException e) {
+		} catch (IllegalStateException e) {
 			e.printStackTrace();
+		} finally {
+			ReflectionMetrics.stop(SET, start);
 		}
 	}
 
@@ -142,94 +190,176 @@ public class ReflectionUtil {
 	 * @param target
 	 * @exception IllegalArgumentException
 	 *                se a classe do objeto de origem for diferente da classe do objeto de destino.
+	 * @see Copier
 	 */
 	public static <T> void copy(T origin, T target) {
-		Class<?> originClass = origin.getClass();
-		Class<?> targetClass = target.getClass();
+		long start = ReflectionMetrics.start();
+		try {
+			Class<?> originClass = origin.getClass();
+			Class<?> targetClass = target.getClass();
 
-		if (!originClass.equals(targetClass)) {
-			throw new IllegalArgumentException();
+			if (!originClass.equals(targetClass)) {
+				throw new IllegalArgumentException();
+			}
+
+			@SuppressWarnings("unchecked")
+			Copier<T> copier = (Copier<T>) Copier.forClass(targetClass);
+			copier.copy(origin, target);
+		} finally {
+			ReflectionMetrics.stop(COPY, start);
 		}
+	}
 
-		List<Field> fields = getPersistentFields(targetClass);
-		for (Field field : fields) {
-			Object value = get(field, origin);
-			set(value, field, target);
+	/**
+	 * Copia o valor de cada atributo de cada objeto de origem para o objeto de destino da mesma posicao, resolvendo o
+	 * {@link Copier} de cada classe uma unica vez.
+	 * 
+	 * @param origins
+	 * @param targets
+	 * @exception IllegalArgumentException
+	 *                se as listas tiverem tamanhos diferentes ou se algum par de objetos for de classes diferentes.
+	 * @see BulkCopier
+	 */
+	public static <T> void copyAll(List<? extends T> origins, List<? extends T> targets) {
+		BulkCopier.sequential().copyAll(origins, targets);
+	}
+
+	/**
+	 * Cria uma copia profunda de um determinado objeto. Colecoes, mapas, arrays e objetos referenciados sao copiados
+	 * recursivamente, preservando ciclos e referencias compartilhadas. Instancias de tipos imutaveis, como
+	 * {@link String}, {@link java.math.BigDecimal} e os tipos primitivos empacotados, sao compartilhadas.
+	 * 
+	 * @param origin
+	 * @return Copia do objeto.
+	 * @exception IllegalArgumentException
+	 *                se algum objeto do grafo nao possuir construtor sem argumentos.
+	 */
+	public static <T> T deepCopy(T origin) {
+		long start = ReflectionMetrics.start();
+		try {
+			return DeepCopier.copy(origin);
+		} finally {
+			ReflectionMetrics.stop(DEEP_COPY, start);
 		}
 	}
 
 	/**
-	 * Retorna o tipo dos elementos de um determinado atributo.
+	 * Retorna o tipo dos elementos de uma colecao ou o tipo dos valores de um mapa. Variaveis de tipo sao resolvidas na
+	 * hierarquia da classe que declara o atributo.
 	 * 
 	 * @param field
 	 * @return Tipo dos elementos de uma colecao.
 	 * @exception IllegalArgumentException
-	 *                se o atributo nao for uma colecao.
-	 * @see #isCollection(Class)
+	 *                se o atributo nao for uma colecao nem um mapa.
+	 * @see TypeResolver#getTypeOfElements(Field, Class)
 	 */
 	public static Class<?> getTypeOfElements(Field field) {
-		if (!isCollection(field.getType())) {
-			throw new IllegalArgumentException();
-		}
-
-		ParameterizedType type = (ParameterizedType) field.getGenericType();
+		return TypeResolver.getTypeOfElements(field, field.getDeclaringClass());
+	}
 
-		return (Class<?>) type.getActualTypeArguments()[0];
+	/**
+	 * Retorna o tipo das chaves de um mapa. Variaveis de tipo sao resolvidas na hierarquia da classe que declara o
+	 * atributo.
+	 * 
+	 * @param field
+	 * @return Tipo das chaves de um mapa.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for um mapa.
+	 * @see TypeResolver#getTypeOfKeys(Field, Class)
+	 */
+	public static Class<?> getTypeOfKeys(Field field) {
+		return TypeResolver.getTypeOfKeys(field, field.getDeclaringClass());
 	}
 
 	/**
-	 * Indica que uma determinada classe e colecao
+	 * Indica que uma determinada classe e colecao, isto e, implementa {@link Collection}.
 	 * 
 	 * @param klass
 	 * @return true se a classe e colecao.
 	 */
 	public static boolean isCollection(Class<?> klass) {
-		boolean isArrayList = klass.equals(ArrayList.class);
-		boolean isList = klass.equals(List.class);
-		boolean isCollection = klass.equals(Collection.class);
+		return Collection.class.isAssignableFrom(klass);
+	}
 
-		return isArrayList || isList || isCollection;
+	/**
+	 * Indica que uma determinada classe e mapa, isto e, implementa {@link Map}.
+	 * 
+	 * @param klass
+	 * @return true se a classe e mapa.
+	 */
+	public static boolean isMap(Class<?> klass) {
+		return Map.class.isAssignableFrom(klass);
 	}
 
 	/**
-	 * Indica que a classe esta anotada por uma determinada anotacao.
+	 * Indica que a classe esta anotada por uma determinada anotacao. A anotacao {@link Entity} e consultada primeiro no
+	 * {@link EntityIndex}.
 	 * 
 	 * @param klass
 	 * @param annotationClass
 	 * @return true se a classe esta anotada pela anotacao.
 	 */
 	public static boolean isAnnotated(Class<?> klass, Class<? extends Annotation> annotationClass) {
-		return klass.getAnnotation(annotationClass) != null;
+		long start = ReflectionMetrics.start();
+		try {
+			if (annotationClass == Entity.class && EntityIndex.lookup(klass) != null) {
+				return true;
+			}
+
+			return ClassMetadata.forClass(klass).isAnnotated(annotationClass);
+		} finally {
+			ReflectionMetrics.stop(IS_ANNOTATED, start);
+		}
 	}
 
 	/**
-	 * Indica que o atributo esta anotado por uma determinada anotacao.
+	 * Indica que a classe, uma das suas superclasses ou uma das suas interfaces esta anotada por uma determinada
+	 * anotacao.
+	 * 
+	 * @param klass
+	 * @param annotationClass
+	 * @return true se algum tipo da hierarquia esta anotado pela anotacao.
+	 */
+	public static boolean isAnnotatedInHierarchy(Class<?> klass, Class<? extends Annotation> annotationClass) {
+		return ClassMetadata.forClass(klass).isAnnotatedInHierarchy(annotationClass);
+	}
+
+	/**
+	 * Indica que o atributo esta anotado por uma determinada anotacao. As anotacoes {@link Id} e {@link Version} dos
+	 * atributos de entidades presentes no {@link EntityIndex} sao consultadas no indice quando o atributo indexado tem o
+	 * mesmo tipo do atributo declarado; caso contrario o indice esta desatualizado e as anotacoes sao lidas por reflexao.
 	 * 
 	 * @param field
 	 * @param annotationClass
 	 * @return true se o atributo esta anotado pela anotacao.
 	 */
 	public static boolean isAnnotated(Field field, Class<? extends Annotation> annotationClass) {
+		if (annotationClass == Id.class || annotationClass == Version.class) {
+			EntityIndex.Entry entry = EntityIndex.lookup(field.getDeclaringClass());
+			if (entry != null && EntityIndex.getTypeName(field.getType()).equals(entry.getFieldType(field.getName()))) {
+				return annotationClass == Id.class ? entry.isIdField(field.getName()) : entry.isVersionField(field.getName());
+			}
+		}
+
 		return field.getAnnotation(annotationClass) != null;
 	}
 
 	/**
-	 * Retorna o atributo de uma determinada classe.
+	 * Retorna o atributo de uma determinada classe. Cada chamada devolve uma nova copia do atributo, como
+	 * {@link Class#getDeclaredField(String)}.
 	 * 
 	 * @param fieldName
 	 * @param klass
-	 * @return null se {@link SecurityException} ou {@link NoSuchFieldException} for capturada.
+	 * @return null se a classe nao declarar o atributo.
 	 */
 	public static Field getField(String fieldName, Class<?> klass) {
+		long start = ReflectionMetrics.start();
 		try {
-			return klass.getDeclaredField(fieldName);
-		} catch (SecurityException e) {
-			e.printStackTrace();
-		} catch (NoSuchFieldException e) {
-			e.printStackTrace();
+			Field field = ClassMetadata.forClass(klass).getField(fieldName);
+			return field != null ? copyOf(field) : null;
+		} finally {
+			ReflectionMetrics.stop(GET_FIELD, start);
 		}
-
-		return null;
 	}
 
 	/**
@@ -239,15 +369,45 @@ public class ReflectionUtil {
 	 * @return true se a classe possui um construtor.
 	 */
 	public static boolean hasConstructor(Class<?> klass) {
-		try {
-			return klass.getConstructor() != null;
-		} catch (SecurityException e) {
-			e.printStackTrace();
-		} catch (NoSuchMethodException e) {
-			e.printStackTrace();
-		}
+		return ClassMetadata.forClass(klass).hasPublicDefaultConstructor();
+	}
 
-		return false;
+	/**
+	 * Cria uma instancia de uma determinada classe pelo construtor sem argumentos, resolvido uma unica vez por classe.
+	 * 
+	 * @param klass
+	 * @return Instancia criada.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula, abstrata ou nao possuir construtor sem argumentos.
+	 * @exception IllegalStateException
+	 *                se o construtor lancar uma excecao.
+	 * @see Instantiator
+	 */
+	public static <T> T newInstance(Class<T> klass) {
+		return Instantiator.forClass(klass).newInstance();
+	}
+
+	/**
+	 * Retorna o construtor de uma determinada classe com os tipos de parametros informados.
+	 * 
+	 * @param klass
+	 * @param parameterTypes
+	 * @return null se a classe nao declarar o construtor.
+	 */
+	public static Constructor<?> findConstructor(Class<?> klass, Class<?>... parameterTypes) {
+		return ClassMetadata.forClass(klass).findConstructor(parameterTypes);
+	}
+
+	/**
+	 * Retorna o metodo de uma determinada classe com o nome e os tipos de parametros informados.
+	 * 
+	 * @param klass
+	 * @param methodName
+	 * @param parameterTypes
+	 * @return null se a classe nao declarar o metodo.
+	 */
+	public static Method findMethod(Class<?> klass, String methodName, Class<?>... parameterTypes) {
+		return ClassMetadata.forClass(klass).findMethod(methodName, parameterTypes);
 	}
 
 	/**
@@ -258,14 +418,23 @@ public class ReflectionUtil {
 	 * @return true se a classe possui o atributo.
 	 */
 	public static boolean hasField(Class<?> klass, String fieldName) {
-		Field[] fields = klass.getDeclaredFields();
-		for (Field field : fields) {
-			if (field.getName().equals(fieldName)) {
-				return true;
-			}
+		long start = ReflectionMetrics.start();
+		try {
+			return ClassMetadata.forClass(klass).hasField(fieldName);
+		} finally {
+			ReflectionMetrics.stop(HAS_FIELD, start);
 		}
+	}
 
-		return false;
+	/**
+	 * Indica que a classe ou uma das suas superclasses possui um determinado atributo.
+	 * 
+	 * @param klass
+	 * @param fieldName
+	 * @return true se alguma classe da hierarquia possui o atributo.
+	 */
+	public static boolean hasFieldInHierarchy(Class<?> klass, String fieldName) {
+		return ClassMetadata.forClass(klass).hasFieldInHierarchy(fieldName);
 	}
 
 	/**
@@ -276,14 +445,44 @@ public class ReflectionUtil {
 	 * @return true se a classe possui o metodo.
 	 */
 	public static boolean hasMethod(Class<?> klass, String methodName) {
-		Method[] methods = klass.getDeclaredMethods();
-		for (Method method : methods) {
-			if (method.getName().equals(methodName)) {
-				return true;
-			}
+		long start = ReflectionMetrics.start();
+		try {
+			return ClassMetadata.forClass(klass).hasMethod(methodName);
+		} finally {
+			ReflectionMetrics.stop(HAS_METHOD, start);
+		}
+	}
+
+	/**
+	 * Indica que a classe, uma das suas superclasses ou uma das suas interfaces possui um determinado metodo.
+	 * 
+	 * @param klass
+	 * @param methodName
+	 * @return true se algum tipo da hierarquia possui o metodo.
+	 */
+	public static boolean hasMethodInHierarchy(Class<?> klass, String methodName) {
+		return ClassMetadata.forClass(klass).hasMethodInHierarchy(methodName);
+	}
+
+	/**
+	 * Os atributos mantidos em {@link ClassMetadata} sao compartilhados; as copias impedem que uma chamada a
+	 * {@link Field#setAccessible(boolean)} feita por quem os recebe altere o estado visto pelas demais.
+	 */
+	private static Field copyOf(Field field) {
+		try {
+			return field.getDeclaringClass().getDeclaredField(field.getName());
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static List<Field> copyOf(List<Field> fields) {
+		List<Field> copies = new ArrayList<Field>(fields.size());
+		for (Field field : fields) {
+			copies.add(copyOf(field));
 		}
 
-		return false;
+		return copies;
 	}
 
 }
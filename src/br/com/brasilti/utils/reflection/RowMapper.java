@@ -0,0 +1,632 @@
+package br.com.brasilti.utils.reflection;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.lang.ref.WeakReference;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Converte as linhas de um {@link ResultSet} em instancias de uma classe.
+ * <p>
+ * Cada coluna e associada ao atributo persistente da hierarquia cujo nome coincide com o rotulo da coluna, ignorando
+ * maiusculas e sublinhados, de modo que {@code NOME_COMPLETO} corresponde a {@code nomeCompleto}. Colunas sem atributo
+ * correspondente sao ignoradas, assim como as colunas associadas a atributos de tipos que o {@link ResultSet} nao
+ * sabe ler, como referencias a outras entidades e colecoes. A associacao entre o indice de cada coluna e o
+ * {@link FieldAccessor} do atributo e montada uma unica vez para cada formato de resultado, identificado pelos rotulos
+ * das colunas, e guardada no mapeador. Atributos primitivos sao lidos pelos metodos primitivos do {@link ResultSet}, e
+ * os tipos empacotados consultam {@link ResultSet#wasNull()} para preservar os valores nulos.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias criadas.
+ */
+public final class RowMapper<T> {
+
+	private static final ClassCache<RowMapper<?>> CACHE = new ClassCache<RowMapper<?>>() {
+
+		@Override
+		protected RowMapper<?> computeValue(Class<?> type) {
+			return new RowMapper<Object>(type);
+		}
+
+	};
+
+	private final Class<?> type;
+
+	private final Instantiator<?> instantiator;
+
+	private final Map<String, FieldAccessor> accessors = new HashMap<String, FieldAccessor>();
+
+	private final ConcurrentMap<String, Column[]> plans = new ConcurrentHashMap<String, Column[]>();
+
+	private volatile LastPlan lastPlan;
+
+	private RowMapper(Class<?> type) {
+		ClassMetadata metadata = ClassMetadata.forClass(type);
+
+		this.type = type;
+		this.instantiator = Instantiator.forClass(type);
+
+		for (FieldAccessor accessor : metadata.getPersistentAccessorsInHierarchy()) {
+			String key = normalize(accessor.getField().getName());
+			if (!this.accessors.containsKey(key)) {
+				this.accessors.put(key, accessor);
+			}
+		}
+	}
+
+	/**
+	 * Retorna o mapeador de uma determinada classe.
+	 * 
+	 * @param klass
+	 * @return Mapeador da classe.
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula ou nao possuir construtor sem argumentos.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> RowMapper<T> forClass(Class<T> klass) {
+		if (klass == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return (RowMapper<T>) CACHE.get(klass);
+	}
+
+	/**
+	 * Retorna a classe das instancias criadas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Converte a linha corrente do resultado, sem move-lo.
+	 * 
+	 * @param resultSet
+	 * @return Instancia com os valores da linha.
+	 * @throws SQLException
+	 * @exception IllegalArgumentException
+	 *                se o resultado for nulo.
+	 */
+	public T map(ResultSet resultSet) throws SQLException {
+		if (resultSet == null) {
+			throw new IllegalArgumentException();
+		}
+
+		LastPlan last = this.lastPlan;
+		if (last == null || last.resultSet.get() != resultSet) {
+			last = new LastPlan(resultSet, this.plan(resultSet.getMetaData()));
+			this.lastPlan = last;
+		}
+
+		return this.map(resultSet, last.plan);
+	}
+
+	/**
+	 * Converte todas as linhas restantes do resultado.
+	 * 
+	 * @param resultSet
+	 * @return Lista de instancias na ordem do resultado.
+	 * @throws SQLException
+	 * @exception IllegalArgumentException
+	 *                se o resultado for nulo.
+	 */
+	public List<T> mapAll(ResultSet resultSet) throws SQLException {
+		return this.mapAll(resultSet, 10);
+	}
+
+	/**
+	 * Converte todas as linhas restantes do resultado em uma lista criada com a capacidade informada, como o numero de
+	 * linhas esperado ou o tamanho de pagina da consulta.
+	 * 
+	 * @param resultSet
+	 * @param expectedSize
+	 * @return Lista de instancias na ordem do resultado.
+	 * @throws SQLException
+	 * @exception IllegalArgumentException
+	 *                se o resultado for nulo ou se a capacidade for negativa.
+	 */
+	public List<T> mapAll(ResultSet resultSet, int expectedSize) throws SQLException {
+		if (resultSet == null || expectedSize < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		List<T> results = new ArrayList<T>(expectedSize);
+		this.mapBatch(resultSet, results, Integer.MAX_VALUE);
+
+		return results;
+	}
+
+	/**
+	 * Converte no maximo um determinado numero de linhas do resultado, acrescentando-as ao final de uma lista. Chamadas
+	 * sucessivas continuam de onde a anterior parou, o que permite processar resultados grandes em lotes reaproveitando
+	 * a mesma lista.
+	 * 
+	 * @param resultSet
+	 * @param results
+	 * @param batchSize
+	 * @return Numero de linhas convertidas; menor que o tamanho do lote quando o resultado termina.
+	 * @throws SQLException
+	 * @exception IllegalArgumentException
+	 *                se o resultado ou a lista forem nulos ou se o tamanho do lote nao for positivo.
+	 */
+	public int mapBatch(ResultSet resultSet, List<? super T> results, int batchSize) throws SQLException {
+		if (resultSet == null || results == null || batchSize <= 0) {
+			throw new IllegalArgumentException();
+		}
+
+		Column[] plan = this.plan(resultSet.getMetaData());
+
+		int count = 0;
+		while (count < batchSize && resultSet.next()) {
+			results.add(this.map(resultSet, plan));
+			count++;
+		}
+
+		return count;
+	}
+
+	private T map(ResultSet resultSet, Column[] plan) throws SQLException {
+		T instance = this.newInstance();
+		for (Column column : plan) {
+			column.read(resultSet, instance);
+		}
+		ReflectionMetrics.compiledAccess(this.type, plan.length);
+
+		return instance;
+	}
+
+	private Column[] plan(ResultSetMetaData metaData) throws SQLException {
+		int count = metaData.getColumnCount();
+
+		StringBuilder shape = new StringBuilder();
+		for (int i = 1; i <= count; i++) {
+			shape.append(metaData.getColumnLabel(i)).append('\t');
+		}
+
+		String key = shape.toString();
+		Column[] plan = this.plans.get(key);
+		if (plan == null) {
+			List<Column> columns = new ArrayList<Column>();
+			for (int i = 1; i <= count; i++) {
+				FieldAccessor accessor = this.accessors.get(normalize(metaData.getColumnLabel(i)));
+				Column column = accessor == null ? null : createColumn(i, accessor);
+				if (column != null) {
+					columns.add(column);
+				}
+			}
+
+			plan = columns.toArray(new Column[columns.size()]);
+			this.plans.putIfAbsent(key, plan);
+		}
+
+		return plan;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T newInstance() {
+		return (T) this.instantiator.newInstance();
+	}
+
+	private static String normalize(String name) {
+		return name.replace("_", "").toLowerCase(Locale.ENGLISH);
+	}
+
+	private static Column createColumn(int index, FieldAccessor accessor) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntColumn(index, accessor);
+		} else if (type == long.class) {
+			return new LongColumn(index, accessor);
+		} else if (type == boolean.class) {
+			return new BooleanColumn(index, accessor);
+		} else if (type == double.class) {
+			return new DoubleColumn(index, accessor);
+		} else if (type == float.class) {
+			return new FloatColumn(index, accessor);
+		} else if (type == short.class) {
+			return new ShortColumn(index, accessor);
+		} else if (type == byte.class) {
+			return new ByteColumn(index, accessor);
+		} else if (type == char.class) {
+			return new CharColumn(index, accessor);
+		} else if (type == Integer.class) {
+			return new IntegerColumn(index, accessor);
+		} else if (type == Long.class) {
+			return new LongObjectColumn(index, accessor);
+		} else if (type == Boolean.class) {
+			return new BooleanObjectColumn(index, accessor);
+		} else if (type == String.class) {
+			return new StringColumn(index, accessor);
+		} else if (type == BigDecimal.class) {
+			return new BigDecimalColumn(index, accessor);
+		} else if (type == Calendar.class) {
+			return new CalendarColumn(index, accessor);
+		} else if (type == Double.class) {
+			return new DoubleObjectColumn(index, accessor);
+		} else if (type == Float.class) {
+			return new FloatObjectColumn(index, accessor);
+		} else if (type == Short.class) {
+			return new ShortObjectColumn(index, accessor);
+		} else if (type == Byte.class) {
+			return new ByteObjectColumn(index, accessor);
+		} else if (type == Date.class || type == Timestamp.class) {
+			return new TimestampColumn(index, accessor);
+		} else if (type == java.sql.Date.class) {
+			return new SqlDateColumn(index, accessor);
+		} else if (type == Time.class) {
+			return new TimeColumn(index, accessor);
+		} else if (type == byte[].class) {
+			return new BytesColumn(index, accessor);
+		} else if (type == Object.class) {
+			return new ObjectColumn(index, accessor);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Ultimo plano usado por {@link RowMapper#map(ResultSet)}, que converte uma linha por chamada e evita, assim,
+	 * montar a chave do formato a cada linha do mesmo resultado.
+	 */
+	private static final class LastPlan {
+
+		private final WeakReference<ResultSet> resultSet;
+
+		private final Column[] plan;
+
+		private LastPlan(ResultSet resultSet, Column[] plan) {
+			this.resultSet = new WeakReference<ResultSet>(resultSet);
+			this.plan = plan;
+		}
+
+	}
+
+	private abstract static class Column {
+
+		protected final int index;
+
+		protected final FieldAccessor accessor;
+
+		protected Column(int index, FieldAccessor accessor) {
+			this.index = index;
+			this.accessor = accessor;
+		}
+
+		protected abstract void read(ResultSet resultSet, Object instance) throws SQLException;
+
+	}
+
+	private static final class IntColumn extends Column {
+
+		private IntColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setInt(resultSet.getInt(this.index), instance);
+		}
+
+	}
+
+	private static final class LongColumn extends Column {
+
+		private LongColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setLong(resultSet.getLong(this.index), instance);
+		}
+
+	}
+
+	private static final class BooleanColumn extends Column {
+
+		private BooleanColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setBoolean(resultSet.getBoolean(this.index), instance);
+		}
+
+	}
+
+	private static final class DoubleColumn extends Column {
+
+		private DoubleColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setDouble(resultSet.getDouble(this.index), instance);
+		}
+
+	}
+
+	private static final class FloatColumn extends Column {
+
+		private FloatColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setFloat(resultSet.getFloat(this.index), instance);
+		}
+
+	}
+
+	private static final class ShortColumn extends Column {
+
+		private ShortColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setShort(resultSet.getShort(this.index), instance);
+		}
+
+	}
+
+	private static final class ByteColumn extends Column {
+
+		private ByteColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.setByte(resultSet.getByte(this.index), instance);
+		}
+
+	}
+
+	private static final class CharColumn extends Column {
+
+		private CharColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			String value = resultSet.getString(this.index);
+			this.accessor.setChar(value == null || value.length() == 0 ? '\u0000' : value.charAt(0), instance);
+		}
+
+	}
+
+	private static final class IntegerColumn extends Column {
+
+		private IntegerColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			int value = resultSet.getInt(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Integer.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class LongObjectColumn extends Column {
+
+		private LongObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			long value = resultSet.getLong(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Long.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class BooleanObjectColumn extends Column {
+
+		private BooleanObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			boolean value = resultSet.getBoolean(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Boolean.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class DoubleObjectColumn extends Column {
+
+		private DoubleObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			double value = resultSet.getDouble(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Double.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class FloatObjectColumn extends Column {
+
+		private FloatObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			float value = resultSet.getFloat(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Float.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class ShortObjectColumn extends Column {
+
+		private ShortObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			short value = resultSet.getShort(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Short.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class ByteObjectColumn extends Column {
+
+		private ByteObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			byte value = resultSet.getByte(this.index);
+			this.accessor.set(resultSet.wasNull() ? null : Byte.valueOf(value), instance);
+		}
+
+	}
+
+	private static final class StringColumn extends Column {
+
+		private StringColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getString(this.index), instance);
+		}
+
+	}
+
+	private static final class BigDecimalColumn extends Column {
+
+		private BigDecimalColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getBigDecimal(this.index), instance);
+		}
+
+	}
+
+	private static final class CalendarColumn extends Column {
+
+		private CalendarColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			Timestamp value = resultSet.getTimestamp(this.index);
+
+			Calendar calendar = null;
+			if (value != null) {
+				calendar = Calendar.getInstance();
+				calendar.setTimeInMillis(value.getTime());
+			}
+
+			this.accessor.set(calendar, instance);
+		}
+
+	}
+
+	private static final class TimestampColumn extends Column {
+
+		private TimestampColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getTimestamp(this.index), instance);
+		}
+
+	}
+
+	private static final class SqlDateColumn extends Column {
+
+		private SqlDateColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getDate(this.index), instance);
+		}
+
+	}
+
+	private static final class TimeColumn extends Column {
+
+		private TimeColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getTime(this.index), instance);
+		}
+
+	}
+
+	private static final class BytesColumn extends Column {
+
+		private BytesColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getBytes(this.index), instance);
+		}
+
+	}
+
+	private static final class ObjectColumn extends Column {
+
+		private ObjectColumn(int index, FieldAccessor accessor) {
+			super(index, accessor);
+		}
+
+		@Override
+		protected void read(ResultSet resultSet, Object instance) throws SQLException {
+			this.accessor.set(resultSet.getObject(this.index), instance);
+		}
+
+	}
+
+}
@@ -0,0 +1,968 @@
+package br.com.brasilti.utils.reflection;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Guarda copias dos atributos persistentes de muitas instancias de uma classe fora do heap, em buffers diretos, de modo
+ * que o coletor de lixo nao precise percorre-las.
+ * <p>
+ * Cada instancia ocupa uma linha de tamanho fixo: um mapa de bits dos atributos de referencia nulos seguido de uma
+ * posicao por atributo persistente da hierarquia, na ordem dos metadados. Tipos primitivos e empacotados ocupam a sua
+ * largura natural; textos, {@link BigDecimal}, {@link Calendar} e byte[] ocupam a posicao do seu conteudo em uma area
+ * de tamanho variavel, no mesmo formato de {@link BinaryCodec}. Os metodos tipados leem um unico atributo direto do
+ * buffer, sem criar a instancia, e {@link #materialize(int)} recria a instancia atribuindo cada atributo.
+ * <p>
+ * A area variavel so cresce: substituir uma linha por {@link #set(int, Object)} grava o novo conteudo ao final, e o
+ * espaco anterior so e liberado por {@link #clear()}. Leituras concorrentes sao seguras enquanto nao houver escrita;
+ * as escritas devem ser sincronizadas por quem usa o repositorio.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ * @param <T>
+ *            Tipo das instancias guardadas.
+ */
+public final class SnapshotStore<T> {
+
+	private static final int MINIMUM_CAPACITY = 64;
+
+	private final Class<?> type;
+
+	private final Instantiator<?> instantiator;
+
+	private final Slot[] slots;
+
+	private final Map<String, Slot> slotsByName = new HashMap<String, Slot>();
+
+	private final int bitmapLength;
+
+	private final int rowSize;
+
+	private ByteBuffer rows;
+
+	private ByteBuffer heap;
+
+	private int heapSize;
+
+	private int size;
+
+	/**
+	 * Cria um repositorio vazio para uma determinada classe.
+	 * 
+	 * @param type
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula ou possuir atributo persistente de tipo nao suportado.
+	 */
+	public SnapshotStore(Class<T> type) {
+		this(type, MINIMUM_CAPACITY);
+	}
+
+	/**
+	 * Cria um repositorio vazio para uma determinada classe, com espaco para o numero de instancias informado.
+	 * 
+	 * @param type
+	 * @param expectedSize
+	 * @exception IllegalArgumentException
+	 *                se a classe for nula, se possuir atributo persistente de tipo nao suportado ou se o numero de
+	 *                instancias for negativo ou nao couber em um unico buffer.
+	 */
+	public SnapshotStore(Class<T> type, int expectedSize) {
+		if (type == null || expectedSize < 0) {
+			throw new IllegalArgumentException();
+		}
+
+		this.type = type;
+		this.instantiator = Instantiator.find(type);
+
+		List<FieldAccessor> accessors = ClassMetadata.forClass(type).getPersistentAccessorsInHierarchy();
+
+		int references = 0;
+		for (FieldAccessor accessor : accessors) {
+			if (!accessor.getType().isPrimitive()) {
+				references++;
+			}
+		}
+		this.bitmapLength = (references + 7) / 8;
+
+		this.slots = new Slot[accessors.size()];
+		int offset = this.bitmapLength;
+		int nullBit = 0;
+		for (int i = 0; i < this.slots.length; i++) {
+			FieldAccessor accessor = accessors.get(i);
+			Slot slot = createSlot(accessor, offset, accessor.getType().isPrimitive() ? -1 : nullBit++);
+
+			this.slots[i] = slot;
+			this.slotsByName.put(accessor.getField().getName(), slot);
+			offset += slot.width;
+		}
+		this.rowSize = Math.max(offset, 1);
+
+		long capacity = (long) Math.max(expectedSize, 1) * this.rowSize;
+		if (capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException();
+		}
+
+		this.rows = ByteBuffer.allocateDirect((int) capacity);
+		this.heap = ByteBuffer.allocateDirect(MINIMUM_CAPACITY);
+	}
+
+	/**
+	 * Retorna a classe das instancias guardadas.
+	 * 
+	 * @return Classe.
+	 */
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Retorna o numero de instancias guardadas.
+	 * 
+	 * @return Numero de instancias.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Retorna o tamanho da linha de cada instancia, sem a area variavel.
+	 * 
+	 * @return Tamanho em bytes.
+	 */
+	public int getRowSize() {
+		return this.rowSize;
+	}
+
+	/**
+	 * Retorna a memoria reservada fora do heap, incluindo o espaco ainda nao usado.
+	 * 
+	 * @return Tamanho em bytes.
+	 */
+	public long getCapacity() {
+		return (long) this.rows.capacity() + this.heap.capacity();
+	}
+
+	/**
+	 * Acrescenta uma copia de uma instancia.
+	 * 
+	 * @param instance
+	 * @return Indice da copia.
+	 * @exception IllegalArgumentException
+	 *                se a instancia for nula ou nao for da classe do repositorio.
+	 * @exception IllegalStateException
+	 *                se as linhas ou a area variavel excederem {@link Integer#MAX_VALUE} bytes.
+	 */
+	public int add(T instance) {
+		if (instance == null || instance.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		long required = (this.size + 1L) * this.rowSize;
+		if (required > this.rows.capacity()) {
+			this.rows = grow(this.rows, this.size * this.rowSize, required);
+		}
+
+		this.write(this.size * this.rowSize, instance);
+		return this.size++;
+	}
+
+	/**
+	 * Substitui a copia guardada em um indice.
+	 * 
+	 * @param index
+	 * @param instance
+	 * @exception IllegalArgumentException
+	 *                se a instancia for nula ou nao for da classe do repositorio.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 * @exception IllegalStateException
+	 *                se a area variavel exceder {@link Integer#MAX_VALUE} bytes.
+	 */
+	public void set(int index, T instance) {
+		if (instance == null || instance.getClass() != this.type) {
+			throw new IllegalArgumentException();
+		}
+
+		this.write(this.checkIndex(index), instance);
+	}
+
+	/**
+	 * Recria a instancia guardada em um indice.
+	 * 
+	 * @param index
+	 * @return Nova instancia.
+	 * @exception IllegalArgumentException
+	 *                se a classe nao possuir construtor sem argumentos.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	@SuppressWarnings("unchecked")
+	public T materialize(int index) {
+		int row = this.checkIndex(index);
+		if (this.instantiator == null) {
+			throw new IllegalArgumentException();
+		}
+
+		Object instance = this.instantiator.newInstance();
+		for (Slot slot : this.slots) {
+			if (slot.nullBit >= 0 && this.isNull(row, slot)) {
+				slot.accessor.set(null, instance);
+			} else {
+				slot.materialize(this, row + slot.offset, instance);
+			}
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.slots.length);
+
+		return (T) instance;
+	}
+
+	/**
+	 * Remove todas as copias e libera a area variavel para reuso.
+	 */
+	public void clear() {
+		this.size = 0;
+		this.heapSize = 0;
+	}
+
+	/**
+	 * Indica que um atributo de uma copia e nulo.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return true se o atributo for nulo; false se nao for ou se for primitivo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public boolean isNull(int index, String fieldName) {
+		Slot slot = this.slot(fieldName);
+		int row = this.checkIndex(index);
+
+		return slot.nullBit >= 0 && this.isNull(row, slot);
+	}
+
+	/**
+	 * Le um atributo de uma copia, empacotando os valores primitivos.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public Object get(int index, String fieldName) {
+		Slot slot = this.slot(fieldName);
+		int row = this.checkIndex(index);
+
+		if (slot.nullBit >= 0 && this.isNull(row, slot)) {
+			return null;
+		}
+
+		return slot.read(this, row + slot.offset);
+	}
+
+	/**
+	 * Le um atributo boolean ou {@link Boolean} de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo ou false se for nulo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public boolean getBoolean(int index, String fieldName) {
+		return this.rows.get(this.position(index, fieldName, boolean.class, Boolean.class)) != 0;
+	}
+
+	/**
+	 * Le um atributo byte de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public byte getByte(int index, String fieldName) {
+		return this.rows.get(this.position(index, fieldName, byte.class, byte.class));
+	}
+
+	/**
+	 * Le um atributo char de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public char getChar(int index, String fieldName) {
+		return this.rows.getChar(this.position(index, fieldName, char.class, char.class));
+	}
+
+	/**
+	 * Le um atributo short de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public short getShort(int index, String fieldName) {
+		return this.rows.getShort(this.position(index, fieldName, short.class, short.class));
+	}
+
+	/**
+	 * Le um atributo int ou {@link Integer} de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo ou 0 se for nulo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public int getInt(int index, String fieldName) {
+		return this.rows.getInt(this.position(index, fieldName, int.class, Integer.class));
+	}
+
+	/**
+	 * Le um atributo long ou {@link Long} de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo ou 0 se for nulo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public long getLong(int index, String fieldName) {
+		return this.rows.getLong(this.position(index, fieldName, long.class, Long.class));
+	}
+
+	/**
+	 * Le um atributo float de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public float getFloat(int index, String fieldName) {
+		return this.rows.getFloat(this.position(index, fieldName, float.class, float.class));
+	}
+
+	/**
+	 * Le um atributo double de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public double getDouble(int index, String fieldName) {
+		return this.rows.getDouble(this.position(index, fieldName, double.class, double.class));
+	}
+
+	/**
+	 * Le um atributo {@link String} de uma copia.
+	 * 
+	 * @param index
+	 * @param fieldName
+	 * @return Valor do atributo.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for persistente ou for de outro tipo.
+	 * @exception IndexOutOfBoundsException
+	 *                se o indice nao existir.
+	 */
+	public String getString(int index, String fieldName) {
+		if (this.slot(fieldName).accessor.getType() != String.class) {
+			throw new IllegalArgumentException();
+		}
+
+		return (String) this.get(index, fieldName);
+	}
+
+	private void write(int row, Object instance) {
+		for (int i = 0; i < this.bitmapLength; i++) {
+			this.rows.put(row + i, (byte) 0);
+		}
+
+		for (Slot slot : this.slots) {
+			if (slot.nullBit < 0) {
+				slot.write(this, row + slot.offset, instance);
+				continue;
+			}
+
+			Object value = slot.accessor.get(instance);
+			if (value == null) {
+				int position = row + (slot.nullBit >>> 3);
+				this.rows.put(position, (byte) (this.rows.get(position) | 1 << (slot.nullBit & 7)));
+				for (int i = 0; i < slot.width; i++) {
+					this.rows.put(row + slot.offset + i, (byte) 0);
+				}
+			} else {
+				slot.write(this, row + slot.offset, value);
+			}
+		}
+		ReflectionMetrics.compiledAccess(this.type, this.slots.length);
+	}
+
+	/**
+	 * Grava um valor ao final da area variavel, ampliando-a quando necessario.
+	 * 
+	 * @return Posicao do valor.
+	 */
+	private int append(VariableSlot slot, Object value) {
+		while (true) {
+			this.heap.clear();
+			this.heap.position(this.heapSize);
+			try {
+				slot.writeVariable(value, this.heap);
+
+				int position = this.heapSize;
+				this.heapSize = this.heap.position();
+				return position;
+			} catch (BufferOverflowException e) {
+				this.heap = grow(this.heap, this.heapSize, this.heap.capacity() + 1L);
+			}
+		}
+	}
+
+	private ByteBuffer variable(int position) {
+		ByteBuffer view = this.heap.duplicate();
+		view.clear();
+		view.position(position);
+
+		return view;
+	}
+
+	private boolean isNull(int row, Slot slot) {
+		return (this.rows.get(row + (slot.nullBit >>> 3)) & 1 << (slot.nullBit & 7)) != 0;
+	}
+
+	private int position(int index, String fieldName, Class<?> primitive, Class<?> wrapper) {
+		Slot slot = this.slot(fieldName);
+		Class<?> fieldType = slot.accessor.getType();
+		if (fieldType != primitive && fieldType != wrapper) {
+			throw new IllegalArgumentException();
+		}
+
+		return this.checkIndex(index) + slot.offset;
+	}
+
+	private Slot slot(String fieldName) {
+		Slot slot = fieldName != null ? this.slotsByName.get(fieldName) : null;
+		if (slot == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return slot;
+	}
+
+	/**
+	 * @return Posicao da linha.
+	 */
+	private int checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		return index * this.rowSize;
+	}
+
+	private static ByteBuffer grow(ByteBuffer buffer, int used, long required) {
+		ByteBuffer larger = ByteBuffer.allocateDirect(newCapacity(buffer.capacity(), required));
+
+		ByteBuffer content = buffer.duplicate();
+		content.clear();
+		content.limit(used);
+		larger.put(content);
+		larger.clear();
+
+		return larger;
+	}
+
+	/**
+	 * Dobra a capacidade atual ate o limite de um buffer. O calculo e feito em long para que a duplicacao nao estoure
+	 * silenciosamente.
+	 * 
+	 * @param capacity
+	 * @param required
+	 * @return Nova capacidade, maior ou igual a requerida.
+	 * @exception IllegalStateException
+	 *                se a capacidade requerida exceder {@link Integer#MAX_VALUE}.
+	 */
+	static int newCapacity(int capacity, long required) {
+		if (required > Integer.MAX_VALUE) {
+			throw new IllegalStateException();
+		}
+
+		long doubled = Math.max(Math.max(capacity * 2L, required), MINIMUM_CAPACITY);
+		return (int) Math.min(doubled, Integer.MAX_VALUE);
+	}
+
+	private static Slot createSlot(FieldAccessor accessor, int offset, int nullBit) {
+		Class<?> type = accessor.getType();
+
+		if (type == int.class) {
+			return new IntSlot(accessor, offset);
+		} else if (type == long.class) {
+			return new LongSlot(accessor, offset);
+		} else if (type == boolean.class) {
+			return new BooleanSlot(accessor, offset);
+		} else if (type == double.class) {
+			return new DoubleSlot(accessor, offset);
+		} else if (type == float.class) {
+			return new FloatSlot(accessor, offset);
+		} else if (type == short.class) {
+			return new ShortSlot(accessor, offset);
+		} else if (type == byte.class) {
+			return new ByteSlot(accessor, offset);
+		} else if (type == char.class) {
+			return new CharSlot(accessor, offset);
+		} else if (type == Integer.class) {
+			return new IntegerSlot(accessor, offset, nullBit);
+		} else if (type == Long.class) {
+			return new LongObjectSlot(accessor, offset, nullBit);
+		} else if (type == Boolean.class) {
+			return new BooleanObjectSlot(accessor, offset, nullBit);
+		} else if (type == String.class) {
+			return new StringSlot(accessor, offset, nullBit);
+		} else if (type == BigDecimal.class) {
+			return new BigDecimalSlot(accessor, offset, nullBit);
+		} else if (type == Calendar.class) {
+			return new CalendarSlot(accessor, offset, nullBit);
+		} else if (type == byte[].class) {
+			return new BytesSlot(accessor, offset, nullBit);
+		}
+
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Posicao de um atributo na linha. Nos atributos primitivos, {@link #write(SnapshotStore, int, Object)} recebe a
+	 * instancia e le o atributo sem empacotamento; nos demais, recebe o valor nao nulo do atributo.
+	 */
+	private abstract static class Slot {
+
+		protected final FieldAccessor accessor;
+
+		protected final int offset;
+
+		protected final int width;
+
+		/**
+		 * Bit do atributo no mapa de nulos ou -1 se o atributo for primitivo.
+		 */
+		protected final int nullBit;
+
+		protected Slot(FieldAccessor accessor, int offset, int width, int nullBit) {
+			this.accessor = accessor;
+			this.offset = offset;
+			this.width = width;
+			this.nullBit = nullBit;
+		}
+
+		protected abstract void write(SnapshotStore<?> store, int position, Object source);
+
+		protected abstract Object read(SnapshotStore<?> store, int position);
+
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.set(this.read(store, position), instance);
+		}
+
+	}
+
+	/**
+	 * Atributo guardado na area variavel. A linha guarda apenas a posicao do conteudo.
+	 */
+	private abstract static class VariableSlot extends Slot {
+
+		protected VariableSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, 4, nullBit);
+		}
+
+		protected abstract void writeVariable(Object value, ByteBuffer buffer);
+
+		protected abstract Object readVariable(ByteBuffer buffer);
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putInt(position, store.append(this, source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return this.readVariable(store.variable(store.rows.getInt(position)));
+		}
+
+	}
+
+	private static final class BooleanSlot extends Slot {
+
+		private BooleanSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 1, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.put(position, (byte) (this.accessor.getBoolean(source) ? 1 : 0));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.get(position) != 0;
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setBoolean(store.rows.get(position) != 0, instance);
+		}
+
+	}
+
+	private static final class ByteSlot extends Slot {
+
+		private ByteSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 1, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.put(position, this.accessor.getByte(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.get(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setByte(store.rows.get(position), instance);
+		}
+
+	}
+
+	private static final class CharSlot extends Slot {
+
+		private CharSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 2, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putChar(position, this.accessor.getChar(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getChar(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setChar(store.rows.getChar(position), instance);
+		}
+
+	}
+
+	private static final class ShortSlot extends Slot {
+
+		private ShortSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 2, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putShort(position, this.accessor.getShort(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getShort(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setShort(store.rows.getShort(position), instance);
+		}
+
+	}
+
+	private static final class IntSlot extends Slot {
+
+		private IntSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 4, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putInt(position, this.accessor.getInt(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getInt(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setInt(store.rows.getInt(position), instance);
+		}
+
+	}
+
+	private static final class LongSlot extends Slot {
+
+		private LongSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 8, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putLong(position, this.accessor.getLong(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getLong(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setLong(store.rows.getLong(position), instance);
+		}
+
+	}
+
+	private static final class FloatSlot extends Slot {
+
+		private FloatSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 4, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putFloat(position, this.accessor.getFloat(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getFloat(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setFloat(store.rows.getFloat(position), instance);
+		}
+
+	}
+
+	private static final class DoubleSlot extends Slot {
+
+		private DoubleSlot(FieldAccessor accessor, int offset) {
+			super(accessor, offset, 8, -1);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putDouble(position, this.accessor.getDouble(source));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getDouble(position);
+		}
+
+		@Override
+		protected void materialize(SnapshotStore<?> store, int position, Object instance) {
+			this.accessor.setDouble(store.rows.getDouble(position), instance);
+		}
+
+	}
+
+	private static final class IntegerSlot extends Slot {
+
+		private IntegerSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, 4, nullBit);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putInt(position, (Integer) source);
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getInt(position);
+		}
+
+	}
+
+	private static final class LongObjectSlot extends Slot {
+
+		private LongObjectSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, 8, nullBit);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.putLong(position, (Long) source);
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.getLong(position);
+		}
+
+	}
+
+	private static final class BooleanObjectSlot extends Slot {
+
+		private BooleanObjectSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, 1, nullBit);
+		}
+
+		@Override
+		protected void write(SnapshotStore<?> store, int position, Object source) {
+			store.rows.put(position, (byte) ((Boolean) source ? 1 : 0));
+		}
+
+		@Override
+		protected Object read(SnapshotStore<?> store, int position) {
+			return store.rows.get(position) != 0;
+		}
+
+	}
+
+	private static final class StringSlot extends VariableSlot {
+
+		private StringSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, nullBit);
+		}
+
+		@Override
+		protected void writeVariable(Object value, ByteBuffer buffer) {
+			BinaryCodec.writeString((String) value, buffer);
+		}
+
+		@Override
+		protected Object readVariable(ByteBuffer buffer) {
+			return BinaryCodec.readString(buffer);
+		}
+
+	}
+
+	/**
+	 * Mesmo formato de {@link BinaryCodec}: escala seguida do valor sem escala como varint, sinalizado por tamanho zero,
+	 * ou em complemento de dois.
+	 */
+	private static final class BigDecimalSlot extends VariableSlot {
+
+		private BigDecimalSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, nullBit);
+		}
+
+		@Override
+		protected void writeVariable(Object value, ByteBuffer buffer) {
+			BigDecimal decimal = (BigDecimal) value;
+			BigInteger unscaled = decimal.unscaledValue();
+
+			BinaryCodec.writeSignedVarint(decimal.scale(), buffer);
+			if (unscaled.bitLength() < 64) {
+				BinaryCodec.writeVarint(0, buffer);
+				BinaryCodec.writeSignedVarlong(unscaled.longValue(), buffer);
+			} else {
+				BinaryCodec.writeBytes(unscaled.toByteArray(), buffer);
+			}
+		}
+
+		@Override
+		protected Object readVariable(ByteBuffer buffer) {
+			int scale = BinaryCodec.readSignedVarint(buffer);
+
+			int length = BinaryCodec.readVarint(buffer);
+			if (length == 0) {
+				return BigDecimal.valueOf(BinaryCodec.readSignedVarlong(buffer), scale);
+			}
+
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return new BigDecimal(new BigInteger(bytes), scale);
+		}
+
+	}
+
+	private static final class CalendarSlot extends VariableSlot {
+
+		private CalendarSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, nullBit);
+		}
+
+		@Override
+		protected void writeVariable(Object value, ByteBuffer buffer) {
+			Calendar calendar = (Calendar) value;
+
+			BinaryCodec.writeString(calendar.getTimeZone().getID(), buffer);
+			BinaryCodec.writeSignedVarlong(calendar.getTimeInMillis(), buffer);
+		}
+
+		@Override
+		protected Object readVariable(ByteBuffer buffer) {
+			Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(BinaryCodec.readString(buffer)));
+			calendar.setTimeInMillis(BinaryCodec.readSignedVarlong(buffer));
+
+			return calendar;
+		}
+
+	}
+
+	private static final class BytesSlot extends VariableSlot {
+
+		private BytesSlot(FieldAccessor accessor, int offset, int nullBit) {
+			super(accessor, offset, nullBit);
+		}
+
+		@Override
+		protected void writeVariable(Object value, ByteBuffer buffer) {
+			BinaryCodec.writeBytes((byte[]) value, buffer);
+		}
+
+		@Override
+		protected Object readVariable(ByteBuffer buffer) {
+			return BinaryCodec.readBytes(buffer);
+		}
+
+	}
+
+}
@@ -0,0 +1,435 @@
+package br.com.brasilti.utils.reflection;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolve tipos genericos a partir de uma classe de contexto.
+ * <p>
+ * As variaveis de tipo declaradas pelas superclasses e interfaces de uma classe sao associadas, uma unica vez por
+ * classe, aos argumentos informados na hierarquia. Assim um atributo {@code List<T>} declarado em {@code Base<T>} e
+ * resolvido como {@code List<String>} no contexto de {@code Sub extends Base<String>}. O tipo resolvido de cada atributo
+ * e o tipo dos seus elementos e chaves ficam em cache por classe de contexto.
+ * <p>
+ * Variaveis que nao forem associadas a nenhum argumento, como no uso de tipos crus, sao reduzidas ao seu primeiro
+ * limite; curingas sao reduzidos ao seu limite superior.
+ * 
+ * @author Benedito Barbosa
+ * @author Christian Peixoto
+ * 
+ */
+public final class TypeResolver {
+
+	private static final ClassCache<Map<TypeVariable<?>, Type>> BINDINGS = new ClassCache<Map<TypeVariable<?>, Type>>() {
+
+		@Override
+		protected Map<TypeVariable<?>, Type> computeValue(Class<?> type) {
+			return Collections.unmodifiableMap(bind(type));
+		}
+
+	};
+
+	private static final ClassCache<ConcurrentMap<Field, FieldType>> FIELDS = new ClassCache<ConcurrentMap<Field, FieldType>>() {
+
+		@Override
+		protected ConcurrentMap<Field, FieldType> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Field, FieldType>();
+		}
+
+	};
+
+	private TypeResolver() {
+
+	}
+
+	/**
+	 * Substitui as variaveis de tipo associadas na hierarquia de uma classe de contexto.
+	 * 
+	 * @param type
+	 * @param context
+	 * @return Tipo resolvido.
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo.
+	 */
+	public static Type resolve(Type type, Class<?> context) {
+		if (type == null || context == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return substitute(type, BINDINGS.get(context));
+	}
+
+	/**
+	 * Retorna a classe que representa um determinado tipo apos o apagamento dos argumentos genericos.
+	 * 
+	 * @param type
+	 * @return Classe do tipo.
+	 */
+	public static Class<?> getRawType(Type type) {
+		if (type instanceof Class<?>) {
+			return (Class<?>) type;
+		} else if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		} else if (type instanceof GenericArrayType) {
+			Class<?> component = getRawType(((GenericArrayType) type).getGenericComponentType());
+			return Array.newInstance(component, 0).getClass();
+		} else if (type instanceof TypeVariable<?>) {
+			return getRawType(((TypeVariable<?>) type).getBounds()[0]);
+		} else if (type instanceof WildcardType) {
+			return getRawType(((WildcardType) type).getUpperBounds()[0]);
+		}
+
+		return Object.class;
+	}
+
+	/**
+	 * Retorna os argumentos com que um determinado tipo estende ou implementa um supertipo generico. Por exemplo, os
+	 * argumentos de {@code HashMap<String, List<Long>>} para {@link Map} sao {@code String} e {@code List<Long>}.
+	 * 
+	 * @param type
+	 * @param supertype
+	 * @return null se o tipo nao for subtipo do supertipo.
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo.
+	 */
+	public static Type[] getTypeArguments(Type type, Class<?> supertype) {
+		if (type == null || supertype == null) {
+			throw new IllegalArgumentException();
+		}
+
+		Class<?> raw = getRawType(type);
+		if (!supertype.isAssignableFrom(raw)) {
+			return null;
+		}
+
+		Map<TypeVariable<?>, Type> bindings = type instanceof Class<?> ? BINDINGS.get(raw) : bind(type);
+
+		TypeVariable<?>[] variables = supertype.getTypeParameters();
+		Type[] arguments = new Type[variables.length];
+		for (int i = 0; i < variables.length; i++) {
+			arguments[i] = substitute(variables[i], bindings);
+		}
+
+		return arguments;
+	}
+
+	/**
+	 * Retorna o tipo generico de um atributo no contexto de uma determinada classe.
+	 * 
+	 * @param field
+	 * @param context
+	 *            Classe que declara o atributo ou uma das suas subclasses.
+	 * @return Tipo resolvido do atributo.
+	 * @exception IllegalArgumentException
+	 *                se algum parametro for nulo ou se a classe de contexto nao herdar o atributo.
+	 */
+	public static Type getFieldType(Field field, Class<?> context) {
+		return fieldType(field, context).type;
+	}
+
+	/**
+	 * Retorna o tipo dos elementos de uma colecao ou o tipo dos valores de um mapa, no contexto de uma determinada
+	 * classe.
+	 * 
+	 * @param field
+	 * @param context
+	 *            Classe que declara o atributo ou uma das suas subclasses.
+	 * @return Tipo dos elementos.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for uma colecao nem um mapa, ou se a classe de contexto nao herdar o atributo.
+	 */
+	public static Class<?> getTypeOfElements(Field field, Class<?> context) {
+		Class<?> elements = fieldType(field, context).elements;
+		if (elements == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return elements;
+	}
+
+	/**
+	 * Retorna o tipo das chaves de um mapa, no contexto de uma determinada classe.
+	 * 
+	 * @param field
+	 * @param context
+	 *            Classe que declara o atributo ou uma das suas subclasses.
+	 * @return Tipo das chaves.
+	 * @exception IllegalArgumentException
+	 *                se o atributo nao for um mapa, ou se a classe de contexto nao herdar o atributo.
+	 */
+	public static Class<?> getTypeOfKeys(Field field, Class<?> context) {
+		Class<?> keys = fieldType(field, context).keys;
+		if (keys == null) {
+			throw new IllegalArgumentException();
+		}
+
+		return keys;
+	}
+
+	private static FieldType fieldType(Field field, Class<?> context) {
+		if (field == null || context == null || !field.getDeclaringClass().isAssignableFrom(context)) {
+			throw new IllegalArgumentException();
+		}
+
+		ConcurrentMap<Field, FieldType> fields = FIELDS.get(context);
+
+		FieldType fieldType = fields.get(field);
+		if (fieldType == null) {
+			fieldType = new FieldType(resolve(field.getGenericType(), context));
+			fields.putIfAbsent(field, fieldType);
+		}
+
+		return fieldType;
+	}
+
+	private static Map<TypeVariable<?>, Type> bind(Type type) {
+		Map<TypeVariable<?>, Type> bindings = new HashMap<TypeVariable<?>, Type>();
+		bind(type, bindings, new HashSet<Class<?>>());
+
+		return bindings;
+	}
+
+	private static void bind(Type type, Map<TypeVariable<?>, Type> bindings, Set<Class<?>> visited) {
+		if (type == null) {
+			return;
+		}
+
+		Class<?> raw = getRawType(type);
+		if (!visited.add(raw)) {
+			return;
+		}
+
+		if (type instanceof ParameterizedType) {
+			TypeVariable<?>[] variables = raw.getTypeParameters();
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			for (int i = 0; i < variables.length; i++) {
+				bindings.put(variables[i], substitute(arguments[i], bindings));
+			}
+		}
+
+		bind(raw.getGenericSuperclass(), bindings, visited);
+		for (Type i : raw.getGenericInterfaces()) {
+			bind(i, bindings, visited);
+		}
+	}
+
+	private static Type substitute(Type type, Map<TypeVariable<?>, Type> bindings) {
+		if (type instanceof TypeVariable<?>) {
+			Type bound = bindings.get(type);
+			return bound != null ? bound : type;
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType parameterized = (ParameterizedType) type;
+			Type owner = parameterized.getOwnerType();
+
+			return new ParameterizedTypeImpl((Class<?>) parameterized.getRawType(), substitute(parameterized.getActualTypeArguments(), bindings), owner != null ? substitute(owner, bindings) : null);
+		} else if (type instanceof GenericArrayType) {
+			Type component = substitute(((GenericArrayType) type).getGenericComponentType(), bindings);
+			if (component instanceof Class<?>) {
+				return Array.newInstance((Class<?>) component, 0).getClass();
+			}
+
+			return new GenericArrayTypeImpl(component);
+		} else if (type instanceof WildcardType) {
+			WildcardType wildcard = (WildcardType) type;
+			return new WildcardTypeImpl(substitute(wildcard.getUpperBounds(), bindings), substitute(wildcard.getLowerBounds(), bindings));
+		}
+
+		return type;
+	}
+
+	private static Type[] substitute(Type[] types, Map<TypeVariable<?>, Type> bindings) {
+		Type[] substituted = new Type[types.length];
+		for (int i = 0; i < types.length; i++) {
+			substituted[i] = substitute(types[i], bindings);
+		}
+
+		return substituted;
+	}
+
+	/**
+	 * Tipo resolvido de um atributo, com o tipo dos elementos e das chaves calculados na criacao.
+	 */
+	private static final class FieldType {
+
+		private final Type type;
+
+		private final Class<?> elements;
+
+		private final Class<?> keys;
+
+		private FieldType(Type type) {
+			this.type = type;
+
+			Type[] collection = getTypeArguments(type, Collection.class);
+			Type[] map = getTypeArguments(type, Map.class);
+
+			if (collection != null) {
+				this.elements = getRawType(collection[0]);
+				this.keys = null;
+			} else if (map != null) {
+				this.elements = getRawType(map[1]);
+				this.keys = getRawType(map[0]);
+			} else {
+				this.elements = null;
+				this.keys = null;
+			}
+		}
+
+	}
+
+	private static final class ParameterizedTypeImpl implements ParameterizedType {
+
+		private final Class<?> rawType;
+
+		private final Type[] arguments;
+
+		private final Type ownerType;
+
+		private ParameterizedTypeImpl(Class<?> rawType, Type[] arguments, Type ownerType) {
+			this.rawType = rawType;
+			this.arguments = arguments;
+			this.ownerType = ownerType;
+		}
+
+		@Override
+		public Type[] getActualTypeArguments() {
+			return this.arguments.clone();
+		}
+
+		@Override
+		public Type getRawType() {
+			return this.rawType;
+		}
+
+		@Override
+		public Type getOwnerType() {
+			return this.ownerType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ParameterizedType)) {
+				return false;
+			}
+
+			ParameterizedType other = (ParameterizedType) obj;
+			boolean isSameOwner = this.ownerType == null ? other.getOwnerType() == null : this.ownerType.equals(other.getOwnerType());
+
+			return isSameOwner && this.rawType.equals(other.getRawType()) && Arrays.equals(this.arguments, other.getActualTypeArguments());
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.arguments) ^ (this.ownerType == null ? 0 : this.ownerType.hashCode()) ^ this.rawType.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder(this.rawType.getName()).append('<');
+			for (int i = 0; i < this.arguments.length; i++) {
+				builder.append(i > 0 ? ", " : "").append(toString(this.arguments[i]));
+			}
+
+			return builder.append('>').toString();
+		}
+
+		private static String toString(Type type) {
+			return type instanceof Class<?> ? ((Class<?>) type).getName() : type.toString();
+		}
+
+	}
+
+	private static final class GenericArrayTypeImpl implements GenericArrayType {
+
+		private final Type componentType;
+
+		private GenericArrayTypeImpl(Type componentType) {
+			this.componentType = componentType;
+		}
+
+		@Override
+		public Type getGenericComponentType() {
+			return this.componentType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof GenericArrayType && this.componentType.equals(((GenericArrayType) obj).getGenericComponentType());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.componentType.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return this.componentType + "[]";
+		}
+
+	}
+
+	private static final class WildcardTypeImpl implements WildcardType {
+
+		private final Type[] upperBounds;
+
+		private final Type[] lowerBounds;
+
+		private WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+			this.upperBounds = upperBounds;
+			this.lowerBounds = lowerBounds;
+		}
+
+		@Override
+		public Type[] getUpperBounds() {
+			return this.upperBounds.clone();
+		}
+
+		@Override
+		public Type[] getLowerBounds() {
+			return this.lowerBounds.clone();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof WildcardType)) {
+				return false;
+			}
+
+			WildcardType other = (WildcardType) obj;
+			return Arrays.equals(this.upperBounds, other.getUpperBounds()) && Arrays.equals(this.lowerBounds, other.getLowerBounds());
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(this.upperBounds) ^ Arrays.hashCode(this.lowerBounds);
+		}
+
+		@Override
+		public String toString() {
+			if (this.lowerBounds.length > 0) {
+				return "? super " + this.lowerBounds[0];
+			} else if (this.upperBounds.length == 0 || this.upperBounds[0] == Object.class) {
+				return "?";
+			}
+
+			return "? extends " + this.upperBounds[0];
+		}
+
+	}
+
+}
@@ -1,9 +1,14 @@
 package br.com.brasilti.utils.collection;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
@@ -60,4 +65,125 @@ public class CollectionUtilTest {
 		assertEquals("c", list.get(2));
 	}
 
+	@Test
+	public void deveRetornarUmaListaDeIntSemEmpacotamento() {
+		IntList list = CollectionUtil.convertToIntList(3, 1, 2);
+
+		assertArrayEquals(new int[] { 3, 1, 2 }, list.toArray());
+		assertEquals(Arrays.asList(3, 1, 2), list.asList());
+	}
+
+	@Test
+	public void deveRetornarUmaListaDeLongSemEmpacotamento() {
+		LongList list = CollectionUtil.convertToLongList(3L, 1L);
+
+		assertEquals(2, list.size());
+		assertEquals(Arrays.asList(3L, 1L), list.asList());
+	}
+
+	@Test
+	public void deveRetornarUmConjuntoDeLongSemRepeticoes() {
+		LongHashSet set = CollectionUtil.convertToLongSet(1L, 2L, 1L, 0L);
+
+		assertEquals(3, set.size());
+		assertTrue(set.contains(0L));
+		assertTrue(set.contains(2L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOVarargsDeIntForNulo() {
+		CollectionUtil.convertToIntList((int[]) null);
+	}
+
+	@Test
+	public void deveRetornarUmaCopiaMutavelDoVarargs() {
+		String[] varargs = { "a", "b" };
+		List<String> list = CollectionUtil.convert(varargs);
+		list.add("c");
+		varargs[0] = "z";
+
+		assertEquals(Arrays.asList("a", "b", "c"), list);
+	}
+
+	@Test
+	public void deveRetornarUmaVisaoDoVarargsSemCopia() {
+		String[] varargs = { "a", "b", "c" };
+		List<String> list = CollectionUtil.view(varargs);
+		varargs[1] = "z";
+
+		assertEquals(Arrays.asList("a", "z", "c"), list);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void naoDevePermitirAlterarAVisao() {
+		CollectionUtil.view("a", "b").set(0, "z");
+	}
+
+	@Test
+	public void deveRetornarListasImutaveisCompactas() {
+		assertTrue(CollectionUtil.immutable().isEmpty());
+		assertEquals(Arrays.asList("a"), CollectionUtil.immutable("a"));
+		assertEquals(Arrays.asList("a", null), CollectionUtil.immutable("a", null));
+		assertEquals(Arrays.asList("a", "b").hashCode(), CollectionUtil.immutable("a", "b").hashCode());
+	}
+
+	@Test
+	public void naoDeveRefletirAlteracoesNoVarargsNaListaImutavel() {
+		String[] varargs = { "a", "b", "c" };
+		List<String> list = CollectionUtil.immutable(varargs);
+		varargs[0] = "z";
+
+		assertEquals(Arrays.asList("a", "b", "c"), list);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void naoDevePermitirAlterarAListaImutavel() {
+		CollectionUtil.immutable("a", "b").add("c");
+	}
+
+	@Test
+	public void deveDividirAListaEmSublistas() {
+		List<Integer> list = CollectionUtil.convert(1, 2, 3, 4, 5);
+		List<List<Integer>> partition = CollectionUtil.partition(list, 2);
+
+		assertEquals(3, partition.size());
+		assertEquals(Arrays.asList(1, 2), partition.get(0));
+		assertEquals(Arrays.asList(5), partition.get(2));
+	}
+
+	@Test
+	public void deveRefletirAsAlteracoesDaListaNasSublistas() {
+		List<Integer> list = CollectionUtil.convert(1, 2, 3, 4);
+		List<List<Integer>> partition = CollectionUtil.partition(list, 2);
+		list.set(3, 9);
+
+		assertEquals(Arrays.asList(3, 9), partition.get(1));
+		assertTrue(CollectionUtil.partition(new ArrayList<Integer>(), 2).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOTamanhoDaParticaoNaoForPositivo() {
+		CollectionUtil.partition(CollectionUtil.convert(1), 0);
+	}
+
+	@Test
+	public void deveRetornarAsJanelasDeslizantes() {
+		List<List<Integer>> windows = CollectionUtil.windows(CollectionUtil.convert(1, 2, 3, 4), 3);
+
+		assertEquals(2, windows.size());
+		assertEquals(Arrays.asList(1, 2, 3), windows.get(0));
+		assertEquals(Arrays.asList(2, 3, 4), windows.get(1));
+		assertTrue(CollectionUtil.windows(CollectionUtil.convert(1, 2), 3).isEmpty());
+	}
+
+	@Test
+	public void deveAgruparOsElementosDoIteradorEmBlocos() {
+		Iterator<List<Integer>> chunks = CollectionUtil.chunk(Arrays.asList(1, 2, 3, 4, 5).iterator(), 2);
+
+		assertEquals(Arrays.asList(1, 2), chunks.next());
+		assertEquals(Arrays.asList(3, 4), chunks.next());
+		assertEquals(Arrays.asList(5), chunks.next());
+		assertFalse(chunks.hasNext());
+	}
+
 }
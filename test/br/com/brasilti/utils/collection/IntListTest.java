@@ -0,0 +1,67 @@
+package br.com.brasilti.utils.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IntListTest {
+
+	@Test
+	public void deveCrescerAlemDaCapacidadeInicial() {
+		IntList list = new IntList(0);
+		for (int i = 0; i < 100; i++) {
+			list.add(i);
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(99, list.get(99));
+	}
+
+	@Test
+	public void deveInserirERemoverDeslocandoOsElementos() {
+		IntList list = CollectionUtil.convertToIntList(1, 3);
+		list.add(1, 2);
+
+		assertArrayEquals(new int[] { 1, 2, 3 }, list.toArray());
+		assertEquals(1, list.removeAt(0));
+		assertArrayEquals(new int[] { 2, 3 }, list.toArray());
+		assertEquals(1, list.indexOf(3));
+		assertFalse(list.contains(1));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void deveLancarExcecaoQuandoAPosicaoForInvalida() {
+		IntList list = new IntList(10);
+		list.get(0);
+	}
+
+	@Test
+	public void deveRefletirAsAlteracoesFeitasPelaVisao() {
+		IntList list = CollectionUtil.convertToIntList(1, 2, 3);
+		List<Integer> view = list.asList();
+
+		view.add(4);
+		view.remove(0);
+		view.set(0, 9);
+
+		assertArrayEquals(new int[] { 9, 3, 4 }, list.toArray());
+		assertEquals(new ArrayList<Integer>(Arrays.asList(9, 3, 4)), view);
+	}
+
+	@Test
+	public void deveTerOMesmoHashCodeDeUmaListaEquivalente() {
+		IntList list = CollectionUtil.convertToIntList(-1, 0, 7);
+
+		assertEquals(Arrays.asList(-1, 0, 7).hashCode(), list.hashCode());
+		assertTrue(list.equals(CollectionUtil.convertToIntList(-1, 0, 7)));
+		assertEquals("[-1, 0, 7]", list.toString());
+	}
+
+}
@@ -0,0 +1,71 @@
+package br.com.brasilti.utils.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class LongHashSetTest {
+
+	@Test
+	public void deveTratarOZeroComoUmValorComum() {
+		LongHashSet set = new LongHashSet();
+
+		assertFalse(set.contains(0L));
+		assertTrue(set.add(0L));
+		assertFalse(set.add(0L));
+		assertTrue(set.contains(0L));
+		assertTrue(set.remove(0L));
+		assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void deveSeComportarComoUmHashSet() {
+		LongHashSet set = new LongHashSet(0);
+		Set<Long> expected = new HashSet<Long>();
+
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			long value = random.nextInt(500) - 250;
+			if (random.nextBoolean()) {
+				assertEquals(expected.add(value), set.add(value));
+			} else {
+				assertEquals(expected.remove(value), set.remove(value));
+			}
+		}
+
+		assertEquals(expected.size(), set.size());
+		for (long value = -250; value < 250; value++) {
+			assertEquals(expected.contains(value), set.contains(value));
+		}
+		assertEquals(expected, set.asSet());
+		assertEquals(expected.hashCode(), set.hashCode());
+	}
+
+	@Test
+	public void deveRefletirAsAlteracoesFeitasPelaVisao() {
+		LongHashSet set = CollectionUtil.convertToLongSet(1L, 2L);
+		Set<Long> view = set.asSet();
+
+		view.add(3L);
+		view.remove(1L);
+
+		assertTrue(set.contains(3L));
+		assertFalse(set.contains(1L));
+		assertFalse(view.contains("2"));
+		assertEquals(2, view.size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void naoDevePermitirRemocaoPeloIterador() {
+		Set<Long> view = CollectionUtil.convertToLongSet(1L).asSet();
+		view.iterator().next();
+		view.iterator().remove();
+	}
+
+}
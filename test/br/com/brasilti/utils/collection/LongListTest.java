@@ -0,0 +1,35 @@
+package br.com.brasilti.utils.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LongListTest {
+
+	@Test
+	public void deveArmazenarValoresMaioresQueInt() {
+		LongList list = new LongList();
+		list.add(Long.MAX_VALUE);
+		list.addAll(1L, Long.MIN_VALUE);
+
+		assertArrayEquals(new long[] { Long.MAX_VALUE, 1L, Long.MIN_VALUE }, list.toArray());
+		assertEquals(2, list.indexOf(Long.MIN_VALUE));
+	}
+
+	@Test
+	public void deveRefletirAsAlteracoesFeitasPelaVisao() {
+		LongList list = CollectionUtil.convertToLongList(1L, 2L);
+		List<Long> view = list.asList();
+
+		view.add(0, 5L);
+		list.set(2, 7L);
+
+		assertEquals(Arrays.asList(5L, 1L, 7L), view);
+		assertEquals(Arrays.asList(5L, 1L, 7L).hashCode(), list.hashCode());
+	}
+
+}
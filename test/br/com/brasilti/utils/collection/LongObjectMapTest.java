@@ -0,0 +1,72 @@
+package br.com.brasilti.utils.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+	@Test
+	public void deveAssociarValoresAChaveZero() {
+		LongObjectMap<String> map = new LongObjectMap<String>();
+
+		assertNull(map.put(0L, "zero"));
+		assertEquals("zero", map.put(0L, "nulo"));
+		assertEquals("nulo", map.get(0L));
+		assertEquals("nulo", map.remove(0L));
+		assertFalse(map.containsKey(0L));
+	}
+
+	@Test
+	public void deveAceitarValoresNulos() {
+		LongObjectMap<String> map = new LongObjectMap<String>();
+		map.put(5L, null);
+
+		assertTrue(map.containsKey(5L));
+		assertNull(map.get(5L));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void deveSeComportarComoUmHashMap() {
+		LongObjectMap<Integer> map = new LongObjectMap<Integer>(0);
+		Map<Long, Integer> expected = new HashMap<Long, Integer>();
+
+		Random random = new Random(7);
+		for (int i = 0; i < 20000; i++) {
+			long key = (random.nextInt(300) - 150) * 1024L;
+			if (random.nextInt(3) > 0) {
+				assertEquals(expected.put(key, i), map.put(key, i));
+			} else {
+				assertEquals(expected.remove(key), map.remove(key));
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected.size(), map.keys().length);
+		assertEquals(expected, map.asMap());
+	}
+
+	@Test
+	public void deveRefletirAsAlteracoesFeitasPelaVisao() {
+		LongObjectMap<String> map = new LongObjectMap<String>();
+		Map<Long, String> view = map.asMap();
+
+		view.put(1L, "um");
+		view.put(2L, "dois");
+		view.remove(1L);
+
+		assertEquals("dois", map.get(2L));
+		assertNull(map.get(1L));
+		assertNull(view.get("2"));
+		assertEquals("{2=dois}", map.toString());
+	}
+
+}
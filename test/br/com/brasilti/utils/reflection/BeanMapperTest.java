@@ -0,0 +1,202 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+import br.com.brasilti.utils.reflection.examples.ClasseDeTransferencia;
+import br.com.brasilti.utils.reflection.examples.ClasseDeTransferenciaComReferencias;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class BeanMapperTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		BeanMapper.forClasses(ClasseComAtributosPadrao.class, null);
+	}
+
+	@Test
+	public void deveRetornarOMesmoMapeadorParaAsMesmasClasses() {
+		BeanMapper<ClasseComAtributosPadrao, ClasseDeTransferencia> mapper = BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class);
+
+		assertSame(mapper, BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class));
+		assertNotSame(mapper, BeanMapper.builder(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class).build());
+	}
+
+	@Test
+	public void deveCopiarOsAtributosDeMesmoNomeETipoCompativel() {
+		ClasseComAtributosPadrao source = this.criarInstancia();
+
+		ClasseDeTransferencia target = BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class).map(source);
+
+		assertEquals("Nome", target.getStringField());
+		assertEquals(1, target.getIntegerField());
+		assertEquals(Long.valueOf(2L), target.getLongField());
+		assertSame(source.getCalendarField(), target.getCalendarField());
+		assertArrayEquals(new byte[] { 1, 2 }, target.getByteField());
+		assertNull(target.getValor());
+		assertNull(target.getBooleanField());
+	}
+
+	@Test
+	public void naoDeveCopiarValorNuloParaAtributoPrimitivo() {
+		ClasseDeTransferencia target = new ClasseDeTransferencia();
+		target.setIntegerField(5);
+
+		BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class).map(new ClasseComAtributosPadrao(), target);
+
+		assertEquals(5, target.getIntegerField());
+	}
+
+	@Test
+	public void deveCopiarDePrimitivoParaEmpacotado() {
+		ClasseDeTransferencia source = new ClasseDeTransferencia();
+		source.setIntegerField(7);
+
+		ClasseComAtributosPadrao target = BeanMapper.forClasses(ClasseDeTransferencia.class, ClasseComAtributosPadrao.class).map(source);
+
+		assertEquals(Integer.valueOf(7), target.getIntegerField());
+		assertNull(target.getBooleanField());
+	}
+
+	@Test
+	public void deveCopiarAtributosPrimitivos() {
+		ClasseComAtributosPrimitivos source = new ClasseComAtributosPrimitivos();
+		source.setCharField('c');
+		source.setLongField(Long.MAX_VALUE);
+		source.setDoubleField(1.5);
+
+		ClasseComAtributosPrimitivos target = BeanMapper.forClasses(ClasseComAtributosPrimitivos.class, ClasseComAtributosPrimitivos.class).map(source);
+
+		assertEquals('c', target.getCharField());
+		assertEquals(Long.MAX_VALUE, target.getLongField());
+		assertEquals(1.5, target.getDoubleField(), 0);
+	}
+
+	@Test
+	public void deveAplicarAsRenomeacoesEConversoes() {
+		BeanMapper<ClasseComAtributosPadrao, ClasseDeTransferencia> mapper = BeanMapper.builder(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class)
+				.rename("bigDecimalField", "valor").convert("booleanField", "booleanField", new Converter<Boolean, String>() {
+
+					@Override
+					public String convert(Boolean source) {
+						return source != null && source ? "S" : "N";
+					}
+
+				}).convert("stringField", "extra", new Converter<String, String>() {
+
+					@Override
+					public String convert(String source) {
+						return source.toUpperCase();
+					}
+
+				}).ignore("longField").build();
+
+		ClasseDeTransferencia target = mapper.map(this.criarInstancia());
+
+		assertEquals(BigDecimal.TEN, target.getValor());
+		assertEquals("S", target.getBooleanField());
+		assertEquals("Nome", target.getStringField());
+		assertEquals("NOME", target.getExtra());
+		assertNull(target.getLongField());
+	}
+
+	@Test
+	public void deveCopiarOsAtributosDaHierarquia() {
+		ClasseComAtEntityHerdada source = new ClasseComAtEntityHerdada();
+		source.setId(1L);
+		source.setNome("Nome");
+		source.setDescricao("Descricao");
+
+		ClasseComAtEntityHerdada target = BeanMapper.forClasses(ClasseComAtEntityHerdada.class, ClasseComAtEntityHerdada.class).map(source);
+
+		assertEquals(Long.valueOf(1L), target.getId());
+		assertEquals("Nome", target.getNome());
+		assertEquals("Descricao", target.getDescricao());
+	}
+
+	@Test
+	public void naoDeveCopiarAtributosGenericosComArgumentosDiferentes() {
+		ClasseComReferencias source = new ClasseComReferencias("Pai");
+		source.adicionar(new ClasseComReferencias("Filho"));
+
+		ClasseDeTransferenciaComReferencias target = BeanMapper.forClasses(ClasseComReferencias.class, ClasseDeTransferenciaComReferencias.class).map(source);
+
+		assertEquals("Pai", target.getNome());
+		assertNull(target.getFilhos());
+		assertSame(source.getIndice(), target.getIndice());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOAtributoGenericoRenomeadoForIncompativel() {
+		BeanMapper.builder(ClasseComReferencias.class, ClasseDeTransferenciaComReferencias.class).rename("filhos", "filhos").build();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOAtributoRenomeadoNaoExistir() {
+		BeanMapper.builder(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class).rename("inexistente", "valor").build();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOsAtributosRenomeadosForemIncompativeis() {
+		BeanMapper.builder(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class).rename("booleanField", "valor").build();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoODestinoNaoPossuirConstrutorPadrao() {
+		BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseSemConstrutorPadrao.class).map(new ClasseComAtributosPadrao());
+	}
+
+	@Test
+	public void deveMapearUmaLista() throws Exception {
+		List<ClasseComAtributosPadrao> sources = Arrays.asList(this.criarInstancia(), null, this.criarInstancia());
+		BeanMapper<ClasseComAtributosPadrao, ClasseDeTransferencia> mapper = BeanMapper.forClasses(ClasseComAtributosPadrao.class, ClasseDeTransferencia.class);
+
+		List<ClasseDeTransferencia> targets = mapper.mapAll(sources);
+
+		assertEquals(3, targets.size());
+		assertEquals("Nome", targets.get(0).getStringField());
+		assertNull(targets.get(1));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<ClasseDeTransferencia> results = new ArrayList<ClasseDeTransferencia>();
+			new BulkCopier(executor, 1, 2).mapAll(sources, results, mapper);
+
+			assertEquals(3, results.size());
+			assertEquals("Nome", results.get(2).getStringField());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private ClasseComAtributosPadrao criarInstancia() {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField("Nome");
+		instance.setIntegerField(1);
+		instance.setLongField(2L);
+		instance.setBigDecimalField(BigDecimal.TEN);
+		instance.setBooleanField(Boolean.TRUE);
+		instance.setCalendarField(Calendar.getInstance());
+		instance.setByteField(new byte[] { 1, 2 });
+
+		return instance;
+	}
+
+}
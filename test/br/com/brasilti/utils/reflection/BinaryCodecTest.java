@@ -0,0 +1,265 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class BinaryCodecTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		BinaryCodec.forClass(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAlgumAtributoNaoForSuportado() {
+		BinaryCodec.forClass(ClasseComReferencias.class);
+	}
+
+	@Test
+	public void deveRetornarOMesmoCodificadorParaAMesmaClasse() {
+		assertSame(BinaryCodec.forClass(ClasseComAtributosPadrao.class), BinaryCodec.forClass(ClasseComAtributosPadrao.class));
+	}
+
+	@Test
+	public void deveCodificarEDecodificarOsAtributosPersistentes() {
+		ClasseComAtributosPadrao origin = this.criarInstancia();
+
+		ClasseComAtributosPadrao decoded = BinaryCodec.forClass(ClasseComAtributosPadrao.class).decode(BinaryCodec.forClass(ClasseComAtributosPadrao.class).encode(origin));
+
+		assertEquals("Origem \u00e7\u20ac\ud83d\ude00", decoded.getStringField());
+		assertEquals(Integer.valueOf(-1), decoded.getIntegerField());
+		assertEquals(Long.valueOf(Long.MIN_VALUE), decoded.getLongField());
+		assertEquals(new BigDecimal("-123.4500"), decoded.getBigDecimalField());
+		assertEquals(Boolean.TRUE, decoded.getBooleanField());
+		assertEquals(origin.getCalendarField().getTimeInMillis(), decoded.getCalendarField().getTimeInMillis());
+		assertEquals(origin.getCalendarField().getTimeZone(), decoded.getCalendarField().getTimeZone());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, decoded.getByteField());
+	}
+
+	@Test
+	public void naoDeveCodificarOsAtributosTransientes() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		FieldAccessor.forField(ClasseComAtributosPadrao.class, "transientField").set("Origem", origin);
+
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		assertNull(codec.decode(codec.encode(origin)).getTransientField());
+	}
+
+	@Test
+	public void deveCodificarAtributosNulos() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		byte[] bytes = codec.encode(new ClasseComAtributosPadrao());
+		ClasseComAtributosPadrao decoded = codec.decode(bytes);
+
+		assertEquals(2, bytes.length);
+		assertNull(decoded.getStringField());
+		assertNull(decoded.getIntegerField());
+		assertNull(decoded.getBigDecimalField());
+		assertNull(decoded.getCalendarField());
+		assertNull(decoded.getByteField());
+	}
+
+	@Test
+	public void deveCodificarDecimaisQueNaoCabemEmUmLong() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		origin.setBigDecimalField(new BigDecimal(BigInteger.ONE.shiftLeft(100).negate(), 7));
+
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		assertEquals(origin.getBigDecimalField(), codec.decode(codec.encode(origin)).getBigDecimalField());
+	}
+
+	@Test
+	public void deveCodificarEDecodificarOsAtributosPrimitivos() {
+		ClasseComAtributosPrimitivos origin = new ClasseComAtributosPrimitivos();
+		origin.setBooleanField(true);
+		origin.setByteField((byte) -1);
+		origin.setCharField('\u20ac');
+		origin.setShortField(Short.MIN_VALUE);
+		origin.setIntField(Integer.MAX_VALUE);
+		origin.setLongField(-4L);
+		origin.setFloatField(5.5F);
+		origin.setDoubleField(-6.25D);
+
+		BinaryCodec<ClasseComAtributosPrimitivos> codec = BinaryCodec.forClass(ClasseComAtributosPrimitivos.class);
+		ClasseComAtributosPrimitivos decoded = codec.decode(codec.encode(origin));
+
+		assertTrue(decoded.isBooleanField());
+		assertEquals(-1, decoded.getByteField());
+		assertEquals('\u20ac', decoded.getCharField());
+		assertEquals(Short.MIN_VALUE, decoded.getShortField());
+		assertEquals(Integer.MAX_VALUE, decoded.getIntField());
+		assertEquals(-4L, decoded.getLongField());
+		assertEquals(5.5F, decoded.getFloatField(), 0);
+		assertEquals(-6.25D, decoded.getDoubleField(), 0);
+	}
+
+	@Test
+	public void deveCodificarOsAtributosDaHierarquia() {
+		ClasseComAtEntityHerdada origin = new ClasseComAtEntityHerdada();
+		origin.setId(10L);
+		origin.setVersao(2);
+		origin.setNome("Nome");
+		origin.setPeso(1.5);
+		origin.setDescricao("Descricao");
+
+		BinaryCodec<ClasseComAtEntityHerdada> codec = BinaryCodec.forClass(ClasseComAtEntityHerdada.class);
+		ClasseComAtEntityHerdada decoded = codec.decode(codec.encode(origin));
+
+		assertEquals(Long.valueOf(10L), decoded.getId());
+		assertEquals(2, decoded.getVersao());
+		assertEquals("Nome", decoded.getNome());
+		assertEquals(1.5, decoded.getPeso(), 0);
+		assertEquals("Descricao", decoded.getDescricao());
+	}
+
+	@Test
+	public void deveCodificarVariasInstanciasNoMesmoBuffer() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		ClasseComAtributosPadrao first = new ClasseComAtributosPadrao();
+		first.setStringField("Primeira");
+		ClasseComAtributosPadrao second = new ClasseComAtributosPadrao();
+		second.setStringField("Segunda");
+
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		buffer = codec.encode(first, buffer);
+		buffer = codec.encode(second, buffer);
+		buffer.flip();
+
+		assertEquals("Primeira", codec.decode(buffer).getStringField());
+		assertEquals("Segunda", codec.decode(buffer).getStringField());
+		assertEquals(0, buffer.remaining());
+	}
+
+	@Test
+	public void deveAumentarOBufferQuandoNaoHouverEspaco() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		ClasseComAtributosPadrao first = new ClasseComAtributosPadrao();
+		first.setStringField("Primeira");
+		ClasseComAtributosPadrao second = this.criarInstancia();
+		second.setByteField(new byte[1000]);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+		buffer = codec.encode(first, buffer);
+		ByteBuffer larger = codec.encode(second, buffer);
+		larger.flip();
+
+		assertNotSame(buffer, larger);
+		assertTrue(larger.isDirect());
+		assertEquals("Primeira", codec.decode(larger).getStringField());
+		assertEquals(1000, codec.decode(larger).getByteField().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOConteudoEstiverIncompleto() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		byte[] bytes = codec.encode(this.criarInstancia());
+		codec.decode(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAVersaoDoFormatoForOutra() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		byte[] bytes = codec.encode(this.criarInstancia());
+		assertEquals(BinaryCodec.FORMAT_VERSION, bytes[0]);
+
+		bytes[0] = BinaryCodec.FORMAT_VERSION + 1;
+		codec.decode(bytes);
+	}
+
+	@Test
+	public void deveDecodificarCalendarioGregorianoNoFusoGravado() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		Calendar calendar = codec.decode(codec.encode(this.criarInstancia())).getCalendarField();
+
+		assertTrue(calendar instanceof GregorianCalendar);
+		assertEquals("America/Sao_Paulo", calendar.getTimeZone().getID());
+		assertEquals(1234567890123L, calendar.getTimeInMillis());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOTamanhoForNegativo() {
+		BinaryCodec<ClasseComAtributosPadrao> codec = BinaryCodec.forClass(ClasseComAtributosPadrao.class);
+
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField("A");
+
+		byte[] bytes = codec.encode(instance);
+		ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 4);
+		buffer.put(bytes, 0, bytes.length - 2);
+		buffer.put(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F });
+		buffer.put(bytes[bytes.length - 1]);
+		buffer.flip();
+
+		codec.decode(buffer);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAInstanciaForNula() {
+		BinaryCodec.forClass(ClasseComAtributosPadrao.class).encode(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoAoDecodificarClasseSemConstrutorPadrao() {
+		BinaryCodec<ClasseSemConstrutorPadrao> codec = BinaryCodec.forClass(ClasseSemConstrutorPadrao.class);
+		codec.decode(codec.encode(new ClasseSemConstrutorPadrao("Atributo")));
+	}
+
+	@Test
+	public void deveGerarConteudoMenorQueASerializacaoPadrao() throws IOException {
+		ClasseComAtributosPadrao origin = this.criarInstancia();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+		output.writeObject(origin);
+		output.close();
+
+		assertTrue(BinaryCodec.forClass(ClasseComAtributosPadrao.class).encode(origin).length * 4 < bytes.size());
+	}
+
+	private ClasseComAtributosPadrao criarInstancia() {
+		Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("America/Sao_Paulo"));
+		calendar.setTimeInMillis(1234567890123L);
+
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField("Origem \u00e7\u20ac\ud83d\ude00");
+		instance.setIntegerField(-1);
+		instance.setLongField(Long.MIN_VALUE);
+		instance.setBigDecimalField(new BigDecimal("-123.4500"));
+		instance.setBooleanField(Boolean.TRUE);
+		instance.setCalendarField(calendar);
+		instance.setByteField(new byte[] { 1, 2, 3 });
+
+		return instance;
+	}
+
+}
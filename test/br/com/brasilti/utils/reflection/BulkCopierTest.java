@@ -0,0 +1,116 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.BulkCopier.Statistics;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+
+public class BulkCopierTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		this.executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void deveCopiarTodosOsElementosEmParalelo() {
+		List<ClasseComAtributosPrimitivos> origins = this.criarInstancias(1000);
+		List<ClasseComAtributosPrimitivos> targets = this.criarInstancias(1000);
+		for (int i = 0; i < origins.size(); i++) {
+			origins.get(i).setIntField(i);
+			origins.get(i).setLongField(-i);
+		}
+
+		Statistics statistics = new BulkCopier(this.executor, 100, 4).copyAll(origins, targets);
+
+		assertEquals(1000, statistics.getCount());
+		assertEquals(4, statistics.getTasks());
+		for (int i = 0; i < targets.size(); i++) {
+			assertEquals(i, targets.get(i).getIntField());
+			assertEquals(-i, targets.get(i).getLongField());
+		}
+	}
+
+	@Test
+	public void devePermanecerSequencialAbaixoDoLimite() {
+		List<ClasseComAtributosPrimitivos> origins = this.criarInstancias(99);
+		origins.get(98).setDoubleField(1.5);
+		List<ClasseComAtributosPrimitivos> targets = new LinkedList<ClasseComAtributosPrimitivos>(this.criarInstancias(99));
+
+		Statistics statistics = new BulkCopier(this.executor, 100, 4).copyAll(origins, targets);
+
+		assertEquals(1, statistics.getTasks());
+		assertEquals(1.5, targets.get(98).getDoubleField(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAsListasTiveremTamanhosDiferentes() {
+		BulkCopier.sequential().copyAll(this.criarInstancias(2), this.criarInstancias(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void devePropagarAExcecaoDeUmTrecho() {
+		List<Object> origins = new ArrayList<Object>(this.criarInstancias(400));
+		List<Object> targets = new ArrayList<Object>(this.criarInstancias(400));
+		targets.set(350, new ClasseComAtributosPadrao());
+
+		new BulkCopier(this.executor, 100, 4).copyAll(origins, targets);
+	}
+
+	@Test
+	public void deveConverterMantendoAOrdem() {
+		List<ClasseComAtributosPrimitivos> origins = this.criarInstancias(500);
+		for (int i = 0; i < origins.size(); i++) {
+			origins.get(i).setIntField(i);
+		}
+		List<Integer> results = new ArrayList<Integer>();
+
+		Statistics statistics = new BulkCopier(this.executor, 50, 3).mapAll(origins, results, new Converter<ClasseComAtributosPrimitivos, Integer>() {
+
+			@Override
+			public Integer convert(ClasseComAtributosPrimitivos source) {
+				return source.getIntField() * 2;
+			}
+
+		});
+
+		assertEquals(3, statistics.getTasks());
+		assertEquals(500, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(Integer.valueOf(i * 2), results.get(i));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOExecutorForNulo() {
+		new BulkCopier(null, 100, 4);
+	}
+
+	private List<ClasseComAtributosPrimitivos> criarInstancias(int size) {
+		List<ClasseComAtributosPrimitivos> instances = new ArrayList<ClasseComAtributosPrimitivos>();
+		for (int i = 0; i < size; i++) {
+			instances.add(new ClasseComAtributosPrimitivos());
+		}
+
+		return instances;
+	}
+
+}
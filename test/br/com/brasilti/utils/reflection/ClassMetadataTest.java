@@ -0,0 +1,127 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.persistence.Entity;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntity;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityEAtributos;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComEquals;
+import br.com.brasilti.utils.reflection.examples.ClasseSemAtEntity;
+import br.com.brasilti.utils.reflection.examples.InterfaceSerializavel;
+
+public class ClassMetadataTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		ClassMetadata.forClass(null);
+	}
+
+	@Test
+	public void deveRetornarOsMesmosMetadadosParaAMesmaClasse() {
+		assertSame(ClassMetadata.forClass(ClasseComAtributosPadrao.class), ClassMetadata.forClass(ClasseComAtributosPadrao.class));
+	}
+
+	@Test
+	public void deveRetornarOsAtributosPersistentesNaOrdemDeDeclaracao() {
+		List<Field> fields = ClassMetadata.forClass(ClasseComAtributosPadrao.class).getPersistentFields();
+
+		assertEquals(7, fields.size());
+		assertEquals("stringField", fields.get(0).getName());
+		assertEquals("byteField", fields.get(6).getName());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void deveRetornarUmaListaImutavelDeAtributosPersistentes() {
+		ClassMetadata.forClass(ClasseComAtributosPadrao.class).getPersistentFields().clear();
+	}
+
+	@Test
+	public void deveRetornarUmaCopiaDosAtributosPersistentesPeloReflectionUtil() {
+		ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class).clear();
+
+		assertEquals(7, ClassMetadata.forClass(ClasseComAtributosPadrao.class).getPersistentFields().size());
+	}
+
+	@Test
+	public void deveIndexarOsAtributosPeloNome() {
+		ClassMetadata metadata = ClassMetadata.forClass(ClasseComAtributosPadrao.class);
+
+		assertNotNull(metadata.getField("transientField"));
+		assertTrue(metadata.hasField("staticField"));
+		assertNull(metadata.getField("inexistente"));
+		assertFalse(metadata.hasField("inexistente"));
+	}
+
+	@Test
+	public void deveIndexarOsMetodosPeloNome() {
+		assertTrue(ClassMetadata.forClass(ClasseComEquals.class).hasMethod("equals"));
+		assertFalse(ClassMetadata.forClass(ClasseComEquals.class).hasMethod("hashCode"));
+	}
+
+	@Test
+	public void deveIndicarAsAnotacoesDaClasse() {
+		assertTrue(ClassMetadata.forClass(ClasseComAtEntity.class).isAnnotated(Entity.class));
+		assertFalse(ClassMetadata.forClass(ClasseSemAtEntity.class).isAnnotated(Entity.class));
+	}
+
+	@Test
+	public void deveLinearizarAHierarquiaDaClasse() {
+		List<Class<?>> hierarchy = ClassMetadata.forClass(ClasseComAtEntityHerdada.class).getHierarchy();
+
+		assertEquals(ClasseComAtEntityHerdada.class, hierarchy.get(0));
+		assertEquals(ClasseComAtEntityEAtributos.class, hierarchy.get(1));
+		assertEquals(Object.class, hierarchy.get(2));
+		assertEquals(InterfaceSerializavel.class, hierarchy.get(3));
+		assertEquals(Serializable.class, hierarchy.get(4));
+		assertEquals(5, hierarchy.size());
+	}
+
+	@Test
+	public void deveIndicarAsInterfacesHerdadas() {
+		assertTrue(ClassMetadata.forClass(ClasseComAtEntityHerdada.class).implementz(Serializable.class));
+		assertTrue(ClassMetadata.forClass(Properties.class).implementz(Map.class));
+		assertFalse(ClassMetadata.forClass(Properties.class).implementz(Collection.class));
+	}
+
+	@Test
+	public void deveRetornarOsAtributosPersistentesDaHierarquiaAPartirDaSuperclasse() {
+		List<Field> fields = ClassMetadata.forClass(ClasseComAtEntityHerdada.class).getPersistentFieldsInHierarchy();
+
+		assertEquals(8, fields.size());
+		assertEquals("id", fields.get(0).getName());
+		assertEquals("descricao", fields.get(7).getName());
+		assertEquals(1, ClassMetadata.forClass(ClasseComAtEntityHerdada.class).getPersistentFields().size());
+	}
+
+	@Test
+	public void deveConsultarAtributosMetodosEAnotacoesDaHierarquia() {
+		ClassMetadata metadata = ClassMetadata.forClass(ClasseComAtEntityHerdada.class);
+
+		assertFalse(metadata.hasField("nome"));
+		assertTrue(metadata.hasFieldInHierarchy("nome"));
+		assertEquals(ClasseComAtEntityEAtributos.class, metadata.getFieldInHierarchy("nome").getDeclaringClass());
+		assertTrue(metadata.hasMethodInHierarchy("getNome"));
+		assertTrue(metadata.hasMethodInHierarchy("hashCode"));
+		assertFalse(metadata.hasMethodInHierarchy("inexistente"));
+		assertTrue(metadata.isAnnotatedInHierarchy(Entity.class));
+		assertFalse(ClassMetadata.forClass(ClasseComEquals.class).isAnnotatedInHierarchy(Entity.class));
+	}
+
+}
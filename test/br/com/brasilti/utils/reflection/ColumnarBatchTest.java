@@ -0,0 +1,231 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class ColumnarBatchTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAListaForNula() {
+		ColumnarBatch.of(ClasseComAtributosPadrao.class, null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAListaPossuirInstanciaNula() {
+		ColumnarBatch.of(ClasseComAtributosPadrao.class, Arrays.asList(new ClasseComAtributosPadrao(), null));
+	}
+
+	@Test
+	public void deveCriarUmaColunaPorAtributoPersistente() {
+		ColumnarBatch<ClasseComAtEntityHerdada> batch = ColumnarBatch.of(ClasseComAtEntityHerdada.class, new ArrayList<ClasseComAtEntityHerdada>());
+
+		assertEquals(0, batch.size());
+		assertEquals(Arrays.asList("id", "versao", "nome", "valor", "peso", "data", "dados", "descricao"), batch.getFieldNames());
+	}
+
+	@Test
+	public void deveCopiarOsAtributosPrimitivosParaArrays() {
+		List<ClasseComAtributosPrimitivos> instances = new LinkedList<ClasseComAtributosPrimitivos>();
+		for (int i = 0; i < 3; i++) {
+			ClasseComAtributosPrimitivos instance = new ClasseComAtributosPrimitivos();
+			instance.setBooleanField(i % 2 == 0);
+			instance.setByteField((byte) i);
+			instance.setCharField((char) ('a' + i));
+			instance.setShortField((short) (10 * i));
+			instance.setIntField(100 * i);
+			instance.setLongField(1000L * i);
+			instance.setFloatField(i / 2f);
+			instance.setDoubleField(i / 4.0);
+			instances.add(instance);
+		}
+
+		ColumnarBatch<ClasseComAtributosPrimitivos> batch = ColumnarBatch.of(ClasseComAtributosPrimitivos.class, instances);
+
+		assertEquals(3, batch.size());
+		assertTrue(Arrays.equals(new boolean[] { true, false, true }, batch.getBooleanColumn("booleanField")));
+		assertArrayEquals(new byte[] { 0, 1, 2 }, batch.getByteColumn("byteField"));
+		assertArrayEquals(new char[] { 'a', 'b', 'c' }, batch.getCharColumn("charField"));
+		assertArrayEquals(new short[] { 0, 10, 20 }, batch.getShortColumn("shortField"));
+		assertArrayEquals(new int[] { 0, 100, 200 }, batch.getIntColumn("intField"));
+		assertArrayEquals(new long[] { 0, 1000, 2000 }, batch.getLongColumn("longField"));
+		assertArrayEquals(new float[] { 0, 0.5f, 1 }, batch.getFloatColumn("floatField"), 0);
+		assertArrayEquals(new double[] { 0, 0.25, 0.5 }, batch.getDoubleColumn("doubleField"), 0);
+		assertTrue(batch.getNulls("intField").isEmpty());
+		assertEquals(300, batch.sumLong("intField", null));
+		assertEquals(0.75, batch.sumDouble("doubleField", null), 0);
+	}
+
+	@Test
+	public void deveMarcarAsLinhasNulas() {
+		ColumnarBatch<ClasseComAtributosPadrao> batch = ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias());
+
+		assertArrayEquals(new int[] { 1, 0, 3 }, batch.getIntColumn("integerField"));
+		assertEquals(1, batch.getNulls("integerField").cardinality());
+		assertTrue(batch.getNulls("integerField").get(1));
+		assertArrayEquals(new Object[] { "A", null, "C" }, batch.getColumn("stringField"));
+		assertTrue(batch.getNulls("stringField").get(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAColunaForDeOutroTipo() {
+		ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias()).getLongColumn("integerField");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAColunaNaoExistir() {
+		ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias()).getNulls("transientField");
+	}
+
+	@Test
+	public void deveFiltrarIgnorandoAsLinhasNulas() {
+		ColumnarBatch<ClasseComAtributosPadrao> batch = ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias());
+
+		BitSet rows = batch.filterInt("integerField", new ColumnarBatch.IntFilter() {
+
+			@Override
+			public boolean accept(int value) {
+				return value < 2;
+			}
+
+		});
+		assertEquals(1, rows.cardinality());
+		assertTrue(rows.get(0));
+
+		BitSet longs = batch.filterLong("longField", new ColumnarBatch.LongFilter() {
+
+			@Override
+			public boolean accept(long value) {
+				return value > 10;
+			}
+
+		});
+		assertEquals(2, longs.cardinality());
+
+		BitSet strings = batch.filterObject("stringField", new ColumnarBatch.ObjectFilter<String>() {
+
+			@Override
+			public boolean accept(String value) {
+				return value.compareTo("B") > 0;
+			}
+
+		});
+		assertEquals(1, strings.cardinality());
+		assertTrue(strings.get(2));
+
+		longs.and(strings);
+		assertEquals(1, batch.count(longs));
+		assertEquals(3, batch.count(null));
+	}
+
+	@Test
+	public void deveAgregarApenasAsLinhasSelecionadas() {
+		ColumnarBatch<ClasseComAtributosPadrao> batch = ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias());
+
+		BitSet selection = new BitSet();
+		selection.set(1, 3);
+
+		assertEquals(4, batch.sumLong("integerField", null));
+		assertEquals(3, batch.sumLong("integerField", selection));
+		assertEquals(50, batch.sumLong("longField", selection));
+
+		long max = batch.reduceLong("longField", null, Long.MIN_VALUE, new ColumnarBatch.LongReducer() {
+
+			@Override
+			public long reduce(long accumulator, long value) {
+				return Math.max(accumulator, value);
+			}
+
+		});
+		assertEquals(30, max);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoASomaForDeColunaDeReferencia() {
+		ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias()).sumLong("stringField", null);
+	}
+
+	@Test
+	public void deveProjetarESelecionarLinhas() {
+		ColumnarBatch<ClasseComAtributosPadrao> batch = ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias());
+
+		BitSet selection = new BitSet();
+		selection.set(0);
+		selection.set(2);
+		selection.set(10);
+
+		ColumnarBatch<ClasseComAtributosPadrao> subset = batch.project("integerField", "stringField").subset(selection);
+
+		assertEquals(2, subset.size());
+		assertEquals(Arrays.asList("integerField", "stringField"), subset.getFieldNames());
+		assertArrayEquals(new int[] { 1, 3 }, subset.getIntColumn("integerField"));
+		assertArrayEquals(new Object[] { "A", "C" }, subset.getColumn("stringField"));
+		assertTrue(subset.getNulls("integerField").isEmpty());
+		assertSame(batch.getIntColumn("integerField"), batch.project("integerField").getIntColumn("integerField"));
+	}
+
+	@Test
+	public void deveRecriarAsInstancias() {
+		List<ClasseComAtributosPadrao> instances = this.criarInstancias();
+		ColumnarBatch<ClasseComAtributosPadrao> batch = ColumnarBatch.of(ClasseComAtributosPadrao.class, instances);
+
+		List<ClasseComAtributosPadrao> entities = batch.toEntities();
+
+		assertEquals(3, entities.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(instances.get(i).getStringField(), entities.get(i).getStringField());
+			assertEquals(instances.get(i).getLongField(), entities.get(i).getLongField());
+			assertEquals(instances.get(i).getBigDecimalField(), entities.get(i).getBigDecimalField());
+		}
+		assertNull(entities.get(1).getIntegerField());
+
+		ClasseComAtributosPadrao projected = batch.project("longField").toEntity(2);
+		assertEquals(Long.valueOf(30L), projected.getLongField());
+		assertNull(projected.getStringField());
+		assertFalse(projected == instances.get(2));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void deveLancarExcecaoQuandoALinhaNaoExistir() {
+		ColumnarBatch.of(ClasseComAtributosPadrao.class, this.criarInstancias()).toEntity(3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseNaoPossuirConstrutorPadrao() {
+		List<ClasseSemConstrutorPadrao> instances = Arrays.asList(new ClasseSemConstrutorPadrao(null));
+
+		ColumnarBatch.of(ClasseSemConstrutorPadrao.class, instances).toEntity(0);
+	}
+
+	private List<ClasseComAtributosPadrao> criarInstancias() {
+		List<ClasseComAtributosPadrao> instances = new ArrayList<ClasseComAtributosPadrao>();
+		for (int i = 1; i <= 3; i++) {
+			ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+			instance.setStringField(i == 2 ? null : String.valueOf((char) ('A' + i - 1)));
+			instance.setIntegerField(i == 2 ? null : Integer.valueOf(i));
+			instance.setLongField(10L * i);
+			instance.setBigDecimalField(BigDecimal.valueOf(i));
+			instances.add(instance);
+		}
+
+		return instances;
+	}
+
+}
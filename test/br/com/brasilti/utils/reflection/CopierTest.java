@@ -0,0 +1,94 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+
+public class CopierTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		Copier.forClass(null);
+	}
+
+	@Test
+	public void deveRetornarOMesmoCopiadorParaAMesmaClasse() {
+		assertSame(Copier.forClass(ClasseComAtributosPadrao.class), Copier.forClass(ClasseComAtributosPadrao.class));
+	}
+
+	@Test
+	public void deveCopiarOsAtributosPersistentes() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		origin.setStringField("Origem");
+		origin.setIntegerField(1);
+		origin.setLongField(2L);
+		origin.setBigDecimalField(BigDecimal.TEN);
+		origin.setBooleanField(Boolean.TRUE);
+		origin.setCalendarField(Calendar.getInstance());
+		origin.setByteField(new byte[] { 1, 2 });
+
+		ClasseComAtributosPadrao target = new ClasseComAtributosPadrao();
+		Copier.forClass(ClasseComAtributosPadrao.class).copy(origin, target);
+
+		assertEquals("Origem", target.getStringField());
+		assertEquals(Integer.valueOf(1), target.getIntegerField());
+		assertEquals(Long.valueOf(2L), target.getLongField());
+		assertEquals(BigDecimal.TEN, target.getBigDecimalField());
+		assertEquals(Boolean.TRUE, target.getBooleanField());
+		assertSame(origin.getCalendarField(), target.getCalendarField());
+		assertSame(origin.getByteField(), target.getByteField());
+	}
+
+	@Test
+	public void naoDeveCopiarOsAtributosTransientes() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		FieldAccessor.forField(ClasseComAtributosPadrao.class, "transientField").set("Origem", origin);
+
+		ClasseComAtributosPadrao target = new ClasseComAtributosPadrao();
+		Copier.forClass(ClasseComAtributosPadrao.class).copy(origin, target);
+
+		assertNull(target.getTransientField());
+	}
+
+	@Test
+	public void deveCopiarOsAtributosPrimitivos() {
+		ClasseComAtributosPrimitivos origin = new ClasseComAtributosPrimitivos();
+		origin.setBooleanField(true);
+		origin.setByteField((byte) 1);
+		origin.setCharField('a');
+		origin.setShortField((short) 2);
+		origin.setIntField(3);
+		origin.setLongField(4L);
+		origin.setFloatField(5F);
+		origin.setDoubleField(6D);
+
+		ClasseComAtributosPrimitivos target = new ClasseComAtributosPrimitivos();
+		Copier.forClass(ClasseComAtributosPrimitivos.class).copy(origin, target);
+
+		assertTrue(target.isBooleanField());
+		assertEquals(1, target.getByteField());
+		assertEquals('a', target.getCharField());
+		assertEquals(2, target.getShortField());
+		assertEquals(3, target.getIntField());
+		assertEquals(4L, target.getLongField());
+		assertEquals(5F, target.getFloatField(), 0F);
+		assertEquals(6D, target.getDoubleField(), 0D);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAInstanciaForDeOutraClasse() {
+		Copier<Object> copier = Copier.forClass(Object.class);
+
+		copier.copy(new ClasseComAtributosPadrao(), new ClasseComAtributosPadrao());
+	}
+
+}
@@ -0,0 +1,132 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class DeepCopierTest {
+
+	@Test
+	public void deveRetornarNuloQuandoAOrigemForNula() {
+		assertNull(ReflectionUtil.deepCopy(null));
+	}
+
+	@Test
+	public void deveCompartilharOsValoresImutaveis() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		origin.setStringField("Origem");
+		origin.setBigDecimalField(BigDecimal.ONE);
+
+		ClasseComAtributosPadrao copy = ReflectionUtil.deepCopy(origin);
+
+		assertNotSame(origin, copy);
+		assertSame(origin.getStringField(), copy.getStringField());
+		assertSame(origin.getBigDecimalField(), copy.getBigDecimalField());
+	}
+
+	@Test
+	public void deveCopiarOsArraysEOsValoresMutaveis() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		origin.setByteField(new byte[] { 1, 2, 3 });
+		origin.setCalendarField(Calendar.getInstance());
+
+		ClasseComAtributosPadrao copy = ReflectionUtil.deepCopy(origin);
+
+		assertNotSame(origin.getByteField(), copy.getByteField());
+		assertArrayEquals(origin.getByteField(), copy.getByteField());
+		assertNotSame(origin.getCalendarField(), copy.getCalendarField());
+		assertEquals(origin.getCalendarField(), copy.getCalendarField());
+	}
+
+	@Test
+	public void deveCopiarAsColecoesPreservandoCiclosEReferenciasCompartilhadas() {
+		ClasseComReferencias raiz = new ClasseComReferencias("raiz");
+		raiz.setNumeros(new int[] { 1, 2 });
+		raiz.adicionar(new ClasseComReferencias("a"));
+		raiz.adicionar(new ClasseComReferencias("b"));
+
+		ClasseComReferencias copia = ReflectionUtil.deepCopy(raiz);
+
+		assertNotSame(raiz.getFilhos(), copia.getFilhos());
+		assertEquals(2, copia.getFilhos().size());
+		assertNotSame(raiz.getFilhos().get(0), copia.getFilhos().get(0));
+		assertEquals("a", copia.getFilhos().get(0).getNome());
+		assertSame(copia, copia.getFilhos().get(0).getPai());
+		assertSame(copia.getFilhos().get(1), copia.getIndice().get("b"));
+		assertArrayEquals(raiz.getNumeros(), copia.getNumeros());
+		assertNotSame(raiz.getNumeros(), copia.getNumeros());
+	}
+
+	@Test
+	public void deveCopiarOsAtributosHerdados() {
+		ClasseComAtEntityHerdada origin = new ClasseComAtEntityHerdada();
+		origin.setNome("Nome");
+		origin.setDescricao("Descricao");
+		origin.setDados(new byte[] { 1 });
+
+		ClasseComAtEntityHerdada copy = ReflectionUtil.deepCopy(origin);
+
+		assertEquals("Nome", copy.getNome());
+		assertEquals("Descricao", copy.getDescricao());
+		assertNotSame(origin.getDados(), copy.getDados());
+	}
+
+	@Test
+	public void deveCopiarColecoesSemConstrutorPadrao() {
+		List<String> origin = Collections.unmodifiableList(Collections.singletonList("a"));
+
+		List<String> copy = ReflectionUtil.deepCopy(origin);
+
+		assertNotSame(origin, copy);
+		assertEquals(origin, copy);
+	}
+
+	@Test
+	public void deveCopiarAtributosComColecoesVaziasDeCollections() {
+		ClasseComReferencias origin = new ClasseComReferencias("Raiz");
+		ReflectionUtil.set(Collections.emptyList(), ReflectionUtil.getField("filhos", ClasseComReferencias.class), origin);
+		ReflectionUtil.set(Collections.emptyMap(), ReflectionUtil.getField("indice", ClasseComReferencias.class), origin);
+
+		ClasseComReferencias copy = ReflectionUtil.deepCopy(origin);
+
+		assertEquals("Raiz", copy.getNome());
+		assertEquals(Collections.emptyList(), copy.getFilhos());
+		assertEquals(Collections.emptyMap(), copy.getIndice());
+
+		Set<String> set = ReflectionUtil.deepCopy(Collections.<String> emptySet());
+		assertEquals(Collections.emptySet(), set);
+	}
+
+	@Test
+	public void deveManterOComparadorDosConjuntosOrdenados() {
+		TreeSet<String> origin = new TreeSet<String>(Collections.reverseOrder());
+		origin.add("a");
+		origin.add("b");
+
+		TreeSet<String> copy = ReflectionUtil.deepCopy(origin);
+
+		assertEquals("b", copy.first());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoUmObjetoNaoPossuirConstrutorPadrao() {
+		ReflectionUtil.deepCopy(new ClasseSemConstrutorPadrao("a"));
+	}
+
+}
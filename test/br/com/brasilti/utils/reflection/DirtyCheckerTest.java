@@ -0,0 +1,141 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.collection.CollectionUtil;
+import br.com.brasilti.utils.reflection.DirtyChecker.Snapshot;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityEArrays;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityEAtributos;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class DirtyCheckerTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseNaoForUmaEntidade() {
+		DirtyChecker.forClass(ClasseComAtributosPadrao.class);
+	}
+
+	@Test
+	public void deveRetornarOMesmoVerificadorParaAMesmaClasse() {
+		assertSame(DirtyChecker.forClass(ClasseComAtEntityEAtributos.class), DirtyChecker.forClass(ClasseComAtEntityEAtributos.class));
+	}
+
+	@Test
+	public void naoDeveIndicarAlteracoesQuandoAInstanciaNaoMudar() {
+		DirtyChecker<ClasseComAtEntityEAtributos> checker = DirtyChecker.forClass(ClasseComAtEntityEAtributos.class);
+		ClasseComAtEntityEAtributos instance = this.criarInstancia();
+
+		Snapshot snapshot = checker.snapshot(instance);
+		instance.setNome(new String("Nome"));
+		instance.setCache("Ignorado");
+
+		assertTrue(checker.diff(snapshot, instance).isEmpty());
+	}
+
+	@Test
+	public void deveCompararOsElementosDosArraysDeReferencias() {
+		DirtyChecker<ClasseComAtEntityEArrays> checker = DirtyChecker.forClass(ClasseComAtEntityEArrays.class);
+		ClasseComAtEntityEArrays instance = new ClasseComAtEntityEArrays();
+		instance.setItens(new ClasseSemConstrutorPadrao[] { new ClasseSemConstrutorPadrao("a"), null });
+		instance.setNomes(new String[] { "a", "b" });
+
+		Snapshot snapshot = checker.snapshot(instance);
+		instance.setNomes(new String[] { new String("a"), "b" });
+
+		assertTrue(checker.diff(snapshot, instance).isEmpty());
+
+		instance.getItens()[1] = new ClasseSemConstrutorPadrao("b");
+		instance.getNomes()[0] = "c";
+
+		BitSet dirty = checker.diff(snapshot, instance);
+		assertEquals(2, dirty.cardinality());
+		assertTrue(dirty.get(1));
+		assertTrue(dirty.get(2));
+	}
+
+	@Test
+	public void deveIndicarOsAtributosAlterados() {
+		DirtyChecker<ClasseComAtEntityEAtributos> checker = DirtyChecker.forClass(ClasseComAtEntityEAtributos.class);
+		ClasseComAtEntityEAtributos instance = this.criarInstancia();
+
+		Snapshot snapshot = checker.snapshot(instance);
+		instance.setVersao(2);
+		instance.setPeso(2.5);
+		instance.getDados()[0] = 9;
+		instance.getData().add(Calendar.DAY_OF_MONTH, 1);
+
+		List<Field> fields = checker.getFields(checker.diff(snapshot, instance));
+
+		assertEquals(4, fields.size());
+		assertEquals("versao", fields.get(0).getName());
+		assertEquals("peso", fields.get(1).getName());
+		assertEquals("data", fields.get(2).getName());
+		assertEquals("dados", fields.get(3).getName());
+	}
+
+	@Test
+	public void deveIndicarAlteracoesDeValoresNulos() {
+		DirtyChecker<ClasseComAtEntityEAtributos> checker = DirtyChecker.forClass(ClasseComAtEntityEAtributos.class);
+		ClasseComAtEntityEAtributos instance = this.criarInstancia();
+
+		Snapshot snapshot = checker.snapshot(instance);
+		instance.setValor(null);
+
+		List<Field> fields = checker.getFields(checker.diff(snapshot, instance));
+
+		assertEquals(1, fields.size());
+		assertEquals("valor", fields.get(0).getName());
+	}
+
+	@Test
+	public void deveCompararVariasInstancias() {
+		DirtyChecker<ClasseComAtEntityEAtributos> checker = DirtyChecker.forClass(ClasseComAtEntityEAtributos.class);
+		List<ClasseComAtEntityEAtributos> instances = new ArrayList<ClasseComAtEntityEAtributos>();
+		List<Snapshot> snapshots = new ArrayList<Snapshot>();
+		for (int i = 0; i < 3; i++) {
+			ClasseComAtEntityEAtributos instance = this.criarInstancia();
+			instances.add(instance);
+			snapshots.add(checker.snapshot(instance));
+		}
+
+		instances.get(1).setNome("Alterado");
+
+		List<BitSet> dirty = checker.diffAll(snapshots, instances);
+
+		assertTrue(dirty.get(0).isEmpty());
+		assertEquals(1, dirty.get(1).cardinality());
+		assertTrue(dirty.get(2).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAsListasTiveremTamanhosDiferentes() {
+		DirtyChecker<ClasseComAtEntityEAtributos> checker = DirtyChecker.forClass(ClasseComAtEntityEAtributos.class);
+
+		checker.diffAll(new ArrayList<Snapshot>(), CollectionUtil.convert(this.criarInstancia()));
+	}
+
+	private ClasseComAtEntityEAtributos criarInstancia() {
+		ClasseComAtEntityEAtributos instance = new ClasseComAtEntityEAtributos();
+		instance.setId(1L);
+		instance.setVersao(1);
+		instance.setNome("Nome");
+		instance.setValor(BigDecimal.TEN);
+		instance.setPeso(1.5);
+		instance.setData(Calendar.getInstance());
+		instance.setDados(new byte[] { 1, 2, 3 });
+		return instance;
+	}
+
+}
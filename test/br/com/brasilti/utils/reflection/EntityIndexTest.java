@@ -0,0 +1,241 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Version;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.EntityIndex.Entry;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityEAtributos;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+
+public class EntityIndexTest {
+
+	private static final String INDEX = "E\texemplo.Pessoa\nF\tid\tjava.lang.Long\tI\nF\tversao\tint\tV\nF\tnome\tjava.lang.String\t\nF\tdados\tbyte[]\t\n";
+
+	private File directory;
+
+	@After
+	public void tearDown() {
+		if (this.directory != null) {
+			this.delete(this.directory);
+		}
+	}
+
+	@Test
+	public void deveLerAsEntradasDoIndice() throws IOException {
+		Map<String, Entry> entries = new HashMap<String, Entry>();
+		EntityIndex.read(new ByteArrayInputStream(INDEX.getBytes(EntityIndex.ENCODING)), entries);
+
+		Entry entry = entries.get("exemplo.Pessoa");
+
+		assertNotNull(entry);
+		assertEquals("exemplo.Pessoa", entry.getClassName());
+		assertEquals(Arrays.asList("id", "versao", "nome", "dados"), entry.getFieldNames());
+		assertEquals("id", entry.getIdField());
+		assertEquals("versao", entry.getVersionField());
+		assertTrue(entry.isIdField("id"));
+		assertFalse(entry.isIdField("versao"));
+		assertTrue(entry.isVersionField("versao"));
+		assertEquals("byte[]", entry.getFieldType("dados"));
+		assertTrue(entry.hasField("nome"));
+		assertFalse(entry.hasField("cache"));
+	}
+
+	@Test
+	public void deveRetornarONomeDoTipoNoFormatoDoIndice() {
+		assertEquals("int", EntityIndex.getTypeName(int.class));
+		assertEquals("java.lang.String[][]", EntityIndex.getTypeName(String[][].class));
+		assertEquals("java.util.Map$Entry", EntityIndex.getTypeName(Map.Entry.class));
+	}
+
+	@Test
+	public void deveRetornarIndiceVazioParaOClassloaderDoSistema() {
+		assertNull(EntityIndex.lookup(String.class));
+		assertTrue(EntityIndex.forClassLoader(null).getClassNames().isEmpty());
+	}
+
+	@Test
+	public void deveRecorrerAReflexaoQuandoAClasseNaoEstiverIndexada() throws Exception {
+		assertTrue(ReflectionUtil.isAnnotated(ClasseComAtEntityEAtributos.class, Entity.class));
+		assertFalse(ReflectionUtil.isAnnotated(ClasseComAtributosPadrao.class, Entity.class));
+		assertTrue(ReflectionUtil.isAnnotated(ClasseComAtEntityEAtributos.class.getDeclaredField("id"), Id.class));
+		assertFalse(ReflectionUtil.isAnnotated(ClasseComAtEntityEAtributos.class.getDeclaredField("nome"), Version.class));
+		assertEquals(Arrays.asList("id", "versao", "nome", "valor", "peso", "data", "dados"), ReflectionUtil.getPersistentFieldNames(ClasseComAtEntityEAtributos.class));
+	}
+
+	@Test
+	public void deveGerarOIndiceDuranteACompilacao() throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(compiler);
+
+		File directory = File.createTempFile("entity-index", "");
+		directory.delete();
+		directory.mkdirs();
+		this.directory = directory;
+
+		File source = new File(directory, "Pessoa.java");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(source), EntityIndex.ENCODING);
+		try {
+			writer.write("@javax.persistence.Entity public class Pessoa {\n");
+			writer.write("@javax.persistence.Id private Long id;\n");
+			writer.write("@javax.persistence.Id private String codigo;\n");
+			writer.write("@javax.persistence.Version private int versao;\n");
+			writer.write("private static final long serialVersionUID = 1L;\n");
+			writer.write("private transient String cache;\n");
+			writer.write("private java.util.List<String> apelidos;\n");
+			writer.write("private byte[] dados;\n");
+			writer.write("public static class Documento { private String numero; }\n");
+			writer.write("}\n");
+		} finally {
+			writer.close();
+		}
+
+		String classpath = System.getProperty("java.class.path");
+		int result = compiler.run(null, null, null, "-classpath", classpath, "-processor", EntityIndexProcessor.class.getName(), "-d", directory.getPath(), source.getPath());
+		assertEquals(0, result);
+
+		ClassLoader loader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, null);
+		EntityIndex index = EntityIndex.forClassLoader(loader);
+
+		Entry entry = index.getEntry("Pessoa");
+
+		assertEquals(1, index.getClassNames().size());
+		assertNotNull(entry);
+		assertEquals(Arrays.asList("id", "codigo", "versao", "apelidos", "dados"), entry.getFieldNames());
+		assertEquals("id", entry.getIdField());
+		assertEquals("versao", entry.getVersionField());
+		assertTrue(entry.isIdField("codigo"));
+
+		Class<?> pessoa = loader.loadClass("Pessoa");
+		assertSame(entry, EntityIndex.lookup(pessoa));
+		assertTrue(ReflectionUtil.isAnnotated(pessoa.getDeclaredField("id"), Id.class));
+		assertTrue(ReflectionUtil.isAnnotated(pessoa.getDeclaredField("codigo"), Id.class));
+		assertFalse(ReflectionUtil.isAnnotated(pessoa.getDeclaredField("dados"), Id.class));
+		assertEquals("java.lang.Long", entry.getFieldType("id"));
+		assertEquals("java.util.List", entry.getFieldType("apelidos"));
+		assertEquals("byte[]", entry.getFieldType("dados"));
+	}
+
+	@Test
+	public void deveManterAsEntidadesDeCompilacoesAnteriores() throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(compiler);
+
+		this.directory = this.createDirectory();
+		File pessoa = this.write("Pessoa", "@javax.persistence.Entity public class Pessoa { private Long id; }");
+		File endereco = this.write("Endereco", "@javax.persistence.Entity public class Endereco { private String rua; }");
+		File antiga = this.write("Antiga", "@javax.persistence.Entity public class Antiga { private int valor; }");
+		assertEquals(0, this.compile(compiler, "-processor", pessoa, endereco, antiga));
+
+		this.write("Endereco", "@javax.persistence.Entity public class Endereco { private String rua; private int numero; }");
+		this.write("Antiga", "public class Antiga { private int valor; }");
+		assertEquals(0, this.compile(compiler, "-processor", endereco, antiga));
+
+		EntityIndex index = EntityIndex.forClassLoader(new URLClassLoader(new URL[] { this.directory.toURI().toURL() }, null));
+
+		assertEquals(new HashSet<String>(Arrays.asList("Pessoa", "Endereco")), index.getClassNames());
+		assertEquals(Arrays.asList("id"), index.getEntry("Pessoa").getFieldNames());
+		assertEquals(Arrays.asList("rua", "numero"), index.getEntry("Endereco").getFieldNames());
+	}
+
+	@Test
+	public void deveLerAsAnotacoesQuandoOIndiceEstiverDesatualizado() throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(compiler);
+
+		this.directory = this.createDirectory();
+		File pessoa = this.write("Pessoa", "@javax.persistence.Entity public class Pessoa { @javax.persistence.Id private Long id; }");
+		assertEquals(0, this.compile(compiler, "-proc:none", pessoa));
+
+		File resource = new File(this.directory, EntityIndex.RESOURCE);
+		resource.getParentFile().mkdirs();
+		Writer writer = new OutputStreamWriter(new FileOutputStream(resource), EntityIndex.ENCODING);
+		try {
+			writer.write("E\tPessoa\nF\tid\tjava.lang.String\tV\n");
+		} finally {
+			writer.close();
+		}
+
+		Class<?> klass = new URLClassLoader(new URL[] { this.directory.toURI().toURL() }, this.getClass().getClassLoader()).loadClass("Pessoa");
+
+		assertNotNull(EntityIndex.lookup(klass));
+		assertTrue(ReflectionUtil.isAnnotated(klass.getDeclaredField("id"), Id.class));
+		assertFalse(ReflectionUtil.isAnnotated(klass.getDeclaredField("id"), Version.class));
+	}
+
+	private File createDirectory() throws IOException {
+		File directory = File.createTempFile("entity-index", "");
+		directory.delete();
+		directory.mkdirs();
+
+		return directory;
+	}
+
+	private File write(String className, String content) throws IOException {
+		File source = new File(this.directory, className + ".java");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(source), EntityIndex.ENCODING);
+		try {
+			writer.write(content);
+		} finally {
+			writer.close();
+		}
+
+		return source;
+	}
+
+	private int compile(JavaCompiler compiler, String processing, File... sources) {
+		List<String> arguments = new ArrayList<String>();
+		arguments.add("-classpath");
+		arguments.add(System.getProperty("java.class.path") + File.pathSeparator + this.directory.getPath());
+		arguments.add(processing);
+		if (processing.equals("-processor")) {
+			arguments.add(EntityIndexProcessor.class.getName());
+		}
+		arguments.add("-d");
+		arguments.add(this.directory.getPath());
+		for (File source : sources) {
+			arguments.add(source.getPath());
+		}
+
+		return compiler.run(null, null, null, arguments.toArray(new String[arguments.size()]));
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				this.delete(child);
+			}
+		}
+		file.delete();
+	}
+
+}
@@ -0,0 +1,181 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityEAtributos;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComEstrategiaDeIgualdade;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+
+public class EqualityStrategyTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		EqualityStrategy.byFields(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseNaoPossuirAtId() {
+		EqualityStrategy.byId(ClasseComAtributosPadrao.class);
+	}
+
+	@Test
+	public void deveRetornarAMesmaEstrategiaParaAMesmaClasse() {
+		assertSame(EqualityStrategy.byId(ClasseComAtEntityHerdada.class), EqualityStrategy.byId(ClasseComAtEntityHerdada.class));
+		assertSame(EqualityStrategy.byFields(ClasseComAtEntityHerdada.class), EqualityStrategy.byFields(ClasseComAtEntityHerdada.class));
+	}
+
+	@Test
+	public void deveCompararPeloIdentificador() {
+		EqualityStrategy<ClasseComAtEntityHerdada> strategy = EqualityStrategy.byId(ClasseComAtEntityHerdada.class);
+
+		ClasseComAtEntityHerdada instance = this.criarInstancia(1L, "Nome");
+		ClasseComAtEntityHerdada other = this.criarInstancia(1L, "Outro nome");
+
+		assertTrue(strategy.equals(instance, other));
+		assertEquals(strategy.hashCode(instance), strategy.hashCode(other));
+		assertEquals(0, strategy.compare(instance, other));
+
+		assertFalse(strategy.equals(instance, this.criarInstancia(2L, "Nome")));
+		assertTrue(strategy.compare(instance, this.criarInstancia(2L, "Nome")) < 0);
+	}
+
+	@Test
+	public void naoDeveConsiderarIguaisInstanciasSemIdentificador() {
+		EqualityStrategy<ClasseComAtEntityHerdada> strategy = EqualityStrategy.byId(ClasseComAtEntityHerdada.class);
+
+		ClasseComAtEntityHerdada instance = this.criarInstancia(null, "Nome");
+
+		assertTrue(strategy.equals(instance, instance));
+		assertFalse(strategy.equals(instance, this.criarInstancia(null, "Nome")));
+		assertEquals(System.identityHashCode(instance), strategy.hashCode(instance));
+	}
+
+	@Test
+	public void naoDeveConsiderarIguaisInstanciasDeClassesDiferentes() {
+		ClasseComAtEntityEAtributos instance = new ClasseComAtEntityEAtributos();
+		instance.setId(1L);
+
+		assertFalse(EqualityStrategy.byId(ClasseComAtEntityEAtributos.class).equals(instance, this.criarInstancia(1L, null)));
+		assertFalse(EqualityStrategy.byId(ClasseComAtEntityEAtributos.class).equals(instance, "1"));
+		assertFalse(EqualityStrategy.byId(ClasseComAtEntityEAtributos.class).equals(instance, null));
+	}
+
+	@Test
+	public void deveCompararTodosOsAtributosPersistentes() {
+		EqualityStrategy<ClasseComAtributosPadrao> strategy = EqualityStrategy.byFields(ClasseComAtributosPadrao.class);
+
+		ClasseComAtributosPadrao instance = this.criarAtributosPadrao("Nome", new byte[] { 1, 2 });
+		ClasseComAtributosPadrao other = this.criarAtributosPadrao("Nome", new byte[] { 1, 2 });
+		FieldAccessor.forField(ClasseComAtributosPadrao.class, "transientField").set("Transiente", other);
+
+		assertTrue(strategy.equals(instance, other));
+		assertEquals(strategy.hashCode(instance), strategy.hashCode(other));
+		assertEquals(0, strategy.compare(instance, other));
+
+		ClasseComAtributosPadrao different = this.criarAtributosPadrao("Nome", new byte[] { 1, 3 });
+		assertFalse(strategy.equals(instance, different));
+		assertTrue(strategy.compare(instance, different) < 0);
+		assertTrue(strategy.compare(this.criarAtributosPadrao(null, null), instance) < 0);
+	}
+
+	@Test
+	public void deveCompararAtributosPrimitivos() {
+		EqualityStrategy<ClasseComAtributosPrimitivos> strategy = EqualityStrategy.byFields(ClasseComAtributosPrimitivos.class);
+
+		ClasseComAtributosPrimitivos instance = new ClasseComAtributosPrimitivos();
+		instance.setDoubleField(Double.NaN);
+		instance.setLongField(-1L);
+		ClasseComAtributosPrimitivos other = new ClasseComAtributosPrimitivos();
+		other.setDoubleField(Double.NaN);
+		other.setLongField(-1L);
+
+		assertTrue(strategy.equals(instance, other));
+		assertEquals(strategy.hashCode(instance), strategy.hashCode(other));
+
+		other.setLongField(Long.MAX_VALUE);
+		assertFalse(strategy.equals(instance, other));
+		assertTrue(strategy.compare(instance, other) < 0);
+		assertTrue(strategy.compare(other, instance) > 0);
+	}
+
+	@Test
+	public void deveCalcularOMesmoHashDosMetodosPadrao() {
+		ClasseComAtributosPadrao instance = this.criarAtributosPadrao("Nome", new byte[] { 1, 2 });
+
+		int expected = Arrays.hashCode(new Object[] { "Nome", 1, 2L, BigDecimal.TEN, Boolean.TRUE, null }) * 31 + Arrays.hashCode(new byte[] { 1, 2 });
+		assertEquals(expected, EqualityStrategy.byFields(ClasseComAtributosPadrao.class).hashCode(instance));
+	}
+
+	@Test
+	public void deveOrdenarUmaLista() {
+		List<ClasseComAtEntityHerdada> instances = new ArrayList<ClasseComAtEntityHerdada>();
+		instances.add(this.criarInstancia(3L, "C"));
+		instances.add(null);
+		instances.add(this.criarInstancia(1L, "A"));
+		instances.add(this.criarInstancia(2L, "B"));
+
+		Collections.sort(instances, EqualityStrategy.byId(ClasseComAtEntityHerdada.class));
+
+		assertEquals(null, instances.get(0));
+		assertEquals("A", instances.get(1).getNome());
+		assertEquals("C", instances.get(3).getNome());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoAoCompararAtributosNaoComparaveis() {
+		ClasseComReferencias instance = new ClasseComReferencias("Nome");
+		ClasseComReferencias other = new ClasseComReferencias("Nome");
+		instance.setPai(new ClasseComReferencias("Pai"));
+		other.setPai(new ClasseComReferencias("Pai"));
+
+		EqualityStrategy.byFields(ClasseComReferencias.class).compare(instance, other);
+	}
+
+	@Test
+	public void devePermitirUsarAEntidadeComoChave() {
+		Map<ClasseComEstrategiaDeIgualdade, String> map = new HashMap<ClasseComEstrategiaDeIgualdade, String>();
+		map.put(new ClasseComEstrategiaDeIgualdade(1L, "Nome"), "Valor");
+
+		assertEquals("Valor", map.get(new ClasseComEstrategiaDeIgualdade(1L, "Outro nome")));
+		assertEquals(null, map.get(new ClasseComEstrategiaDeIgualdade(2L, "Nome")));
+	}
+
+	private ClasseComAtEntityHerdada criarInstancia(Long id, String nome) {
+		ClasseComAtEntityHerdada instance = new ClasseComAtEntityHerdada();
+		instance.setId(id);
+		instance.setNome(nome);
+
+		return instance;
+	}
+
+	private ClasseComAtributosPadrao criarAtributosPadrao(String stringField, byte[] byteField) {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField(stringField);
+		if (stringField != null) {
+			instance.setIntegerField(1);
+			instance.setLongField(2L);
+			instance.setBigDecimalField(BigDecimal.TEN);
+			instance.setBooleanField(Boolean.TRUE);
+		}
+		instance.setByteField(byteField);
+
+		return instance;
+	}
+
+}
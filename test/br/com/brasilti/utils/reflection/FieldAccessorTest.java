@@ -0,0 +1,97 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+
+public class FieldAccessorTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOAtributoForNulo() {
+		FieldAccessor.forField(null);
+	}
+
+	@Test
+	public void deveRetornarOMesmoAcessorParaOMesmoAtributo() throws SecurityException, NoSuchFieldException {
+		Field field = ClasseComAtributosPadrao.class.getDeclaredField("stringField");
+
+		assertSame(FieldAccessor.forField(field), FieldAccessor.forField(ClasseComAtributosPadrao.class, "stringField"));
+	}
+
+	@Test
+	public void deveRetornarNuloQuandoAClasseNaoDeclararOAtributo() {
+		assertNull(FieldAccessor.forField(ClasseComAtributosPadrao.class, "inexistente"));
+	}
+
+	@Test
+	public void naoDeveExporACopiaPrivadaDoAtributo() throws SecurityException, NoSuchFieldException {
+		FieldAccessor accessor = FieldAccessor.forField(ClasseComAtributosPadrao.class.getDeclaredField("stringField"));
+
+		assertTrue(accessor.isUsable());
+		assertFalse(accessor.getField().isAccessible());
+		assertEquals("stringField", accessor.getField().getName());
+	}
+
+	@Test
+	public void deveLerEEscreverUmAtributoPrivado() {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		FieldAccessor accessor = FieldAccessor.forField(ClasseComAtributosPadrao.class, "stringField");
+
+		accessor.set("Teste", instance);
+
+		assertEquals("Teste", instance.getStringField());
+		assertEquals("Teste", accessor.get(instance));
+		assertEquals(String.class, accessor.getType());
+	}
+
+	@Test
+	public void deveLerEEscreverAtributosPrimitivosSemEmpacotamento() {
+		ClasseComAtributosPrimitivos instance = new ClasseComAtributosPrimitivos();
+		Class<?> klass = ClasseComAtributosPrimitivos.class;
+
+		FieldAccessor.forField(klass, "booleanField").setBoolean(true, instance);
+		FieldAccessor.forField(klass, "byteField").setByte((byte) 1, instance);
+		FieldAccessor.forField(klass, "charField").setChar('a', instance);
+		FieldAccessor.forField(klass, "shortField").setShort((short) 2, instance);
+		FieldAccessor.forField(klass, "intField").setInt(3, instance);
+		FieldAccessor.forField(klass, "longField").setLong(4L, instance);
+		FieldAccessor.forField(klass, "floatField").setFloat(5F, instance);
+		FieldAccessor.forField(klass, "doubleField").setDouble(6D, instance);
+
+		assertTrue(FieldAccessor.forField(klass, "booleanField").getBoolean(instance));
+		assertEquals(1, FieldAccessor.forField(klass, "byteField").getByte(instance));
+		assertEquals('a', FieldAccessor.forField(klass, "charField").getChar(instance));
+		assertEquals(2, FieldAccessor.forField(klass, "shortField").getShort(instance));
+		assertEquals(3, FieldAccessor.forField(klass, "intField").getInt(instance));
+		assertEquals(4L, FieldAccessor.forField(klass, "longField").getLong(instance));
+		assertEquals(5F, FieldAccessor.forField(klass, "floatField").getFloat(instance), 0F);
+		assertEquals(6D, FieldAccessor.forField(klass, "doubleField").getDouble(instance), 0D);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAInstanciaForDeOutraClasse() {
+		FieldAccessor.forField(ClasseComAtributosPadrao.class, "stringField").get(new ClasseComAtributosPrimitivos());
+	}
+
+	@Test
+	public void naoDeveAlterarAAcessibilidadeDoAtributoInformado() throws SecurityException, NoSuchFieldException {
+		Field field = ReflectionUtil.getField("stringField", ClasseComAtributosPadrao.class);
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+
+		ReflectionUtil.set("Teste", field, instance);
+
+		assertFalse(field.isAccessible());
+		assertFalse(ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class).get(0).isAccessible());
+		assertEquals("Teste", ReflectionUtil.get(field, instance));
+	}
+
+}
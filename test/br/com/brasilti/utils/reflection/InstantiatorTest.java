@@ -0,0 +1,145 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractList;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComConstrutorComErro;
+import br.com.brasilti.utils.reflection.examples.ClasseComId;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class InstantiatorTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		Instantiator.forClass(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseNaoPossuirConstrutorPadrao() {
+		Instantiator.forClass(ClasseSemConstrutorPadrao.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForAbstrata() {
+		Instantiator.forClass(AbstractList.class);
+	}
+
+	@Test
+	public void naoDeveEncontrarClassesComConstrutorInacessivel() {
+		assertNull(Instantiator.find(Collections.emptyList().getClass()));
+	}
+
+	@Test
+	public void deveRetornarOMesmoInstanciadorParaAMesmaClasse() {
+		assertSame(Instantiator.forClass(ClasseComId.class), Instantiator.forClass(ClasseComId.class));
+		assertEquals(0, Instantiator.forClass(ClasseComId.class).getCapacity());
+	}
+
+	@Test
+	public void deveCriarInstanciasPeloConstrutorPrivado() {
+		ReflectionUtil instance = Instantiator.forClass(ReflectionUtil.class).newInstance();
+
+		assertNotSame(instance, Instantiator.forClass(ReflectionUtil.class).newInstance());
+	}
+
+	@Test
+	public void naoDeveTornarAcessivelOConstrutorCompartilhado() {
+		Instantiator.forClass(ReflectionUtil.class).newInstance();
+
+		assertFalse(ClassMetadata.forClass(ReflectionUtil.class).getDefaultConstructor().isAccessible());
+		assertFalse(ReflectionUtil.findConstructor(ReflectionUtil.class).isAccessible());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void deveEncapsularAsExcecoesDoConstrutor() {
+		Instantiator.forClass(ClasseComConstrutorComErro.class).newInstance();
+	}
+
+	@Test
+	public void naoDeveReaproveitarInstanciasSemReserva() {
+		Instantiator<ClasseComAtributosPadrao> instantiator = Instantiator.forClass(ClasseComAtributosPadrao.class);
+		ClasseComAtributosPadrao origin = this.criarInstancia("Nome");
+
+		ClasseComAtributosPadrao copy = instantiator.acquire(origin);
+
+		assertFalse(instantiator.release(copy));
+		assertNotSame(copy, instantiator.acquire(origin));
+		assertEquals("Nome", copy.getStringField());
+	}
+
+	@Test
+	public void deveReaproveitarAsInstanciasDevolvidas() {
+		Instantiator<ClasseComAtributosPadrao> pool = Instantiator.forClass(ClasseComAtributosPadrao.class).pooled(1);
+
+		ClasseComAtributosPadrao copy = pool.acquire(this.criarInstancia("Nome"));
+		ClasseComAtributosPadrao other = pool.acquire(this.criarInstancia("Outro nome"));
+
+		assertTrue(pool.release(copy));
+		assertFalse(pool.release(other));
+
+		ClasseComAtributosPadrao reused = pool.acquire(this.criarInstancia(null));
+		assertSame(copy, reused);
+		assertNull(reused.getStringField());
+		assertNull(reused.getIntegerField());
+	}
+
+	@Test
+	public void deveDescartarAsInstanciasGuardadasNaThread() {
+		Instantiator<ClasseComAtributosPadrao> pool = Instantiator.forClass(ClasseComAtributosPadrao.class).pooled(1);
+
+		ClasseComAtributosPadrao copy = pool.acquire(this.criarInstancia("Nome"));
+		assertTrue(pool.release(copy));
+
+		pool.clear();
+
+		assertNotSame(copy, pool.acquire(this.criarInstancia("Nome")));
+		assertTrue(pool.release(copy));
+	}
+
+	@Test
+	public void deveManterUmaReservaPorThread() throws InterruptedException {
+		final Instantiator<ClasseComAtributosPadrao> pool = Instantiator.forClass(ClasseComAtributosPadrao.class).pooled(1);
+		final ClasseComAtributosPadrao origin = this.criarInstancia("Nome");
+		final ClasseComAtributosPadrao[] released = new ClasseComAtributosPadrao[1];
+
+		Thread thread = new Thread() {
+
+			@Override
+			public void run() {
+				released[0] = pool.acquire(origin);
+				pool.release(released[0]);
+			}
+
+		};
+		thread.start();
+		thread.join();
+
+		assertNotSame(released[0], pool.acquire(origin));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoACapacidadeNaoForPositiva() {
+		Instantiator.forClass(ClasseComId.class).pooled(0);
+	}
+
+	private ClasseComAtributosPadrao criarInstancia(String stringField) {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField(stringField);
+		if (stringField != null) {
+			instance.setIntegerField(1);
+		}
+
+		return instance;
+	}
+
+}
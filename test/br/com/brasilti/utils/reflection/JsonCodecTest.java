@@ -0,0 +1,223 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+
+public class JsonCodecTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		JsonCodec.forClass(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAlgumAtributoNaoForSuportado() {
+		JsonCodec.forClass(ClasseComReferencias.class);
+	}
+
+	@Test
+	public void deveRetornarOMesmoCodificadorParaAMesmaClasse() {
+		assertSame(JsonCodec.forClass(ClasseComAtributosPadrao.class), JsonCodec.forClass(ClasseComAtributosPadrao.class));
+	}
+
+	@Test
+	public void deveEscreverOsAtributosPersistentesNaOrdemDosMetadados() throws IOException {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField("a\"b\\c\n");
+		instance.setIntegerField(-10);
+		instance.setLongField(Long.MIN_VALUE);
+		instance.setBigDecimalField(new BigDecimal("12.50"));
+		instance.setBooleanField(Boolean.FALSE);
+		instance.setByteField(new byte[] { 1, 2, 3, 4 });
+		FieldAccessor.forField(ClasseComAtributosPadrao.class, "transientField").set("Transiente", instance);
+
+		StringBuilder out = new StringBuilder();
+		JsonCodec.forClass(ClasseComAtributosPadrao.class).write(instance, out);
+
+		String expected = "{\"stringField\":\"a\\\"b\\\\c\\n\",\"integerField\":-10,\"longField\":-9223372036854775808,"
+				+ "\"bigDecimalField\":12.50,\"booleanField\":false,\"calendarField\":null,\"byteField\":\"AQIDBA==\"}";
+		assertEquals(expected, out.toString());
+	}
+
+	@Test
+	public void deveEscreverELerOsAtributosPersistentes() throws IOException {
+		ClasseComAtributosPadrao origin = this.criarInstancia();
+
+		JsonCodec<ClasseComAtributosPadrao> codec = JsonCodec.forClass(ClasseComAtributosPadrao.class);
+		StringBuilder out = new StringBuilder();
+		codec.write(origin, out);
+		ClasseComAtributosPadrao read = codec.read(new StringReader(out.toString()));
+
+		this.assertIguais(origin, read);
+	}
+
+	@Test
+	public void deveEscreverELerEmUtf8() throws IOException {
+		ClasseComAtributosPadrao origin = this.criarInstancia();
+
+		JsonCodec<ClasseComAtributosPadrao> codec = JsonCodec.forClass(ClasseComAtributosPadrao.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(origin, out);
+
+		StringBuilder text = new StringBuilder();
+		codec.write(origin, text);
+		assertArrayEquals(text.toString().getBytes("UTF-8"), out.toByteArray());
+
+		this.assertIguais(origin, codec.read(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	@Test
+	public void deveEscreverELerOsAtributosPrimitivos() throws IOException {
+		ClasseComAtributosPrimitivos origin = new ClasseComAtributosPrimitivos();
+		origin.setBooleanField(true);
+		origin.setByteField((byte) -1);
+		origin.setCharField('"');
+		origin.setShortField(Short.MIN_VALUE);
+		origin.setIntField(Integer.MAX_VALUE);
+		origin.setLongField(-4L);
+		origin.setFloatField(5.5F);
+		origin.setDoubleField(-6.25E-10D);
+
+		JsonCodec<ClasseComAtributosPrimitivos> codec = JsonCodec.forClass(ClasseComAtributosPrimitivos.class);
+		StringBuilder out = new StringBuilder();
+		codec.write(origin, out);
+		ClasseComAtributosPrimitivos read = codec.read(new StringReader(out.toString()));
+
+		assertTrue(read.isBooleanField());
+		assertEquals(-1, read.getByteField());
+		assertEquals('"', read.getCharField());
+		assertEquals(Short.MIN_VALUE, read.getShortField());
+		assertEquals(Integer.MAX_VALUE, read.getIntField());
+		assertEquals(-4L, read.getLongField());
+		assertEquals(5.5F, read.getFloatField(), 0);
+		assertEquals(-6.25E-10D, read.getDoubleField(), 0);
+	}
+
+	@Test
+	public void deveIgnorarAtributosDesconhecidosEForaDeOrdem() throws IOException {
+		String json = " { \"desconhecido\" : [1, {\"a\": [true, null]}, \"x\"], \"descricao\": \"Descricao\",\n"
+				+ "\"id\": 10, \"outro\": -1.5e3, \"nome\": \"Nome \\u00e7\" } ";
+
+		ClasseComAtEntityHerdada read = JsonCodec.forClass(ClasseComAtEntityHerdada.class).read(new StringReader(json));
+
+		assertEquals("Descricao", read.getDescricao());
+		assertEquals(Long.valueOf(10L), read.getId());
+		assertEquals("Nome \u00e7", read.getNome());
+		assertNull(read.getValor());
+	}
+
+	@Test
+	public void deveLerNull() throws IOException {
+		assertNull(JsonCodec.forClass(ClasseComAtributosPadrao.class).read(new StringReader("null")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOTextoEstiverIncompleto() throws IOException {
+		JsonCodec.forClass(ClasseComAtributosPadrao.class).read(new StringReader("{\"stringField\":\"abc"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOValorNaoCouberNoAtributo() throws IOException {
+		JsonCodec.forClass(ClasseComAtributosPadrao.class).read(new StringReader("{\"integerField\":2147483648}"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoUmAtributoPrimitivoForNulo() throws IOException {
+		JsonCodec.forClass(ClasseComAtributosPrimitivos.class).read(new StringReader("{\"intField\":null}"));
+	}
+
+	@Test
+	public void deveEscreverELerListasSobDemanda() throws IOException {
+		JsonCodec<ClasseComAtributosPadrao> codec = JsonCodec.forClass(ClasseComAtributosPadrao.class);
+
+		List<ClasseComAtributosPadrao> origins = new ArrayList<ClasseComAtributosPadrao>();
+		for (int i = 0; i < 1000; i++) {
+			ClasseComAtributosPadrao origin = this.criarInstancia();
+			origin.setIntegerField(i);
+			origins.add(origin);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.writeAll(origins, out);
+
+		Iterator<ClasseComAtributosPadrao> iterator = codec.readAll(new ByteArrayInputStream(out.toByteArray()));
+		for (ClasseComAtributosPadrao origin : origins) {
+			assertTrue(iterator.hasNext());
+			this.assertIguais(origin, iterator.next());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void deveLerListasVazias() {
+		assertFalse(JsonCodec.forClass(ClasseComAtributosPadrao.class).readAll(new StringReader(" [ ] ")).hasNext());
+	}
+
+	@Test
+	public void deveDecodificarBase64() {
+		assertArrayEquals(new byte[0], JsonCodec.decodeBase64(""));
+		assertArrayEquals(new byte[] { 'f' }, JsonCodec.decodeBase64("Zg=="));
+		assertArrayEquals(new byte[] { 'f', 'o' }, JsonCodec.decodeBase64("Zm8="));
+		assertArrayEquals(new byte[] { 'f', 'o', 'o' }, JsonCodec.decodeBase64("Zm9v"));
+		assertArrayEquals(new byte[] { -1, -2, -3, -4, -5 }, JsonCodec.decodeBase64("//79/Ps="));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOBase64ForInvalido() {
+		JsonCodec.decodeBase64("Zm9");
+	}
+
+	@Test
+	public void deveEscreverNullParaInstanciasNulas() throws IOException {
+		StringBuilder out = new StringBuilder();
+		JsonCodec.forClass(ClasseComAtributosPadrao.class).writeAll(Arrays.asList(null, new ClasseComAtributosPadrao()), out);
+
+		assertTrue(out.toString().startsWith("[null,{\"stringField\":null,"));
+	}
+
+	private ClasseComAtributosPadrao criarInstancia() {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField("Origem \u00e7\u20ac\ud83d\ude00\t");
+		instance.setIntegerField(-1);
+		instance.setLongField(Long.MAX_VALUE);
+		instance.setBigDecimalField(new BigDecimal("-1.2345E+20"));
+		instance.setBooleanField(Boolean.TRUE);
+		instance.setCalendarField(Calendar.getInstance());
+		instance.setByteField(new byte[] { 0, -1, 127, -128, 5 });
+
+		return instance;
+	}
+
+	private void assertIguais(ClasseComAtributosPadrao expected, ClasseComAtributosPadrao actual) {
+		assertEquals(expected.getStringField(), actual.getStringField());
+		assertEquals(expected.getIntegerField(), actual.getIntegerField());
+		assertEquals(expected.getLongField(), actual.getLongField());
+		assertEquals(expected.getBigDecimalField(), actual.getBigDecimalField());
+		assertEquals(expected.getBooleanField(), actual.getBooleanField());
+		assertEquals(expected.getCalendarField().getTimeInMillis(), actual.getCalendarField().getTimeInMillis());
+		assertArrayEquals(expected.getByteField(), actual.getByteField());
+	}
+
+}
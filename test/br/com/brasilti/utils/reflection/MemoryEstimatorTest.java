@@ -0,0 +1,105 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityEAtributos;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+
+public class MemoryEstimatorTest {
+
+	@Test
+	public void deveLerOLayoutDaJvm() {
+		int reference = MemoryEstimator.getReferenceSize();
+		int alignment = MemoryEstimator.getObjectAlignment();
+
+		assertTrue(reference == 4 || reference == 8);
+		assertTrue(alignment >= 8 && Integer.bitCount(alignment) == 1);
+		assertTrue(MemoryEstimator.getObjectHeaderSize() >= 8);
+		assertTrue(MemoryEstimator.getArrayHeaderSize() > MemoryEstimator.getObjectHeaderSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForUmaInterface() {
+		MemoryEstimator.getShallowSize(Runnable.class);
+	}
+
+	@Test
+	public void deveCalcularOTamanhoRasoDaClasse() {
+		long expected = MemoryEstimator.align(MemoryEstimator.getObjectHeaderSize() + 30);
+
+		assertEquals(expected, MemoryEstimator.getShallowSize(ClasseComAtributosPrimitivos.class));
+		assertEquals(expected, MemoryEstimator.getShallowSize(new ClasseComAtributosPrimitivos()));
+		assertTrue(MemoryEstimator.getShallowSize(ClasseComAtEntityHerdada.class) >= MemoryEstimator.getShallowSize(ClasseComAtEntityEAtributos.class));
+	}
+
+	@Test
+	public void deveCalcularOTamanhoDeArrays() {
+		int header = MemoryEstimator.getArrayHeaderSize();
+
+		assertEquals(MemoryEstimator.align(header + 100), MemoryEstimator.getShallowSize(new byte[100]));
+		assertEquals(MemoryEstimator.align(header + 80), MemoryEstimator.getShallowSize(new long[10]));
+		assertEquals(MemoryEstimator.align(header + 10 * MemoryEstimator.getReferenceSize()), MemoryEstimator.getShallowSize(new Object[10]));
+		assertEquals(0, MemoryEstimator.getShallowSize((Object) null));
+	}
+
+	@Test
+	public void deveSomarOsObjetosReferenciados() {
+		ClasseComAtEntityEAtributos instance = new ClasseComAtEntityEAtributos();
+		instance.setDados(new byte[1000]);
+
+		long expected = MemoryEstimator.getShallowSize(ClasseComAtEntityEAtributos.class) + MemoryEstimator.getShallowSize(instance.getDados());
+		assertEquals(expected, MemoryEstimator.getRetainedSize(instance));
+	}
+
+	@Test
+	public void deveContarUmaUnicaVezOsObjetosCompartilhados() {
+		byte[] dados = new byte[1000];
+		ClasseComAtEntityEAtributos instance = new ClasseComAtEntityEAtributos();
+		instance.setDados(dados);
+		ClasseComAtEntityEAtributos other = new ClasseComAtEntityEAtributos();
+		other.setDados(dados);
+
+		long expected = 2 * MemoryEstimator.getShallowSize(ClasseComAtEntityEAtributos.class) + MemoryEstimator.getShallowSize(dados);
+		assertEquals(expected, MemoryEstimator.getRetainedSizeOfAll(Arrays.asList(instance, other, instance)));
+	}
+
+	@Test
+	public void devePercorrerGrafosComCiclos() {
+		ClasseComReferencias avo = new ClasseComReferencias("Avo");
+		ClasseComReferencias pai = new ClasseComReferencias("Pai");
+		ClasseComReferencias neto = new ClasseComReferencias("Neto");
+		avo.adicionar(pai);
+		pai.adicionar(neto);
+
+		long retained = MemoryEstimator.getRetainedSize(neto);
+
+		assertEquals(retained, MemoryEstimator.getRetainedSize(avo));
+		assertTrue(retained > 3 * MemoryEstimator.getShallowSize(ClasseComReferencias.class));
+	}
+
+	@Test
+	public void deveEstimarOConteudoDeTextosEColecoes() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			text.append('a');
+		}
+
+		assertTrue(MemoryEstimator.getRetainedSize(text.toString()) > 1000);
+		assertTrue(MemoryEstimator.getRetainedSize(Arrays.asList(new byte[1000])) > 1000);
+	}
+
+	@Test
+	public void naoDeveContarClassesEConstantes() {
+		assertEquals(0, MemoryEstimator.getRetainedSize(String.class));
+		assertEquals(0, MemoryEstimator.getRetainedSize(TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,135 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.collection.CollectionUtil;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosGenericos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+
+public class PropertyPathTest {
+
+	@Test
+	public void deveRetornarOMesmoCaminhoCompilado() {
+		assertSame(PropertyPath.compile(ClasseComReferencias.class, "pai.nome"), PropertyPath.compile(ClasseComReferencias.class, "pai.nome"));
+	}
+
+	@Test
+	public void deveLerUmAtributoAninhado() {
+		ClasseComReferencias avo = new ClasseComReferencias("Avo");
+		ClasseComReferencias pai = new ClasseComReferencias("Pai");
+		ClasseComReferencias filho = new ClasseComReferencias("Filho");
+		pai.setPai(avo);
+		filho.setPai(pai);
+
+		PropertyPath path = PropertyPath.compile(ClasseComReferencias.class, "pai.pai.nome");
+
+		assertEquals("Avo", path.get(filho));
+		assertEquals(String.class, path.getType());
+	}
+
+	@Test
+	public void deveRetornarNuloQuandoUmObjetoIntermediarioForNulo() {
+		PropertyPath path = PropertyPath.compile(ClasseComReferencias.class, "pai.pai.nome");
+
+		assertNull(path.get(new ClasseComReferencias("Filho")));
+		assertNull(path.get(null));
+		assertFalse(path.set("Avo", new ClasseComReferencias("Filho")));
+	}
+
+	@Test
+	public void deveAlterarUmAtributoAninhado() {
+		ClasseComReferencias filho = new ClasseComReferencias("Filho");
+		filho.setPai(new ClasseComReferencias("Pai"));
+
+		assertTrue(PropertyPath.compile(ClasseComReferencias.class, "pai.nome").set("Outro", filho));
+		assertEquals("Outro", filho.getPai().getNome());
+	}
+
+	@Test
+	public void deveNavegarPelosElementosDeUmaColecao() {
+		ClasseComReferencias pai = new ClasseComReferencias("Pai");
+		pai.adicionar(new ClasseComReferencias("Primeiro"));
+		pai.adicionar(new ClasseComReferencias("Segundo"));
+
+		PropertyPath path = PropertyPath.compile(ClasseComReferencias.class, "filhos[1].nome");
+
+		assertEquals("Segundo", path.get(pai));
+		assertTrue(path.set("Alterado", pai));
+		assertEquals("Alterado", pai.getFilhos().get(1).getNome());
+		assertNull(PropertyPath.compile(ClasseComReferencias.class, "filhos[2].nome").get(pai));
+	}
+
+	@Test
+	public void deveNavegarPelosElementosDeUmArray() {
+		ClasseComReferencias instance = new ClasseComReferencias();
+		instance.setNumeros(new int[] { 4, 5 });
+
+		PropertyPath path = PropertyPath.compile(ClasseComReferencias.class, "numeros[1]");
+
+		assertEquals(5, path.get(instance));
+		assertTrue(path.set(7, instance));
+		assertEquals(7, instance.getNumeros()[1]);
+		assertFalse(PropertyPath.compile(ClasseComReferencias.class, "numeros[2]").set(7, instance));
+		assertEquals(int.class, path.getType());
+	}
+
+	@Test
+	public void deveEncontrarAtributosHerdados() {
+		ClasseComAtEntityHerdada instance = new ClasseComAtEntityHerdada();
+		instance.setNome("Herdado");
+
+		assertEquals("Herdado", PropertyPath.compile(ClasseComAtEntityHerdada.class, "nome").get(instance));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOAtributoNaoExistir() {
+		PropertyPath.compile(ClasseComReferencias.class, "pai.inexistente");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOIndiceForAplicadoAUmAtributoSimples() {
+		PropertyPath.compile(ClasseComReferencias.class, "nome[0]");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOIndiceForInvalido() {
+		PropertyPath.compile(ClasseComReferencias.class, "filhos[-1]");
+	}
+
+	@Test
+	public void deveNavegarPorColecoesAninhadas() {
+		ClasseComAtributosGenericos<String> instance = new ClasseComAtributosGenericos<String>();
+		List<List<String>> matriz = new ArrayList<List<String>>();
+		matriz.add(CollectionUtil.convert("a", "b"));
+		instance.setMatriz(matriz);
+
+		PropertyPath path = PropertyPath.compile(ClasseComAtributosGenericos.class, "matriz[0][1]");
+
+		assertEquals("b", path.get(instance));
+		assertEquals(String.class, path.getType());
+	}
+
+	@Test
+	public void naoDeveEscreverEmColecoesQueNaoSaoListas() {
+		ClasseComAtributosGenericos<String> instance = new ClasseComAtributosGenericos<String>();
+		ReflectionUtil.set(new TreeSet<Integer>(Arrays.asList(1, 2)), ReflectionUtil.getField("numeros", ClasseComAtributosGenericos.class), instance);
+
+		PropertyPath path = PropertyPath.compile(ClasseComAtributosGenericos.class, "numeros[1]");
+
+		assertEquals(2, path.get(instance));
+		assertFalse(path.set(3, instance));
+	}
+
+}
@@ -0,0 +1,226 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComId;
+
+public class ReflectionMetricsTest {
+
+	@Before
+	public void setUp() {
+		ReflectionMetrics.reset();
+		ReflectionMetrics.setEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		ReflectionMetrics.setEnabled(false);
+		ReflectionMetrics.reset();
+	}
+
+	@Test
+	public void naoDeveRegistrarNadaQuandoDesabilitada() {
+		ReflectionMetrics.setEnabled(false);
+
+		ReflectionUtil.hasField(ClasseComId.class, "id");
+		ReflectionUtil.get(ReflectionUtil.getField("id", ClasseComId.class), new ClasseComId());
+
+		assertEquals(0, ReflectionMetrics.getCallCount("hasField"));
+		assertEquals(0, ReflectionMetrics.getCacheHits());
+		assertEquals(0, ReflectionMetrics.getReflectiveAccesses());
+	}
+
+	@Test
+	public void deveContarAsChamadasDosMetodosInstrumentados() {
+		for (int i = 0; i < 3; i++) {
+			ReflectionUtil.hasField(ClasseComId.class, "id");
+		}
+
+		assertEquals(3, ReflectionMetrics.getCallCount("hasField"));
+		assertTrue(ReflectionMetrics.getMethodNames().contains("hasField"));
+
+		long total = 0;
+		for (long count : ReflectionMetrics.getLatencyHistogram("hasField")) {
+			total += count;
+		}
+		assertEquals(3, total);
+	}
+
+	@Test
+	public void deveRetornarZeroParaMetodosNaoInstrumentados() {
+		assertEquals(0, ReflectionMetrics.getCallCount("inexistente"));
+		assertEquals(ReflectionMetrics.BUCKETS, ReflectionMetrics.getLatencyHistogram("inexistente").length);
+	}
+
+	@Test
+	public void deveDistribuirAsDuracoesEmPotenciasDeDois() {
+		assertEquals(0, ReflectionMetrics.bucket(0));
+		assertEquals(1, ReflectionMetrics.bucket(1));
+		assertEquals(2, ReflectionMetrics.bucket(2));
+		assertEquals(2, ReflectionMetrics.bucket(3));
+		assertEquals(11, ReflectionMetrics.bucket(1024));
+		assertEquals(ReflectionMetrics.BUCKETS - 1, ReflectionMetrics.bucket(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void deveContarAcertosFaltasEDescartesDoCache() {
+		ClassCache<String> cache = new ClassCache<String>() {
+
+			@Override
+			protected String computeValue(Class<?> type) {
+				return type.getName();
+			}
+
+		};
+
+		cache.get(ClasseComId.class);
+		cache.get(ClasseComId.class);
+		cache.remove(ClasseComId.class);
+
+		assertEquals(1, ReflectionMetrics.getCacheMisses());
+		assertEquals(1, ReflectionMetrics.getCacheHits());
+		assertEquals(1, ReflectionMetrics.getCacheEvictions());
+	}
+
+	@Test
+	public void deveDistinguirAcessosReflexivosDosCompilados() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		ClasseComAtributosPadrao target = new ClasseComAtributosPadrao();
+
+		ReflectionUtil.set("Valor", ReflectionUtil.getField("stringField", ClasseComAtributosPadrao.class), origin);
+		ReflectionUtil.copy(origin, target);
+
+		assertEquals(1, ReflectionMetrics.getReflectiveAccesses());
+		assertEquals(ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class).size(), ReflectionMetrics.getCompiledAccesses());
+	}
+
+	@Test
+	public void deveNotificarOsOuvintes() throws IOException {
+		final List<String> events = new ArrayList<String>();
+		ReflectionListener listener = new ReflectionListener() {
+
+			@Override
+			public void methodCalled(String method, long nanos) {
+				events.add(method);
+			}
+
+			@Override
+			public void cacheMissed(Class<?> type) {
+			}
+
+			@Override
+			public void reflectiveAccess(Field field) {
+				events.add(field.getName());
+			}
+
+			@Override
+			public void compiledAccess(Class<?> type, int count) {
+				events.add(type.getSimpleName() + count);
+			}
+
+		};
+
+		ReflectionMetrics.addListener(listener);
+		try {
+			ReflectionUtil.get(ReflectionUtil.getField("id", ClasseComId.class), new ClasseComId());
+			JsonCodec.forClass(ClasseComId.class).write(new ClasseComId(), new StringBuilder());
+		} finally {
+			ReflectionMetrics.removeListener(listener);
+		}
+
+		assertEquals("[getField, id, get, ClasseComId1]", events.toString());
+	}
+
+	@Test
+	public void deveContarOsAcessosDosPlanosDosCodificadores() throws Exception {
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		int fields = ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class).size();
+
+		BinaryCodec.forClass(ClasseComAtributosPadrao.class).decode(BinaryCodec.forClass(ClasseComAtributosPadrao.class).encode(instance));
+		EqualityStrategy.byFields(ClasseComAtributosPadrao.class).hashCode(instance);
+
+		assertEquals(3 * fields, ReflectionMetrics.getCompiledAccesses());
+	}
+
+	@Test
+	public void naoDevePropagarExcecoesDosOuvintes() {
+		ReflectionListener listener = new ReflectionListener() {
+
+			@Override
+			public void methodCalled(String method, long nanos) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void cacheMissed(Class<?> type) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void reflectiveAccess(Field field) {
+				throw new IllegalStateException();
+			}
+
+			@Override
+			public void compiledAccess(Class<?> type, int count) {
+				throw new IllegalStateException();
+			}
+
+		};
+
+		Field field = ReflectionUtil.getField("id", ClasseComId.class);
+		ClasseComId instance = new ClasseComId();
+
+		ReflectionMetrics.addListener(listener);
+		try {
+			ReflectionUtil.set("Id", field, instance);
+			assertEquals("Id", ReflectionUtil.get(field, instance));
+
+			ClasseComId copy = new ClasseComId();
+			ReflectionUtil.copy(instance, copy);
+			assertEquals("Id", copy.getId());
+		} finally {
+			ReflectionMetrics.removeListener(listener);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOOuvinteForNulo() {
+		ReflectionMetrics.addListener(null);
+	}
+
+	@Test
+	public void deveRegistrarOMBean() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(ReflectionMetrics.OBJECT_NAME);
+
+		ReflectionMetrics.registerMBean();
+		try {
+			ReflectionUtil.hasMethod(ClasseComId.class, "getId");
+
+			assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+			assertEquals(1L, server.invoke(name, "getCallCount", new Object[] { "hasMethod" }, new String[] { String.class.getName() }));
+		} finally {
+			ReflectionMetrics.unregisterMBean();
+		}
+
+		assertFalse(server.isRegistered(name));
+	}
+
+}
@@ -3,12 +3,14 @@ package br.com.brasilti.utils.reflection;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -19,12 +21,15 @@ import javax.persistence.Version;
 
 import org.junit.Test;
 
+import br.com.brasilti.utils.collection.CollectionUtil;
 import br.com.brasilti.utils.reflection.ReflectionUtil;
 import br.com.brasilti.utils.reflection.examples.ClasseComAtEntity;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
 import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
 import br.com.brasilti.utils.reflection.examples.ClasseComConstrutorPadrao;
 import br.com.brasilti.utils.reflection.examples.ClasseComEquals;
 import br.com.brasilti.utils.reflection.examples.ClasseComId;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
 import br.com.brasilti.utils.reflection.examples.ClasseNaoSerializavel;
 import br.com.brasilti.utils.reflection.examples.ClasseSemAtEntity;
 import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
@@ -145,6 +150,38 @@ public class ReflectionUtilTest {
 		assertFalse(ReflectionUtil.implementz(ClasseNaoSerializavel.class, java.io.Serializable.class));
 	}
 
+	@Test
+	public void deveRetornarVerdadeiroSeAClasseHerdarAInterface() {
+		assertTrue(ReflectionUtil.implementz(ClasseComAtEntityHerdada.class, java.io.Serializable.class));
+	}
+
+	@Test
+	public void deveRetornarOsAtributosPersistentesDaHierarquiaDeUmaClasse() {
+		List<Field> fields = ReflectionUtil.getPersistentFieldsInHierarchy(ClasseComAtEntityHerdada.class);
+
+		assertEquals("id", fields.get(0).getName());
+		assertEquals("descricao", fields.get(7).getName());
+		assertEquals(8, fields.size());
+	}
+
+	@Test
+	public void deveRetornarVerdadeiroQuandoAHierarquiaTiverUmDeterminadoAtributo() {
+		assertFalse(ReflectionUtil.hasField(ClasseComAtEntityHerdada.class, "id"));
+		assertTrue(ReflectionUtil.hasFieldInHierarchy(ClasseComAtEntityHerdada.class, "id"));
+	}
+
+	@Test
+	public void deveRetornarVerdadeiroQuandoAHierarquiaTiverUmDeterminadoMetodo() {
+		assertFalse(ReflectionUtil.hasMethod(ClasseComAtEntityHerdada.class, "getNome"));
+		assertTrue(ReflectionUtil.hasMethodInHierarchy(ClasseComAtEntityHerdada.class, "getNome"));
+	}
+
+	@Test
+	public void deveRetornarVerdadeiroQuandoAHierarquiaTiverUmaDeterminadaAnotacao() {
+		assertTrue(ReflectionUtil.isAnnotatedInHierarchy(ClasseComAtEntityHerdada.class, Entity.class));
+		assertFalse(ReflectionUtil.isAnnotatedInHierarchy(ClasseSemAtEntity.class, Entity.class));
+	}
+
 	@Test
 	public void deveRetornarUmValorDeUmAtributoDeUmaClasse() throws SecurityException, NoSuchFieldException, InstantiationException, IllegalAccessException {
 		String valor = "Teste";
@@ -202,6 +239,17 @@ public class ReflectionUtilTest {
 		assertEquals(origin.getByteField(), target.getByteField());
 	}
 
+	@Test
+	public void deveCopiarOValorDosAtributosDeUmaListaDeInstancias() {
+		ClasseComAtributosPadrao origin = new ClasseComAtributosPadrao();
+		origin.setStringField("Origem");
+		ClasseComAtributosPadrao target = new ClasseComAtributosPadrao();
+
+		ReflectionUtil.copyAll(CollectionUtil.convert(origin), CollectionUtil.convert(target));
+
+		assertEquals("Origem", target.getStringField());
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void deveLancarUmaExcecaoSeOAtributoNaoForUmaColecao() {
 		Field field = this.getField("atributo", ReflectionUtilTest.class);
@@ -221,12 +269,35 @@ public class ReflectionUtilTest {
 		assertTrue(ReflectionUtil.isCollection(ArrayList.class));
 		assertTrue(ReflectionUtil.isCollection(List.class));
 		assertTrue(ReflectionUtil.isCollection(Collection.class));
+		assertTrue(ReflectionUtil.isCollection(Set.class));
 	}
 
 	@Test
 	public void deveRetornarFalsoSeAClasseNaoForUmaColecao() {
-		assertFalse(ReflectionUtil.isCollection(Set.class));
 		assertFalse(ReflectionUtil.isCollection(Map.class));
+		assertFalse(ReflectionUtil.isCollection(String.class));
+	}
+
+	@Test
+	public void deveRetornarVerdadeiroSeAClasseForUmMapa() {
+		assertTrue(ReflectionUtil.isMap(Map.class));
+		assertTrue(ReflectionUtil.isMap(HashMap.class));
+		assertFalse(ReflectionUtil.isMap(List.class));
+	}
+
+	@Test
+	public void deveRetornarOTipoDasChavesEDosValoresDeUmMapa() {
+		Field field = ReflectionUtil.getField("indice", ClasseComReferencias.class);
+
+		assertEquals(String.class, ReflectionUtil.getTypeOfKeys(field));
+		assertEquals(ClasseComReferencias.class, ReflectionUtil.getTypeOfElements(field));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarUmaExcecaoSeOAtributoNaoForUmMapa() {
+		Field field = this.getField("colecao", ReflectionUtilTest.class);
+
+		ReflectionUtil.getTypeOfKeys(field);
 	}
 
 	@Test
@@ -264,6 +335,22 @@ public class ReflectionUtilTest {
 		assertNotNull(ReflectionUtil.getField("atributo", ReflectionUtilTest.class));
 	}
 
+	@Test
+	public void deveRetornarCopiasDosAtributos() {
+		Field field = ReflectionUtil.getField("atributo", ReflectionUtilTest.class);
+		field.setAccessible(true);
+		ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class).get(0).setAccessible(true);
+
+		assertFalse(ReflectionUtil.getField("atributo", ReflectionUtilTest.class).isAccessible());
+		assertFalse(ReflectionUtil.getPersistentFields(ClasseComAtributosPadrao.class).get(0).isAccessible());
+		assertFalse(ClassMetadata.forClass(ReflectionUtilTest.class).getField("atributo").isAccessible());
+	}
+
+	@Test
+	public void deveRetornarNuloQuandoUmaClasseNaoTiverUmDeterminadoAtributo() {
+		assertNull(ReflectionUtil.getField("inexistente", ReflectionUtilTest.class));
+	}
+
 	@Test
 	public void deveRetornarFalsoQuandoUmaClasseNaoTiverUmConstrutorPadrao() {
 		assertFalse(ReflectionUtil.hasConstructor(ClasseSemConstrutorPadrao.class));
@@ -274,6 +361,43 @@ public class ReflectionUtilTest {
 		assertTrue(ReflectionUtil.hasConstructor(ClasseComConstrutorPadrao.class));
 	}
 
+	@Test
+	public void deveRetornarFalsoQuandoUmaClasseTiverUmConstrutorPadraoNaoPublico() {
+		assertFalse(ReflectionUtil.hasConstructor(ReflectionUtil.class));
+	}
+
+	@Test
+	public void deveCriarUmaInstanciaPeloConstrutorPadrao() {
+		assertNotNull(ReflectionUtil.newInstance(ClasseComConstrutorPadrao.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoAoCriarUmaInstanciaSemConstrutorPadrao() {
+		ReflectionUtil.newInstance(ClasseSemConstrutorPadrao.class);
+	}
+
+	@Test
+	public void deveRetornarUmDeterminadoConstrutorDeUmaClasse() {
+		assertNotNull(ReflectionUtil.findConstructor(ClasseSemConstrutorPadrao.class, String.class));
+	}
+
+	@Test
+	public void deveRetornarNuloQuandoUmaClasseNaoTiverUmDeterminadoConstrutor() {
+		assertNull(ReflectionUtil.findConstructor(ClasseSemConstrutorPadrao.class));
+		assertNull(ReflectionUtil.findConstructor(ClasseSemConstrutorPadrao.class));
+	}
+
+	@Test
+	public void deveRetornarUmDeterminadoMetodoDeUmaClasse() {
+		assertNotNull(ReflectionUtil.findMethod(ClasseComEquals.class, "equals", Object.class));
+	}
+
+	@Test
+	public void deveRetornarNuloQuandoUmaClasseNaoTiverUmDeterminadoMetodoComOsParametrosInformados() {
+		assertNull(ReflectionUtil.findMethod(ClasseComEquals.class, "equals", String.class));
+		assertNull(ReflectionUtil.findMethod(ClasseComEquals.class, "equals", String.class));
+	}
+
 	@Test
 	public void deveRetornarFalsoQuandoUmaClasseNaoTiverUmDeterminadoMetodo() {
 		assertFalse(ReflectionUtil.hasMethod(ClasseSemEquals.class, "equals"));
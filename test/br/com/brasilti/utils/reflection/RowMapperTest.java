@@ -0,0 +1,214 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+import br.com.brasilti.utils.reflection.examples.ClasseSemConstrutorPadrao;
+
+public class RowMapperTest {
+
+	private Connection connection;
+
+	@Before
+	public void setUp() throws Exception {
+		Class.forName("org.h2.Driver");
+		this.connection = DriverManager.getConnection("jdbc:h2:mem:");
+
+		Statement statement = this.connection.createStatement();
+		statement.execute("CREATE TABLE ENTIDADE (ID BIGINT, VERSAO INT, NOME VARCHAR(50), VALOR DECIMAL(10, 2), PESO DOUBLE, "
+				+ "DATA TIMESTAMP, DADOS VARBINARY(10), DESCRICAO VARCHAR(50), EXTRA VARCHAR(10))");
+		statement.close();
+
+		PreparedStatement insert = this.connection.prepareStatement("INSERT INTO ENTIDADE VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'X')");
+		for (int i = 1; i <= 25; i++) {
+			insert.setLong(1, i);
+			insert.setInt(2, i * 10);
+			insert.setString(3, "Nome " + i);
+			insert.setBigDecimal(4, new BigDecimal(i + ".50"));
+			insert.setDouble(5, i / 2D);
+			insert.setTimestamp(6, new Timestamp(1000L * i));
+			insert.setBytes(7, new byte[] { (byte) i });
+			insert.setString(8, "Descricao " + i);
+			insert.executeUpdate();
+		}
+		insert.setNull(1, Types.BIGINT);
+		insert.setNull(2, Types.INTEGER);
+		insert.setNull(3, Types.VARCHAR);
+		insert.setNull(4, Types.DECIMAL);
+		insert.setNull(5, Types.DOUBLE);
+		insert.setNull(6, Types.TIMESTAMP);
+		insert.setNull(7, Types.VARBINARY);
+		insert.setNull(8, Types.VARCHAR);
+		insert.executeUpdate();
+		insert.close();
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		this.connection.close();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		RowMapper.forClass(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseNaoPossuirConstrutorPadrao() {
+		RowMapper.forClass(ClasseSemConstrutorPadrao.class);
+	}
+
+	@Test
+	public void deveRetornarOMesmoMapeadorParaAMesmaClasse() {
+		assertSame(RowMapper.forClass(ClasseComAtEntityHerdada.class), RowMapper.forClass(ClasseComAtEntityHerdada.class));
+	}
+
+	@Test
+	public void deveConverterTodasAsLinhas() throws SQLException {
+		ResultSet resultSet = this.query("SELECT * FROM ENTIDADE ORDER BY ID NULLS LAST");
+		List<ClasseComAtEntityHerdada> instances = RowMapper.forClass(ClasseComAtEntityHerdada.class).mapAll(resultSet, 26);
+
+		assertEquals(26, instances.size());
+
+		ClasseComAtEntityHerdada first = instances.get(0);
+		assertEquals(Long.valueOf(1L), first.getId());
+		assertEquals(10, first.getVersao());
+		assertEquals("Nome 1", first.getNome());
+		assertEquals(new BigDecimal("1.50"), first.getValor());
+		assertEquals(0.5, first.getPeso(), 0);
+		assertEquals(1000L, first.getData().getTimeInMillis());
+		assertArrayEquals(new byte[] { 1 }, first.getDados());
+		assertEquals("Descricao 1", first.getDescricao());
+	}
+
+	@Test
+	public void devePreservarOsValoresNulos() throws SQLException {
+		ResultSet resultSet = this.query("SELECT * FROM ENTIDADE WHERE ID IS NULL");
+		resultSet.next();
+		ClasseComAtEntityHerdada instance = RowMapper.forClass(ClasseComAtEntityHerdada.class).map(resultSet);
+
+		assertNull(instance.getId());
+		assertEquals(0, instance.getVersao());
+		assertNull(instance.getNome());
+		assertNull(instance.getValor());
+		assertNull(instance.getData());
+		assertNull(instance.getDados());
+	}
+
+	@Test
+	public void deveAssociarColunasPorRotuloIgnorandoMaiusculasESublinhados() throws SQLException {
+		ResultSet resultSet = this.query("SELECT NOME AS \"des_cri_cao\", ID, EXTRA AS NOME FROM ENTIDADE WHERE ID = 2");
+		List<ClasseComAtEntityHerdada> instances = RowMapper.forClass(ClasseComAtEntityHerdada.class).mapAll(resultSet);
+
+		assertEquals(1, instances.size());
+		assertEquals("Nome 2", instances.get(0).getDescricao());
+		assertEquals(Long.valueOf(2L), instances.get(0).getId());
+		assertEquals("X", instances.get(0).getNome());
+		assertNull(instances.get(0).getValor());
+	}
+
+	@Test
+	public void deveConverterEmLotes() throws SQLException {
+		ResultSet resultSet = this.query("SELECT ID FROM ENTIDADE WHERE ID IS NOT NULL ORDER BY ID");
+		RowMapper<ClasseComAtEntityHerdada> mapper = RowMapper.forClass(ClasseComAtEntityHerdada.class);
+
+		List<ClasseComAtEntityHerdada> batch = new ArrayList<ClasseComAtEntityHerdada>(10);
+		List<Integer> sizes = new ArrayList<Integer>();
+		long sum = 0;
+
+		int count;
+		while ((count = mapper.mapBatch(resultSet, batch, 10)) > 0) {
+			sizes.add(count);
+			for (ClasseComAtEntityHerdada instance : batch) {
+				sum += instance.getId();
+			}
+			batch.clear();
+		}
+
+		assertEquals("[10, 10, 5]", sizes.toString());
+		assertEquals(325, sum);
+	}
+
+	@Test
+	public void deveLerAtributosPrimitivos() throws SQLException {
+		ResultSet resultSet = this.query("SELECT TRUE AS BOOLEAN_FIELD, 1 AS BYTE_FIELD, 'a' AS CHAR_FIELD, 2 AS SHORT_FIELD, "
+				+ "3 AS INT_FIELD, 4 AS LONG_FIELD, 5.5 AS FLOAT_FIELD, 6.5 AS DOUBLE_FIELD");
+		resultSet.next();
+		ClasseComAtributosPrimitivos instance = RowMapper.forClass(ClasseComAtributosPrimitivos.class).map(resultSet);
+
+		assertEquals(true, instance.isBooleanField());
+		assertEquals(1, instance.getByteField());
+		assertEquals('a', instance.getCharField());
+		assertEquals(2, instance.getShortField());
+		assertEquals(3, instance.getIntField());
+		assertEquals(4L, instance.getLongField());
+		assertEquals(5.5F, instance.getFloatField(), 0);
+		assertEquals(6.5D, instance.getDoubleField(), 0);
+	}
+
+	@Test
+	public void deveIgnorarColunasDeAtributosQueNaoPodemSerLidos() throws SQLException {
+		ResultSet resultSet = this.query("SELECT 'Filho' AS NOME, 7 AS PAI, 'X' AS NUMEROS");
+		resultSet.next();
+		ClasseComReferencias instance = RowMapper.forClass(ClasseComReferencias.class).map(resultSet);
+
+		assertEquals("Filho", instance.getNome());
+		assertNull(instance.getPai());
+		assertNull(instance.getNumeros());
+		assertTrue(instance.getFilhos().isEmpty());
+	}
+
+	@Test
+	public void deveConverterLinhaALinhaResultadosDeFormatosDiferentes() throws SQLException {
+		RowMapper<ClasseComAtEntityHerdada> mapper = RowMapper.forClass(ClasseComAtEntityHerdada.class);
+
+		ResultSet names = this.query("SELECT NOME FROM ENTIDADE WHERE ID = 1");
+		ResultSet ids = this.query("SELECT ID, DESCRICAO FROM ENTIDADE WHERE ID <= 2 ORDER BY ID");
+		names.next();
+		ids.next();
+
+		ClasseComAtEntityHerdada first = mapper.map(ids);
+		ClasseComAtEntityHerdada name = mapper.map(names);
+		ids.next();
+		ClasseComAtEntityHerdada second = mapper.map(ids);
+
+		assertEquals(Long.valueOf(1L), first.getId());
+		assertEquals("Nome 1", name.getNome());
+		assertNull(name.getId());
+		assertEquals(Long.valueOf(2L), second.getId());
+		assertEquals("Descricao 2", second.getDescricao());
+		assertNull(second.getNome());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOResultadoForNulo() throws SQLException {
+		RowMapper.forClass(ClasseComAtEntityHerdada.class).mapAll(null);
+	}
+
+	private ResultSet query(String sql) throws SQLException {
+		return this.connection.createStatement().executeQuery(sql);
+	}
+
+}
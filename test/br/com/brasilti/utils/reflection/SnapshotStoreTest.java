@@ -0,0 +1,185 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtEntityHerdada;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPadrao;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosPrimitivos;
+import br.com.brasilti.utils.reflection.examples.ClasseComReferencias;
+
+public class SnapshotStoreTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoAClasseForNula() {
+		new SnapshotStore<Object>(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoUmAtributoNaoForSuportado() {
+		new SnapshotStore<ClasseComReferencias>(ClasseComReferencias.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoONumeroDeInstanciasNaoCouberEmUmBuffer() {
+		new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class, Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void deveLimitarACapacidadeAoTamanhoMaximoDeUmBuffer() {
+		assertEquals(128, SnapshotStore.newCapacity(64, 65));
+		assertEquals(1000, SnapshotStore.newCapacity(64, 1000));
+		assertEquals(Integer.MAX_VALUE, SnapshotStore.newCapacity(Integer.MAX_VALUE - 1, Integer.MAX_VALUE));
+		assertEquals(Integer.MAX_VALUE, SnapshotStore.newCapacity((1 << 30) + 1, (1L << 30) + 2));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void deveLancarExcecaoQuandoACapacidadeExcederOTamanhoMaximoDeUmBuffer() {
+		SnapshotStore.newCapacity(Integer.MAX_VALUE, Integer.MAX_VALUE + 1L);
+	}
+
+	@Test
+	public void deveRecriarAsInstanciasGuardadas() {
+		SnapshotStore<ClasseComAtributosPadrao> store = new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class, 1);
+		ClasseComAtributosPadrao instance = this.criarInstancia("Nome \u00e7\u00e3o");
+
+		assertEquals(0, store.add(instance));
+		assertEquals(1, store.add(new ClasseComAtributosPadrao()));
+		assertEquals(2, store.size());
+
+		ClasseComAtributosPadrao copy = store.materialize(0);
+		assertEquals("Nome \u00e7\u00e3o", copy.getStringField());
+		assertEquals(Integer.valueOf(-7), copy.getIntegerField());
+		assertEquals(Long.valueOf(Long.MAX_VALUE), copy.getLongField());
+		assertEquals(new BigDecimal("123456789012345678901234567890.12"), copy.getBigDecimalField());
+		assertEquals(Boolean.TRUE, copy.getBooleanField());
+		assertEquals(instance.getCalendarField().getTimeInMillis(), copy.getCalendarField().getTimeInMillis());
+		assertEquals(TimeZone.getTimeZone("America/Sao_Paulo"), copy.getCalendarField().getTimeZone());
+		assertArrayEquals(new byte[] { 1, 2, 3 }, copy.getByteField());
+		assertNull(copy.getTransientField());
+
+		ClasseComAtributosPadrao empty = store.materialize(1);
+		assertNull(empty.getStringField());
+		assertNull(empty.getIntegerField());
+		assertNull(empty.getByteField());
+	}
+
+	@Test
+	public void deveLerAtributosSemRecriarAInstancia() {
+		SnapshotStore<ClasseComAtributosPadrao> store = new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class);
+		store.add(this.criarInstancia("Nome"));
+		store.add(new ClasseComAtributosPadrao());
+
+		assertEquals("Nome", store.getString(0, "stringField"));
+		assertEquals(-7, store.getInt(0, "integerField"));
+		assertEquals(Long.MAX_VALUE, store.getLong(0, "longField"));
+		assertTrue(store.getBoolean(0, "booleanField"));
+		assertEquals(new BigDecimal("123456789012345678901234567890.12"), store.get(0, "bigDecimalField"));
+
+		assertTrue(store.isNull(1, "integerField"));
+		assertEquals(0, store.getInt(1, "integerField"));
+		assertNull(store.getString(1, "stringField"));
+		assertFalse(store.isNull(0, "stringField"));
+	}
+
+	@Test
+	public void deveGuardarAtributosPrimitivosEHerdados() {
+		SnapshotStore<ClasseComAtributosPrimitivos> store = new SnapshotStore<ClasseComAtributosPrimitivos>(ClasseComAtributosPrimitivos.class);
+		ClasseComAtributosPrimitivos instance = new ClasseComAtributosPrimitivos();
+		instance.setBooleanField(true);
+		instance.setByteField((byte) -1);
+		instance.setCharField('\u00e9');
+		instance.setShortField(Short.MIN_VALUE);
+		instance.setIntField(Integer.MAX_VALUE);
+		instance.setLongField(-1L);
+		instance.setFloatField(1.5f);
+		instance.setDoubleField(Double.NaN);
+		store.add(instance);
+
+		assertEquals((byte) -1, store.getByte(0, "byteField"));
+		assertEquals('\u00e9', store.getChar(0, "charField"));
+		assertEquals(Short.MIN_VALUE, store.getShort(0, "shortField"));
+		assertEquals(1.5f, store.getFloat(0, "floatField"), 0);
+		assertTrue(Double.isNaN(store.getDouble(0, "doubleField")));
+		assertEquals(Integer.MAX_VALUE, store.materialize(0).getIntField());
+
+		SnapshotStore<ClasseComAtEntityHerdada> entities = new SnapshotStore<ClasseComAtEntityHerdada>(ClasseComAtEntityHerdada.class);
+		ClasseComAtEntityHerdada entity = new ClasseComAtEntityHerdada();
+		entity.setId(1L);
+		entity.setPeso(2.5);
+		entity.setDescricao("Descricao");
+		entities.add(entity);
+
+		ClasseComAtEntityHerdada copy = entities.materialize(0);
+		assertEquals(Long.valueOf(1L), copy.getId());
+		assertEquals(2.5, copy.getPeso(), 0);
+		assertEquals("Descricao", copy.getDescricao());
+	}
+
+	@Test
+	public void deveCrescerESubstituirCopias() {
+		SnapshotStore<ClasseComAtributosPadrao> store = new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class, 0);
+		for (int i = 0; i < 1000; i++) {
+			store.add(this.criarInstancia("Nome " + i));
+		}
+
+		store.set(500, new ClasseComAtributosPadrao());
+
+		assertEquals(1000, store.size());
+		assertEquals("Nome 999", store.getString(999, "stringField"));
+		assertTrue(store.isNull(500, "stringField"));
+		assertFalse(store.getBoolean(500, "booleanField"));
+		assertTrue(store.getCapacity() >= 1000L * store.getRowSize());
+
+		store.clear();
+		assertEquals(0, store.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoAoLerAtributoDeOutroTipo() {
+		SnapshotStore<ClasseComAtributosPadrao> store = new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class);
+		store.add(this.criarInstancia("Nome"));
+
+		store.getLong(0, "integerField");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoAoLerAtributoNaoPersistente() {
+		SnapshotStore<ClasseComAtributosPadrao> store = new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class);
+		store.add(this.criarInstancia("Nome"));
+
+		store.get(0, "transientField");
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void deveLancarExcecaoQuandoOIndiceNaoExistir() {
+		new SnapshotStore<ClasseComAtributosPadrao>(ClasseComAtributosPadrao.class).materialize(0);
+	}
+
+	private ClasseComAtributosPadrao criarInstancia(String stringField) {
+		Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("America/Sao_Paulo"));
+		calendar.setTimeInMillis(1000000000000L);
+
+		ClasseComAtributosPadrao instance = new ClasseComAtributosPadrao();
+		instance.setStringField(stringField);
+		instance.setIntegerField(-7);
+		instance.setLongField(Long.MAX_VALUE);
+		instance.setBigDecimalField(new BigDecimal("123456789012345678901234567890.12"));
+		instance.setBooleanField(Boolean.TRUE);
+		instance.setCalendarField(calendar);
+		instance.setByteField(new byte[] { 1, 2, 3 });
+		FieldAccessor.forField(ClasseComAtributosPadrao.class, "transientField").set("Transiente", instance);
+
+		return instance;
+	}
+
+}
@@ -0,0 +1,95 @@
+package br.com.brasilti.utils.reflection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosGenericos;
+import br.com.brasilti.utils.reflection.examples.ClasseComAtributosGenericosConcreta;
+
+public class TypeResolverTest {
+
+	@Test
+	public void deveResolverVariaveisAssociadasNaSubclasse() {
+		Field field = this.getField("itens");
+
+		assertEquals(BigDecimal.class, TypeResolver.getTypeOfElements(field, ClasseComAtributosGenericosConcreta.class));
+		assertEquals(Object.class, TypeResolver.getTypeOfElements(field, ClasseComAtributosGenericos.class));
+	}
+
+	@Test
+	public void deveRetornarOTipoDosValoresEDasChavesDeUmMapa() {
+		Field field = this.getField("indice");
+
+		assertEquals(BigDecimal.class, TypeResolver.getTypeOfElements(field, ClasseComAtributosGenericosConcreta.class));
+		assertEquals(String.class, TypeResolver.getTypeOfKeys(field, ClasseComAtributosGenericosConcreta.class));
+	}
+
+	@Test
+	public void deveReduzirCuringasAoLimiteSuperior() {
+		assertEquals(Number.class, TypeResolver.getTypeOfElements(this.getField("numeros"), ClasseComAtributosGenericos.class));
+	}
+
+	@Test
+	public void deveManterOsArgumentosDeGenericosAninhados() {
+		Field field = this.getField("matriz");
+		Type type = TypeResolver.getFieldType(field, ClasseComAtributosGenericos.class);
+
+		assertEquals(List.class, TypeResolver.getTypeOfElements(field, ClasseComAtributosGenericos.class));
+		assertEquals(field.getGenericType(), type);
+		assertEquals(String.class, TypeResolver.getRawType(((ParameterizedType) TypeResolver.getTypeArguments(type, List.class)[0]).getActualTypeArguments()[0]));
+	}
+
+	@Test
+	public void deveResolverArraysGenericos() {
+		Type type = TypeResolver.getFieldType(this.getField("vetor"), ClasseComAtributosGenericosConcreta.class);
+
+		assertEquals(BigDecimal[].class, type);
+	}
+
+	@Test
+	public void deveTratarColecoesCruasComoColecoesDeObject() {
+		assertEquals(Object.class, TypeResolver.getTypeOfElements(this.getField("cru"), ClasseComAtributosGenericos.class));
+	}
+
+	@Test
+	public void deveRetornarOsArgumentosDeUmSupertipo() {
+		assertArrayEquals(new Type[] { Object.class, Object.class }, raw(TypeResolver.getTypeArguments(HashMap.class, Map.class)));
+		assertNull(TypeResolver.getTypeArguments(ArrayList.class, Map.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOContextoNaoHerdarOAtributo() {
+		TypeResolver.getFieldType(this.getField("itens"), String.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deveLancarExcecaoQuandoOAtributoNaoForColecaoNemMapa() {
+		TypeResolver.getTypeOfElements(this.getField("vetor"), ClasseComAtributosGenericos.class);
+	}
+
+	private Field getField(String fieldName) {
+		return ReflectionUtil.getField(fieldName, ClasseComAtributosGenericos.class);
+	}
+
+	private static Type[] raw(Type[] types) {
+		Type[] raw = new Type[types.length];
+		for (int i = 0; i < types.length; i++) {
+			raw[i] = TypeResolver.getRawType(types[i]);
+		}
+
+		return raw;
+	}
+
+}
@@ -0,0 +1,40 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+public class ClasseComAtEntityEArrays {
+
+	@Id
+	private Long id;
+
+	private ClasseSemConstrutorPadrao[] itens;
+
+	private String[] nomes;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public ClasseSemConstrutorPadrao[] getItens() {
+		return itens;
+	}
+
+	public void setItens(ClasseSemConstrutorPadrao[] itens) {
+		this.itens = itens;
+	}
+
+	public String[] getNomes() {
+		return nomes;
+	}
+
+	public void setNomes(String[] nomes) {
+		this.nomes = nomes;
+	}
+
+}
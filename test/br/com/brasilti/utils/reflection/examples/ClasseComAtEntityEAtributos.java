@@ -0,0 +1,95 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Version;
+
+@Entity
+public class ClasseComAtEntityEAtributos {
+
+	@Id
+	private Long id;
+
+	@Version
+	private int versao;
+
+	private String nome;
+
+	private BigDecimal valor;
+
+	private double peso;
+
+	private Calendar data;
+
+	private byte[] dados;
+
+	private transient String cache;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public int getVersao() {
+		return versao;
+	}
+
+	public void setVersao(int versao) {
+		this.versao = versao;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public void setNome(String nome) {
+		this.nome = nome;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public void setValor(BigDecimal valor) {
+		this.valor = valor;
+	}
+
+	public double getPeso() {
+		return peso;
+	}
+
+	public void setPeso(double peso) {
+		this.peso = peso;
+	}
+
+	public Calendar getData() {
+		return data;
+	}
+
+	public void setData(Calendar data) {
+		this.data = data;
+	}
+
+	public byte[] getDados() {
+		return dados;
+	}
+
+	public void setDados(byte[] dados) {
+		this.dados = dados;
+	}
+
+	public String getCache() {
+		return cache;
+	}
+
+	public void setCache(String cache) {
+		this.cache = cache;
+	}
+
+}
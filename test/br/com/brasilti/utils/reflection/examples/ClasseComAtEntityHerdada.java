@@ -0,0 +1,20 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import javax.persistence.Entity;
+
+@Entity
+public class ClasseComAtEntityHerdada extends ClasseComAtEntityEAtributos implements InterfaceSerializavel {
+
+	private static final long serialVersionUID = 1L;
+
+	private String descricao;
+
+	public String getDescricao() {
+		return descricao;
+	}
+
+	public void setDescricao(String descricao) {
+		this.descricao = descricao;
+	}
+
+}
@@ -0,0 +1,38 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ClasseComAtributosGenericos<T> {
+
+	private List<T> itens;
+
+	private Map<String, T> indice;
+
+	private Set<? extends Number> numeros;
+
+	private List<List<String>> matriz;
+
+	private T[] vetor;
+
+	@SuppressWarnings("rawtypes")
+	private List cru;
+
+	public List<T> getItens() {
+		return itens;
+	}
+
+	public void setItens(List<T> itens) {
+		this.itens = itens;
+	}
+
+	public List<List<String>> getMatriz() {
+		return matriz;
+	}
+
+	public void setMatriz(List<List<String>> matriz) {
+		this.matriz = matriz;
+	}
+
+}
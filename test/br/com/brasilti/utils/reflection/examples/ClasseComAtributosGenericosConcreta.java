@@ -0,0 +1,7 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.math.BigDecimal;
+
+public class ClasseComAtributosGenericosConcreta extends ClasseComAtributosGenericos<BigDecimal> {
+
+}
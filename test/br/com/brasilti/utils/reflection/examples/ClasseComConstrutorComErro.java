@@ -0,0 +1,9 @@
+package br.com.brasilti.utils.reflection.examples;
+
+public class ClasseComConstrutorComErro {
+
+	public ClasseComConstrutorComErro() {
+		throw new UnsupportedOperationException();
+	}
+
+}
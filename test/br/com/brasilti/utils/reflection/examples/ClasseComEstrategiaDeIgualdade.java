@@ -0,0 +1,39 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import javax.persistence.Id;
+
+import br.com.brasilti.utils.reflection.EqualityStrategy;
+
+public class ClasseComEstrategiaDeIgualdade {
+
+	private static final EqualityStrategy<ClasseComEstrategiaDeIgualdade> STRATEGY = EqualityStrategy.byId(ClasseComEstrategiaDeIgualdade.class);
+
+	@Id
+	private long codigo;
+
+	private String nome;
+
+	public ClasseComEstrategiaDeIgualdade(long codigo, String nome) {
+		this.codigo = codigo;
+		this.nome = nome;
+	}
+
+	public long getCodigo() {
+		return codigo;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return STRATEGY.equals(this, obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return STRATEGY.hashCode(this);
+	}
+
+}
@@ -0,0 +1,77 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ClasseComReferencias {
+
+	private String nome;
+
+	private ClasseComReferencias pai;
+
+	private List<ClasseComReferencias> filhos = new ArrayList<ClasseComReferencias>();
+
+	private Map<String, ClasseComReferencias> indice = new HashMap<String, ClasseComReferencias>();
+
+	private Calendar data;
+
+	private int[] numeros;
+
+	public ClasseComReferencias() {
+
+	}
+
+	public ClasseComReferencias(String nome) {
+		this.nome = nome;
+	}
+
+	public void adicionar(ClasseComReferencias filho) {
+		filho.pai = this;
+		filhos.add(filho);
+		indice.put(filho.nome, filho);
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public void setNome(String nome) {
+		this.nome = nome;
+	}
+
+	public ClasseComReferencias getPai() {
+		return pai;
+	}
+
+	public void setPai(ClasseComReferencias pai) {
+		this.pai = pai;
+	}
+
+	public List<ClasseComReferencias> getFilhos() {
+		return filhos;
+	}
+
+	public Map<String, ClasseComReferencias> getIndice() {
+		return indice;
+	}
+
+	public Calendar getData() {
+		return data;
+	}
+
+	public void setData(Calendar data) {
+		this.data = data;
+	}
+
+	public int[] getNumeros() {
+		return numeros;
+	}
+
+	public void setNumeros(int[] numeros) {
+		this.numeros = numeros;
+	}
+
+}
@@ -0,0 +1,88 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+
+public class ClasseDeTransferencia {
+
+	private String stringField;
+
+	private int integerField;
+
+	private Long longField;
+
+	private BigDecimal valor;
+
+	private String booleanField;
+
+	private Calendar calendarField;
+
+	private byte[] byteField;
+
+	private String extra;
+
+	public String getStringField() {
+		return stringField;
+	}
+
+	public void setStringField(String stringField) {
+		this.stringField = stringField;
+	}
+
+	public int getIntegerField() {
+		return integerField;
+	}
+
+	public void setIntegerField(int integerField) {
+		this.integerField = integerField;
+	}
+
+	public Long getLongField() {
+		return longField;
+	}
+
+	public void setLongField(Long longField) {
+		this.longField = longField;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public void setValor(BigDecimal valor) {
+		this.valor = valor;
+	}
+
+	public String getBooleanField() {
+		return booleanField;
+	}
+
+	public void setBooleanField(String booleanField) {
+		this.booleanField = booleanField;
+	}
+
+	public Calendar getCalendarField() {
+		return calendarField;
+	}
+
+	public void setCalendarField(Calendar calendarField) {
+		this.calendarField = calendarField;
+	}
+
+	public byte[] getByteField() {
+		return byteField;
+	}
+
+	public void setByteField(byte[] byteField) {
+		this.byteField = byteField;
+	}
+
+	public String getExtra() {
+		return extra;
+	}
+
+	public void setExtra(String extra) {
+		this.extra = extra;
+	}
+
+}
@@ -0,0 +1,38 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.util.List;
+import java.util.Map;
+
+public class ClasseDeTransferenciaComReferencias {
+
+	private String nome;
+
+	private List<ClasseDeTransferencia> filhos;
+
+	private Map<String, ClasseComReferencias> indice;
+
+	public String getNome() {
+		return nome;
+	}
+
+	public void setNome(String nome) {
+		this.nome = nome;
+	}
+
+	public List<ClasseDeTransferencia> getFilhos() {
+		return filhos;
+	}
+
+	public void setFilhos(List<ClasseDeTransferencia> filhos) {
+		this.filhos = filhos;
+	}
+
+	public Map<String, ClasseComReferencias> getIndice() {
+		return indice;
+	}
+
+	public void setIndice(Map<String, ClasseComReferencias> indice) {
+		this.indice = indice;
+	}
+
+}
@@ -0,0 +1,9 @@
+package br.com.brasilti.utils.reflection.examples;
+
+import java.io.Serializable;
+
+public interface InterfaceSerializavel extends Serializable {
+
+	String getDescricao();
+
+}